@@ -0,0 +1,248 @@
+package com.badlogic.gdx.ai.msg;
+
+import com.badlogic.gdx.utils.Pool;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@code ConcurrentMessageDispatcher} is a {@link MessageDispatcher} that any thread can post messages to, for instance the
+ * networking or worker threads of the game, without marshalling them through a runnable.
+ * <p>
+ * Posted messages are pushed into a lock-free multi-producer single-consumer inbox and are dispatched on the next call to
+ * {@link #update()}, which must be called from the thread owning the dispatcher, typically the render thread. Delivery is the same
+ * as for the messages sent through {@code dispatchMessage}: the delay of a posted message starts when the message is taken out of
+ * the inbox, then the message is discharged at once or stored in the queue of delayed telegrams. Messages posted by the same thread
+ * are dispatched in the order they were posted.
+ * <p>
+ * Each posting thread has its own pool of inbox entries, which are given back to it once their message has been taken out of the
+ * inbox, so posting messages doesn't contend on the pool of telegrams and creates no garbage in the long run.
+ * <p>
+ * Only the {@code post} methods are thread-safe. All the other methods, including {@code dispatchMessage} and the registration of
+ * listeners and providers, must be called from the thread calling {@link #update()}.
+ *
+ * 
+ */
+public class ConcurrentMessageDispatcher extends MessageDispatcher {
+
+    /**
+     * The first entry of the inbox, whose message has already been taken out. Only accessed by the consumer thread.
+     */
+    private Entry head;
+
+    /**
+     * The last entry of the inbox. Producer threads append their entries by swapping it.
+     */
+    private final AtomicReference<Entry> tail;
+
+    private final ThreadLocal<Producer> producers;
+
+    /**
+     * Creates a {@code ConcurrentMessageDispatcher}.
+     */
+    public ConcurrentMessageDispatcher() {
+        this(new Pool<Telegram>(16) {
+            @Override
+            protected Telegram newObject() {
+                return new Telegram();
+            }
+        });
+    }
+
+    /**
+     * Creates a {@code ConcurrentMessageDispatcher} using the given pool of telegrams.
+     *
+     * @param pool the pool of telegrams, only accessed by the thread calling {@link #update()}
+     */
+    public ConcurrentMessageDispatcher(Pool<Telegram> pool) {
+        this(pool, new HeapTelegramQueue());
+    }
+
+    /**
+     * Creates a {@code ConcurrentMessageDispatcher} storing its delayed telegrams into the given queue.
+     *
+     * @param pool  the pool of telegrams, only accessed by the thread calling {@link #update()}
+     * @param queue the queue of delayed telegrams
+     */
+    public ConcurrentMessageDispatcher(Pool<Telegram> pool, TelegramQueue queue) {
+        super(pool, queue);
+        this.head = new Entry(null);
+        this.tail = new AtomicReference<Entry>(head);
+        this.producers = new ThreadLocal<Producer>() {
+            @Override
+            protected Producer initialValue() {
+                return new Producer();
+            }
+        };
+    }
+
+    /**
+     * Posts an immediate message to all registered listeners, with no extra info. This method can be called from any thread.
+     *
+     * @param msg the message code
+     */
+    public void post(int msg) {
+        post(0f, null, null, msg, null, false);
+    }
+
+    /**
+     * Posts an immediate message to all registered listeners, with the given extra info. This method can be called from any thread.
+     *
+     * @param msg       the message code
+     * @param extraInfo an optional object
+     */
+    public void post(int msg, Object extraInfo) {
+        post(0f, null, null, msg, extraInfo, false);
+    }
+
+    /**
+     * Posts an immediate message to the specified receiver, with the given extra info. This method can be called from any thread.
+     *
+     * @param sender    the sender of the telegram
+     * @param receiver  the receiver of the telegram; if it's {@code null} the telegram is broadcasted to all the receivers
+     *                  registered for the specified message code
+     * @param msg       the message code
+     * @param extraInfo an optional object
+     */
+    public void post(Telegraph sender, Telegraph receiver, int msg, Object extraInfo) {
+        post(0f, sender, receiver, msg, extraInfo, false);
+    }
+
+    /**
+     * Posts a message to the specified receiver, with the given extra info. This method can be called from any thread.
+     *
+     * @param delay     the delay in seconds, counted from the update taking the message out of the inbox
+     * @param sender    the sender of the telegram
+     * @param receiver  the receiver of the telegram; if it's {@code null} the telegram is broadcasted to all the receivers
+     *                  registered for the specified message code
+     * @param msg       the message code
+     * @param extraInfo an optional object
+     */
+    public void post(float delay, Telegraph sender, Telegraph receiver, int msg, Object extraInfo) {
+        post(delay, sender, receiver, msg, extraInfo, false);
+    }
+
+    /**
+     * Posts a message to the specified receiver, with the given extra info. This method can be called from any thread.
+     *
+     * @param delay              the delay in seconds, counted from the update taking the message out of the inbox
+     * @param sender             the sender of the telegram
+     * @param receiver           the receiver of the telegram; if it's {@code null} the telegram is broadcasted to all the
+     *                           receivers registered for the specified message code
+     * @param msg                the message code
+     * @param extraInfo          an optional object
+     * @param needsReturnReceipt whether the return receipt is needed or not
+     * @throws IllegalArgumentException if the sender is {@code null} and the return receipt is needed
+     */
+    public void post(float delay, Telegraph sender, Telegraph receiver, int msg, Object extraInfo, boolean needsReturnReceipt) {
+        if (sender == null && needsReturnReceipt)
+            throw new IllegalArgumentException("Sender cannot be null when a return receipt is needed");
+
+        Entry entry = producers.get().obtain();
+        entry.delay = delay;
+        entry.sender = sender;
+        entry.receiver = receiver;
+        entry.message = msg;
+        entry.extraInfo = extraInfo;
+        entry.needsReturnReceipt = needsReturnReceipt;
+        entry.next = null;
+
+        // Append the entry; the consumer can't see it until the previous tail is linked to it
+        Entry previous = tail.getAndSet(entry);
+        previous.next = entry;
+    }
+
+    /**
+     * Dispatches the messages posted so far, then any delayed telegrams with a timestamp that has expired.
+     * <p>
+     * Messages posted while this method is running are dispatched on the next call.
+     */
+    @Override
+    public void update() {
+        Entry last = tail.get();
+        Entry next;
+        while (head != last && (next = head.next) != null) {
+            // The next entry becomes the head, so its references are cleared as soon as they're read
+            float delay = next.delay;
+            Telegraph sender = next.sender;
+            Telegraph receiver = next.receiver;
+            Object extraInfo = next.extraInfo;
+            next.sender = null;
+            next.receiver = null;
+            next.extraInfo = null;
+
+            // The old head is no longer reachable by producers, give it back to its pool
+            head.free();
+            head = next;
+
+            dispatchMessage(delay, sender, receiver, next.message, extraInfo, next.needsReturnReceipt);
+        }
+        super.update();
+    }
+
+    /**
+     * Removes all the posted messages not dispatched yet and all the telegrams from the queue.
+     */
+    @Override
+    public void clearQueue() {
+        Entry last = tail.get();
+        Entry next;
+        while (head != last && (next = head.next) != null) {
+            next.sender = null;
+            next.receiver = null;
+            next.extraInfo = null;
+            head.free();
+            head = next;
+        }
+        super.clearQueue();
+    }
+
+    /**
+     * An entry of the inbox, holding a posted message.
+     */
+    static class Entry {
+        final Producer owner;
+        volatile Entry next;
+        Entry nextFree;
+
+        float delay;
+        Telegraph sender;
+        Telegraph receiver;
+        int message;
+        Object extraInfo;
+        boolean needsReturnReceipt;
+
+        Entry(Producer owner) {
+            this.owner = owner;
+        }
+
+        void free() {
+            if (owner != null) owner.free(this);
+        }
+    }
+
+    /**
+     * The pool of inbox entries of a posting thread. Entries are obtained by the posting thread only and are given back by the
+     * consumer thread through a lock-free stack, which the posting thread takes all at once when its own free list is empty.
+     */
+    static class Producer {
+        private Entry freeEntries;
+        private final AtomicReference<Entry> returnedEntries = new AtomicReference<Entry>();
+
+        Entry obtain() {
+            if (freeEntries == null) freeEntries = returnedEntries.getAndSet(null);
+            if (freeEntries == null) return new Entry(this);
+            Entry entry = freeEntries;
+            freeEntries = entry.nextFree;
+            entry.nextFree = null;
+            return entry;
+        }
+
+        void free(Entry entry) {
+            Entry top;
+            do {
+                top = returnedEntries.get();
+                entry.nextFree = top;
+            } while (!returnedEntries.compareAndSet(top, entry));
+        }
+    }
+}
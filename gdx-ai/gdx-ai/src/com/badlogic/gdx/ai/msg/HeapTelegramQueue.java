@@ -0,0 +1,56 @@
+package com.badlogic.gdx.ai.msg;
+
+/**
+ * A {@code HeapTelegramQueue} is a {@link TelegramQueue} backed by a {@link PriorityQueue}. It takes O(log(n)) time to insert and
+ * to retrieve a telegram. This is the queue used by default by the {@link MessageDispatcher}.
+ *
+ * 
+ */
+public class HeapTelegramQueue implements TelegramQueue {
+
+    private final PriorityQueue<Telegram> queue;
+
+    /**
+     * Creates a {@code HeapTelegramQueue}.
+     */
+    public HeapTelegramQueue() {
+        this.queue = new PriorityQueue<Telegram>();
+    }
+
+    @Override
+    public boolean getUniqueness() {
+        return queue.getUniqueness();
+    }
+
+    @Override
+    public void setUniqueness(boolean uniqueness) {
+        queue.setUniqueness(uniqueness);
+    }
+
+    @Override
+    public boolean add(Telegram telegram) {
+        return queue.add(telegram);
+    }
+
+    @Override
+    public Telegram poll(float currentTime) {
+        Telegram telegram = queue.peek();
+        if (telegram == null || telegram.getTimestamp() > currentTime) return null;
+        return queue.poll();
+    }
+
+    @Override
+    public Telegram get(int index) {
+        return queue.get(index);
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+    }
+}
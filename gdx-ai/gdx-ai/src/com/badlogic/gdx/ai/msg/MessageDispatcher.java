@@ -25,7 +25,7 @@ public class MessageDispatcher implements Telegraph {
 
     private final Pool<Telegram> pool;
 
-    private final PriorityQueue<Telegram> queue;
+    private final TelegramQueue queue;
 
     private final IntMap<Array<Telegraph>> msgListeners;
 
@@ -41,10 +41,23 @@ public class MessageDispatcher implements Telegraph {
     }
 
     public MessageDispatcher(Pool<Telegram> pool) {
+        this(pool, new HeapTelegramQueue());
+    }
+
+    /**
+     * Creates a {@code MessageDispatcher} storing its delayed telegrams into the given queue. For instance, a
+     * {@link TimingWheelTelegramQueue} is faster than the default {@link HeapTelegramQueue} when many telegrams are pending.
+     *
+     * @param pool  the pool of telegrams
+     * @param queue the queue of delayed telegrams
+     */
+    public MessageDispatcher(Pool<Telegram> pool, TelegramQueue queue) {
         if (pool == null)
             throw new IllegalArgumentException("pool cannot be null");
+        if (queue == null)
+            throw new IllegalArgumentException("queue cannot be null");
         this.pool = pool;
-        this.queue = new PriorityQueue<Telegram>();
+        this.queue = queue;
         this.msgListeners = new IntMap<Array<Telegraph>>();
         this.msgProviders = new IntMap<Array<TelegramProvider>>();
     }
@@ -604,14 +617,11 @@ public class MessageDispatcher implements Telegraph {
     public void update() {
         float currentTime = GdxAI.getTimepiece().getTime();
 
-        // Peek at the queue to see if any telegrams need dispatching.
-        // Remove all telegrams from the front of the queue that have gone
-        // past their time stamp.
+        // Remove all telegrams from the queue that have gone past their time stamp.
+        // The telegram is removed from the queue before being discharged, since
+        // discharging it releases it to the pool.
         Telegram telegram;
-        while ((telegram = queue.peek()) != null) {
-
-            // Exit loop if the telegram is in the future
-            if (telegram.getTimestamp() > currentTime) break;
+        while ((telegram = queue.poll(currentTime)) != null) {
 
             if (debugEnabled) {
                 GdxAI.getLogger().info(LOG_TAG,
@@ -620,9 +630,6 @@ public class MessageDispatcher implements Telegraph {
 
             // Send the telegram to the recipient
             discharge(telegram);
-
-            // Remove it from the queue
-            queue.poll();
         }
     }
 
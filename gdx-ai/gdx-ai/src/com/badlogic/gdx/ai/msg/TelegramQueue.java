@@ -0,0 +1,62 @@
+package com.badlogic.gdx.ai.msg;
+
+/**
+ * A {@code TelegramQueue} holds the delayed telegrams of a {@link MessageDispatcher} until their time stamp expires. The queue
+ * decides how pending telegrams are stored, so the dispatcher can trade the simplicity of a {@link HeapTelegramQueue binary heap}
+ * for the constant time insertion and expiry of a {@link TimingWheelTelegramQueue timing wheel} when many telegrams are pending.
+ * <p>
+ * Like {@link PriorityQueue}, a telegram queue can be set to accept or reject the insertion of telegrams equal to a pending one
+ * through the method {@code setUniqueness}. Uniqueness is disabled by default.
+ *
+ * 
+ */
+public interface TelegramQueue {
+
+    /**
+     * Returns a value indicating whether only unique telegrams are allowed to be inserted.
+     */
+    boolean getUniqueness();
+
+    /**
+     * Sets a flag indicating whether only unique telegrams are allowed to be inserted.
+     */
+    void setUniqueness(boolean uniqueness);
+
+    /**
+     * Inserts the specified telegram into this queue. If {@code uniqueness} is enabled and this queue already contains the
+     * telegram, the call leaves the queue unchanged and returns false.
+     *
+     * @param telegram the telegram to insert
+     * @return true if the telegram was added to this queue, else false
+     * @throws IllegalArgumentException if the specified telegram is null
+     */
+    boolean add(Telegram telegram);
+
+    /**
+     * Retrieves and removes the telegram with the smallest time stamp, provided that its time stamp is not greater than the given
+     * time. Telegrams with the same time stamp are retrieved in no particular order.
+     *
+     * @param currentTime the current AI time
+     * @return the expired telegram with the smallest time stamp, or {@code null} if no telegram has expired.
+     */
+    Telegram poll(float currentTime);
+
+    /**
+     * Retrieves the telegram at the specified index. If such a telegram doesn't exist {@code null} is returned.
+     * <p>
+     * Iterating the queue by index is <em>not</em> guaranteed to traverse the telegrams in any particular order.
+     *
+     * @return the telegram at the specified index in this queue.
+     */
+    Telegram get(int index);
+
+    /**
+     * Returns the number of telegrams in this queue.
+     */
+    int size();
+
+    /**
+     * Removes all of the telegrams from this queue. The queue will be empty after this call returns.
+     */
+    void clear();
+}
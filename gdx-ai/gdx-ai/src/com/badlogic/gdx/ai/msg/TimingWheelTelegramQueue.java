@@ -0,0 +1,245 @@
+package com.badlogic.gdx.ai.msg;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectSet;
+
+/**
+ * A {@code TimingWheelTelegramQueue} is a {@link TelegramQueue} organized as a hierarchical timing wheel, which takes constant
+ * amortized time to insert a telegram and to retrieve it once expired, no matter how many telegrams are pending.
+ * <p>
+ * Time is divided into ticks of a fixed duration. The wheel is made of several levels of 64 slots each: a slot of the first level
+ * holds the telegrams expiring on a single tick, a slot of the second level those expiring within 64 ticks, a slot of the third
+ * level those expiring within 4096 ticks and so on. A telegram is inserted into the slot of the lowest level that can hold it
+ * without wrapping around. As time goes by, the slots left behind are emptied at once and the slot reached on a higher level is
+ * cascaded into the lower levels, so a telegram is moved at most a few times before expiring. Telegrams whose tick has been
+ * reached are sorted by a small {@link PriorityQueue}, so they are retrieved in the order of their time stamp and only once it has
+ * expired, exactly like from a {@link HeapTelegramQueue}.
+ * <p>
+ * The tick duration doesn't affect when telegrams are dispatched, only how they are grouped. Short ticks keep few telegrams in the
+ * priority queue, long ticks avoid cascading telegrams that are delayed by much more than the frame duration. A tick of about a
+ * frame is usually a good choice.
+ *
+ * 
+ */
+public class TimingWheelTelegramQueue implements TelegramQueue {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = (Long.SIZE + SLOT_BITS - 1) / SLOT_BITS;
+
+    private final float tickDuration;
+
+    /**
+     * The slots of all the levels, the slots of a level being contiguous. Slots are created the first time they are needed.
+     */
+    private final Array<Telegram>[] slots;
+
+    /**
+     * For each level, a bit mask of its slots holding at least one telegram.
+     */
+    private final long[] occupiedSlots;
+
+    /**
+     * The telegrams whose tick has been reached, ordered by time stamp.
+     */
+    private final PriorityQueue<Telegram> dueQueue;
+
+    /**
+     * A set used to check telegrams'uniqueness (if enabled).
+     */
+    private final ObjectSet<Telegram> set;
+
+    /**
+     * A flag indicating whether telegrams inserted into the queue must be unique.
+     */
+    private boolean uniqueness;
+
+    /**
+     * The last tick reached. All the telegrams expiring on or before it are in the due queue.
+     */
+    private long currentTick;
+
+    /**
+     * The number of telegrams in the slots.
+     */
+    private int wheelSize;
+
+    /**
+     * The telegrams in the slots, collected the first time they are retrieved by index after the queue has changed.
+     */
+    private final Array<Telegram> wheelTelegrams;
+    private boolean wheelTelegramsDirty;
+
+    /**
+     * Creates a {@code TimingWheelTelegramQueue} with ticks of 1/60 of second.
+     */
+    public TimingWheelTelegramQueue() {
+        this(1f / 60f);
+    }
+
+    /**
+     * Creates a {@code TimingWheelTelegramQueue} with the specified tick duration.
+     *
+     * @param tickDuration the duration of a tick in seconds
+     * @throws IllegalArgumentException if {@code tickDuration} is not positive.
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheelTelegramQueue(float tickDuration) {
+        if (!(tickDuration > 0)) throw new IllegalArgumentException("The tick duration must be positive: " + tickDuration);
+        this.tickDuration = tickDuration;
+        this.slots = new Array[LEVELS * SLOTS];
+        this.occupiedSlots = new long[LEVELS];
+        this.dueQueue = new PriorityQueue<Telegram>();
+        this.set = new ObjectSet<Telegram>();
+        this.wheelTelegrams = new Array<Telegram>();
+    }
+
+    /**
+     * Returns the duration of a tick in seconds.
+     */
+    public float getTickDuration() {
+        return tickDuration;
+    }
+
+    @Override
+    public boolean getUniqueness() {
+        return uniqueness;
+    }
+
+    @Override
+    public void setUniqueness(boolean uniqueness) {
+        this.uniqueness = uniqueness;
+    }
+
+    @Override
+    public boolean add(Telegram telegram) {
+        if (telegram == null) throw new IllegalArgumentException("Telegram cannot be null.");
+        if (uniqueness && !set.add(telegram)) return false;
+        schedule(telegram);
+        wheelTelegramsDirty = true;
+        return true;
+    }
+
+    @Override
+    public Telegram poll(float currentTime) {
+        advance(getTick(currentTime));
+        Telegram telegram = dueQueue.peek();
+        if (telegram == null || telegram.getTimestamp() > currentTime) return null;
+        dueQueue.poll();
+        if (uniqueness) set.remove(telegram);
+        wheelTelegramsDirty = true;
+        return telegram;
+    }
+
+    @Override
+    public Telegram get(int index) {
+        if (index < dueQueue.size()) return dueQueue.get(index);
+        index -= dueQueue.size();
+        if (index >= wheelSize) return null;
+        if (wheelTelegramsDirty) {
+            wheelTelegrams.clear();
+            for (int level = 0; level < LEVELS; level++) {
+                for (long mask = occupiedSlots[level]; mask != 0; mask &= mask - 1) {
+                    Array<Telegram> slot = slots[level * SLOTS + Long.numberOfTrailingZeros(mask)];
+                    for (int i = 0; i < slot.size; i++)
+                        wheelTelegrams.add(slot.get(i));
+                }
+            }
+            wheelTelegramsDirty = false;
+        }
+        return wheelTelegrams.get(index);
+    }
+
+    @Override
+    public int size() {
+        return dueQueue.size() + wheelSize;
+    }
+
+    @Override
+    public void clear() {
+        for (int level = 0; level < LEVELS; level++) {
+            for (long mask = occupiedSlots[level]; mask != 0; mask &= mask - 1)
+                slots[level * SLOTS + Long.numberOfTrailingZeros(mask)].clear();
+            occupiedSlots[level] = 0;
+        }
+        wheelSize = 0;
+        wheelTelegrams.clear();
+        wheelTelegramsDirty = false;
+        dueQueue.clear();
+        set.clear();
+    }
+
+    /**
+     * Returns the tick of the given time. Times before 0 fall on the tick 0.
+     */
+    private long getTick(float time) {
+        return Math.max((long)Math.floor(time / tickDuration), 0L);
+    }
+
+    /**
+     * Puts the given telegram into the due queue if its tick has been reached, or into the slot of the lowest level that can hold
+     * it otherwise.
+     */
+    private void schedule(Telegram telegram) {
+        long tick = getTick(telegram.getTimestamp());
+        if (tick <= currentTick) {
+            dueQueue.add(telegram);
+            return;
+        }
+
+        // The level is given by the highest group of bits where the tick differs from the current one
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(tick ^ currentTick)) / SLOT_BITS;
+        int slotIndex = (int)(tick >>> (level * SLOT_BITS)) & SLOT_MASK;
+        Array<Telegram> slot = slots[level * SLOTS + slotIndex];
+        if (slot == null) {
+            slot = new Array<Telegram>(false, 16);
+            slots[level * SLOTS + slotIndex] = slot;
+        }
+        slot.add(telegram);
+        occupiedSlots[level] |= 1L << slotIndex;
+        wheelSize++;
+    }
+
+    /**
+     * Advances the wheel to the given tick, moving the telegrams expiring on or before it into the due queue.
+     */
+    private void advance(long tick) {
+        if (tick <= currentTick) return;
+        int topLevel = (Long.SIZE - 1 - Long.numberOfLeadingZeros(tick ^ currentTick)) / SLOT_BITS;
+        currentTick = tick;
+
+        // Lower levels only hold telegrams expiring before the new tick
+        for (int level = 0; level < topLevel; level++)
+            expire(level, occupiedSlots[level]);
+
+        // On the top level, the slots before the one of the new tick have expired and that slot has to be cascaded,
+        // while the slots after it are still valid
+        int slotIndex = (int)(tick >>> (topLevel * SLOT_BITS)) & SLOT_MASK;
+        expire(topLevel, occupiedSlots[topLevel] & ((1L << slotIndex) - 1));
+        if ((occupiedSlots[topLevel] & (1L << slotIndex)) != 0) {
+            Array<Telegram> slot = slots[topLevel * SLOTS + slotIndex];
+            occupiedSlots[topLevel] &= ~(1L << slotIndex);
+            wheelSize -= slot.size;
+            for (int i = 0; i < slot.size; i++)
+                schedule(slot.get(i));
+            slot.clear();
+        }
+        wheelTelegramsDirty = true;
+    }
+
+    /**
+     * Moves the telegrams of the slots of the given level selected by the given bit mask into the due queue.
+     */
+    private void expire(int level, long mask) {
+        for (; mask != 0; mask &= mask - 1) {
+            int slotIndex = Long.numberOfTrailingZeros(mask);
+            Array<Telegram> slot = slots[level * SLOTS + slotIndex];
+            for (int i = 0; i < slot.size; i++)
+                dueQueue.add(slot.get(i));
+            wheelSize -= slot.size;
+            slot.clear();
+            occupiedSlots[level] &= ~(1L << slotIndex);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.badlogic.gdx.ai.pfa;
+
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.ai.pfa.indexed.ReversibleIndexedGraph;
+import com.badlogic.gdx.ai.utils.IndexedDaryHeap;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.SerializationException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A {@link Heuristic} based on landmarks and the triangle inequality, also known as ALT (A*, Landmarks, Triangle inequality).
+ * <p>
+ * A few nodes of the graph are picked as landmarks and the exact cost between each landmark and every node is precomputed. Since
+ * for any landmark L the cost from node u to node t is at least {@code cost(L, t) - cost(L, u)} and at least
+ * {@code cost(u, L) - cost(t, L)}, the estimate is the largest of these bounds over all the landmarks. Unlike geometric
+ * heuristics, the estimate takes obstacles and connection costs into account, so it's much tighter on graphs whose costs vary a
+ * lot and A* expands far fewer nodes. The estimate is always admissible and consistent.
+ * <p>
+ * Landmarks are selected by farthest-point selection: each landmark is the node whose cost from the closest landmark already
+ * picked is the highest, so landmarks end up spread along the borders of the graph, which is where they're most useful. Costs
+ * to landmarks are computed on incoming connections when the graph is a {@link ReversibleIndexedGraph}; otherwise the graph is
+ * assumed to be undirected, meaning that for each connection from A to B there's a connection from B to A with the same cost.
+ * <p>
+ * Costs are stored in {@code float} arrays holding the costs of all the landmarks for a node next to each other. Since the
+ * precomputation runs a Dijkstra search from each landmark, it can be done offline: use {@link #write(FileHandle)} to save the
+ * tables and {@link #read(IndexedGraph, FileHandle)} to load them when the level is loaded.
+ *
+ * @param <N> Type of node
+ *
+ */
+public class ALTHeuristic<N> implements Heuristic<N> {
+    private static final float INFINITY = Float.POSITIVE_INFINITY;
+
+    private static final int MAGIC = 0x414c5448; // "ALTH"
+    private static final int VERSION = 1;
+
+    IndexedGraph<N> graph;
+    int landmarkCount;
+    int[] landmarks;
+    float[] fromLandmarks;
+    float[] toLandmarks;
+
+    /**
+     * Creates an {@code ALTHeuristic} selecting the given number of landmarks among the nodes reachable from the given seed node
+     * and precomputing the costs between them and every node of the graph.
+     *
+     * @param graph         the graph
+     * @param seedNode      the node the landmark selection starts from; nodes not reachable from it are ignored
+     * @param landmarkCount the number of landmarks
+     * @throws IllegalArgumentException if {@code landmarkCount} is less than 1.
+     */
+    @SuppressWarnings("unchecked")
+    public ALTHeuristic(IndexedGraph<N> graph, N seedNode, int landmarkCount) {
+        if (landmarkCount < 1) throw new IllegalArgumentException("landmarkCount must be at least 1");
+        int nodeCount = graph.getNodeCount();
+        boolean directed = graph instanceof ReversibleIndexedGraph;
+        this.graph = graph;
+        this.landmarkCount = landmarkCount;
+        this.landmarks = new int[landmarkCount];
+        this.fromLandmarks = new float[nodeCount * landmarkCount];
+        this.toLandmarks = directed ? new float[nodeCount * landmarkCount] : fromLandmarks;
+
+        // Search state used only while precomputing
+        N[] nodes = (N[]) new Object[nodeCount];
+        float[] costs = new float[nodeCount];
+        float[] minCosts = new float[nodeCount];
+        IndexedDaryHeap openList = new IndexedDaryHeap(nodeCount);
+
+        // The first landmark is the node farthest from the seed node
+        nodes[graph.getIndex(seedNode)] = seedNode;
+        search(seedNode, false, nodes, costs, openList);
+        for (int i = 0; i < nodeCount; i++)
+            minCosts[i] = costs[i];
+
+        for (int l = 0; l < landmarkCount; l++) {
+            int landmark = farthestNode(nodes, minCosts);
+            landmarks[l] = landmark;
+            minCosts[landmark] = 0;
+
+            search(nodes[landmark], false, nodes, costs, openList);
+            for (int i = 0; i < nodeCount; i++) {
+                fromLandmarks[i * landmarkCount + l] = costs[i];
+                if (costs[i] < minCosts[i]) minCosts[i] = costs[i];
+            }
+
+            if (directed) {
+                search(nodes[landmark], true, nodes, costs, openList);
+                for (int i = 0; i < nodeCount; i++)
+                    toLandmarks[i * landmarkCount + l] = costs[i];
+            }
+        }
+    }
+
+    private ALTHeuristic(IndexedGraph<N> graph, int[] landmarks, float[] fromLandmarks, float[] toLandmarks) {
+        this.graph = graph;
+        this.landmarkCount = landmarks.length;
+        this.landmarks = landmarks;
+        this.fromLandmarks = fromLandmarks;
+        this.toLandmarks = toLandmarks;
+    }
+
+    @Override
+    public float estimate(N node, N endNode) {
+        int k = landmarkCount;
+        float[] fromLandmarks = this.fromLandmarks, toLandmarks = this.toLandmarks;
+        int u = graph.getIndex(node) * k;
+        int t = graph.getIndex(endNode) * k;
+        float estimate = 0;
+        for (int l = 0; l < k; l++) {
+            // When a cost is infinite the difference is either NaN (both costs infinite) or -INF, which fail the comparisons so
+            // the landmark is ignored, or +INF. The latter is still admissible: a landmark reaching the node but not the end node
+            // (or reached from the end node but not from the node) means that the end node can't be reached from the node
+            float cost = fromLandmarks[t + l] - fromLandmarks[u + l];
+            if (cost > estimate) estimate = cost;
+            cost = toLandmarks[u + l] - toLandmarks[t + l];
+            if (cost > estimate) estimate = cost;
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the number of landmarks.
+     */
+    public int getLandmarkCount() {
+        return landmarkCount;
+    }
+
+    /**
+     * Returns the index of the given landmark.
+     *
+     * @param landmark the landmark, in the range [0, {@link #getLandmarkCount()})
+     */
+    public int getLandmarkIndex(int landmark) {
+        return landmarks[landmark];
+    }
+
+    /**
+     * Writes the precomputed tables to the given file.
+     *
+     * @param file the file
+     * @throws SerializationException if the file cannot be written.
+     */
+    public void write(FileHandle file) {
+        try {
+            write(file.write(false));
+        } catch (Exception ex) {
+            throw new SerializationException("Error writing file: " + file, ex);
+        }
+    }
+
+    /**
+     * Writes the precomputed tables to the given output stream. The stream is closed.
+     *
+     * @param output the output stream
+     * @throws SerializationException if the tables cannot be written.
+     */
+    public void write(OutputStream output) {
+        DataOutputStream data = null;
+        try {
+            data = new DataOutputStream(new BufferedOutputStream(output));
+            boolean directed = toLandmarks != fromLandmarks;
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeInt(graph.getNodeCount());
+            data.writeInt(landmarkCount);
+            data.writeBoolean(directed);
+            for (int l = 0; l < landmarkCount; l++)
+                data.writeInt(landmarks[l]);
+            writeTable(data, fromLandmarks);
+            if (directed) writeTable(data, toLandmarks);
+            data.flush();
+        } catch (IOException ex) {
+            throw new SerializationException(ex);
+        } finally {
+            StreamUtils.closeQuietly(data);
+            StreamUtils.closeQuietly(output);
+        }
+    }
+
+    /**
+     * Reads the tables previously written by {@link #write(FileHandle)} from the given file.
+     *
+     * @param graph the graph the tables have been computed for
+     * @param file  the file
+     * @return the heuristic.
+     * @throws SerializationException if the file cannot be read or doesn't match the graph.
+     */
+    public static <N> ALTHeuristic<N> read(IndexedGraph<N> graph, FileHandle file) {
+        try {
+            return read(graph, file.read());
+        } catch (Exception ex) {
+            throw new SerializationException("Error reading file: " + file, ex);
+        }
+    }
+
+    /**
+     * Reads the tables previously written by {@link #write(OutputStream)} from the given input stream. The stream is closed.
+     *
+     * @param graph the graph the tables have been computed for
+     * @param input the input stream
+     * @return the heuristic.
+     * @throws SerializationException if the tables cannot be read or don't match the graph.
+     */
+    public static <N> ALTHeuristic<N> read(IndexedGraph<N> graph, InputStream input) {
+        DataInputStream data = null;
+        try {
+            data = new DataInputStream(new BufferedInputStream(input));
+            if (data.readInt() != MAGIC) throw new SerializationException("Not a landmark table");
+            int version = data.readInt();
+            if (version != VERSION) throw new SerializationException("Unsupported version: " + version);
+            int nodeCount = data.readInt();
+            if (nodeCount != graph.getNodeCount())
+                throw new SerializationException("Expected " + graph.getNodeCount() + " nodes, found " + nodeCount);
+            int landmarkCount = data.readInt();
+            if (landmarkCount <= 0 || landmarkCount > nodeCount || landmarkCount > Integer.MAX_VALUE / nodeCount)
+                throw new SerializationException("Invalid landmark count: " + landmarkCount);
+            boolean directed = data.readBoolean();
+            int[] landmarks = new int[landmarkCount];
+            for (int l = 0; l < landmarkCount; l++) {
+                landmarks[l] = data.readInt();
+                if (landmarks[l] < 0 || landmarks[l] >= nodeCount)
+                    throw new SerializationException("Invalid landmark index: " + landmarks[l]);
+            }
+            float[] fromLandmarks = readTable(data, nodeCount * landmarkCount);
+            float[] toLandmarks = directed ? readTable(data, nodeCount * landmarkCount) : fromLandmarks;
+            return new ALTHeuristic<N>(graph, landmarks, fromLandmarks, toLandmarks);
+        } catch (IOException ex) {
+            throw new SerializationException(ex);
+        } finally {
+            StreamUtils.closeQuietly(data);
+            StreamUtils.closeQuietly(input);
+        }
+    }
+
+    private static void writeTable(DataOutputStream data, float[] table) throws IOException {
+        for (int i = 0; i < table.length; i++)
+            data.writeFloat(table[i]);
+    }
+
+    private static float[] readTable(DataInputStream data, int length) throws IOException {
+        float[] table = new float[length];
+        for (int i = 0; i < length; i++)
+            table[i] = data.readFloat();
+        return table;
+    }
+
+    /**
+     * Returns the index of the node with the highest finite cost.
+     */
+    private int farthestNode(N[] nodes, float[] costs) {
+        int farthest = -1;
+        float farthestCost = -1;
+        for (int i = 0; i < costs.length; i++) {
+            if (nodes[i] != null && costs[i] != INFINITY && costs[i] > farthestCost) {
+                farthest = i;
+                farthestCost = costs[i];
+            }
+        }
+        return farthest;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the given source, following incoming connections if {@code reverse} is {@code true}, and
+     * stores the cost of every node into {@code costs}. Unreachable nodes have an infinite cost.
+     */
+    private void search(N source, boolean reverse, N[] nodes, float[] costs, IndexedDaryHeap openList) {
+        for (int i = 0; i < costs.length; i++)
+            costs[i] = INFINITY;
+        openList.clear();
+        int sourceIndex = graph.getIndex(source);
+        costs[sourceIndex] = 0;
+        openList.add(sourceIndex, 0);
+        while (!openList.isEmpty()) {
+            int current = openList.pop();
+            float currentCost = costs[current];
+            Array<Connection<N>> connections = reverse ? ((ReversibleIndexedGraph<N>) graph).getIncomingConnections(nodes[current])
+                    : graph.getConnections(nodes[current]);
+            for (int i = 0; i < connections.size; i++) {
+                Connection<N> connection = connections.get(i);
+                N node = reverse ? connection.getFromNode() : connection.getToNode();
+                int index = graph.getIndex(node);
+                float cost = currentCost + connection.getCost();
+                if (cost >= costs[index]) continue;
+                nodes[index] = node;
+                costs[index] = cost;
+                openList.add(index, cost);
+            }
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.badlogic.gdx.ai.pfa;
+
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * A {@link PathFinder} decorator that memoises the paths found by another path finder in a bounded least-recently-used cache
+ * keyed by the {@link IndexedGraph#getIndex(Object) indices} of the start and end nodes. It's meant for games where many agents
+ * repeatedly ask for the same paths, for instance between a few spawn points and a few objectives.
+ * <p>
+ * Only successful searches are cached and the heuristic is not part of the key, so the decorated path finder is assumed to always
+ * return equally good paths for the same pair of nodes.
+ * <p>
+ * When the graph changes you have to call {@link #invalidate(Object)} for each changed node: cached paths going through it are
+ * dropped the next time they're looked up. Invalidation costs O(1) per node since each cached path remembers when it was stored
+ * and each node when it last changed. Use {@link #invalidateAll()} when a change may create new shortcuts, since paths that
+ * don't go through the changed nodes may no longer be optimal.
+ *
+ * @param <N> Type of node
+ *
+ */
+public class CachingPathFinder<N> implements PathFinder<N> {
+
+    IndexedGraph<N> graph;
+    PathFinder<N> pathFinder;
+    int capacity;
+    LongMap<Entry<N>> entries;
+    Entry<N> head; // most recently used
+    Entry<N> tail; // least recently used
+    Entry<N> freeEntries;
+    int[] nodeChangeTimes;
+    int time;
+
+    /**
+     * A flag telling whether the current interruptible request missed the cache and has been delegated.
+     */
+    boolean delegating;
+
+    public final Statistics statistics;
+
+    /**
+     * Creates a {@code CachingPathFinder}.
+     *
+     * @param graph      the graph
+     * @param pathFinder the decorated path finder
+     * @param capacity   the maximum number of cached paths
+     * @throws IllegalArgumentException if {@code capacity} is less than 1.
+     */
+    public CachingPathFinder(IndexedGraph<N> graph, PathFinder<N> pathFinder, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be at least 1");
+        this.graph = graph;
+        this.pathFinder = pathFinder;
+        this.capacity = capacity;
+        this.entries = new LongMap<Entry<N>>(capacity);
+        this.nodeChangeTimes = new int[graph.getNodeCount()];
+        this.time = 1;
+        this.statistics = new Statistics();
+    }
+
+    @Override
+    public boolean searchConnectionPath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<Connection<N>> outPath) {
+        long key = key(startNode, endNode);
+        Entry<N> entry = lookup(key, true);
+        if (entry != null) {
+            Array<Connection<N>> connections = entry.connections;
+            for (int i = 0; i < connections.size; i++)
+                outPath.add(connections.get(i));
+            return true;
+        }
+
+        int offset = outPath.getCount();
+        if (!pathFinder.searchConnectionPath(startNode, endNode, heuristic, outPath)) return false;
+
+        entry = store(key);
+        entry.hasConnections = true;
+        entry.nodes.add(startNode);
+        for (int i = offset, n = outPath.getCount(); i < n; i++) {
+            Connection<N> connection = outPath.get(i);
+            entry.connections.add(connection);
+            entry.nodes.add(connection.getToNode());
+        }
+        return true;
+    }
+
+    @Override
+    public boolean searchNodePath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<N> outPath) {
+        long key = key(startNode, endNode);
+        Entry<N> entry = lookup(key, false);
+        if (entry != null) {
+            copyNodes(entry, outPath);
+            return true;
+        }
+
+        int offset = outPath.getCount();
+        if (!pathFinder.searchNodePath(startNode, endNode, heuristic, outPath)) return false;
+
+        storeNodes(key, outPath, offset);
+        return true;
+    }
+
+    @Override
+    public boolean search(PathFinderRequest<N> request, long timeToRun) {
+        if (request.statusChanged) {
+            Entry<N> entry = lookup(key(request.startNode, request.endNode), false);
+            if (entry != null) {
+                request.statusChanged = false;
+                request.pathFound = true;
+                copyNodes(entry, request.resultPath);
+                delegating = false;
+                return true;
+            }
+            delegating = true;
+        }
+
+        // The decorated path finder will initialize the search since the status is still changed
+        if (!pathFinder.search(request, timeToRun)) return false;
+
+        if (delegating && request.pathFound) storeNodes(key(request.startNode, request.endNode), request.resultPath, 0);
+        delegating = false;
+        return true;
+    }
+
+    /**
+     * Notifies this cache that the given node has changed, so that all the cached paths going through it will be dropped.
+     *
+     * @param node the changed node
+     */
+    public void invalidate(N node) {
+        nodeChangeTimes[graph.getIndex(node)] = time;
+    }
+
+    /**
+     * Notifies this cache that the given nodes have changed, so that all the cached paths going through them will be dropped.
+     *
+     * @param nodes the changed nodes
+     */
+    public void invalidate(Array<N> nodes) {
+        for (int i = 0; i < nodes.size; i++)
+            nodeChangeTimes[graph.getIndex(nodes.get(i))] = time;
+    }
+
+    /**
+     * Drops all the cached paths.
+     */
+    public void invalidateAll() {
+        while (tail != null)
+            free(tail);
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of cached paths, including the ones that are invalid but have not been dropped yet.
+     */
+    public int size() {
+        return entries.size;
+    }
+
+    private long key(N startNode, N endNode) {
+        return ((long) graph.getIndex(startNode) << 32) | (graph.getIndex(endNode) & 0xffffffffL);
+    }
+
+    /**
+     * Returns the valid entry for the given key or {@code null} if there's none. Invalid entries are dropped.
+     */
+    private Entry<N> lookup(long key, boolean needsConnections) {
+        Entry<N> entry = entries.get(key);
+        if (entry == null || (needsConnections && !entry.hasConnections)) {
+            statistics.misses++;
+            return null;
+        }
+
+        // Drop the entry if any of its nodes changed after it was stored
+        Array<N> nodes = entry.nodes;
+        for (int i = 0; i < nodes.size; i++) {
+            if (nodeChangeTimes[graph.getIndex(nodes.get(i))] >= entry.time) {
+                entries.remove(key);
+                free(entry);
+                statistics.invalidations++;
+                statistics.misses++;
+                return null;
+            }
+        }
+
+        // Move the entry to the head of the list
+        if (entry != head) {
+            unlink(entry);
+            linkFirst(entry);
+        }
+        statistics.hits++;
+        return entry;
+    }
+
+    private void storeNodes(long key, GraphPath<N> path, int offset) {
+        Entry<N> entry = store(key);
+        for (int i = offset, n = path.getCount(); i < n; i++)
+            entry.nodes.add(path.get(i));
+    }
+
+    /**
+     * Returns an empty entry for the given key, replacing the previous one or evicting the least recently used if needed.
+     */
+    private Entry<N> store(long key) {
+        Entry<N> entry = entries.remove(key);
+        if (entry != null) {
+            free(entry);
+        } else if (entries.size >= capacity) {
+            Entry<N> evicted = tail;
+            entries.remove(evicted.key);
+            free(evicted);
+            statistics.evictions++;
+        }
+
+        // Take an entry from the free list, if any
+        entry = freeEntries;
+        if (entry != null)
+            freeEntries = entry.next;
+        else
+            entry = new Entry<N>();
+        if (time == Integer.MAX_VALUE) resetTime();
+        entry.key = key;
+        entry.time = ++time;
+        entry.hasConnections = false;
+        linkFirst(entry);
+        entries.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * Drops all the cached paths and restarts the clock, so that entry and node times never overflow.
+     */
+    private void resetTime() {
+        invalidateAll();
+        for (int i = 0; i < nodeChangeTimes.length; i++)
+            nodeChangeTimes[i] = 0;
+        time = 1;
+    }
+
+    private void free(Entry<N> entry) {
+        unlink(entry);
+        entry.nodes.clear();
+        entry.connections.clear();
+        entry.next = freeEntries;
+        freeEntries = entry;
+    }
+
+    private void linkFirst(Entry<N> entry) {
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) head.prev = entry;
+        head = entry;
+        if (tail == null) tail = entry;
+    }
+
+    private void unlink(Entry<N> entry) {
+        if (entry.prev != null)
+            entry.prev.next = entry.next;
+        else
+            head = entry.next;
+        if (entry.next != null)
+            entry.next.prev = entry.prev;
+        else
+            tail = entry.prev;
+        entry.prev = entry.next = null;
+    }
+
+    private static <N> void copyNodes(Entry<N> entry, GraphPath<N> outPath) {
+        Array<N> nodes = entry.nodes;
+        for (int i = 0; i < nodes.size; i++)
+            outPath.add(nodes.get(i));
+    }
+
+    static class Entry<N> {
+        long key;
+        int time;
+        boolean hasConnections;
+        final Array<N> nodes = new Array<N>();
+        final Array<Connection<N>> connections = new Array<Connection<N>>();
+        Entry<N> prev;
+        Entry<N> next;
+    }
+
+    /**
+     * A class used by {@link CachingPathFinder} to collect cache statistics.
+     *
+     *
+     */
+    public static class Statistics {
+        public int hits;
+        public int misses;
+        public int evictions;
+        public int invalidations;
+
+        public Statistics() {
+        }
+
+        public void reset() {
+            hits = 0;
+            misses = 0;
+            evictions = 0;
+            invalidations = 0;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.badlogic.gdx.ai.pfa;
+
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import com.badlogic.gdx.ai.msg.MessageManager;
+import com.badlogic.gdx.ai.msg.Telegram;
+import com.badlogic.gdx.ai.msg.Telegraph;
+import com.badlogic.gdx.ai.sched.Schedulable;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A {@code ConcurrentPathFinderService} serves {@link PathFinderRequest pathfinding requests} on a pool of worker threads. It's
+ * the multi-threaded counterpart of the {@link PathFinderQueue}: instead of advancing one request at a time within the frame
+ * budget of the game thread, requests are spread across the workers and searched to completion in parallel.
+ * <p>
+ * Each worker owns its own {@link PathFinder}, created through a {@link PathFinderFactory}, so that node records are never shared
+ * between threads. This means the graph and the heuristics must be safe for concurrent reads, i.e. they must not change while
+ * requests are being served.
+ * <p>
+ * Requests can be submitted from any thread through {@link #submit(PathFinderRequest, Telegraph)} or, like for the
+ * {@link PathFinderQueue}, by sending them as extra info of a telegram handled by this service. Completed requests are collected
+ * and delivered on the thread calling {@link #update()} or {@link #run(long)}, typically the render thread: the optional
+ * {@link Callback} is notified first, then a message with the request's {@link PathFinderRequest#responseMessageCode response
+ * code} is dispatched to the {@link PathFinderRequest#client client}, if any, through the request's dispatcher.
+ * <p>
+ * Note that {@link PathFinderRequest#initializeSearch(long)}, {@link PathFinderRequest#search(PathFinder, long)} and
+ * {@link PathFinderRequest#finalizeSearch(long)} are invoked by the worker threads without time limits.
+ *
+ * @param <N> Type of node
+ *
+ */
+public class ConcurrentPathFinderService<N> implements Schedulable, Telegraph, Disposable {
+
+    private static final String TAG = "ConcurrentPathFinderService";
+
+    private final BlockingQueue<PathFinderRequest<N>> pendingRequests;
+    private final ConcurrentLinkedQueue<PathFinderRequest<N>> completedRequests;
+    final Thread[] workers;
+    private volatile boolean running;
+
+    /**
+     * The callback notified on the delivering thread when a request has been served; can be {@code null}.
+     */
+    public Callback<N> callback;
+
+    /**
+     * Creates a {@code ConcurrentPathFinderService} with one worker per available processor.
+     *
+     * @param factory the factory creating the path finder of each worker
+     */
+    public ConcurrentPathFinderService(PathFinderFactory<N> factory) {
+        this(factory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a {@code ConcurrentPathFinderService} with the given number of workers.
+     *
+     * @param factory     the factory creating the path finder of each worker
+     * @param threadCount the number of worker threads
+     * @throws IllegalArgumentException if {@code threadCount} is less than 1.
+     */
+    public ConcurrentPathFinderService(PathFinderFactory<N> factory, int threadCount) {
+        if (threadCount < 1) throw new IllegalArgumentException("threadCount must be at least 1");
+        this.pendingRequests = new LinkedBlockingQueue<PathFinderRequest<N>>();
+        this.completedRequests = new ConcurrentLinkedQueue<PathFinderRequest<N>>();
+        this.running = true;
+        this.workers = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            Thread worker = new Thread(new Worker(factory.newPathFinder()), "PathFinderWorker-" + i);
+            worker.setDaemon(true);
+            workers[i] = worker;
+            worker.start();
+        }
+    }
+
+    /**
+     * Returns the number of worker threads.
+     */
+    public int getThreadCount() {
+        return workers.length;
+    }
+
+    /**
+     * Submits the given request. This method can be called from any thread.
+     *
+     * @param request the request to serve
+     * @param client  the telegraph to be notified once the request has completed; can be {@code null}
+     * @throws IllegalStateException if this service has been disposed.
+     */
+    public void submit(PathFinderRequest<N> request, Telegraph client) {
+        if (!running) throw new IllegalStateException("The service has been disposed");
+        request.client = client;
+        request.status = PathFinderRequest.SEARCH_NEW; // Reset status
+        request.statusChanged = true; // Status has just changed
+        request.executionFrames = 0; // Reset execution frames counter
+        pendingRequests.add(request);
+    }
+
+    @Override
+    public boolean handleMessage(Telegram telegram) {
+        @SuppressWarnings("unchecked")
+        PathFinderRequest<N> pfr = (PathFinderRequest<N>) telegram.extraInfo;
+        submit(pfr, telegram.sender);
+        return true;
+    }
+
+    /**
+     * Delivers all the requests completed so far. This method must be called from the thread owning the message dispatchers of
+     * the requests, typically the render thread.
+     */
+    public void update() {
+        PathFinderRequest<N> request;
+        while ((request = completedRequests.poll()) != null)
+            deliver(request);
+    }
+
+    /**
+     * Delivers the requests completed so far until the given time runs out. Searches are not affected by this time budget since
+     * they run on the worker threads.
+     *
+     * @param timeToRun the maximum time in nanoseconds this method should run on the current frame
+     */
+    @Override
+    public void run(long timeToRun) {
+        long lastTime = TimeUtils.nanoTime();
+        PathFinderRequest<N> request;
+        while ((request = completedRequests.poll()) != null) {
+            deliver(request);
+            long currentTime = TimeUtils.nanoTime();
+            timeToRun -= currentTime - lastTime;
+            if (timeToRun <= PathFinderQueue.TIME_TOLERANCE) return;
+            lastTime = currentTime;
+        }
+    }
+
+    /**
+     * Returns the number of requests waiting to be served by a worker.
+     */
+    public int getPendingCount() {
+        return pendingRequests.size();
+    }
+
+    /**
+     * Returns {@code true} if some requests completed by the workers have not been delivered yet; {@code false} otherwise.
+     */
+    public boolean hasCompletedRequests() {
+        return !completedRequests.isEmpty();
+    }
+
+    /**
+     * Stops the worker threads. Requests not yet served are discarded.
+     */
+    @Override
+    public void dispose() {
+        running = false;
+        pendingRequests.clear();
+        for (Thread worker : workers)
+            worker.interrupt();
+    }
+
+    protected void deliver(PathFinderRequest<N> request) {
+        if (callback != null) callback.requestCompleted(request);
+        if (request.client != null) {
+            MessageDispatcher dispatcher = request.dispatcher != null ? request.dispatcher : MessageManager.getInstance();
+            dispatcher.dispatchMessage(this, request.client, request.responseMessageCode, request);
+        }
+    }
+
+    private class Worker implements Runnable {
+        private final PathFinder<N> pathFinder;
+
+        Worker(PathFinder<N> pathFinder) {
+            this.pathFinder = pathFinder;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                PathFinderRequest<N> request;
+                try {
+                    request = pendingRequests.take();
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                try {
+                    serve(request);
+                } catch (Throwable e) {
+                    // Errors thrown by the path finder or the heuristic must not kill the worker silently,
+                    // otherwise the request would never be delivered
+                    GdxAI.getLogger().error(TAG, "Pathfinding request failed", e);
+                    request.pathFound = false;
+                } finally {
+                    completedRequests.add(request);
+                }
+            }
+        }
+
+        private void serve(PathFinderRequest<N> request) {
+            // Without time limits each step must complete in a single call
+            request.executionFrames++;
+            if (!request.initializeSearch(Long.MAX_VALUE))
+                throw new IllegalStateException("Search initialization did not complete without time limits");
+            request.changeStatus(PathFinderRequest.SEARCH_INITIALIZED);
+            if (!request.search(pathFinder, Long.MAX_VALUE))
+                throw new IllegalStateException("Search did not complete without time limits");
+            request.changeStatus(PathFinderRequest.SEARCH_DONE);
+            if (!request.finalizeSearch(Long.MAX_VALUE))
+                throw new IllegalStateException("Search finalization did not complete without time limits");
+            request.changeStatus(PathFinderRequest.SEARCH_FINALIZED);
+        }
+    }
+
+    /**
+     * A factory creating the {@link PathFinder} owned by each worker thread.
+     *
+     * @param <N> Type of node
+     */
+    public interface PathFinderFactory<N> {
+
+        /**
+         * Creates a new path finder. This method is called once per worker thread.
+         */
+        PathFinder<N> newPathFinder();
+    }
+
+    /**
+     * A callback notified when a request has been served.
+     *
+     * @param <N> Type of node
+     */
+    public interface Callback<N> {
+
+        /**
+         * Called on the delivering thread when the given request has been served. Check the {@link PathFinderRequest#pathFound}
+         * field of the request to know if a path has been found.
+         *
+         * @param request the completed request
+         */
+        void requestCompleted(PathFinderRequest<N> request);
+    }
+}
@@ -0,0 +1,45 @@
+package com.badlogic.gdx.ai.pfa;
+
+/**
+ * A {@link SearchClock} whose reading is the number of units of work done so far, that is the number of nodes expanded by the
+ * searches and of rays cast by the path smoothers using it. The budget given to a search is therefore the number of nodes it can
+ * expand, so the same requests always complete on the same frames regardless of the speed of the machine.
+ * <p>
+ * The reading is also a stable measure of the work done, suitable for performance regression tests.
+ *
+ */
+public class CountingSearchClock implements SearchClock {
+
+    long count;
+
+    /**
+     * Creates a {@code CountingSearchClock} starting from zero.
+     */
+    public CountingSearchClock() {
+    }
+
+    @Override
+    public long getTime() {
+        return count;
+    }
+
+    /**
+     * Returns zero, so that a search stops as soon as its budget is exhausted.
+     */
+    @Override
+    public long getTolerance() {
+        return 0;
+    }
+
+    @Override
+    public void tick() {
+        count++;
+    }
+
+    /**
+     * Resets the reading of this clock to zero.
+     */
+    public void reset() {
+        count = 0;
+    }
+}
@@ -1,7 +1,6 @@
 package com.badlogic.gdx.ai.pfa;
 
 import com.badlogic.gdx.ai.GdxAI;
-import com.badlogic.gdx.utils.TimeUtils;
 
 /**
  * A {@code HierarchicalPathFinder} can find a path in an arbitrary {@link HierarchicalGraph} using the given {@link PathFinder},
@@ -152,9 +151,10 @@ public class HierarchicalPathFinder<N> implements PathFinder<N> {
             if (request.startNode == request.endNode) return true;
 
             // Prepare the the level request control
-            levelRequestControl.lastTime = TimeUtils.nanoTime(); // Keep track of the current time
+            levelRequestControl.clock = request.clock;
+            levelRequestControl.lastTime = request.clock.getTime(); // Keep track of the current time
             levelRequestControl.timeToRun = timeToRun;
-            levelRequestControl.timeTolerance = PathFinderQueue.TIME_TOLERANCE;
+            levelRequestControl.timeTolerance = request.clock.getTolerance();
             levelRequestControl.server = null;
             levelRequestControl.pathFinder = levelPathFinder;
 
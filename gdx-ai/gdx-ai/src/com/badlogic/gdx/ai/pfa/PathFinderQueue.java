@@ -4,9 +4,15 @@ import com.badlogic.gdx.ai.msg.Telegram;
 import com.badlogic.gdx.ai.msg.Telegraph;
 import com.badlogic.gdx.ai.sched.Schedulable;
 import com.badlogic.gdx.ai.utils.CircularBuffer;
-import com.badlogic.gdx.utils.TimeUtils;
 
 /**
+ * A {@code PathFinderQueue} serves the {@link PathFinderRequest}s it receives through telegrams one after the other, spreading
+ * their execution across multiple frames.
+ * <p>
+ * The budget given to {@link #run(long)} is measured by a {@link SearchClock}. By default it is wall-clock time in nanoseconds,
+ * so the work done per frame depends on the machine. Lockstep games, where every peer has to complete the same requests on the
+ * same frame, should use a {@link CountingSearchClock} instead, making the budget the number of nodes expanded per frame.
+ *
  * @param <N> Type of node
  * 
  */
@@ -22,20 +28,44 @@ public class PathFinderQueue<N> implements Schedulable, Telegraph {
 
     PathFinderRequestControl<N> requestControl;
 
+    SearchClock clock;
+
+    /**
+     * Creates a {@code PathFinderQueue} whose budget is measured in nanoseconds.
+     *
+     * @param pathFinder the path finder serving the requests
+     */
     public PathFinderQueue(PathFinder<N> pathFinder) {
+        this(pathFinder, SearchClock.NANO_TIME);
+    }
+
+    /**
+     * Creates a {@code PathFinderQueue} whose budget is measured by the given clock.
+     *
+     * @param pathFinder the path finder serving the requests
+     * @param clock      the clock measuring the budget
+     */
+    public PathFinderQueue(PathFinder<N> pathFinder, SearchClock clock) {
         this.pathFinder = pathFinder;
+        this.clock = clock;
         this.requestQueue = new CircularBuffer<PathFinderRequest<N>>(16);
         this.currentRequest = null;
         this.requestControl = new PathFinderRequestControl<N>();
     }
 
+    /**
+     * Serves the queued requests until the given budget runs out.
+     *
+     * @param timeToRun the budget of the current frame, in the unit of the {@link SearchClock} of this queue
+     */
     @Override
     public void run(long timeToRun) {
         // Keep track of the current time
-        requestControl.lastTime = TimeUtils.nanoTime();
+        requestControl.clock = clock;
+        requestControl.lastTime = clock.getTime();
         requestControl.timeToRun = timeToRun;
 
-        requestControl.timeTolerance = TIME_TOLERANCE;
+        requestControl.timeTolerance = clock.getTolerance();
         requestControl.pathFinder = pathFinder;
         requestControl.server = this;
 
@@ -61,10 +91,18 @@ public class PathFinderQueue<N> implements Schedulable, Telegraph {
         pfr.status = PathFinderRequest.SEARCH_NEW; // Reset status
         pfr.statusChanged = true; // Status has just changed
         pfr.executionFrames = 0; // Reset execution frames counter
+        pfr.initializationTime = pfr.searchTime = pfr.finalizationTime = 0; // Reset stage timings
         requestQueue.store(pfr);
         return true;
     }
 
+    /**
+     * Returns the clock measuring the budget of this queue.
+     */
+    public SearchClock getClock() {
+        return clock;
+    }
+
     public int size() {
         return requestQueue.size();
     }
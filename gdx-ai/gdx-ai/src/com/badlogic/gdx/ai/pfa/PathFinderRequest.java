@@ -30,6 +30,30 @@ public class PathFinderRequest<N> {
     public int responseMessageCode;
     public MessageDispatcher dispatcher;
 
+    /**
+     * The clock measuring the budget of {@link #search(PathFinder, long)}. It is set by the {@link PathFinderRequestControl}
+     * executing this request and defaults to {@link SearchClock#NANO_TIME}.
+     */
+    public SearchClock clock = SearchClock.NANO_TIME;
+
+    /**
+     * The time spent by {@link #initializeSearch(long)}, measured by the {@link #clock} and summed over all the frames this request has
+     * been executed on.
+     */
+    public long initializationTime;
+
+    /**
+     * The time spent by {@link #search(PathFinder, long)}, measured by the {@link #clock} and summed over all the frames this request has
+     * been executed on. With a {@link CountingSearchClock} this is the number of nodes expanded by the search.
+     */
+    public long searchTime;
+
+    /**
+     * The time spent by {@link #finalizeSearch(long)}, measured by the {@link #clock} and summed over all the frames this request has
+     * been executed on.
+     */
+    public long finalizationTime;
+
     /**
      * Creates an empty {@code PathFinderRequest}
      */
@@ -4,7 +4,6 @@ import com.badlogic.gdx.ai.GdxAI;
 import com.badlogic.gdx.ai.msg.MessageDispatcher;
 import com.badlogic.gdx.ai.msg.MessageManager;
 import com.badlogic.gdx.ai.msg.Telegraph;
-import com.badlogic.gdx.utils.TimeUtils;
 
 /**
  * A {@code PathFinderRequestControl} manages execution and resume of any interruptible {@link PathFinderRequest}.
@@ -20,6 +19,7 @@ public class PathFinderRequestControl<N> {
 
     Telegraph server;
     PathFinder<N> pathFinder;
+    SearchClock clock;
     long lastTime;
     long timeToRun;
     long timeTolerance;
@@ -36,38 +36,45 @@ public class PathFinderRequestControl<N> {
     public boolean execute(PathFinderRequest<N> request) {
 
         request.executionFrames++;
+        request.clock = clock;
 
         while (true) {
             if (DEBUG) GdxAI.getLogger().debug(TAG, "------");
             // Should perform search begin?
             if (request.status == PathFinderRequest.SEARCH_NEW) {
-                long currentTime = TimeUtils.nanoTime();
+                long currentTime = clock.getTime();
                 timeToRun -= currentTime - lastTime;
                 if (timeToRun <= timeTolerance) return false;
                 if (DEBUG) GdxAI.getLogger().debug(TAG, "search begin");
-                if (!request.initializeSearch(timeToRun)) return false;
+                boolean completed = request.initializeSearch(timeToRun);
+                request.initializationTime += clock.getTime() - currentTime;
+                if (!completed) return false;
                 request.changeStatus(PathFinderRequest.SEARCH_INITIALIZED);
                 lastTime = currentTime;
             }
 
             // Should perform search path?
             if (request.status == PathFinderRequest.SEARCH_INITIALIZED) {
-                long currentTime = TimeUtils.nanoTime();
+                long currentTime = clock.getTime();
                 timeToRun -= currentTime - lastTime;
                 if (timeToRun <= timeTolerance) return false;
                 if (DEBUG) GdxAI.getLogger().debug(TAG, "search path");
-                if (!request.search(pathFinder, timeToRun)) return false;
+                boolean completed = request.search(pathFinder, timeToRun);
+                request.searchTime += clock.getTime() - currentTime;
+                if (!completed) return false;
                 request.changeStatus(PathFinderRequest.SEARCH_DONE);
                 lastTime = currentTime;
             }
 
             // Should perform search end?
             if (request.status == PathFinderRequest.SEARCH_DONE) {
-                long currentTime = TimeUtils.nanoTime();
+                long currentTime = clock.getTime();
                 timeToRun -= currentTime - lastTime;
                 if (timeToRun <= timeTolerance) return false;
                 if (DEBUG) GdxAI.getLogger().debug(TAG, "search end");
-                if (!request.finalizeSearch(timeToRun)) return false;
+                boolean completed = request.finalizeSearch(timeToRun);
+                request.finalizationTime += clock.getTime() - currentTime;
+                if (!completed) return false;
                 request.changeStatus(PathFinderRequest.SEARCH_FINALIZED);
 
                 // Search finished, send result to the client
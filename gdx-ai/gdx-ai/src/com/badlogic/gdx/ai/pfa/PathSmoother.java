@@ -3,7 +3,6 @@ package com.badlogic.gdx.ai.pfa;
 import com.badlogic.gdx.ai.utils.Ray;
 import com.badlogic.gdx.ai.utils.RaycastCollisionDetector;
 import com.badlogic.gdx.math.Vector;
-import com.badlogic.gdx.utils.TimeUtils;
 
 /**
  * A {@code PathSmoother} takes a {@link SmoothableGraphPath} and transforms it by linking directly the nodes that are in line of
@@ -104,7 +103,8 @@ public class PathSmoother<N, V extends Vector<V>> {
      */
     public boolean smoothPath(PathSmootherRequest<N, V> request, long timeToRun) {
 
-        long lastTime = TimeUtils.nanoTime();
+        SearchClock clock = request.clock;
+        long lastTime = clock.getTime();
 
         SmoothableGraphPath<N, V> path = request.path;
         int inputPathLength = path.getCount();
@@ -135,9 +135,9 @@ public class PathSmoother<N, V extends Vector<V>> {
         while (request.inputIndex < inputPathLength) {
 
             // Check the available time
-            long currentTime = TimeUtils.nanoTime();
+            long currentTime = clock.getTime();
             timeToRun -= currentTime - lastTime;
-            if (timeToRun <= PathFinderQueue.TIME_TOLERANCE) return false;
+            if (timeToRun <= clock.getTolerance()) return false;
 
             // Set the ray
             ray.start.set(path.getNodePosition(request.outputIndex - 1));
@@ -155,6 +155,9 @@ public class PathSmoother<N, V extends Vector<V>> {
             // Consider the next input node
             request.inputIndex++;
 
+            // Account for the ray cast
+            clock.tick();
+
             // Store the current time
             lastTime = currentTime;
         }
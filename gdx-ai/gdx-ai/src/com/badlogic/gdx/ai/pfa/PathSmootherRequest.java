@@ -16,6 +16,12 @@ public class PathSmootherRequest<N, V extends Vector<V>> {
     public int inputIndex;
     public SmoothableGraphPath<N, V> path;
 
+    /**
+     * The clock measuring the budget of {@link PathSmoother#smoothPath(PathSmootherRequest, long)}. Defaults to
+     * {@link SearchClock#NANO_TIME}.
+     */
+    public SearchClock clock = SearchClock.NANO_TIME;
+
     /**
      * Creates an empty {@code PathSmootherRequest}
      */
@@ -0,0 +1,52 @@
+package com.badlogic.gdx.ai.pfa;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * A {@code SearchClock} measures the budget consumed by interruptible searches, such as the ones served by a
+ * {@link PathFinderQueue}. The {@code timeToRun} passed to {@link PathFinderQueue#run(long)},
+ * {@link PathFinder#search(PathFinderRequest, long)} and {@link PathSmoother#smoothPath(PathSmootherRequest, long)} is expressed in
+ * the unit of the clock.
+ * <p>
+ * By default the budget is wall-clock time in nanoseconds, see {@link #NANO_TIME}. Since the amount of work done in a given time
+ * depends on the machine, a {@link CountingSearchClock} can be used instead when the work done per frame has to be reproducible,
+ * like in lockstep multiplayer games.
+ *
+ */
+public interface SearchClock {
+
+    /**
+     * A clock measuring time in nanoseconds through {@link TimeUtils#nanoTime()}, with a tolerance of
+     * {@link PathFinderQueue#TIME_TOLERANCE}.
+     */
+    SearchClock NANO_TIME = new SearchClock() {
+        @Override
+        public long getTime() {
+            return TimeUtils.nanoTime();
+        }
+
+        @Override
+        public long getTolerance() {
+            return PathFinderQueue.TIME_TOLERANCE;
+        }
+
+        @Override
+        public void tick() {
+        }
+    };
+
+    /**
+     * Returns the current reading of this clock.
+     */
+    long getTime();
+
+    /**
+     * Returns the remaining budget under which an interruptible search stops and waits for the next frame.
+     */
+    long getTolerance();
+
+    /**
+     * Notifies this clock that a unit of work has been done, like a node expanded by a search or a ray cast by a path smoother.
+     */
+    void tick();
+}
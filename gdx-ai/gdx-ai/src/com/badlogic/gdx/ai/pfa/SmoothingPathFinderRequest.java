@@ -0,0 +1,68 @@
+package com.badlogic.gdx.ai.pfa;
+
+import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import com.badlogic.gdx.ai.msg.MessageManager;
+import com.badlogic.gdx.math.Vector;
+
+/**
+ * A {@link PathFinderRequest} whose resulting path is smoothed by a {@link PathSmoother} before being delivered to the client.
+ * <p>
+ * Smoothing runs as the finalization stage of the request, so when the request is served by a {@link PathFinderQueue} it is
+ * interruptible like the search itself: it consumes what is left of the frame budget after the search completes and is resumed on
+ * the next frames if needed. The time spent smoothing is reported by {@link #finalizationTime}.
+ *
+ * @param <N> Type of node
+ * @param <V> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+ *
+ */
+public class SmoothingPathFinderRequest<N, V extends Vector<V>> extends PathFinderRequest<N> {
+
+    public PathSmoother<N, V> pathSmoother;
+    public PathSmootherRequest<N, V> pathSmootherRequest;
+
+    /**
+     * Creates an empty {@code SmoothingPathFinderRequest}
+     */
+    public SmoothingPathFinderRequest() {
+        this.pathSmootherRequest = new PathSmootherRequest<N, V>();
+    }
+
+    /**
+     * Creates a {@code SmoothingPathFinderRequest} with the given arguments that uses the singleton message dispatcher provided by
+     * {@link MessageManager}.
+     */
+    public SmoothingPathFinderRequest(N startNode, N endNode, Heuristic<N> heuristic, SmoothableGraphPath<N, V> resultPath,
+                                      PathSmoother<N, V> pathSmoother) {
+        this(startNode, endNode, heuristic, resultPath, pathSmoother, MessageManager.getInstance());
+    }
+
+    /**
+     * Creates a {@code SmoothingPathFinderRequest} with the given arguments.
+     */
+    public SmoothingPathFinderRequest(N startNode, N endNode, Heuristic<N> heuristic, SmoothableGraphPath<N, V> resultPath,
+                                      PathSmoother<N, V> pathSmoother, MessageDispatcher dispatcher) {
+        super(startNode, endNode, heuristic, resultPath, dispatcher);
+        this.pathSmoother = pathSmoother;
+        this.pathSmootherRequest = new PathSmootherRequest<N, V>();
+    }
+
+    /**
+     * Prepares the smoothing of the result path, which must be a {@link SmoothableGraphPath}.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean initializeSearch(long timeToRun) {
+        pathSmootherRequest.refresh((SmoothableGraphPath<N, V>) resultPath);
+        return true;
+    }
+
+    /**
+     * Smoothes the path found by the search, if any, possibly over multiple consecutive frames.
+     */
+    @Override
+    public boolean finalizeSearch(long timeToRun) {
+        if (!pathFound || pathSmoother == null) return true;
+        pathSmootherRequest.clock = clock;
+        return pathSmoother.smoothPath(pathSmootherRequest, timeToRun);
+    }
+}
@@ -0,0 +1,476 @@
+package com.badlogic.gdx.ai.pfa.grid;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.steer.behaviors.FollowFlowField;
+import com.badlogic.gdx.ai.steer.behaviors.FollowFlowField.FlowField;
+import com.badlogic.gdx.ai.utils.IndexedDaryHeap;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * A {@code FlowFieldBuilder} builds a {@link FlowField} leading every tile of a {@link WalkableGrid} to a common goal, so that any
+ * number of agents steered by {@link FollowFlowField} can reach the goal without searching a path each.
+ * <p>
+ * The field is built by a single Dijkstra search run backwards from the goal tile, integrating the cost to the goal of every
+ * reachable tile. Each tile then points towards its neighbor on the cheapest way to the goal. Costs and flow directions are held
+ * in primitive arrays indexed by tile, so {@link #lookup(Vector2)} is a constant time array access.
+ * <p>
+ * When tiles change, call {@link #markDirty(int, int)} for each of them and then {@link #update()}: only the tiles whose way to
+ * the goal went through a dirty tile are integrated again, along with the tiles that get cheaper because of the change.
+ * <p>
+ * On large maps a full build can be spread across the threads of an {@link ExecutorService} through
+ * {@link #build(ExecutorService)}, which splits the grid into bands of rows integrated in parallel.
+ * <p>
+ * Tile {@code (x, y)} covers the area from {@code (x * tileSize, y * tileSize)} to {@code ((x + 1) * tileSize, (y + 1) * tileSize)}.
+ * The grid is assumed to be undirected, meaning that moving from a tile to a neighbor costs as much as moving back.
+ *
+ * @param <N> Type of node
+ *
+ */
+public class FlowFieldBuilder<N> implements FlowField<Vector2> {
+    private static final float INFINITY = Float.POSITIVE_INFINITY;
+    private static final int NONE = -1;
+
+    WalkableGrid<N> grid;
+    int width;
+    int height;
+    float tileSize;
+
+    float[] costs;
+    int[] next;
+    float[] directions;
+
+    int goal;
+    boolean goalChanged;
+
+    IndexedDaryHeap openList;
+    final IntArray dirtyTiles;
+    final IntArray touchedTiles;
+    final IntArray stack;
+    int[] marks;
+    int markId;
+    final Vector2 flowVector;
+    Band[] bands;
+
+    /**
+     * Creates a {@code FlowFieldBuilder} for the given grid. The goal must be set before building the flow field.
+     *
+     * @param grid     the grid
+     * @param tileSize the size of each tile in world units
+     */
+    public FlowFieldBuilder(WalkableGrid<N> grid, float tileSize) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.tileSize = tileSize;
+        int tileCount = width * height;
+        this.costs = new float[tileCount];
+        this.next = new int[tileCount];
+        this.directions = new float[tileCount * 2];
+        this.goal = NONE;
+        this.openList = new IndexedDaryHeap(tileCount);
+        this.dirtyTiles = new IntArray();
+        this.touchedTiles = new IntArray();
+        this.stack = new IntArray();
+        this.marks = new int[tileCount];
+        this.flowVector = new Vector2();
+    }
+
+    /**
+     * Sets the goal of the flow field. The flow field is fully rebuilt by the next call to {@link #update()}.
+     *
+     * @param x the column of the goal tile
+     * @param y the row of the goal tile
+     */
+    public void setGoal(int x, int y) {
+        this.goal = x + y * width;
+        this.goalChanged = true;
+    }
+
+    /**
+     * Marks the given tile as changed, for instance because it became blocked or walkable. The flow field is repaired by the next
+     * call to {@link #update()}.
+     *
+     * @param x the column of the tile
+     * @param y the row of the tile
+     */
+    public void markDirty(int x, int y) {
+        dirtyTiles.add(x + y * width);
+    }
+
+    /**
+     * Brings the flow field up to date, rebuilding it from scratch if the goal has changed or repairing the dirty tiles otherwise.
+     *
+     * @return the number of tiles whose cost to the goal has been integrated again.
+     * @throws IllegalStateException if the goal has not been set.
+     */
+    public int update() {
+        if (goalChanged || goal == NONE) return build();
+        if (dirtyTiles.size == 0) return 0;
+
+        touchedTiles.clear();
+        invalidateDirtyTiles();
+        reconnectTouchedTiles();
+        integrate(true);
+        for (int i = 0; i < touchedTiles.size; i++)
+            updateDirection(touchedTiles.get(i));
+        dirtyTiles.clear();
+        return touchedTiles.size;
+    }
+
+    /**
+     * Builds the whole flow field from scratch.
+     *
+     * @return the number of tiles whose cost to the goal has been integrated.
+     * @throws IllegalStateException if the goal has not been set.
+     */
+    public int build() {
+        int integrated = integrateAll();
+        for (int tile = 0; tile < next.length; tile++)
+            updateDirection(tile);
+        return integrated;
+    }
+
+    /**
+     * Builds the whole flow field from scratch, integrating bands of rows in parallel on the given executor.
+     * <p>
+     * Each band runs Dijkstra's algorithm over its own rows, seeded with the costs of the rows bordering the neighbor bands as they
+     * were at the end of the previous round. Rounds are repeated until the border rows no longer change, so the resulting costs
+     * are the same as the ones of {@link #build()}, though the flow directions may differ between ways to the goal of equal cost.
+     * Maps where the cheapest ways to the goal cross the bands many times, like mazes, need more rounds.
+     * <p>
+     * Unlike {@link #build()}, the bands don't go through the connections of the grid: costs are computed from
+     * {@link WalkableGrid#isWalkable(int, int)} according to the uniform costs of the {@link WalkableGrid} contract. Hence
+     * {@code isWalkable} must be safe to call from multiple threads, and the grid must not change while the flow field is built.
+     *
+     * @param executor the executor
+     * @return the number of tiles whose cost to the goal has been integrated, counting each time a tile is integrated again by a
+     *         later round.
+     * @throws IllegalStateException if the goal has not been set.
+     * @throws GdxRuntimeException   if a band fails or the build is interrupted.
+     */
+    public int build(ExecutorService executor) {
+        return build(executor, Math.min(height, Runtime.getRuntime().availableProcessors()));
+    }
+
+    @SuppressWarnings("unchecked")
+    int build(ExecutorService executor, int bandCount) {
+        if (goal == NONE) throw new IllegalStateException("The goal has not been set");
+        goalChanged = false;
+        dirtyTiles.clear();
+        Arrays.fill(costs, INFINITY);
+        Arrays.fill(next, NONE);
+
+        if (bands == null || bands.length != bandCount) {
+            bands = (Band[])new FlowFieldBuilder.Band[bandCount];
+            for (int i = 0; i < bandCount; i++)
+                bands[i] = new Band(height * i / bandCount, height * (i + 1) / bandCount);
+        }
+        for (Band band : bands)
+            band.reset();
+
+        int integrated = 0;
+        if (grid.isWalkable(goal % width, goal / width)) {
+            costs[goal] = 0;
+            for (Band band : bands)
+                if (band.contains(goal)) band.openList.add(goal - band.fromRow * width, 0);
+            try {
+                do {
+                    for (Future<Integer> future : executor.invokeAll(Arrays.asList(bands)))
+                        integrated += future.get();
+                } while (updateBorderRows());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GdxRuntimeException("Interrupted while building the flow field", e);
+            } catch (ExecutionException e) {
+                throw new GdxRuntimeException("Error building the flow field", e.getCause());
+            }
+        }
+        for (int tile = 0; tile < next.length; tile++)
+            updateDirection(tile);
+        return integrated;
+    }
+
+    /**
+     * Returns the flow vector of the tile containing the given position: a unit vector pointing towards the next tile on the
+     * cheapest way to the goal, or the zero vector if the position is outside the grid, on the goal tile or on a tile that can't
+     * reach the goal. The returned vector is reused by subsequent calls.
+     */
+    @Override
+    public Vector2 lookup(Vector2 position) {
+        int x = (int)Math.floor(position.x / tileSize);
+        int y = (int)Math.floor(position.y / tileSize);
+        if (x < 0 || y < 0 || x >= width || y >= height) return flowVector.setZero();
+        int index = (x + y * width) * 2;
+        return flowVector.set(directions[index], directions[index + 1]);
+    }
+
+    /**
+     * Returns the x-component of the flow direction of the given tile.
+     */
+    public float getDirectionX(int x, int y) {
+        return directions[(x + y * width) * 2];
+    }
+
+    /**
+     * Returns the y-component of the flow direction of the given tile.
+     */
+    public float getDirectionY(int x, int y) {
+        return directions[(x + y * width) * 2 + 1];
+    }
+
+    /**
+     * Returns the cost to reach the goal from the given tile, or {@link Float#POSITIVE_INFINITY} if the goal is unreachable.
+     */
+    public float getCost(int x, int y) {
+        return costs[x + y * width];
+    }
+
+    /**
+     * Returns the size of each tile in world units.
+     */
+    public float getTileSize() {
+        return tileSize;
+    }
+
+    private int integrateAll() {
+        if (goal == NONE) throw new IllegalStateException("The goal has not been set");
+        goalChanged = false;
+        dirtyTiles.clear();
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = INFINITY;
+            next[i] = NONE;
+        }
+        openList.clear();
+        if (!grid.isWalkable(goal % width, goal / width)) return 0;
+        costs[goal] = 0;
+        openList.add(goal, 0);
+        return integrate(false);
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the tiles in the open list, following connections backwards.
+     *
+     * @param recordTouched whether tiles whose cost improves have to be added to {@link #touchedTiles}
+     * @return the number of tiles popped from the open list.
+     */
+    private int integrate(boolean recordTouched) {
+        int integrated = 0;
+        while (!openList.isEmpty()) {
+            int current = openList.pop();
+            integrated++;
+            float currentCost = costs[current];
+            Array<Connection<N>> connections = grid.getConnections(grid.getNode(current % width, current / width));
+            for (int i = 0; i < connections.size; i++) {
+                Connection<N> connection = connections.get(i);
+                N node = connection.getToNode();
+                int index = grid.getX(node) + grid.getY(node) * width;
+                float cost = currentCost + connection.getCost();
+                if (cost >= costs[index]) continue;
+                if (recordTouched && next[index] != current && marks[index] != markId) {
+                    marks[index] = markId;
+                    touchedTiles.add(index);
+                }
+                costs[index] = cost;
+                next[index] = current;
+                openList.add(index, cost);
+            }
+        }
+        return integrated;
+    }
+
+    /**
+     * Resets the cost of the dirty tiles, of their neighbors (whose diagonal connections may have changed) and of all the tiles
+     * whose way to the goal goes through them. All these tiles are added to {@link #touchedTiles}.
+     */
+    private void invalidateDirtyTiles() {
+        if (++markId < 0) markId = 1;
+        stack.clear();
+        for (int i = 0; i < dirtyTiles.size; i++) {
+            int tile = dirtyTiles.get(i);
+            int x = tile % width, y = tile / width;
+            for (int dy = -1; dy <= 1; dy++)
+                for (int dx = -1; dx <= 1; dx++)
+                    if (x + dx >= 0 && y + dy >= 0 && x + dx < width && y + dy < height) stack.add(tile + dx + dy * width);
+        }
+        while (stack.size > 0) {
+            int tile = stack.pop();
+            if (marks[tile] == markId) continue;
+            marks[tile] = markId;
+            touchedTiles.add(tile);
+            costs[tile] = INFINITY;
+            next[tile] = NONE;
+
+            // Tiles pointing to this tile lose their way to the goal as well
+            int x = tile % width, y = tile / width;
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    if (x + dx < 0 || y + dy < 0 || x + dx >= width || y + dy >= height) continue;
+                    int neighbor = tile + dx + dy * width;
+                    if (next[neighbor] == tile && marks[neighbor] != markId) stack.add(neighbor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the cost of each touched tile from its neighbors that have not been invalidated and adds it to the open list.
+     */
+    private void reconnectTouchedTiles() {
+        openList.clear();
+        for (int i = 0; i < touchedTiles.size; i++) {
+            int tile = touchedTiles.get(i);
+            if (tile == goal) {
+                if (grid.isWalkable(goal % width, goal / width)) {
+                    costs[goal] = 0;
+                    openList.add(goal, 0);
+                }
+                continue;
+            }
+            Array<Connection<N>> connections = grid.getConnections(grid.getNode(tile % width, tile / width));
+            for (int j = 0; j < connections.size; j++) {
+                Connection<N> connection = connections.get(j);
+                N node = connection.getToNode();
+                int index = grid.getX(node) + grid.getY(node) * width;
+                float cost = costs[index] + connection.getCost();
+                if (cost < costs[tile]) {
+                    costs[tile] = cost;
+                    next[tile] = index;
+                }
+            }
+            if (costs[tile] != INFINITY) openList.add(tile, costs[tile]);
+        }
+    }
+
+    /**
+     * Copies the current costs of the rows bordering each band into the band.
+     *
+     * @return whether any border row has changed since the previous round.
+     */
+    private boolean updateBorderRows() {
+        boolean changed = false;
+        for (Band band : bands) {
+            if (band.rowAbove != null) changed |= copyRow(band.fromRow - 1, band.rowAbove);
+            if (band.rowBelow != null) changed |= copyRow(band.toRow, band.rowBelow);
+        }
+        return changed;
+    }
+
+    private boolean copyRow(int row, float[] rowCosts) {
+        boolean changed = false;
+        for (int x = 0, tile = row * width; x < width; x++, tile++) {
+            if (rowCosts[x] != costs[tile]) {
+                rowCosts[x] = costs[tile];
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private void updateDirection(int tile) {
+        int nextTile = next[tile];
+        float dx = 0, dy = 0;
+        if (nextTile != NONE) {
+            dx = nextTile % width - tile % width;
+            dy = nextTile / width - tile / width;
+            if (dx != 0 && dy != 0) {
+                // Normalize diagonal directions
+                dx *= 0.70710678f;
+                dy *= 0.70710678f;
+            }
+        }
+        directions[tile * 2] = dx;
+        directions[tile * 2 + 1] = dy;
+    }
+
+    /**
+     * A band of rows integrated by one task of a parallel build. A band only writes the costs of its own rows and reads the costs
+     * of the neighbor bands from copies of their border rows taken between rounds.
+     */
+    private class Band implements Callable<Integer> {
+        final int fromRow;
+        final int toRow;
+        final IndexedDaryHeap openList;
+        final float[] rowAbove;
+        final float[] rowBelow;
+
+        Band(int fromRow, int toRow) {
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.openList = new IndexedDaryHeap((toRow - fromRow) * width);
+            this.rowAbove = fromRow > 0 ? new float[width] : null;
+            this.rowBelow = toRow < height ? new float[width] : null;
+        }
+
+        void reset() {
+            openList.clear();
+            if (rowAbove != null) Arrays.fill(rowAbove, INFINITY);
+            if (rowBelow != null) Arrays.fill(rowBelow, INFINITY);
+        }
+
+        boolean contains(int tile) {
+            return tile >= fromRow * width && tile < toRow * width;
+        }
+
+        @Override
+        public Integer call() {
+            if (rowAbove != null) seed(fromRow, -1, rowAbove);
+            if (rowBelow != null) seed(toRow - 1, 1, rowBelow);
+
+            int firstTile = fromRow * width;
+            int integrated = 0;
+            while (!openList.isEmpty()) {
+                int current = openList.pop() + firstTile;
+                integrated++;
+                int x = current % width, y = current / width;
+                for (int dir = 0; dir < 8; dir++) {
+                    int ny = y + GridGraph.DY[dir];
+                    if (ny < fromRow || ny >= toRow) continue;
+                    relax(current, x, y, GridGraph.DX[dir], GridGraph.DY[dir], costs[current]);
+                }
+            }
+            return integrated;
+        }
+
+        /**
+         * Relaxes the tiles of the given row of this band from the costs of the adjacent row of the neighbor band.
+         */
+        private void seed(int row, int dy, float[] rowCosts) {
+            for (int x = 0; x < width; x++) {
+                float cost = rowCosts[x];
+                if (cost == INFINITY || !grid.isWalkable(x, row + dy)) continue;
+                int tile = x + (row + dy) * width;
+                for (int dx = -1; dx <= 1; dx++)
+                    relax(tile, x, row + dy, dx, -dy, cost);
+            }
+        }
+
+        /**
+         * Moves backwards from the given tile to its neighbor in the given direction, updating the neighbor if it gets cheaper.
+         */
+        private void relax(int tile, int x, int y, int dx, int dy, float tileCost) {
+            int nx = x + dx, ny = y + dy;
+            if (!grid.isWalkable(nx, ny)) return;
+            float cost;
+            if (dx != 0 && dy != 0) {
+                if (!grid.isWalkable(nx, y) || !grid.isWalkable(x, ny)) return;
+                cost = tileCost + JumpPointSearchPathFinder.SQRT2;
+            } else {
+                cost = tileCost + 1;
+            }
+            int neighbor = nx + ny * width;
+            if (cost >= costs[neighbor]) return;
+            costs[neighbor] = cost;
+            next[neighbor] = tile;
+            openList.add(neighbor - fromRow * width, cost);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.badlogic.gdx.ai.pfa.grid;
+
+import com.badlogic.gdx.ai.pfa.indexed.ClusterPartitioner;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A {@link ClusterPartitioner} splitting a {@link WalkableGrid} into rectangular blocks of tiles. Clusters are numbered row by
+ * row; the blocks along the right and top borders are smaller when the grid size is not a multiple of the cluster size.
+ *
+ * @param <N> Type of node
+ *
+ */
+public class GridClusterPartitioner<N> implements ClusterPartitioner<N> {
+
+    WalkableGrid<N> grid;
+    int clusterWidth;
+    int clusterHeight;
+    int clustersX;
+    int clustersY;
+
+    /**
+     * Creates a {@code GridClusterPartitioner}.
+     *
+     * @param grid          the grid
+     * @param clusterWidth  the number of columns of each cluster
+     * @param clusterHeight the number of rows of each cluster
+     * @throws IllegalArgumentException if {@code clusterWidth} or {@code clusterHeight} is less than 1.
+     */
+    public GridClusterPartitioner(WalkableGrid<N> grid, int clusterWidth, int clusterHeight) {
+        if (clusterWidth < 1 || clusterHeight < 1) throw new IllegalArgumentException("cluster size must be at least 1x1");
+        this.grid = grid;
+        this.clusterWidth = clusterWidth;
+        this.clusterHeight = clusterHeight;
+        this.clustersX = (grid.getWidth() + clusterWidth - 1) / clusterWidth;
+        this.clustersY = (grid.getHeight() + clusterHeight - 1) / clusterHeight;
+    }
+
+    @Override
+    public int getClusterCount() {
+        return clustersX * clustersY;
+    }
+
+    @Override
+    public int getCluster(N node) {
+        return getCluster(grid.getX(node), grid.getY(node));
+    }
+
+    /**
+     * Returns the cluster of the tile at the given coordinates.
+     *
+     * @param x the column of the tile
+     * @param y the row of the tile
+     */
+    public int getCluster(int x, int y) {
+        return x / clusterWidth + y / clusterHeight * clustersX;
+    }
+
+    @Override
+    public void collectNodes(int cluster, Array<N> outNodes) {
+        int x0 = cluster % clustersX * clusterWidth;
+        int y0 = cluster / clustersX * clusterHeight;
+        int x1 = Math.min(x0 + clusterWidth, grid.getWidth());
+        int y1 = Math.min(y0 + clusterHeight, grid.getHeight());
+        for (int y = y0; y < y1; y++)
+            for (int x = x0; x < x1; x++)
+                outNodes.add(grid.getNode(x, y));
+    }
+}
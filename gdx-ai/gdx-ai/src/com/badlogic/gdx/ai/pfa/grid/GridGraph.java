@@ -0,0 +1,270 @@
+package com.badlogic.gdx.ai.pfa.grid;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Arrays;
+
+/**
+ * A compact {@link IndexedGraph} laid out as a rectangular grid of tiles, suitable for very large maps.
+ * <p>
+ * Walkability is stored as one bit per tile and the cost of each tile as an unsigned byte, so a 4096x4096 map takes about 19 MB.
+ * Connections are not stored: {@link #getConnections(GridNode)} checks the neighbors of the node according to the
+ * {@link DiagonalMovement} policy and fills a reused array with new connections, so only the connections held by a path finder stay
+ * alive. Nodes are created the first time they're needed and kept so that the same instance is always returned for the same tile,
+ * which path finders rely on. Only the rows of tiles actually reached take memory for their nodes; searches spanning most of the
+ * map, like a full {@link FlowFieldBuilder#build()}, end up creating all the nodes, which {@link #clearCache()} releases.
+ * <p>
+ * Moving between adjacent tiles costs the average of their costs, multiplied by {@code sqrt(2)} for diagonal moves. With the
+ * default cost of 1 for every tile and {@link DiagonalMovement#ONLY_WHEN_NO_OBSTACLES}, this graph satisfies the contract of
+ * {@link WalkableGrid} and can be searched by a {@link JumpPointSearchPathFinder}.
+ * <p>
+ * The array returned by {@link #getConnections(GridNode)} is reused by subsequent calls, so this graph must not be searched by
+ * multiple threads at the same time.
+ *
+ */
+public class GridGraph implements IndexedGraph<GridNode>, WalkableGrid<GridNode> {
+    static final float SQRT2 = (float)Math.sqrt(2);
+
+    /**
+     * The offsets of the neighbors in each direction: orthogonal directions first, then diagonal directions.
+     */
+    static final int[] DX = {1, 0, -1, 0, 1, -1, -1, 1};
+    static final int[] DY = {0, 1, 0, -1, 1, 1, -1, -1};
+
+    /**
+     * The policy for moving diagonally between tiles.
+     */
+    public enum DiagonalMovement {
+        /**
+         * Tiles are connected to their 4 orthogonal neighbors only.
+         */
+        NEVER,
+
+        /**
+         * Diagonal moves are always allowed, even between two blocked tiles.
+         */
+        ALWAYS,
+
+        /**
+         * Diagonal moves are allowed when at most one of the two orthogonally adjacent tiles is blocked, so paths can cut corners.
+         */
+        IF_AT_MOST_ONE_OBSTACLE,
+
+        /**
+         * Diagonal moves are allowed only when both the orthogonally adjacent tiles are walkable, so paths never cut corners.
+         */
+        ONLY_WHEN_NO_OBSTACLES
+    }
+
+    final int width;
+    final int height;
+    final long[] walkable;
+    final byte[] costs;
+    final GridNode[][] rows;
+    final Array<Connection<GridNode>> connections;
+    DiagonalMovement diagonalMovement;
+
+    /**
+     * Creates a {@code GridGraph} whose tiles are all walkable and cost 1.
+     *
+     * @param width            the number of columns
+     * @param height           the number of rows
+     * @param diagonalMovement the policy for diagonal moves
+     * @throws IllegalArgumentException if the width or the height is less than 1.
+     */
+    public GridGraph(int width, int height, DiagonalMovement diagonalMovement) {
+        if (width < 1 || height < 1) throw new IllegalArgumentException("grid size must be at least 1x1");
+        this.width = width;
+        this.height = height;
+        int tileCount = width * height;
+        this.walkable = new long[(tileCount + 63) >>> 6];
+        Arrays.fill(walkable, -1L);
+        this.costs = new byte[tileCount];
+        Arrays.fill(costs, (byte)1);
+        this.rows = new GridNode[height][];
+        this.connections = new Array<Connection<GridNode>>(8);
+        this.diagonalMovement = diagonalMovement;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public boolean isWalkable(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return false;
+        int index = x + y * width;
+        return (walkable[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Sets whether the tile at the given coordinates is walkable.
+     *
+     * @param x        the column of the tile
+     * @param y        the row of the tile
+     * @param walkable whether the tile is walkable
+     */
+    public void setWalkable(int x, int y, boolean walkable) {
+        int index = x + y * width;
+        if (walkable)
+            this.walkable[index >>> 6] |= 1L << index;
+        else
+            this.walkable[index >>> 6] &= ~(1L << index);
+    }
+
+    /**
+     * Returns the cost of the tile at the given coordinates.
+     *
+     * @param x the column of the tile
+     * @param y the row of the tile
+     */
+    public int getCost(int x, int y) {
+        return costs[x + y * width] & 0xff;
+    }
+
+    /**
+     * Sets the cost of the tile at the given coordinates.
+     *
+     * @param x    the column of the tile
+     * @param y    the row of the tile
+     * @param cost the cost, in the range [0, 255]
+     * @throws IllegalArgumentException if the cost is out of range.
+     */
+    public void setCost(int x, int y, int cost) {
+        if (cost < 0 || cost > 255) throw new IllegalArgumentException("cost must be in the range [0, 255]");
+        costs[x + y * width] = (byte)cost;
+    }
+
+    public DiagonalMovement getDiagonalMovement() {
+        return diagonalMovement;
+    }
+
+    public void setDiagonalMovement(DiagonalMovement diagonalMovement) {
+        this.diagonalMovement = diagonalMovement;
+    }
+
+    /**
+     * Releases the nodes created so far. Nodes returned afterwards are new instances, so nodes obtained before must not be passed
+     * to this graph anymore. Path finders keep the nodes they have visited, hence they must be created again as well.
+     */
+    public void clearCache() {
+        Arrays.fill(rows, null);
+    }
+
+    @Override
+    public GridNode getNode(int x, int y) {
+        GridNode[] row = rows[y];
+        if (row == null) row = rows[y] = new GridNode[width];
+        GridNode node = row[x];
+        if (node == null) node = row[x] = new GridNode(x, y, x + y * width);
+        return node;
+    }
+
+    /**
+     * Returns the node with the given index.
+     *
+     * @param index the index of the node, in the range [0, {@link #getNodeCount()})
+     */
+    public GridNode getNode(int index) {
+        return getNode(index % width, index / width);
+    }
+
+    @Override
+    public int getX(GridNode node) {
+        return node.x;
+    }
+
+    @Override
+    public int getY(GridNode node) {
+        return node.y;
+    }
+
+    @Override
+    public int getIndex(GridNode node) {
+        return node.index;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return width * height;
+    }
+
+    /**
+     * Returns new connections to the walkable neighbors of the given node, or no connections if the node is blocked. The returned
+     * array is reused by subsequent calls.
+     */
+    @Override
+    public Array<Connection<GridNode>> getConnections(GridNode fromNode) {
+        Array<Connection<GridNode>> connections = this.connections;
+        connections.clear();
+        int x = fromNode.x, y = fromNode.y;
+        if (!isWalkable(x, y)) return connections;
+
+        // Orthogonal neighbors
+        for (int dir = 0; dir < 4; dir++)
+            if (isWalkable(x + DX[dir], y + DY[dir])) connections.add(getConnection(fromNode, dir));
+
+        // Diagonal neighbors
+        if (diagonalMovement == DiagonalMovement.NEVER) return connections;
+        for (int dir = 4; dir < 8; dir++) {
+            int dx = DX[dir], dy = DY[dir];
+            if (!isWalkable(x + dx, y + dy)) continue;
+            int obstacles = (isWalkable(x + dx, y) ? 0 : 1) + (isWalkable(x, y + dy) ? 0 : 1);
+            switch (diagonalMovement) {
+                case IF_AT_MOST_ONE_OBSTACLE:
+                    if (obstacles > 1) continue;
+                    break;
+                case ONLY_WHEN_NO_OBSTACLES:
+                    if (obstacles > 0) continue;
+                    break;
+                default:
+                    break;
+            }
+            connections.add(getConnection(fromNode, dir));
+        }
+        return connections;
+    }
+
+    private Connection<GridNode> getConnection(GridNode fromNode, int dir) {
+        GridNode toNode = getNode(fromNode.x + DX[dir], fromNode.y + DY[dir]);
+        return new GridConnection(fromNode, toNode, dir < 4 ? 0.5f : SQRT2 * 0.5f);
+    }
+
+    /**
+     * A connection between adjacent tiles whose cost is computed from the current costs of the tiles.
+     */
+    private class GridConnection implements Connection<GridNode> {
+        final GridNode fromNode;
+        final GridNode toNode;
+        final float halfDistance;
+
+        GridConnection(GridNode fromNode, GridNode toNode, float halfDistance) {
+            this.fromNode = fromNode;
+            this.toNode = toNode;
+            this.halfDistance = halfDistance;
+        }
+
+        @Override
+        public float getCost() {
+            return ((costs[fromNode.index] & 0xff) + (costs[toNode.index] & 0xff)) * halfDistance;
+        }
+
+        @Override
+        public GridNode getFromNode() {
+            return fromNode;
+        }
+
+        @Override
+        public GridNode getToNode() {
+            return toNode;
+        }
+    }
+}
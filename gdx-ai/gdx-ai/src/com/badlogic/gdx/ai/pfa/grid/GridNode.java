@@ -0,0 +1,35 @@
+package com.badlogic.gdx.ai.pfa.grid;
+
+/**
+ * A node of a {@link GridGraph}, standing for the tile at the given coordinates. Nodes are created by the graph the first time
+ * they're needed and the same instance is returned for the same tile until {@link GridGraph#clearCache()} is called.
+ *
+ */
+public final class GridNode {
+
+    /**
+     * The column of the tile.
+     */
+    public final int x;
+
+    /**
+     * The row of the tile.
+     */
+    public final int y;
+
+    /**
+     * The index of the node in its graph.
+     */
+    public final int index;
+
+    GridNode(int x, int y, int index) {
+        this.x = x;
+        this.y = y;
+        this.index = index;
+    }
+
+    @Override
+    public String toString() {
+        return "GridNode(" + x + ", " + y + ")";
+    }
+}
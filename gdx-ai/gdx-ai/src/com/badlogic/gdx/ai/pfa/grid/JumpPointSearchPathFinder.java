@@ -0,0 +1,426 @@
+package com.badlogic.gdx.ai.pfa.grid;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.PathFinder;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.ai.pfa.SearchClock;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder.Metrics;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.utils.IndexedDaryHeap;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A fully implemented {@link PathFinder} that runs Jump Point Search (JPS) over a uniform-cost 8-connected {@link WalkableGrid}.
+ * <p>
+ * On uniform-cost grids there are usually many optimal paths that only differ in the order of their moves, and A* wastes most of
+ * its time expanding the nodes of all of them. JPS prunes these symmetric paths: instead of adding every neighbor to the open
+ * list, it scans the grid in straight lines and only stops on jump points, i.e. nodes having a forced neighbor that cannot be
+ * reached optimally by any other route. The returned paths have the same cost as the ones found by the
+ * {@link IndexedAStarPathFinder} on the equivalent graph, but the open list only ever contains jump points, usually an order of
+ * magnitude fewer nodes.
+ * <p>
+ * The search follows the grid rules documented in {@link WalkableGrid}: orthogonal moves cost 1, diagonal moves cost
+ * {@code sqrt(2)} and corners are never cut. For best results the heuristic should be the octile distance.
+ * <p>
+ * Node paths are filled with every tile along the way, not just the jump points, so they can be consumed like any other path. Like
+ * the {@link com.badlogic.gdx.ai.pfa.indexed.PrimitiveIndexedAStarPathFinder PrimitiveIndexedAStarPathFinder}, search data are
+ * held in primitive arrays indexed by tile, so a search allocates nothing.
+ *
+ * @param <N> Type of node
+ *
+ */
+public class JumpPointSearchPathFinder<N> implements PathFinder<N> {
+    static final float SQRT2 = (float) Math.sqrt(2);
+
+    WalkableGrid<N> grid;
+    int width;
+    int height;
+    IndexedDaryHeap openList;
+    float[] costSoFar;
+    float[] estimatedTotalCost;
+    int[] parents;
+    int[] categories;
+    int[] searchIds;
+    int[] neighborBuffer;
+    int current;
+    int goal;
+    public Metrics metrics;
+
+    /**
+     * The unique ID for each search run. Used to mark nodes.
+     */
+    private int searchId;
+
+    private static final int UNVISITED = 0;
+    private static final int OPEN = 1;
+    private static final int CLOSED = 2;
+
+    private static final int NO_PARENT = -1;
+
+    public JumpPointSearchPathFinder(WalkableGrid<N> grid) {
+        this(grid, false);
+    }
+
+    public JumpPointSearchPathFinder(WalkableGrid<N> grid, boolean calculateMetrics) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        int tileCount = width * height;
+        this.openList = new IndexedDaryHeap(tileCount);
+        this.costSoFar = new float[tileCount];
+        this.estimatedTotalCost = new float[tileCount];
+        this.parents = new int[tileCount];
+        this.categories = new int[tileCount];
+        this.searchIds = new int[tileCount];
+        this.neighborBuffer = new int[8];
+        if (calculateMetrics) this.metrics = new Metrics();
+    }
+
+    @Override
+    public boolean searchConnectionPath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<Connection<N>> outPath) {
+
+        // Perform JPS
+        boolean found = search(startNode, endNode, heuristic);
+
+        if (found) {
+            // Create a path made of connections
+            generateConnectionPath(outPath);
+        }
+
+        return found;
+    }
+
+    @Override
+    public boolean searchNodePath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<N> outPath) {
+
+        // Perform JPS
+        boolean found = search(startNode, endNode, heuristic);
+
+        if (found) {
+            // Create a path made of nodes
+            generateNodePath(outPath);
+        }
+
+        return found;
+    }
+
+    protected boolean search(N startNode, N endNode, Heuristic<N> heuristic) {
+
+        if (!initSearch(startNode, endNode, heuristic)) return false;
+
+        // Iterate through processing each jump point
+        do {
+            // Retrieve the jump point with smallest estimated total cost from the open list
+            current = openList.pop();
+            categories[current] = CLOSED;
+
+            // Terminate if we reached the goal
+            if (current == goal) return true;
+
+            visitSuccessors(endNode, heuristic);
+        } while (!openList.isEmpty());
+
+        // We've run out of jump points without finding the goal, so there's no solution
+        return false;
+    }
+
+    @Override
+    public boolean search(PathFinderRequest<N> request, long timeToRun) {
+
+        SearchClock clock = request.clock;
+        long lastTime = clock.getTime();
+
+        // We have to initialize the search if the status has just changed
+        if (request.statusChanged) {
+            request.statusChanged = false;
+            if (!initSearch(request.startNode, request.endNode, request.heuristic)) {
+                request.pathFound = false;
+                return true;
+            }
+        }
+
+        // Iterate through processing each jump point
+        do {
+
+            // Check the available time
+            long currentTime = clock.getTime();
+            timeToRun -= currentTime - lastTime;
+            if (timeToRun <= clock.getTolerance()) return false;
+
+            // Retrieve the jump point with smallest estimated total cost from the open list
+            current = openList.pop();
+            categories[current] = CLOSED;
+
+            // Terminate if we reached the goal; we've found a path.
+            if (current == goal) {
+                request.pathFound = true;
+
+                generateNodePath(request.resultPath);
+
+                return true;
+            }
+
+            // Visit current jump point's successors
+            visitSuccessors(request.endNode, request.heuristic);
+
+            // Account for the expanded node
+            clock.tick();
+
+            // Store the current time
+            lastTime = currentTime;
+        } while (!openList.isEmpty());
+
+        // The open list is empty and we've not found a path.
+        request.pathFound = false;
+        return true;
+    }
+
+    /**
+     * Initializes the search.
+     *
+     * @return {@code false} if the start or the goal tile is not walkable, meaning that there's no path; {@code true} otherwise.
+     */
+    protected boolean initSearch(N startNode, N endNode, Heuristic<N> heuristic) {
+        if (metrics != null) metrics.reset();
+
+        // Increment the search id
+        if (++searchId < 0) searchId = 1;
+
+        // Initialize the open list
+        openList.clear();
+        current = NO_PARENT;
+
+        int startX = grid.getX(startNode), startY = grid.getY(startNode);
+        goal = grid.getX(endNode) + grid.getY(endNode) * width;
+        if (!grid.isWalkable(startX, startY) || !grid.isWalkable(goal % width, goal / width)) return false;
+
+        // Initialize the start tile and add it to the open list
+        int start = startX + startY * width;
+        touch(start);
+        parents[start] = NO_PARENT;
+        costSoFar[start] = 0;
+        addToOpenList(start, heuristic.estimate(startNode, endNode));
+        return true;
+    }
+
+    protected void visitSuccessors(N endNode, Heuristic<N> heuristic) {
+        int x = current % width;
+        int y = current / width;
+        int count = findNeighbors(x, y);
+
+        for (int i = 0; i < count; i++) {
+            int neighbor = neighborBuffer[i];
+            int nx = neighbor % width;
+            int ny = neighbor / width;
+
+            // Jump from the neighbor along the direction we moved
+            int jumpPoint = jump(nx, ny, nx - x, ny - y);
+            if (jumpPoint == NO_PARENT) continue;
+
+            if (metrics != null) metrics.visitedNodes++;
+
+            int jx = jumpPoint % width;
+            int jy = jumpPoint / width;
+            float nodeCost = costSoFar[current] + octileDistance(jx - x, jy - y);
+
+            float nodeHeuristic;
+            touch(jumpPoint);
+            int category = categories[jumpPoint];
+            if (category == UNVISITED) {
+                nodeHeuristic = heuristic.estimate(grid.getNode(jx, jy), endNode);
+            } else {
+                // If we didn't find a shorter route, skip
+                if (costSoFar[jumpPoint] <= nodeCost) continue;
+
+                // Reuse the previously calculated heuristic
+                nodeHeuristic = estimatedTotalCost[jumpPoint] - costSoFar[jumpPoint];
+            }
+
+            costSoFar[jumpPoint] = nodeCost;
+            parents[jumpPoint] = current;
+            addToOpenList(jumpPoint, nodeCost + nodeHeuristic);
+        }
+    }
+
+    /**
+     * Stores the pruned neighbors of the tile at the given coordinates into the neighbor buffer. The direction of travel is given
+     * by the parent of the current jump point.
+     *
+     * @return the number of neighbors.
+     */
+    private int findNeighbors(int x, int y) {
+        int[] neighbors = neighborBuffer;
+        int count = 0;
+        int parent = parents[current];
+
+        if (parent == NO_PARENT) {
+            // The start node has no direction of travel: all its neighbors are natural
+            boolean e = isWalkable(x + 1, y), w = isWalkable(x - 1, y);
+            boolean n = isWalkable(x, y + 1), s = isWalkable(x, y - 1);
+            if (e) neighbors[count++] = current + 1;
+            if (w) neighbors[count++] = current - 1;
+            if (n) neighbors[count++] = current + width;
+            if (s) neighbors[count++] = current - width;
+            if (e && n && isWalkable(x + 1, y + 1)) neighbors[count++] = current + 1 + width;
+            if (e && s && isWalkable(x + 1, y - 1)) neighbors[count++] = current + 1 - width;
+            if (w && n && isWalkable(x - 1, y + 1)) neighbors[count++] = current - 1 + width;
+            if (w && s && isWalkable(x - 1, y - 1)) neighbors[count++] = current - 1 - width;
+            return count;
+        }
+
+        int dx = Integer.signum(x - parent % width);
+        int dy = Integer.signum(y - parent / width);
+
+        if (dx != 0 && dy != 0) { // Diagonal move
+            boolean vertical = isWalkable(x, y + dy);
+            boolean horizontal = isWalkable(x + dx, y);
+            if (vertical) neighbors[count++] = current + dy * width;
+            if (horizontal) neighbors[count++] = current + dx;
+            if (vertical && horizontal && isWalkable(x + dx, y + dy)) neighbors[count++] = current + dx + dy * width;
+        } else if (dx != 0) { // Horizontal move
+            boolean next = isWalkable(x + dx, y);
+            boolean up = isWalkable(x, y + 1);
+            boolean down = isWalkable(x, y - 1);
+            if (next) {
+                neighbors[count++] = current + dx;
+                if (up && isWalkable(x + dx, y + 1)) neighbors[count++] = current + dx + width;
+                if (down && isWalkable(x + dx, y - 1)) neighbors[count++] = current + dx - width;
+            }
+            if (up) neighbors[count++] = current + width;
+            if (down) neighbors[count++] = current - width;
+        } else { // Vertical move
+            boolean next = isWalkable(x, y + dy);
+            boolean right = isWalkable(x + 1, y);
+            boolean left = isWalkable(x - 1, y);
+            if (next) {
+                neighbors[count++] = current + dy * width;
+                if (right && isWalkable(x + 1, y + dy)) neighbors[count++] = current + 1 + dy * width;
+                if (left && isWalkable(x - 1, y + dy)) neighbors[count++] = current - 1 + dy * width;
+            }
+            if (right) neighbors[count++] = current + 1;
+            if (left) neighbors[count++] = current - 1;
+        }
+        return count;
+    }
+
+    /**
+     * Scans the grid from the given tile in the given direction until a jump point is found.
+     *
+     * @return the index of the jump point or {@link #NO_PARENT} if the scan reached a dead end.
+     */
+    private int jump(int x, int y, int dx, int dy) {
+        while (true) {
+            if (!isWalkable(x, y)) return NO_PARENT;
+            int index = x + y * width;
+            if (index == goal) return index;
+
+            if (dx != 0 && dy != 0) {
+                // When moving diagonally, stop if a horizontal or vertical scan finds a jump point
+                if (jump(x + dx, y, dx, 0) != NO_PARENT || jump(x, y + dy, 0, dy) != NO_PARENT) return index;
+
+                // Corners can't be cut
+                if (!isWalkable(x + dx, y) || !isWalkable(x, y + dy)) return NO_PARENT;
+            } else if (dx != 0) {
+                // Stop if there is a forced neighbor
+                if ((isWalkable(x, y + 1) && !isWalkable(x - dx, y + 1)) || (isWalkable(x, y - 1) && !isWalkable(x - dx, y - 1)))
+                    return index;
+            } else {
+                // Stop if there is a forced neighbor
+                if ((isWalkable(x + 1, y) && !isWalkable(x + 1, y - dy)) || (isWalkable(x - 1, y) && !isWalkable(x - 1, y - dy)))
+                    return index;
+            }
+
+            x += dx;
+            y += dy;
+        }
+    }
+
+    protected void generateConnectionPath(GraphPath<Connection<N>> outPath) {
+
+        // Work back along the path, accumulating connections tile by tile
+        while (parents[current] != NO_PARENT) {
+            int parent = parents[current];
+            int x = current % width, y = current / width;
+            int dx = Integer.signum(parent % width - x), dy = Integer.signum(parent / width - y);
+            N toNode = grid.getNode(x, y);
+            do {
+                x += dx;
+                y += dy;
+                N fromNode = grid.getNode(x, y);
+                outPath.add(findConnection(fromNode, toNode));
+                toNode = fromNode;
+            } while (x + y * width != parent);
+            current = parent;
+        }
+
+        // Reverse the path
+        outPath.reverse();
+    }
+
+    protected void generateNodePath(GraphPath<N> outPath) {
+
+        // Work back along the path, accumulating nodes tile by tile
+        outPath.add(grid.getNode(current % width, current / width));
+        while (parents[current] != NO_PARENT) {
+            int parent = parents[current];
+            int x = current % width, y = current / width;
+            int dx = Integer.signum(parent % width - x), dy = Integer.signum(parent / width - y);
+            do {
+                x += dx;
+                y += dy;
+                outPath.add(grid.getNode(x, y));
+            } while (x + y * width != parent);
+            current = parent;
+        }
+
+        // Reverse the path
+        outPath.reverse();
+    }
+
+    /**
+     * Returns the connection going from {@code fromNode} to the adjacent {@code toNode}.
+     */
+    protected Connection<N> findConnection(N fromNode, N toNode) {
+        Array<Connection<N>> connections = grid.getConnections(fromNode);
+        for (int i = 0; i < connections.size; i++) {
+            Connection<N> connection = connections.get(i);
+            if (connection.getToNode() == toNode) return connection;
+        }
+        return null;
+    }
+
+    protected void addToOpenList(int tile, float estimatedTotalCost) {
+        this.estimatedTotalCost[tile] = estimatedTotalCost;
+        openList.add(tile, estimatedTotalCost);
+        categories[tile] = OPEN;
+        if (metrics != null) {
+            metrics.openListAdditions++;
+            metrics.openListPeak = Math.max(metrics.openListPeak, openList.size());
+        }
+    }
+
+    private boolean isWalkable(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && grid.isWalkable(x, y);
+    }
+
+    /**
+     * Resets the category of the given tile if it has not been visited yet by the current search.
+     */
+    private void touch(int tile) {
+        if (searchIds[tile] != searchId) {
+            categories[tile] = UNVISITED;
+            searchIds[tile] = searchId;
+        }
+    }
+
+    /**
+     * Returns the cost of the shortest 8-connected move covering the given offsets.
+     */
+    static float octileDistance(int dx, int dy) {
+        dx = Math.abs(dx);
+        dy = Math.abs(dy);
+        return dx > dy ? (dx - dy) + dy * SQRT2 : (dy - dx) + dx * SQRT2;
+    }
+}
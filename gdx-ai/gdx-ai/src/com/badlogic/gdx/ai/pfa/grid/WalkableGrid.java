@@ -0,0 +1,55 @@
+package com.badlogic.gdx.ai.pfa.grid;
+
+import com.badlogic.gdx.ai.pfa.Graph;
+
+/**
+ * A {@link Graph} laid out as a rectangular grid of tiles where every tile is either walkable or blocked. Walkable tiles are
+ * connected to their walkable neighbors with uniform costs: 1 for orthogonal moves and {@code sqrt(2)} for diagonal moves.
+ * Diagonal moves are allowed only when both the orthogonally adjacent tiles are walkable, meaning that paths never cut corners.
+ * <p>
+ * The {@link #getConnections(Object) getConnections} method must be consistent with {@link #isWalkable(int, int)}. Grid-aware
+ * path finders like the {@link JumpPointSearchPathFinder} query walkability directly and only use connections to build connection
+ * paths.
+ *
+ * @param <N> Type of node
+ *
+ */
+public interface WalkableGrid<N> extends Graph<N> {
+
+    /**
+     * Returns the number of columns of this grid.
+     */
+    int getWidth();
+
+    /**
+     * Returns the number of rows of this grid.
+     */
+    int getHeight();
+
+    /**
+     * Returns {@code true} if the tile at the given coordinates is walkable; {@code false} if it's blocked or the coordinates are
+     * out of bounds.
+     *
+     * @param x the column of the tile
+     * @param y the row of the tile
+     */
+    boolean isWalkable(int x, int y);
+
+    /**
+     * Returns the node of the tile at the given coordinates. The same instance is expected to be returned for the same tile.
+     *
+     * @param x the column of the tile, in the range [0, {@link #getWidth()})
+     * @param y the row of the tile, in the range [0, {@link #getHeight()})
+     */
+    N getNode(int x, int y);
+
+    /**
+     * Returns the column of the given node.
+     */
+    int getX(N node);
+
+    /**
+     * Returns the row of the given node.
+     */
+    int getY(N node);
+}
@@ -0,0 +1,312 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.PathFinder;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.ai.pfa.SearchClock;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder.Metrics;
+import com.badlogic.gdx.ai.utils.IndexedDaryHeap;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A fully implemented {@link PathFinder} running two A* searches at the same time: a forward search from the start node and a
+ * backward search from the end node, following incoming connections. The search with the smallest open list is expanded first,
+ * so when one end of the path is enclosed (a long corridor, a dead end, a room with a single door) the search from that end gets
+ * out quickly instead of flooding the area around the other end.
+ * <p>
+ * Every time a node reached by one search is reached by the other search as well, the path through that node becomes a candidate.
+ * The search stops as soon as the lowest estimated total cost of either open list is not lower than the cost of the best
+ * candidate, at which point no other path can be cheaper, meaning that the resulting path is optimal as long as the heuristic is
+ * admissible. The backward search estimates the cost from the start node to each node, so the heuristic must be admissible in
+ * both directions.
+ * <p>
+ * Since the backward search follows incoming connections, the graph must be a {@link ReversibleIndexedGraph}.
+ *
+ * @param <N> Type of node
+ *
+ */
+public class BidirectionalAStarPathFinder<N> implements PathFinder<N> {
+    private static final float INFINITY = Float.POSITIVE_INFINITY;
+
+    private static final int FORWARD = 0;
+    private static final int BACKWARD = 1;
+
+    private static final int UNVISITED = 0;
+    private static final int OPEN = 1;
+    private static final int CLOSED = 2;
+
+    ReversibleIndexedGraph<N> graph;
+    N[] nodes;
+    IndexedDaryHeap[] openLists;
+    float[][] costSoFar;
+    float[][] heuristics;
+    Connection<N>[][] connections;
+    int[][] categories;
+    int[][] searchIds;
+    Metrics[] allMetrics;
+    Array<Connection<N>> pathConnections;
+
+    N startNode;
+    N endNode;
+    Heuristic<N> heuristic;
+    int start;
+    int end;
+    int meeting;
+    float bestCost;
+
+    /**
+     * The metrics of the forward search, or {@code null} if metrics are not calculated.
+     */
+    public Metrics forwardMetrics;
+
+    /**
+     * The metrics of the backward search, or {@code null} if metrics are not calculated.
+     */
+    public Metrics backwardMetrics;
+
+    /**
+     * The unique ID for each search run. Used to mark nodes.
+     */
+    private int searchId;
+
+    public BidirectionalAStarPathFinder(ReversibleIndexedGraph<N> graph) {
+        this(graph, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public BidirectionalAStarPathFinder(ReversibleIndexedGraph<N> graph, boolean calculateMetrics) {
+        this.graph = graph;
+        int nodeCount = graph.getNodeCount();
+        this.nodes = (N[]) new Object[nodeCount];
+        this.openLists = new IndexedDaryHeap[] {new IndexedDaryHeap(nodeCount), new IndexedDaryHeap(nodeCount)};
+        this.costSoFar = new float[2][nodeCount];
+        this.heuristics = new float[2][nodeCount];
+        this.connections = (Connection<N>[][]) new Connection[2][nodeCount];
+        this.categories = new int[2][nodeCount];
+        this.searchIds = new int[2][nodeCount];
+        this.pathConnections = new Array<Connection<N>>();
+        if (calculateMetrics) {
+            this.forwardMetrics = new Metrics();
+            this.backwardMetrics = new Metrics();
+            this.allMetrics = new Metrics[] {forwardMetrics, backwardMetrics};
+        }
+    }
+
+    @Override
+    public boolean searchConnectionPath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<Connection<N>> outPath) {
+
+        // Perform bidirectional AStar
+        boolean found = search(startNode, endNode, heuristic);
+
+        if (found) {
+            // Create a path made of connections
+            generateConnectionPath(outPath);
+        }
+
+        return found;
+    }
+
+    @Override
+    public boolean searchNodePath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<N> outPath) {
+
+        // Perform bidirectional AStar
+        boolean found = search(startNode, endNode, heuristic);
+
+        if (found) {
+            // Create a path made of nodes
+            generateNodePath(outPath);
+        }
+
+        return found;
+    }
+
+    protected boolean search(N startNode, N endNode, Heuristic<N> heuristic) {
+
+        initSearch(startNode, endNode, heuristic);
+
+        // Alternately expand the two searches until they can't improve the best path
+        while (!isSearchComplete())
+            expandNode(selectDirection());
+
+        return bestCost != INFINITY;
+    }
+
+    @Override
+    public boolean search(PathFinderRequest<N> request, long timeToRun) {
+
+        SearchClock clock = request.clock;
+        long lastTime = clock.getTime();
+
+        // We have to initialize the search if the status has just changed
+        if (request.statusChanged) {
+            initSearch(request.startNode, request.endNode, request.heuristic);
+            request.statusChanged = false;
+        }
+
+        // Alternately expand the two searches until they can't improve the best path
+        while (!isSearchComplete()) {
+
+            // Check the available time
+            long currentTime = clock.getTime();
+            timeToRun -= currentTime - lastTime;
+            if (timeToRun <= clock.getTolerance()) return false;
+
+            expandNode(selectDirection());
+
+            // Account for the expanded node
+            clock.tick();
+
+            // Store the current time
+            lastTime = currentTime;
+        }
+
+        request.pathFound = bestCost != INFINITY;
+        if (request.pathFound) generateNodePath(request.resultPath);
+        return true;
+    }
+
+    protected void initSearch(N startNode, N endNode, Heuristic<N> heuristic) {
+        if (allMetrics != null) {
+            forwardMetrics.reset();
+            backwardMetrics.reset();
+        }
+
+        // Increment the search id
+        if (++searchId < 0) searchId = 1;
+
+        this.startNode = startNode;
+        this.endNode = endNode;
+        this.heuristic = heuristic;
+        this.start = graph.getIndex(startNode);
+        this.end = graph.getIndex(endNode);
+        this.bestCost = INFINITY;
+        this.meeting = -1;
+
+        // Initialize the open lists with the start node and the end node respectively
+        openLists[FORWARD].clear();
+        openLists[BACKWARD].clear();
+        visit(FORWARD, startNode, start, 0, null);
+        visit(BACKWARD, endNode, end, 0, null);
+    }
+
+    /**
+     * Returns {@code true} if either search has run out of nodes or can't find a path cheaper than the best one found so far.
+     */
+    protected boolean isSearchComplete() {
+        IndexedDaryHeap forward = openLists[FORWARD], backward = openLists[BACKWARD];
+        return forward.isEmpty() || backward.isEmpty() || forward.peekPriority() >= bestCost
+                || backward.peekPriority() >= bestCost;
+    }
+
+    /**
+     * Returns the direction of the search with the smallest open list.
+     */
+    protected int selectDirection() {
+        return openLists[FORWARD].size() <= openLists[BACKWARD].size() ? FORWARD : BACKWARD;
+    }
+
+    protected void expandNode(int direction) {
+        // Retrieve the node with smallest estimated total cost from the open list
+        int current = openLists[direction].pop();
+        categories[direction][current] = CLOSED;
+        float currentCost = costSoFar[direction][current];
+
+        // Get current node's outgoing or incoming connections, depending on the direction
+        Array<Connection<N>> nodeConnections = direction == FORWARD ? graph.getConnections(nodes[current])
+                : graph.getIncomingConnections(nodes[current]);
+
+        // Loop through each connection in turn
+        for (int i = 0; i < nodeConnections.size; i++) {
+            if (allMetrics != null) allMetrics[direction].visitedNodes++;
+
+            Connection<N> connection = nodeConnections.get(i);
+            N node = direction == FORWARD ? connection.getToNode() : connection.getFromNode();
+            int index = graph.getIndex(node);
+            float nodeCost = currentCost + connection.getCost();
+
+            // If we didn't find a shorter route to a visited node, skip
+            if (searchIds[direction][index] == searchId && categories[direction][index] != UNVISITED
+                    && costSoFar[direction][index] <= nodeCost) continue;
+
+            visit(direction, node, index, nodeCost, connection);
+        }
+    }
+
+    /**
+     * Opens the given node in the given direction with a better cost and checks whether it's reached by the other search.
+     */
+    private void visit(int direction, N node, int index, float nodeCost, Connection<N> connection) {
+        if (searchIds[direction][index] != searchId) {
+            searchIds[direction][index] = searchId;
+            categories[direction][index] = UNVISITED;
+        }
+        if (categories[direction][index] == UNVISITED) {
+            // We'll need to calculate the heuristic value using the function
+            nodes[index] = node;
+            heuristics[direction][index] = direction == FORWARD ? heuristic.estimate(node, endNode)
+                    : heuristic.estimate(startNode, node);
+        }
+
+        // Update node's cost and connection, and add it to the open list with the estimated total cost
+        costSoFar[direction][index] = nodeCost;
+        connections[direction][index] = connection;
+        IndexedDaryHeap openList = openLists[direction];
+        openList.add(index, nodeCost + heuristics[direction][index]);
+        categories[direction][index] = OPEN;
+        if (allMetrics != null) {
+            Metrics metrics = allMetrics[direction];
+            metrics.openListAdditions++;
+            metrics.openListPeak = Math.max(metrics.openListPeak, openList.size());
+        }
+
+        // If the other search has reached the node too, the path through it is a candidate
+        int opposite = 1 - direction;
+        if (searchIds[opposite][index] == searchId && categories[opposite][index] != UNVISITED) {
+            float pathCost = nodeCost + costSoFar[opposite][index];
+            if (pathCost < bestCost) {
+                bestCost = pathCost;
+                meeting = index;
+            }
+        }
+    }
+
+    /**
+     * Collects the connections of the best path into {@link #pathConnections}, from the start node to the meeting node and then
+     * from the meeting node to the end node.
+     */
+    protected void collectPathConnections() {
+        pathConnections.clear();
+
+        // Work back along the forward half of the path, accumulating connections
+        int index = meeting;
+        while (index != start) {
+            Connection<N> connection = connections[FORWARD][index];
+            pathConnections.add(connection);
+            index = graph.getIndex(connection.getFromNode());
+        }
+        pathConnections.reverse();
+
+        // Work forward along the backward half of the path
+        index = meeting;
+        while (index != end) {
+            Connection<N> connection = connections[BACKWARD][index];
+            pathConnections.add(connection);
+            index = graph.getIndex(connection.getToNode());
+        }
+    }
+
+    protected void generateConnectionPath(GraphPath<Connection<N>> outPath) {
+        collectPathConnections();
+        for (int i = 0; i < pathConnections.size; i++)
+            outPath.add(pathConnections.get(i));
+    }
+
+    protected void generateNodePath(GraphPath<N> outPath) {
+        collectPathConnections();
+        outPath.add(startNode);
+        for (int i = 0; i < pathConnections.size; i++)
+            outPath.add(pathConnections.get(i).getToNode());
+    }
+}
@@ -0,0 +1,34 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A {@code ClusterPartitioner} splits the nodes of a graph into disjoint clusters, typically small and compact areas of the map
+ * like the rectangular blocks of a tiled map. It's used by the {@link ClusteredHierarchicalGraph} to build the abstract level of
+ * the hierarchy.
+ *
+ * @param <N> Type of node
+ *
+ */
+public interface ClusterPartitioner<N> {
+
+    /**
+     * Returns the number of clusters.
+     */
+    int getClusterCount();
+
+    /**
+     * Returns the cluster of the given node, in the range [0, {@link #getClusterCount()}).
+     *
+     * @param node the node
+     */
+    int getCluster(N node);
+
+    /**
+     * Adds all the nodes of the given cluster to the specified array. Every node of the graph must belong to exactly one cluster.
+     *
+     * @param cluster  the cluster
+     * @param outNodes the array the nodes are added to
+     */
+    void collectNodes(int cluster, Array<N> outNodes);
+}
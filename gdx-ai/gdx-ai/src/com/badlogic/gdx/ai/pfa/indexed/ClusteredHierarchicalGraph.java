@@ -0,0 +1,431 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultConnection;
+import com.badlogic.gdx.ai.pfa.HierarchicalPathFinder;
+import com.badlogic.gdx.ai.utils.IndexedDaryHeap;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * An {@link IndexedHierarchicalGraph} automatically built on top of any {@link IndexedGraph} as described by the HPA*
+ * (Hierarchical Path-Finding A*) algorithm, so that you don't have to write the levels of the hierarchy by hand.
+ * <p>
+ * The nodes of the underlying graph are split into clusters by a {@link ClusterPartitioner}. Level 0 is the underlying graph
+ * itself. Level 1 is an abstract graph made of entrance nodes: for each contiguous stretch of connections crossing the border
+ * between two clusters, the node in the middle of the stretch becomes an entrance on both sides. Entrances are linked to their
+ * counterpart in the adjacent cluster and to every other entrance of their own cluster they can reach without leaving the
+ * cluster; the cost of these intra-cluster connections is the cost of the shortest path within the cluster and is computed once,
+ * when the cluster is built. Long-distance searches on the abstract level expand only a small fraction of the nodes a search on
+ * the underlying graph would expand.
+ * <p>
+ * Since entrances are nodes of the underlying graph, converting a node from level 1 to level 0 returns the node itself, while
+ * converting a node from level 0 to level 1 returns the entrance of its cluster that is closest to it. The user's heuristic can
+ * be used on both levels, and an {@link IndexedAStarPathFinder} created for this graph can search both levels.
+ * <p>
+ * When the underlying graph changes, for instance because a tile becomes blocked, call {@link #rebuildCluster(int)} for the
+ * cluster containing the change: the cluster is rebuilt and its neighbors are updated, which is much cheaper than rebuilding the
+ * whole hierarchy.
+ * <p>
+ * The underlying graph is assumed to be undirected, meaning that for each connection from A to B there's a connection from B to A
+ * with the same cost.
+ *
+ * @param <N> Type of node
+ * @see HierarchicalPathFinder
+ *
+ */
+public class ClusteredHierarchicalGraph<N> extends IndexedHierarchicalGraph<N> {
+
+    IndexedGraph<N> graph;
+    ClusterPartitioner<N> partitioner;
+
+    N[] nodes;
+    Array<Connection<N>>[] abstractConnections;
+    int[] entrances;
+    final Array<Connection<N>> noConnections;
+
+    // Dijkstra's state
+    float[] costs;
+    int[] origins;
+    int[] searchIds;
+    int searchId;
+    IndexedDaryHeap openList;
+
+    // Scratch data used while building clusters
+    int[] marks;
+    int markId;
+    final Array<N> clusterNodes;
+    final Array<N> clusterEntrances;
+    final Array<Crossing<N>> crossings;
+    final Array<Crossing<N>> crossingPool;
+    final IntArray neighbors;
+
+    /**
+     * Creates a {@code ClusteredHierarchicalGraph} with 2 levels and builds the whole hierarchy.
+     *
+     * @param graph       the underlying graph
+     * @param partitioner the partitioner splitting the nodes of the underlying graph into clusters
+     */
+    @SuppressWarnings("unchecked")
+    public ClusteredHierarchicalGraph(IndexedGraph<N> graph, ClusterPartitioner<N> partitioner) {
+        super(2);
+        this.graph = graph;
+        this.partitioner = partitioner;
+        int nodeCount = graph.getNodeCount();
+        this.nodes = (N[]) new Object[nodeCount];
+        this.abstractConnections = (Array<Connection<N>>[]) new Array[nodeCount];
+        this.entrances = new int[nodeCount];
+        this.noConnections = new Array<Connection<N>>(0);
+        this.costs = new float[nodeCount];
+        this.origins = new int[nodeCount];
+        this.searchIds = new int[nodeCount];
+        this.openList = new IndexedDaryHeap(nodeCount);
+        this.marks = new int[nodeCount];
+        this.clusterNodes = new Array<N>();
+        this.clusterEntrances = new Array<N>();
+        this.crossings = new Array<Crossing<N>>();
+        this.crossingPool = new Array<Crossing<N>>();
+        this.neighbors = new IntArray();
+        rebuild();
+    }
+
+    @Override
+    public int getIndex(N node) {
+        return graph.getIndex(node);
+    }
+
+    @Override
+    public int getNodeCount() {
+        return graph.getNodeCount();
+    }
+
+    @Override
+    public Array<Connection<N>> getConnections(N fromNode) {
+        if (level == 0) return graph.getConnections(fromNode);
+        Array<Connection<N>> connections = abstractConnections[graph.getIndex(fromNode)];
+        return connections == null ? noConnections : connections;
+    }
+
+    @Override
+    public N convertNodeBetweenLevels(int inputLevel, N node, int outputLevel) {
+        // Entrances are nodes of the underlying graph, so only going up needs a conversion
+        if (inputLevel < outputLevel) return nodes[entrances[graph.getIndex(node)]];
+        return node;
+    }
+
+    /**
+     * Returns the underlying graph.
+     */
+    public IndexedGraph<N> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the partitioner splitting the nodes of the underlying graph into clusters.
+     */
+    public ClusterPartitioner<N> getPartitioner() {
+        return partitioner;
+    }
+
+    /**
+     * Returns {@code true} if the given node is an entrance, i.e. a node of the abstract level; {@code false} otherwise.
+     */
+    public boolean isEntrance(N node) {
+        return abstractConnections[graph.getIndex(node)] != null;
+    }
+
+    /**
+     * Rebuilds the whole hierarchy. This is called by the constructor; call it again only if most of the underlying graph has
+     * changed.
+     */
+    public void rebuild() {
+        int clusterCount = partitioner.getClusterCount();
+        for (int cluster = 0; cluster < clusterCount; cluster++)
+            updateEntrances(cluster);
+        for (int cluster = 0; cluster < clusterCount; cluster++)
+            linkEntrances(cluster);
+    }
+
+    /**
+     * Rebuilds the given cluster after its nodes or connections have changed. The entrances shared with the adjacent clusters are
+     * updated as well, and adjacent clusters are re-linked only when their set of entrances has changed.
+     * <p>
+     * The connections internal to the other clusters must not have changed; if they did, rebuild those clusters too.
+     *
+     * @param cluster the cluster to rebuild
+     */
+    public void rebuildCluster(int cluster) {
+        // Neighbors before the change
+        neighbors.clear();
+        collectNeighbors(cluster);
+
+        updateEntrances(cluster);
+        linkEntrances(cluster);
+
+        // Neighbors after the change
+        collectNeighbors(cluster);
+
+        for (int i = 0; i < neighbors.size; i++) {
+            int neighbor = neighbors.get(i);
+            if (updateEntrances(neighbor)) linkEntrances(neighbor);
+        }
+    }
+
+    /**
+     * Adds the clusters the entrances of the given cluster are connected to to {@link #neighbors}.
+     */
+    private void collectNeighbors(int cluster) {
+        clusterNodes.clear();
+        partitioner.collectNodes(cluster, clusterNodes);
+        for (int i = 0; i < clusterNodes.size; i++) {
+            Array<Connection<N>> connections = abstractConnections[graph.getIndex(clusterNodes.get(i))];
+            if (connections == null) continue;
+            for (int j = 0; j < connections.size; j++) {
+                int neighbor = partitioner.getCluster(connections.get(j).getToNode());
+                if (neighbor != cluster && !neighbors.contains(neighbor)) neighbors.add(neighbor);
+            }
+        }
+    }
+
+    /**
+     * Finds the entrances of the given cluster and replaces their connections to the adjacent clusters. Connections between the
+     * entrances of the cluster are left untouched.
+     *
+     * @param cluster the cluster
+     * @return {@code true} if the set of entrances of the cluster has changed; {@code false} otherwise.
+     */
+    protected boolean updateEntrances(int cluster) {
+        clusterNodes.clear();
+        partitioner.collectNodes(cluster, clusterNodes);
+
+        // Collect the connections crossing the border of the cluster
+        crossings.clear();
+        for (int i = 0; i < clusterNodes.size; i++) {
+            N node = clusterNodes.get(i);
+            nodes[graph.getIndex(node)] = node;
+            Array<Connection<N>> connections = graph.getConnections(node);
+            for (int j = 0; j < connections.size; j++) {
+                Connection<N> connection = connections.get(j);
+                int neighbor = partitioner.getCluster(connection.getToNode());
+                if (neighbor != cluster) addCrossing(cluster, neighbor, connection);
+            }
+        }
+
+        // Sort crossings by neighbor and then along the border. The order is the same when seen from the neighbor, so both sides
+        // pick the same entrances.
+        crossings.sort();
+
+        // Pick the middle crossing of each contiguous stretch of crossings as entrance
+        if (++markId < 0) markId = 1;
+        int stretchStart = 0;
+        for (int i = 1; i <= crossings.size; i++) {
+            if (i < crossings.size && isContiguous(crossings.get(i - 1), crossings.get(i))) continue;
+            Crossing<N> entrance = crossings.get((stretchStart + i - 1) >>> 1);
+            entrance.selected = true;
+            marks[graph.getIndex(entrance.fromNode)] = markId;
+            stretchStart = i;
+        }
+
+        // Update the set of entrances, removing the old connections to the adjacent clusters
+        boolean changed = false;
+        for (int i = 0; i < clusterNodes.size; i++) {
+            int index = graph.getIndex(clusterNodes.get(i));
+            Array<Connection<N>> connections = abstractConnections[index];
+            if (marks[index] != markId) {
+                if (connections != null) {
+                    abstractConnections[index] = null;
+                    changed = true;
+                }
+            } else if (connections == null) {
+                abstractConnections[index] = new Array<Connection<N>>();
+                changed = true;
+            } else {
+                for (int j = connections.size - 1; j >= 0; j--)
+                    if (partitioner.getCluster(connections.get(j).getToNode()) != cluster) connections.removeIndex(j);
+            }
+        }
+
+        // Add the new connections to the adjacent clusters
+        for (int i = 0; i < crossings.size; i++) {
+            Crossing<N> crossing = crossings.get(i);
+            if (!crossing.selected) continue;
+            abstractConnections[graph.getIndex(crossing.fromNode)].add(
+                    new AbstractConnection<N>(crossing.fromNode, crossing.toNode, crossing.cost));
+        }
+
+        return changed;
+    }
+
+    /**
+     * Replaces the connections between the entrances of the given cluster and computes the closest entrance of each node of the
+     * cluster.
+     *
+     * @param cluster the cluster
+     */
+    protected void linkEntrances(int cluster) {
+        clusterNodes.clear();
+        partitioner.collectNodes(cluster, clusterNodes);
+
+        // Collect the entrances and remove their old connections within the cluster
+        clusterEntrances.clear();
+        for (int i = 0; i < clusterNodes.size; i++) {
+            N node = clusterNodes.get(i);
+            Array<Connection<N>> connections = abstractConnections[graph.getIndex(node)];
+            if (connections == null) continue;
+            clusterEntrances.add(node);
+            for (int j = connections.size - 1; j >= 0; j--)
+                if (partitioner.getCluster(connections.get(j).getToNode()) == cluster) connections.removeIndex(j);
+        }
+
+        // Link each entrance to the other entrances it can reach within the cluster
+        for (int i = 0; i < clusterEntrances.size; i++) {
+            N entrance = clusterEntrances.get(i);
+            startSearch();
+            addSource(entrance);
+            searchCluster(cluster);
+            Array<Connection<N>> connections = abstractConnections[graph.getIndex(entrance)];
+            for (int j = 0; j < clusterEntrances.size; j++) {
+                N otherEntrance = clusterEntrances.get(j);
+                int index = graph.getIndex(otherEntrance);
+                if (otherEntrance != entrance && searchIds[index] == searchId)
+                    connections.add(new AbstractConnection<N>(entrance, otherEntrance, costs[index]));
+            }
+        }
+
+        // Find the closest entrance of each node by searching from all the entrances at once. Nodes that can't reach any
+        // entrance are isolated from the rest of the graph, so they all share the same representative.
+        startSearch();
+        for (int i = 0; i < clusterEntrances.size; i++)
+            addSource(clusterEntrances.get(i));
+        searchCluster(cluster);
+        int isolated = -1;
+        for (int i = 0; i < clusterNodes.size; i++) {
+            int index = graph.getIndex(clusterNodes.get(i));
+            if (searchIds[index] == searchId) {
+                entrances[index] = origins[index];
+            } else {
+                if (isolated < 0) isolated = index;
+                entrances[index] = isolated;
+            }
+        }
+    }
+
+    private void addCrossing(int cluster, int neighbor, Connection<N> connection) {
+        Crossing<N> crossing;
+        if (crossings.size < crossingPool.size) {
+            crossing = crossingPool.get(crossings.size);
+        } else {
+            crossing = new Crossing<N>();
+            crossingPool.add(crossing);
+        }
+        crossing.neighbor = neighbor;
+        crossing.fromNode = connection.getFromNode();
+        crossing.toNode = connection.getToNode();
+        crossing.cost = connection.getCost();
+        crossing.selected = false;
+        // Order crossings by the node in the cluster with the lowest number, so the order doesn't depend on the side
+        boolean fromFirst = cluster < neighbor;
+        crossing.firstNode = fromFirst ? crossing.fromNode : crossing.toNode;
+        crossing.secondNode = fromFirst ? crossing.toNode : crossing.fromNode;
+        crossing.firstIndex = graph.getIndex(crossing.firstNode);
+        crossing.secondIndex = graph.getIndex(crossing.secondNode);
+        crossings.add(crossing);
+    }
+
+    /**
+     * Returns {@code true} if the given sorted crossings belong to the same stretch, i.e. they lead to the same neighbor and their
+     * nodes on both sides of the border are either the same or adjacent.
+     */
+    private boolean isContiguous(Crossing<N> a, Crossing<N> b) {
+        return a.neighbor == b.neighbor //
+                && (a.firstNode == b.firstNode || isAdjacent(a.firstNode, b.firstNode)) //
+                && (a.secondNode == b.secondNode || isAdjacent(a.secondNode, b.secondNode));
+    }
+
+    private boolean isAdjacent(N fromNode, N toNode) {
+        Array<Connection<N>> connections = graph.getConnections(fromNode);
+        for (int i = 0; i < connections.size; i++)
+            if (connections.get(i).getToNode() == toNode) return true;
+        return false;
+    }
+
+    private void startSearch() {
+        if (++searchId < 0) searchId = 1;
+        openList.clear();
+    }
+
+    private void addSource(N node) {
+        int index = graph.getIndex(node);
+        searchIds[index] = searchId;
+        costs[index] = 0;
+        origins[index] = index;
+        openList.add(index, 0);
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the sources in the open list without leaving the given cluster.
+     */
+    private void searchCluster(int cluster) {
+        while (!openList.isEmpty()) {
+            int current = openList.pop();
+            float currentCost = costs[current];
+            Array<Connection<N>> connections = graph.getConnections(nodes[current]);
+            for (int i = 0; i < connections.size; i++) {
+                Connection<N> connection = connections.get(i);
+                N node = connection.getToNode();
+                if (partitioner.getCluster(node) != cluster) continue;
+                int index = graph.getIndex(node);
+                float cost = currentCost + connection.getCost();
+                if (searchIds[index] == searchId && costs[index] <= cost) continue;
+                searchIds[index] = searchId;
+                costs[index] = cost;
+                origins[index] = origins[current];
+                openList.add(index, cost);
+            }
+        }
+    }
+
+    /**
+     * A connection of the abstract level whose cost is cached.
+     *
+     * @param <N> Type of node
+     */
+    static class AbstractConnection<N> extends DefaultConnection<N> {
+        float cost;
+
+        public AbstractConnection(N fromNode, N toNode, float cost) {
+            super(fromNode, toNode);
+            this.cost = cost;
+        }
+
+        @Override
+        public float getCost() {
+            return cost;
+        }
+    }
+
+    /**
+     * A connection of the underlying graph crossing the border between two clusters.
+     *
+     * @param <N> Type of node
+     */
+    static class Crossing<N> implements Comparable<Crossing<N>> {
+        int neighbor;
+        N fromNode;
+        N toNode;
+        float cost;
+        N firstNode;
+        N secondNode;
+        int firstIndex;
+        int secondIndex;
+        boolean selected;
+
+        @Override
+        public int compareTo(Crossing<N> other) {
+            if (neighbor != other.neighbor) return neighbor < other.neighbor ? -1 : 1;
+            if (firstIndex != other.firstIndex) return firstIndex < other.firstIndex ? -1 : 1;
+            if (secondIndex != other.secondIndex) return secondIndex < other.secondIndex ? -1 : 1;
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+/**
+ * An {@link IndexedGraph} that can also describe its topology in terms of node indices and primitive costs. This is the graph
+ * used by the {@link PrimitiveIndexedAStarPathFinder}, which never touches {@link com.badlogic.gdx.ai.pfa.Connection Connection}
+ * objects while searching.
+ * <p>
+ * The regular {@link #getConnections(Object) getConnections} method is still used to build connection paths, so it must be
+ * consistent with {@link #getNeighbors(int, int[], float[])}.
+ *
+ * @param <N> Type of node
+ *
+ */
+public interface CompactIndexedGraph<N> extends IndexedGraph<N> {
+
+    /**
+     * Returns the node with the given index.
+     *
+     * @param index the index of the node, in the range [0, {@link #getNodeCount()})
+     * @return the node with the given index.
+     */
+    N getNode(int index);
+
+    /**
+     * Returns the maximum number of outgoing connections of any node in this graph. Path finders use this value to size the
+     * buffers passed to {@link #getNeighbors(int, int[], float[])}.
+     */
+    int getMaxNeighbors();
+
+    /**
+     * Writes the outgoing connections of the given node into the given buffers.
+     *
+     * @param nodeIndex    the index of the node whose outgoing connections will be returned
+     * @param outNeighbors the buffer receiving the indices of the nodes each connection leads to
+     * @param outCosts     the buffer receiving the non-negative cost of each connection
+     * @return the number of outgoing connections written to the buffers.
+     */
+    int getNeighbors(int nodeIndex, int[] outNeighbors, float[] outCosts);
+}
@@ -0,0 +1,446 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.utils.IndexedDaryHeap;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * A {@code CooperativePathPlanner} plans collision-free paths for many agents moving on the same graph with Windowed Hierarchical
+ * Cooperative A* (WHCA*).
+ * <p>
+ * Time is split into discrete time steps and every connection takes one time step to travel. Each agent plans its moves for the
+ * next {@code window} time steps with an A* search in space-time, where an agent can move along a connection or wait on its node,
+ * and then reserves the nodes of its plan in a space-time reservation table keyed by node index and time step. Agents planning
+ * later treat the reserved nodes as obstacles, so that no two agents occupy the same node at the same time nor swap their nodes
+ * through the same connection. Beyond the window the search is guided by the exact distance to the goal ignoring other agents,
+ * computed once by a backward Dijkstra search for each distinct goal and shared by all the agents heading to that goal.
+ * <p>
+ * Plans are rolled forward: each agent plans again every {@code window / 2} time steps, so the cost of planning is spread over the
+ * time steps and agents can react to each other well before their plans end. An agent that can't find a plan, for instance
+ * because other agents block a choke point, waits on its node until the end of the window and plans again on the next time step;
+ * any agent that had reserved that node in the meantime has to plan again as well. Call {@link #update()} once per time step; the
+ * node each agent should occupy is then returned by {@link Agent#getNode()}.
+ * <p>
+ * The planned path of an agent can be retrieved by {@link #getPlan(Agent, GraphPath, boolean)}, for instance to build the path
+ * followed by a {@code FollowPath} steering behavior.
+ * <p>
+ * The reservation table holds {@code (window + 1) * nodeCount} entries. Connections are assumed to be traversable in both
+ * directions with the same cost unless the graph is a {@link ReversibleIndexedGraph}.
+ *
+ * @param <N> Type of node
+ *
+ */
+public class CooperativePathPlanner<N> {
+    private static final float INFINITY = Float.POSITIVE_INFINITY;
+    private static final int NONE = -1;
+
+    IndexedGraph<N> graph;
+    int nodeCount;
+    int window;
+    N[] nodes;
+    Array<Agent<N>> agents;
+    IntMap<GoalDistances> goalDistances;
+    int time;
+    int nextAgentId;
+
+    /**
+     * The id of the agent reserving each node at each time step of the window, or 0 if the node is free. The entry of the node
+     * with index {@code i} at time step {@code t} is at {@code (t % (window + 1)) * nodeCount + i}.
+     */
+    int[] reservations;
+
+    /**
+     * The cost to wait one time step on a node other than the goal.
+     */
+    public float waitCost = 1;
+
+    // Space-time search state; state s stands for node s % nodeCount at s / nodeCount time steps from now
+    IndexedDaryHeap openList;
+    float[] costSoFar;
+    int[] parents;
+    int[] searchIds;
+    int searchId;
+    int lastState;
+
+    /**
+     * Creates a {@code CooperativePathPlanner} for the given graph.
+     *
+     * @param graph  the graph
+     * @param window the number of time steps each agent plans ahead
+     * @throws IllegalArgumentException if {@code window} is less than 2.
+     */
+    @SuppressWarnings("unchecked")
+    public CooperativePathPlanner(IndexedGraph<N> graph, int window) {
+        if (window < 2) throw new IllegalArgumentException("window must be at least 2");
+        this.graph = graph;
+        this.nodeCount = graph.getNodeCount();
+        this.window = window;
+        this.nodes = (N[]) new Object[nodeCount];
+        this.agents = new Array<Agent<N>>();
+        this.goalDistances = new IntMap<GoalDistances>();
+        this.reservations = new int[(window + 1) * nodeCount];
+        int stateCount = (window + 1) * nodeCount;
+        this.openList = new IndexedDaryHeap(stateCount);
+        this.costSoFar = new float[stateCount];
+        this.parents = new int[stateCount];
+        this.searchIds = new int[stateCount];
+    }
+
+    /**
+     * Adds an agent standing on the given node. The agent plans its path on the next call to {@link #update()}.
+     *
+     * @param startNode the node the agent is standing on
+     * @param goalNode  the node the agent is heading to
+     * @return the agent.
+     * @throws IllegalArgumentException if the start node is already reserved by another agent at the current time step.
+     */
+    public Agent<N> addAgent(N startNode, N goalNode) {
+        int start = graph.getIndex(startNode);
+        if (reservations[slot(time) + start] != 0)
+            throw new IllegalArgumentException("The start node is already reserved by another agent");
+        nodes[start] = startNode;
+        Agent<N> agent = new Agent<N>(this, ++nextAgentId);
+        agent.plan = new int[window + 1];
+        agent.plan[0] = start;
+        agent.planStart = time;
+        agent.planLength = 1;
+        agent.nextPlanTime = time;
+        reservations[slot(time) + start] = agent.id;
+        setGoal(agent, goalNode);
+        agents.add(agent);
+        return agent;
+    }
+
+    /**
+     * Removes the given agent, releasing its reservations.
+     *
+     * @param agent the agent
+     */
+    public void removeAgent(Agent<N> agent) {
+        if (!agents.removeValue(agent, true)) return;
+        release(agent);
+        releaseGoalDistances(agent.goal);
+        agent.planner = null;
+    }
+
+    /**
+     * Changes the goal of the given agent, which plans its path again on the next call to {@link #update()}.
+     *
+     * @param agent    the agent
+     * @param goalNode the node the agent is heading to
+     */
+    public void setGoal(Agent<N> agent, N goalNode) {
+        int goal = graph.getIndex(goalNode);
+        nodes[goal] = goalNode;
+        if (agent.goalDistances != null) releaseGoalDistances(agent.goal);
+        agent.goal = goal;
+        agent.goalDistances = acquireGoalDistances(goalNode, goal);
+        agent.nextPlanTime = time;
+    }
+
+    /**
+     * Plans the path of the agents that need it and then moves on to the next time step.
+     */
+    public void update() {
+        for (int i = 0; i < agents.size; i++) {
+            Agent<N> agent = agents.get(i);
+            if (agent.nextPlanTime <= time) plan(agent);
+        }
+
+        // The slot of the current time step is reused for the last time step of the new window
+        int slot = slot(time);
+        for (int i = 0; i < nodeCount; i++)
+            reservations[slot + i] = 0;
+        time++;
+    }
+
+    /**
+     * Returns the current time step.
+     */
+    public int getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the number of time steps each agent plans ahead.
+     */
+    public int getWindow() {
+        return window;
+    }
+
+    /**
+     * Stores into the given path the nodes the given agent is planned to occupy from the current time step on, one node per time
+     * step.
+     *
+     * @param agent         the agent
+     * @param outPath       the output path
+     * @param collapseWaits whether consecutive occurrences of the same node are stored only once, which is what a path following
+     *                      steering behavior needs; the resulting path is then free of collisions only as long as the agent
+     *                      keeps up with the time steps.
+     */
+    public void getPlan(Agent<N> agent, GraphPath<N> outPath, boolean collapseWaits) {
+        int from = Math.max(0, Math.min(time - agent.planStart, agent.planLength - 1));
+        int last = NONE;
+        for (int i = from; i < agent.planLength; i++) {
+            int node = agent.plan[i];
+            if (collapseWaits && node == last) continue;
+            outPath.add(nodes[node]);
+            last = node;
+        }
+    }
+
+    /**
+     * Plans the path of the given agent for the next window, replacing its previous reservations. If no plan can be found, the
+     * agent keeps what is left of its previous plan, as long as it's still reserved by the agent, and then waits on its last node
+     * until the end of the window. In that case the agent plans again on the next time step.
+     */
+    protected void plan(Agent<N> agent) {
+        int[] plan = agent.plan;
+        if (search(agent)) {
+            release(agent);
+            // Reconstruct the plan by following the parents of the last state back to the current time step
+            int state = lastState;
+            for (int t = window; t >= 0; t--) {
+                plan[t] = state % nodeCount;
+                state = parents[state];
+            }
+            agent.nextPlanTime = time + window / 2;
+        } else {
+            // Keep the previous plan up to the first node taken over by another agent that couldn't find a plan
+            int from = Math.min(time - agent.planStart, agent.planLength - 1);
+            int length = 1;
+            while (from + length < agent.planLength
+                    && reservations[slot(agent.planStart + from + length) + plan[from + length]] == agent.id)
+                length++;
+            release(agent);
+            System.arraycopy(plan, from, plan, 0, length);
+            for (int t = length; t <= window; t++)
+                plan[t] = plan[length - 1];
+            agent.nextPlanTime = time + 1;
+        }
+        agent.planStart = time;
+        agent.planLength = window + 1;
+        reserve(agent);
+    }
+
+    /**
+     * Runs an A* search in space-time from the current node of the given agent to any node at the end of the window, estimating
+     * the remaining cost with the exact distance to the goal ignoring other agents. The state reached at the end of the window is
+     * stored into {@link #lastState}.
+     *
+     * @return {@code true} if a plan has been found; {@code false} otherwise.
+     */
+    boolean search(Agent<N> agent) {
+        if (++searchId < 0) searchId = 1;
+        openList.clear();
+
+        float[] distances = agent.goalDistances.distances;
+        int start = agent.getCurrentIndex();
+        int agentId = agent.id;
+
+        costSoFar[start] = 0;
+        parents[start] = NONE;
+        searchIds[start] = searchId;
+        openList.add(start, estimate(distances, start));
+
+        while (!openList.isEmpty()) {
+            int state = openList.pop();
+            int node = state % nodeCount;
+            int t = state / nodeCount;
+            float stateCost = costSoFar[state];
+
+            if (t == window) {
+                lastState = state;
+                return true;
+            }
+
+            int nextSlot = slot(time + t + 1);
+            int slot = slot(time + t);
+
+            // Wait on the node, which is free at the goal
+            if (isFree(reservations[nextSlot + node], agentId))
+                open(state, (t + 1) * nodeCount + node, stateCost + (node == agent.goal ? 0 : waitCost), distances);
+
+            // Move along each connection
+            Array<Connection<N>> connections = graph.getConnections(nodes[node]);
+            for (int i = 0; i < connections.size; i++) {
+                Connection<N> connection = connections.get(i);
+                N toNode = connection.getToNode();
+                int to = graph.getIndex(toNode);
+                if (distances[to] == INFINITY) continue;
+                if (!isFree(reservations[nextSlot + to], agentId)) continue;
+
+                // Two agents can't swap their nodes
+                int other = reservations[slot + to];
+                if (other != 0 && other != agentId && reservations[nextSlot + node] == other) continue;
+
+                nodes[to] = toNode;
+                open(state, (t + 1) * nodeCount + to, stateCost + connection.getCost(), distances);
+            }
+        }
+        return false;
+    }
+
+    private void open(int parent, int state, float cost, float[] distances) {
+        if (searchIds[state] == searchId && costSoFar[state] <= cost) return;
+        searchIds[state] = searchId;
+        costSoFar[state] = cost;
+        parents[state] = parent;
+        openList.add(state, cost + estimate(distances, state % nodeCount));
+    }
+
+    private static float estimate(float[] distances, int node) {
+        // Nodes that can't reach the goal are still allowed to wait, for instance when the goal is unreachable
+        float distance = distances[node];
+        return distance == INFINITY ? 0 : distance;
+    }
+
+    private static boolean isFree(int reservation, int agentId) {
+        return reservation == 0 || reservation == agentId;
+    }
+
+    private int slot(int timeStep) {
+        return (timeStep % (window + 1)) * nodeCount;
+    }
+
+    /**
+     * Reserves the nodes of the plan of the given agent. Only the plan of an agent that couldn't find a plan can take over nodes
+     * reserved by other agents, which then have to plan again.
+     */
+    private void reserve(Agent<N> agent) {
+        for (int t = Math.max(time, agent.planStart), end = agent.planStart + agent.planLength; t < end; t++) {
+            int index = slot(t) + agent.plan[t - agent.planStart];
+            int other = reservations[index];
+            if (other != 0 && other != agent.id) replan(other);
+            reservations[index] = agent.id;
+        }
+    }
+
+    private void replan(int agentId) {
+        for (int i = 0; i < agents.size; i++) {
+            Agent<N> agent = agents.get(i);
+            if (agent.id == agentId) {
+                agent.nextPlanTime = time;
+                return;
+            }
+        }
+    }
+
+    private void release(Agent<N> agent) {
+        for (int t = Math.max(time, agent.planStart), end = agent.planStart + agent.planLength; t < end; t++) {
+            int index = slot(t) + agent.plan[t - agent.planStart];
+            if (reservations[index] == agent.id) reservations[index] = 0;
+        }
+    }
+
+    private GoalDistances acquireGoalDistances(N goalNode, int goal) {
+        GoalDistances distances = goalDistances.get(goal);
+        if (distances == null) {
+            distances = new GoalDistances(new float[nodeCount]);
+            computeDistances(goalNode, goal, distances.distances);
+            goalDistances.put(goal, distances);
+        }
+        distances.references++;
+        return distances;
+    }
+
+    private void releaseGoalDistances(int goal) {
+        GoalDistances distances = goalDistances.get(goal);
+        if (distances != null && --distances.references == 0) goalDistances.remove(goal);
+    }
+
+    /**
+     * Runs a backward Dijkstra search from the goal, storing the exact cost from every node to the goal.
+     */
+    private void computeDistances(N goalNode, int goal, float[] distances) {
+        for (int i = 0; i < nodeCount; i++)
+            distances[i] = INFINITY;
+        IndexedDaryHeap openList = this.openList;
+        openList.clear();
+        distances[goal] = 0;
+        openList.add(goal, 0);
+        boolean reverse = graph instanceof ReversibleIndexedGraph;
+        while (!openList.isEmpty()) {
+            int current = openList.pop();
+            float currentCost = distances[current];
+            Array<Connection<N>> connections = reverse ? ((ReversibleIndexedGraph<N>) graph).getIncomingConnections(nodes[current])
+                    : graph.getConnections(nodes[current]);
+            for (int i = 0; i < connections.size; i++) {
+                Connection<N> connection = connections.get(i);
+                N node = reverse ? connection.getFromNode() : connection.getToNode();
+                int index = graph.getIndex(node);
+                float cost = currentCost + connection.getCost();
+                if (cost >= distances[index]) continue;
+                nodes[index] = node;
+                distances[index] = cost;
+                openList.add(index, cost);
+            }
+        }
+    }
+
+    /**
+     * The exact distances to a goal, shared by all the agents heading to that goal.
+     */
+    static class GoalDistances {
+        final float[] distances;
+        int references;
+
+        GoalDistances(float[] distances) {
+            this.distances = distances;
+        }
+    }
+
+    /**
+     * An agent whose path is planned by a {@link CooperativePathPlanner}.
+     *
+     * @param <N> Type of node
+     */
+    public static class Agent<N> {
+        CooperativePathPlanner<N> planner;
+        final int id;
+        int goal;
+        GoalDistances goalDistances;
+        int[] plan;
+        int planStart;
+        int planLength;
+        int nextPlanTime;
+
+        /**
+         * Arbitrary data attached to this agent.
+         */
+        public Object userData;
+
+        Agent(CooperativePathPlanner<N> planner, int id) {
+            this.planner = planner;
+            this.id = id;
+        }
+
+        int getCurrentIndex() {
+            int step = planner.time - planStart;
+            return plan[step < planLength ? step : planLength - 1];
+        }
+
+        /**
+         * Returns the node this agent occupies at the current time step of its planner.
+         */
+        public N getNode() {
+            return planner.nodes[getCurrentIndex()];
+        }
+
+        /**
+         * Returns the node this agent is heading to.
+         */
+        public N getGoal() {
+            return planner.nodes[goal];
+        }
+
+        /**
+         * Returns {@code true} if this agent occupies its goal at the current time step.
+         */
+        public boolean hasReachedGoal() {
+            return getCurrentIndex() == goal;
+        }
+    }
+}
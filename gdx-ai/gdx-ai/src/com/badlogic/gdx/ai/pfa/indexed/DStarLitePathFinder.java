@@ -0,0 +1,447 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.PathFinder;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.ai.pfa.SearchClock;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder.Metrics;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A {@link PathFinder} implementing D* Lite, an incremental version of A* that keeps its search state between queries.
+ * <p>
+ * D* Lite searches backwards from the goal to the start node, so the start node can move along the path (as the agent walks it)
+ * without invalidating the previous search. When the graph changes, for instance a door closes or a wall is built, you have to
+ * call {@link #notifyEdgeCostChanged(Object, Object)} or {@link #notifyNodeChanged(Object)}: only the nodes whose cost to the goal
+ * is affected are then re-expanded by the next search, so re-planning cost is proportional to the change rather than to the size
+ * of the map.
+ * <p>
+ * The search state is kept as long as the goal and the heuristic don't change; searching towards a different goal or with a
+ * different heuristic starts from scratch. The heuristic must be admissible and consistent, and since D* Lite estimates the
+ * distance from the start node to every node it must estimate costs in both directions for directed graphs.
+ * <p>
+ * Since predecessors have to be updated whenever the cost to the goal of a node changes, the graph must be a
+ * {@link ReversibleIndexedGraph}.
+ *
+ * @param <N> Type of node
+ *
+ */
+public class DStarLitePathFinder<N> implements PathFinder<N> {
+    private static final float INFINITY = Float.POSITIVE_INFINITY;
+
+    ReversibleIndexedGraph<N> graph;
+    N[] nodes;
+    float[] g;
+    float[] rhs;
+    int[] searchIds;
+    KeyQueue queue;
+    Array<Connection<N>> pathConnections;
+
+    N startNode;
+    N lastStartNode;
+    N goalNode;
+    Heuristic<N> heuristic;
+    int start;
+    int goal;
+    float km;
+
+    public Metrics metrics;
+
+    /**
+     * The unique ID of the current search state. Used to lazily reset nodes.
+     */
+    private int searchId;
+
+    public DStarLitePathFinder(ReversibleIndexedGraph<N> graph) {
+        this(graph, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public DStarLitePathFinder(ReversibleIndexedGraph<N> graph, boolean calculateMetrics) {
+        this.graph = graph;
+        int nodeCount = graph.getNodeCount();
+        this.nodes = (N[]) new Object[nodeCount];
+        this.g = new float[nodeCount];
+        this.rhs = new float[nodeCount];
+        this.searchIds = new int[nodeCount];
+        this.queue = new KeyQueue(nodeCount);
+        this.pathConnections = new Array<Connection<N>>();
+        if (calculateMetrics) this.metrics = new Metrics();
+    }
+
+    @Override
+    public boolean searchConnectionPath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<Connection<N>> outPath) {
+        prepareSearch(startNode, endNode, heuristic);
+        while (!isSearchComplete())
+            expandNode();
+        if (!extractPath()) return false;
+        for (int i = 0; i < pathConnections.size; i++)
+            outPath.add(pathConnections.get(i));
+        return true;
+    }
+
+    @Override
+    public boolean searchNodePath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<N> outPath) {
+        prepareSearch(startNode, endNode, heuristic);
+        while (!isSearchComplete())
+            expandNode();
+        if (!extractPath()) return false;
+        generateNodePath(outPath);
+        return true;
+    }
+
+    @Override
+    public boolean search(PathFinderRequest<N> request, long timeToRun) {
+
+        SearchClock clock = request.clock;
+        long lastTime = clock.getTime();
+
+        // We have to prepare the search if the status has just changed
+        if (request.statusChanged) {
+            prepareSearch(request.startNode, request.endNode, request.heuristic);
+            request.statusChanged = false;
+        }
+
+        // Iterate through processing each inconsistent node
+        while (!isSearchComplete()) {
+
+            // Check the available time
+            long currentTime = clock.getTime();
+            timeToRun -= currentTime - lastTime;
+            if (timeToRun <= clock.getTolerance()) return false;
+
+            expandNode();
+
+            // Account for the expanded node
+            clock.tick();
+
+            // Store the current time
+            lastTime = currentTime;
+        }
+
+        request.pathFound = extractPath();
+        if (request.pathFound) generateNodePath(request.resultPath);
+        return true;
+    }
+
+    /**
+     * Notifies this path finder that the cost of the connection from {@code fromNode} to {@code toNode} has changed, or that the
+     * connection has been added or removed. The graph must already reflect the change.
+     *
+     * @param fromNode the node the connection comes from
+     * @param toNode   the node the connection leads to
+     */
+    public void notifyEdgeCostChanged(N fromNode, N toNode) {
+        if (goalNode == null) return;
+        int u = touch(fromNode);
+        updateRhs(u);
+        updateNode(u);
+    }
+
+    /**
+     * Notifies this path finder that all the connections incoming to and outgoing from the given node have changed, for instance
+     * because the node became blocked or walkable. The graph must already reflect the change.
+     * <p>
+     * Incoming connections are enumerated through {@link ReversibleIndexedGraph#getIncomingConnections(Object)}, so connections
+     * that have just been removed can't be found. If the graph drops the connections of blocked nodes, you have to call
+     * {@link #notifyEdgeCostChanged(Object, Object)} for each former predecessor as well.
+     *
+     * @param node the node that changed
+     */
+    public void notifyNodeChanged(N node) {
+        if (goalNode == null) return;
+        int v = touch(node);
+        updateRhs(v);
+        updateNode(v);
+        Array<Connection<N>> incoming = graph.getIncomingConnections(node);
+        for (int i = 0; i < incoming.size; i++) {
+            int u = touch(incoming.get(i).getFromNode());
+            updateRhs(u);
+            updateNode(u);
+        }
+    }
+
+    /**
+     * Discards the search state, so that the next search will start from scratch.
+     */
+    public void reset() {
+        goalNode = null;
+        startNode = null;
+        lastStartNode = null;
+        heuristic = null;
+    }
+
+    /**
+     * Prepares the search, reusing the previous search state if the goal and the heuristic didn't change.
+     */
+    protected void prepareSearch(N startNode, N endNode, Heuristic<N> heuristic) {
+        if (metrics != null) metrics.reset();
+
+        if (endNode != goalNode || heuristic != this.heuristic) {
+            // Start from scratch
+            if (++searchId < 0) searchId = 1;
+            queue.clear();
+            this.goalNode = endNode;
+            this.heuristic = heuristic;
+            this.startNode = this.lastStartNode = startNode;
+            this.start = touch(startNode);
+            this.km = 0;
+            this.goal = touch(endNode);
+            rhs[goal] = 0;
+            insert(goal);
+        } else if (startNode != this.startNode) {
+            // The start node moved, so all the keys in the queue must be raised by the same amount
+            this.startNode = startNode;
+            this.start = touch(startNode);
+            km += heuristic.estimate(lastStartNode, startNode);
+            lastStartNode = startNode;
+        }
+    }
+
+    protected boolean isSearchComplete() {
+        if (queue.isEmpty()) return true;
+        float startValue = Math.min(g[start], rhs[start]);
+        float startK1 = startValue + km; // h(start, start) is zero
+        return !keyLess(queue.peekK1(), queue.peekK2(), startK1, startValue) && rhs[start] <= g[start];
+    }
+
+    protected void expandNode() {
+        int u = queue.peek();
+        float oldK1 = queue.peekK1(), oldK2 = queue.peekK2();
+        float newK2 = Math.min(g[u], rhs[u]);
+        float newK1 = newK2 + heuristic.estimate(startNode, nodes[u]) + km;
+
+        if (keyLess(oldK1, oldK2, newK1, newK2)) {
+            // The key is outdated because the start node moved
+            queue.update(u, newK1, newK2);
+            return;
+        }
+
+        if (metrics != null) metrics.visitedNodes++;
+        queue.remove(u);
+        Array<Connection<N>> incoming = graph.getIncomingConnections(nodes[u]);
+        if (g[u] > rhs[u]) {
+            // Over-consistent: the node got cheaper, so its predecessors may get cheaper too
+            g[u] = rhs[u];
+            for (int i = 0; i < incoming.size; i++) {
+                Connection<N> connection = incoming.get(i);
+                int s = touch(connection.getFromNode());
+                if (s != goal) rhs[s] = Math.min(rhs[s], connection.getCost() + g[u]);
+                updateNode(s);
+            }
+        } else {
+            // Under-consistent: the node got more expensive, so the node and its predecessors must be re-evaluated
+            g[u] = INFINITY;
+            updateRhs(u);
+            updateNode(u);
+            for (int i = 0; i < incoming.size; i++) {
+                int s = touch(incoming.get(i).getFromNode());
+                updateRhs(s);
+                updateNode(s);
+            }
+        }
+    }
+
+    /**
+     * Follows the cheapest connections from the start node to the goal and stores them into {@link #pathConnections}.
+     *
+     * @return {@code true} if a path was found; {@code false} otherwise.
+     */
+    protected boolean extractPath() {
+        pathConnections.clear();
+        if (rhs[start] == INFINITY) return false;
+        int current = start;
+        int steps = 0;
+        while (current != goal) {
+            Array<Connection<N>> connections = graph.getConnections(nodes[current]);
+            Connection<N> best = null;
+            float bestCost = INFINITY;
+            for (int i = 0; i < connections.size; i++) {
+                Connection<N> connection = connections.get(i);
+                int s = touch(connection.getToNode());
+                float cost = connection.getCost() + g[s];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = connection;
+                }
+            }
+            if (best == null || ++steps > nodes.length) {
+                pathConnections.clear();
+                return false;
+            }
+            pathConnections.add(best);
+            current = graph.getIndex(best.getToNode());
+        }
+        return true;
+    }
+
+    protected void generateNodePath(GraphPath<N> outPath) {
+        outPath.add(startNode);
+        for (int i = 0; i < pathConnections.size; i++)
+            outPath.add(pathConnections.get(i).getToNode());
+    }
+
+    /**
+     * Recalculates the right-hand side value of the given node, i.e. its one-step lookahead cost to the goal.
+     */
+    private void updateRhs(int u) {
+        if (u == goal) return;
+        float min = INFINITY;
+        Array<Connection<N>> connections = graph.getConnections(nodes[u]);
+        for (int i = 0; i < connections.size; i++) {
+            Connection<N> connection = connections.get(i);
+            int s = touch(connection.getToNode());
+            min = Math.min(min, connection.getCost() + g[s]);
+        }
+        rhs[u] = min;
+    }
+
+    /**
+     * Adds, updates or removes the given node from the queue according to its consistency.
+     */
+    private void updateNode(int u) {
+        if (g[u] != rhs[u]) {
+            if (queue.contains(u)) {
+                float k2 = Math.min(g[u], rhs[u]);
+                queue.update(u, k2 + heuristic.estimate(startNode, nodes[u]) + km, k2);
+            } else {
+                insert(u);
+            }
+        } else if (queue.contains(u)) {
+            queue.remove(u);
+        }
+    }
+
+    private void insert(int u) {
+        float k2 = Math.min(g[u], rhs[u]);
+        queue.add(u, k2 + heuristic.estimate(startNode, nodes[u]) + km, k2);
+        if (metrics != null) {
+            metrics.openListAdditions++;
+            metrics.openListPeak = Math.max(metrics.openListPeak, queue.size);
+        }
+    }
+
+    /**
+     * Returns the index of the given node, resetting its values if it has not been touched yet by the current search state.
+     */
+    private int touch(N node) {
+        int index = graph.getIndex(node);
+        if (searchIds[index] != searchId) {
+            g[index] = INFINITY;
+            rhs[index] = INFINITY;
+            searchIds[index] = searchId;
+        }
+        nodes[index] = node;
+        return index;
+    }
+
+    static boolean keyLess(float a1, float a2, float b1, float b2) {
+        return a1 < b1 || (a1 == b1 && a2 < b2);
+    }
+
+    /**
+     * A binary heap of node indices ordered lexicographically by two-component keys.
+     */
+    static final class KeyQueue {
+        int[] heap;
+        int[] positions;
+        float[] k1;
+        float[] k2;
+        int size;
+
+        KeyQueue(int capacity) {
+            heap = new int[capacity];
+            positions = new int[capacity];
+            k1 = new float[capacity];
+            k2 = new float[capacity];
+            for (int i = 0; i < capacity; i++)
+                positions[i] = -1;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        boolean contains(int node) {
+            return positions[node] >= 0;
+        }
+
+        int peek() {
+            return heap[0];
+        }
+
+        float peekK1() {
+            return k1[heap[0]];
+        }
+
+        float peekK2() {
+            return k2[heap[0]];
+        }
+
+        void add(int node, float key1, float key2) {
+            k1[node] = key1;
+            k2[node] = key2;
+            heap[size] = node;
+            positions[node] = size;
+            siftUp(size++);
+        }
+
+        void update(int node, float key1, float key2) {
+            k1[node] = key1;
+            k2[node] = key2;
+            int pos = positions[node];
+            siftUp(pos);
+            siftDown(positions[node]);
+        }
+
+        void remove(int node) {
+            int pos = positions[node];
+            positions[node] = -1;
+            if (pos == --size) return;
+            int last = heap[size];
+            heap[pos] = last;
+            positions[last] = pos;
+            siftUp(pos);
+            siftDown(positions[last]);
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++)
+                positions[heap[i]] = -1;
+            size = 0;
+        }
+
+        private void siftUp(int pos) {
+            int node = heap[pos];
+            while (pos > 0) {
+                int parentPos = (pos - 1) >> 1;
+                int parent = heap[parentPos];
+                if (!keyLess(k1[node], k2[node], k1[parent], k2[parent])) break;
+                heap[pos] = parent;
+                positions[parent] = pos;
+                pos = parentPos;
+            }
+            heap[pos] = node;
+            positions[node] = pos;
+        }
+
+        private void siftDown(int pos) {
+            int node = heap[pos];
+            while (true) {
+                int child = (pos << 1) + 1;
+                if (child >= size) break;
+                int right = child + 1;
+                if (right < size && keyLess(k1[heap[right]], k2[heap[right]], k1[heap[child]], k2[heap[child]])) child = right;
+                int childNode = heap[child];
+                if (!keyLess(k1[childNode], k2[childNode], k1[node], k2[node])) break;
+                heap[pos] = childNode;
+                positions[childNode] = pos;
+                pos = child;
+            }
+            heap[pos] = node;
+            positions[node] = pos;
+        }
+    }
+}
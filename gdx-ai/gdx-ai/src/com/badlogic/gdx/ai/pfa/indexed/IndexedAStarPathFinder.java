@@ -4,11 +4,10 @@ import com.badlogic.gdx.ai.pfa.Connection;
 import com.badlogic.gdx.ai.pfa.GraphPath;
 import com.badlogic.gdx.ai.pfa.Heuristic;
 import com.badlogic.gdx.ai.pfa.PathFinder;
-import com.badlogic.gdx.ai.pfa.PathFinderQueue;
 import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.ai.pfa.SearchClock;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.BinaryHeap;
-import com.badlogic.gdx.utils.TimeUtils;
 
 /**
  * A fully implemented {@link PathFinder} that can perform both interruptible and non-interruptible pathfinding.
@@ -130,7 +129,8 @@ public class IndexedAStarPathFinder<N> implements PathFinder<N> {
     @Override
     public boolean search(PathFinderRequest<N> request, long timeToRun) {
 
-        long lastTime = TimeUtils.nanoTime();
+        SearchClock clock = request.clock;
+        long lastTime = clock.getTime();
 
         // We have to initialize the search if the status has just changed
         if (request.statusChanged) {
@@ -142,9 +142,9 @@ public class IndexedAStarPathFinder<N> implements PathFinder<N> {
         do {
 
             // Check the available time
-            long currentTime = TimeUtils.nanoTime();
+            long currentTime = clock.getTime();
             timeToRun -= currentTime - lastTime;
-            if (timeToRun <= PathFinderQueue.TIME_TOLERANCE) return false;
+            if (timeToRun <= clock.getTolerance()) return false;
 
             // Retrieve the node with smallest estimated total cost from the open list
             current = openList.pop();
@@ -162,6 +162,9 @@ public class IndexedAStarPathFinder<N> implements PathFinder<N> {
             // Visit current node's children
             visitChildren(request.endNode, request.heuristic);
 
+            // Account for the expanded node
+            clock.tick();
+
             // Store the current time
             lastTime = currentTime;
         } while (openList.size > 0);
@@ -0,0 +1,370 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder.Metrics;
+import com.badlogic.gdx.ai.utils.IndexedDaryHeap;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+
+/**
+ * A {@code MultiTargetPathFinder} searches paths from a start node to whichever of many goal nodes is the closest, like the nearest
+ * health pack, cover point or resource, in a single search instead of one search per candidate.
+ * <p>
+ * Goals can be given either as an array of nodes or as a {@link GoalCondition}. The search is an A* whose heuristic estimates the
+ * cost to the closest goal: for an array of goals it's the minimum over the goals of the given {@link Heuristic}, which is still
+ * admissible and consistent; without a heuristic the search is a plain Dijkstra search. The first goal removed from the open
+ * list is the closest one.
+ * <p>
+ * The same search can also compute the cost to every goal within a maximum cost, for instance to score all the reachable
+ * candidates at once.
+ * <p>
+ * The search state is held in arrays indexed by node that are allocated once and reused by every search, so searches don't
+ * allocate memory.
+ *
+ * @param <N> Type of node
+ *
+ */
+public class MultiTargetPathFinder<N> {
+    private static final float INFINITY = Float.POSITIVE_INFINITY;
+
+    private static final int UNVISITED = 0;
+    private static final int OPEN = 1;
+    private static final int CLOSED = 2;
+
+    IndexedGraph<N> graph;
+    N[] nodes;
+    IndexedDaryHeap openList;
+    float[] costSoFar;
+    float[] heuristics;
+    Connection<N>[] connections;
+    int[] categories;
+    int[] searchIds;
+    int[] goalIds;
+    Array<Connection<N>> pathConnections;
+    final NodeArrayGoalCondition goalArray;
+    int start;
+    int goal;
+
+    public Metrics metrics;
+
+    /**
+     * The unique ID for each search run. Used to mark nodes.
+     */
+    private int searchId;
+
+    public MultiTargetPathFinder(IndexedGraph<N> graph) {
+        this(graph, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public MultiTargetPathFinder(IndexedGraph<N> graph, boolean calculateMetrics) {
+        this.graph = graph;
+        int nodeCount = graph.getNodeCount();
+        this.nodes = (N[]) new Object[nodeCount];
+        this.openList = new IndexedDaryHeap(nodeCount);
+        this.costSoFar = new float[nodeCount];
+        this.heuristics = new float[nodeCount];
+        this.connections = (Connection<N>[]) new Connection[nodeCount];
+        this.categories = new int[nodeCount];
+        this.searchIds = new int[nodeCount];
+        this.goalIds = new int[nodeCount];
+        this.pathConnections = new Array<Connection<N>>();
+        this.goalArray = new NodeArrayGoalCondition();
+        if (calculateMetrics) this.metrics = new Metrics();
+    }
+
+    /**
+     * Performs a search finding the path from the start node to the closest of the given goals.
+     *
+     * @param startNode the start node
+     * @param goals     the goal nodes
+     * @param heuristic the heuristic estimating the cost to each goal, or {@code null} for a Dijkstra search
+     * @param outPath   the output path that will only be filled if a path is found, otherwise it won't get touched.
+     * @return {@code true} if a path was found; {@code false} otherwise.
+     */
+    public boolean searchConnectionPath(N startNode, Array<N> goals, Heuristic<N> heuristic, GraphPath<Connection<N>> outPath) {
+        return searchConnectionPath(startNode, goalArray.init(goals, heuristic), outPath);
+    }
+
+    /**
+     * Performs a search finding the path from the start node to the closest of the given goals.
+     *
+     * @param startNode the start node
+     * @param goals     the goal nodes
+     * @param heuristic the heuristic estimating the cost to each goal, or {@code null} for a Dijkstra search
+     * @param outPath   the output path that will only be filled if a path is found, otherwise it won't get touched.
+     * @return {@code true} if a path was found; {@code false} otherwise.
+     */
+    public boolean searchNodePath(N startNode, Array<N> goals, Heuristic<N> heuristic, GraphPath<N> outPath) {
+        return searchNodePath(startNode, goalArray.init(goals, heuristic), outPath);
+    }
+
+    /**
+     * Performs a search finding the path from the start node to the closest node satisfying the given goal condition.
+     *
+     * @param startNode     the start node
+     * @param goalCondition the goal condition
+     * @param outPath       the output path that will only be filled if a path is found, otherwise it won't get touched.
+     * @return {@code true} if a path was found; {@code false} otherwise.
+     */
+    public boolean searchConnectionPath(N startNode, GoalCondition<N> goalCondition, GraphPath<Connection<N>> outPath) {
+        boolean found = search(startNode, goalCondition);
+        if (found) {
+            // Create a path made of connections
+            collectPathConnections();
+            for (int i = 0; i < pathConnections.size; i++)
+                outPath.add(pathConnections.get(i));
+        }
+        return found;
+    }
+
+    /**
+     * Performs a search finding the path from the start node to the closest node satisfying the given goal condition.
+     *
+     * @param startNode     the start node
+     * @param goalCondition the goal condition
+     * @param outPath       the output path that will only be filled if a path is found, otherwise it won't get touched.
+     * @return {@code true} if a path was found; {@code false} otherwise.
+     */
+    public boolean searchNodePath(N startNode, GoalCondition<N> goalCondition, GraphPath<N> outPath) {
+        boolean found = search(startNode, goalCondition);
+        if (found) {
+            // Create a path made of nodes
+            collectPathConnections();
+            outPath.add(startNode);
+            for (int i = 0; i < pathConnections.size; i++)
+                outPath.add(pathConnections.get(i).getToNode());
+        }
+        return found;
+    }
+
+    /**
+     * Returns the cost of the path found by the last path search, or {@link Float#POSITIVE_INFINITY} if no path was found.
+     */
+    public float getPathCost() {
+        return goal < 0 ? INFINITY : costSoFar[goal];
+    }
+
+    /**
+     * Computes the cost of the cheapest path from the start node to each of the given goals, ignoring the goals that cost more
+     * than the given maximum cost. The search stops as soon as all the goals have been reached.
+     *
+     * @param startNode the start node
+     * @param goals     the goal nodes
+     * @param maxCost   the maximum cost
+     * @param outCosts  the output array receiving the cost of each goal, in the same order as {@code goals}; the cost of the goals
+     *                  that can't be reached within the maximum cost is {@link Float#POSITIVE_INFINITY}.
+     * @return the number of goals reached within the maximum cost.
+     */
+    public int searchCosts(N startNode, Array<N> goals, float maxCost, FloatArray outCosts) {
+        goalArray.init(goals, null);
+        searchWithinCost(startNode, goalArray, maxCost, goalArray.count, null, null);
+
+        outCosts.clear();
+        int reached = 0;
+        for (int i = 0; i < goals.size; i++) {
+            int index = graph.getIndex(goals.get(i));
+            boolean settled = searchIds[index] == searchId && categories[index] == CLOSED;
+            outCosts.add(settled ? costSoFar[index] : INFINITY);
+            if (settled) reached++;
+        }
+        return reached;
+    }
+
+    /**
+     * Collects all the nodes satisfying the given goal condition whose cost from the start node doesn't exceed the given maximum
+     * cost, in increasing order of cost. The estimate of the goal condition is ignored.
+     *
+     * @param startNode     the start node
+     * @param goalCondition the goal condition
+     * @param maxCost       the maximum cost
+     * @param outGoals      the output array the goals are added to
+     * @param outCosts      the output array the cost of each goal is added to
+     * @return the number of goals found.
+     */
+    public int searchGoals(N startNode, GoalCondition<N> goalCondition, float maxCost, Array<N> outGoals, FloatArray outCosts) {
+        return searchWithinCost(startNode, goalCondition, maxCost, Integer.MAX_VALUE, outGoals, outCosts);
+    }
+
+    protected boolean search(N startNode, GoalCondition<N> goalCondition) {
+
+        initSearch(startNode, goalCondition, true);
+
+        // Iterate through processing each node
+        while (!openList.isEmpty()) {
+            // Retrieve the node with smallest estimated total cost from the open list
+            int current = openList.pop();
+            categories[current] = CLOSED;
+
+            // Terminate if we reached a goal, which is the closest one
+            if (goalCondition.isGoal(nodes[current])) {
+                goal = current;
+                return true;
+            }
+
+            visitChildren(current, goalCondition, true);
+        }
+
+        // We've run out of nodes without finding a goal, so there's no solution
+        return false;
+    }
+
+    /**
+     * Runs a Dijkstra search settling every node whose cost doesn't exceed the given maximum cost, until the given number of
+     * goals has been reached.
+     */
+    protected int searchWithinCost(N startNode, GoalCondition<N> goalCondition, float maxCost, int maxGoals, Array<N> outGoals,
+                                   FloatArray outCosts) {
+
+        initSearch(startNode, goalCondition, false);
+
+        int found = 0;
+        while (found < maxGoals && !openList.isEmpty() && openList.peekPriority() <= maxCost) {
+            int current = openList.pop();
+            categories[current] = CLOSED;
+
+            if (goalCondition.isGoal(nodes[current])) {
+                found++;
+                if (outGoals != null) outGoals.add(nodes[current]);
+                if (outCosts != null) outCosts.add(costSoFar[current]);
+            }
+
+            visitChildren(current, goalCondition, false);
+        }
+        return found;
+    }
+
+    protected void initSearch(N startNode, GoalCondition<N> goalCondition, boolean useHeuristic) {
+        if (metrics != null) metrics.reset();
+
+        // Increment the search id
+        if (++searchId < 0) searchId = 1;
+
+        // Initialize the open list with the start node
+        openList.clear();
+        start = graph.getIndex(startNode);
+        goal = -1;
+        visit(startNode, start, 0, null, goalCondition, useHeuristic);
+    }
+
+    protected void visitChildren(int current, GoalCondition<N> goalCondition, boolean useHeuristic) {
+        // Get current node's outgoing connections
+        Array<Connection<N>> nodeConnections = graph.getConnections(nodes[current]);
+        float currentCost = costSoFar[current];
+
+        // Loop through each connection in turn
+        for (int i = 0; i < nodeConnections.size; i++) {
+            if (metrics != null) metrics.visitedNodes++;
+
+            Connection<N> connection = nodeConnections.get(i);
+            N node = connection.getToNode();
+            int index = graph.getIndex(node);
+            float nodeCost = currentCost + connection.getCost();
+
+            // If we didn't find a shorter route to a visited node, skip
+            if (searchIds[index] == searchId && categories[index] != UNVISITED && costSoFar[index] <= nodeCost) continue;
+
+            visit(node, index, nodeCost, connection, goalCondition, useHeuristic);
+        }
+    }
+
+    private void visit(N node, int index, float nodeCost, Connection<N> connection, GoalCondition<N> goalCondition,
+                       boolean useHeuristic) {
+        if (searchIds[index] != searchId) {
+            // We'll need to calculate the heuristic value using the goal condition
+            searchIds[index] = searchId;
+            nodes[index] = node;
+            heuristics[index] = useHeuristic ? goalCondition.estimate(node) : 0;
+        }
+
+        // Update node's cost and connection, and add it to the open list with the estimated total cost
+        costSoFar[index] = nodeCost;
+        connections[index] = connection;
+        openList.add(index, nodeCost + heuristics[index]);
+        categories[index] = OPEN;
+        if (metrics != null) {
+            metrics.openListAdditions++;
+            metrics.openListPeak = Math.max(metrics.openListPeak, openList.size());
+        }
+    }
+
+    protected void collectPathConnections() {
+        pathConnections.clear();
+
+        // Work back along the path, accumulating connections
+        int index = goal;
+        while (index != start) {
+            Connection<N> connection = connections[index];
+            pathConnections.add(connection);
+            index = graph.getIndex(connection.getFromNode());
+        }
+
+        // Reverse the path
+        pathConnections.reverse();
+    }
+
+    /**
+     * A {@code GoalCondition} tells which nodes are goals of a {@link MultiTargetPathFinder} search.
+     *
+     * @param <N> Type of node
+     */
+    public interface GoalCondition<N> {
+
+        /**
+         * Returns {@code true} if the given node is a goal.
+         *
+         * @param node the node
+         */
+        boolean isGoal(N node);
+
+        /**
+         * Estimates the cost to reach the closest goal from the given node. The estimate must never exceed the actual cost, so
+         * return 0 if no better estimate is known.
+         *
+         * @param node the node
+         */
+        float estimate(N node);
+    }
+
+    /**
+     * The goal condition of searches whose goals are given as an array. Goals are marked in {@link #goalIds} with a new search id,
+     * so that {@link #isGoal(Object)} takes constant time.
+     */
+    private class NodeArrayGoalCondition implements GoalCondition<N> {
+        Array<N> goals;
+        Heuristic<N> heuristic;
+        int goalId;
+        int count;
+
+        NodeArrayGoalCondition init(Array<N> goals, Heuristic<N> heuristic) {
+            this.goals = goals;
+            this.heuristic = heuristic;
+            if (++goalId < 0) goalId = 1;
+            count = 0;
+            for (int i = 0; i < goals.size; i++) {
+                int index = graph.getIndex(goals.get(i));
+                if (goalIds[index] != goalId) {
+                    goalIds[index] = goalId;
+                    count++;
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public boolean isGoal(N node) {
+            return goalIds[graph.getIndex(node)] == goalId;
+        }
+
+        @Override
+        public float estimate(N node) {
+            if (heuristic == null) return 0;
+            float estimate = INFINITY;
+            for (int i = 0; i < goals.size; i++)
+                estimate = Math.min(estimate, heuristic.estimate(node, goals.get(i)));
+            return estimate;
+        }
+    }
+}
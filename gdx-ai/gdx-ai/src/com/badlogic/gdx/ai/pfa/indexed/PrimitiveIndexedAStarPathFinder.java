@@ -0,0 +1,323 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.PathFinder;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.ai.pfa.SearchClock;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder.EqualsByReferenceStopCondition;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder.Metrics;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder.StopCondition;
+import com.badlogic.gdx.ai.utils.IndexedDaryHeap;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A fully implemented {@link PathFinder} that performs the same indexed A* search as the {@link IndexedAStarPathFinder} but
+ * keeps its data in a struct-of-arrays layout.
+ * <p>
+ * Instead of one {@code NodeRecord} object per visited node, the cost so far, the estimated total cost, the parent index, the
+ * category and the search id of every node are held in parallel primitive arrays indexed by {@link IndexedGraph#getIndex(Object)
+ * node index}. The open list is an {@link IndexedDaryHeap} of node indices and the graph is explored through the primitive
+ * {@link CompactIndexedGraph#getNeighbors(int, int[], float[])} method, so once the finder has been created a search allocates
+ * nothing and touches far less memory. This makes a difference on very large graphs, where the object graph of the regular
+ * implementation causes cache misses and garbage collection pauses.
+ * <p>
+ * {@link Connection} objects are only looked up through {@link CompactIndexedGraph#getConnections(Object) getConnections} when
+ * a connection path is generated at the end of a successful search.
+ *
+ * @param <N> Type of node
+ *
+ */
+public class PrimitiveIndexedAStarPathFinder<N> implements PathFinder<N> {
+    CompactIndexedGraph<N> graph;
+    IndexedDaryHeap openList;
+    float[] costSoFar;
+    float[] estimatedTotalCost;
+    int[] parents;
+    int[] categories;
+    int[] searchIds;
+    int[] neighborBuffer;
+    float[] costBuffer;
+    int current;
+
+    /**
+     * A {@link StopCondition} with the same node type as this path finder; defaults to a {@link EqualsByReferenceStopCondition}
+     * if unspecified.
+     */
+    public StopCondition<N> stopCondition;
+    public Metrics metrics;
+
+    /**
+     * The unique ID for each search run. Used to mark nodes.
+     */
+    private int searchId;
+
+    private static final int UNVISITED = 0;
+    private static final int OPEN = 1;
+    private static final int CLOSED = 2;
+
+    private static final int NO_PARENT = -1;
+
+    public PrimitiveIndexedAStarPathFinder(CompactIndexedGraph<N> graph) {
+        this(graph, false);
+    }
+
+    public PrimitiveIndexedAStarPathFinder(CompactIndexedGraph<N> graph, boolean calculateMetrics) {
+        this(graph, calculateMetrics, new EqualsByReferenceStopCondition<N>());
+    }
+
+    public PrimitiveIndexedAStarPathFinder(CompactIndexedGraph<N> graph, boolean calculateMetrics, StopCondition<N> stopCondition) {
+        this(graph, calculateMetrics, stopCondition, 4);
+    }
+
+    /**
+     * Creates a {@code PrimitiveIndexedAStarPathFinder}.
+     *
+     * @param graph            the graph
+     * @param calculateMetrics whether search metrics have to be collected
+     * @param stopCondition    the condition used to stop the search
+     * @param heapArity        the number of children of each node of the open list heap
+     */
+    public PrimitiveIndexedAStarPathFinder(CompactIndexedGraph<N> graph, boolean calculateMetrics, StopCondition<N> stopCondition,
+                                           int heapArity) {
+        this.graph = graph;
+        int nodeCount = graph.getNodeCount();
+        this.openList = new IndexedDaryHeap(nodeCount, heapArity);
+        this.costSoFar = new float[nodeCount];
+        this.estimatedTotalCost = new float[nodeCount];
+        this.parents = new int[nodeCount];
+        this.categories = new int[nodeCount];
+        this.searchIds = new int[nodeCount];
+        int maxNeighbors = graph.getMaxNeighbors();
+        this.neighborBuffer = new int[maxNeighbors];
+        this.costBuffer = new float[maxNeighbors];
+        this.stopCondition = stopCondition;
+        if (calculateMetrics) this.metrics = new Metrics();
+    }
+
+    @Override
+    public boolean searchConnectionPath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<Connection<N>> outPath) {
+
+        // Perform AStar
+        boolean found = search(startNode, endNode, heuristic);
+
+        if (found) {
+            // Create a path made of connections
+            generateConnectionPath(outPath);
+        }
+
+        return found;
+    }
+
+    @Override
+    public boolean searchNodePath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<N> outPath) {
+
+        // Perform AStar
+        boolean found = search(startNode, endNode, heuristic);
+
+        if (found) {
+            // Create a path made of nodes
+            generateNodePath(outPath);
+        }
+
+        return found;
+    }
+
+    protected boolean search(N startNode, N endNode, Heuristic<N> heuristic) {
+
+        initSearch(startNode, endNode, heuristic);
+
+        // Iterate through processing each node
+        do {
+            // Retrieve the node with smallest estimated total cost from the open list
+            current = openList.pop();
+            categories[current] = CLOSED;
+
+            // Terminate if we reached the stop condition
+            if (stopCondition.shouldStopSearch(graph.getNode(current), endNode)) return true;
+
+            visitChildren(endNode, heuristic);
+        } while (!openList.isEmpty());
+
+        // We've run out of nodes without finding the goal, so there's no solution
+        return false;
+    }
+
+    @Override
+    public boolean search(PathFinderRequest<N> request, long timeToRun) {
+
+        SearchClock clock = request.clock;
+        long lastTime = clock.getTime();
+
+        // We have to initialize the search if the status has just changed
+        if (request.statusChanged) {
+            initSearch(request.startNode, request.endNode, request.heuristic);
+            request.statusChanged = false;
+        }
+
+        // Iterate through processing each node
+        do {
+
+            // Check the available time
+            long currentTime = clock.getTime();
+            timeToRun -= currentTime - lastTime;
+            if (timeToRun <= clock.getTolerance()) return false;
+
+            // Retrieve the node with smallest estimated total cost from the open list
+            current = openList.pop();
+            categories[current] = CLOSED;
+
+            // Terminate if we reached the stop condition; we've found a path.
+            if (stopCondition.shouldStopSearch(graph.getNode(current), request.endNode)) {
+                request.pathFound = true;
+
+                generateNodePath(request.resultPath);
+
+                return true;
+            }
+
+            // Visit current node's children
+            visitChildren(request.endNode, request.heuristic);
+
+            // Account for the expanded node
+            clock.tick();
+
+            // Store the current time
+            lastTime = currentTime;
+        } while (!openList.isEmpty());
+
+        // The open list is empty and we've not found a path.
+        request.pathFound = false;
+        return true;
+    }
+
+    protected void initSearch(N startNode, N endNode, Heuristic<N> heuristic) {
+        if (metrics != null) metrics.reset();
+
+        // Increment the search id
+        if (++searchId < 0) searchId = 1;
+
+        // Initialize the open list
+        openList.clear();
+
+        // Initialize the record for the start node and add it to the open list
+        int startIndex = graph.getIndex(startNode);
+        touch(startIndex);
+        parents[startIndex] = NO_PARENT;
+        costSoFar[startIndex] = 0;
+        addToOpenList(startIndex, heuristic.estimate(startNode, endNode));
+
+        current = NO_PARENT;
+    }
+
+    protected void visitChildren(N endNode, Heuristic<N> heuristic) {
+        // Get current node's outgoing connections
+        int[] neighbors = neighborBuffer;
+        float[] costs = costBuffer;
+        int count = graph.getNeighbors(current, neighbors, costs);
+        float currentCost = costSoFar[current];
+
+        // Loop through each connection in turn
+        for (int i = 0; i < count; i++) {
+            if (metrics != null) metrics.visitedNodes++;
+
+            // Get the cost estimate for the node
+            int node = neighbors[i];
+            float nodeCost = currentCost + costs[i];
+
+            float nodeHeuristic;
+            touch(node);
+            int category = categories[node];
+            if (category == CLOSED) { // The node is closed
+
+                // If we didn't find a shorter route, skip
+                if (costSoFar[node] <= nodeCost) continue;
+
+                // We can use the node's old cost values to calculate its heuristic
+                // without calling the possibly expensive heuristic function
+                nodeHeuristic = estimatedTotalCost[node] - costSoFar[node];
+            } else if (category == OPEN) { // The node is open
+
+                // If our route is no better, then skip
+                if (costSoFar[node] <= nodeCost) continue;
+
+                // We can use the node's old cost values to calculate its heuristic
+                // without calling the possibly expensive heuristic function.
+                // Note that the node will be moved up in the open list with the new cost
+                nodeHeuristic = estimatedTotalCost[node] - costSoFar[node];
+            } else { // the node is unvisited
+
+                // We'll need to calculate the heuristic value using the function,
+                // since we don't have a record with a previously calculated value
+                nodeHeuristic = heuristic.estimate(graph.getNode(node), endNode);
+            }
+
+            // Update node's cost and parent
+            costSoFar[node] = nodeCost;
+            parents[node] = current;
+
+            // Add it to the open list with the estimated total cost
+            addToOpenList(node, nodeCost + nodeHeuristic);
+        }
+    }
+
+    protected void generateConnectionPath(GraphPath<Connection<N>> outPath) {
+
+        // Work back along the path, accumulating connections
+        while (parents[current] != NO_PARENT) {
+            int parent = parents[current];
+            outPath.add(findConnection(parent, current));
+            current = parent;
+        }
+
+        // Reverse the path
+        outPath.reverse();
+    }
+
+    protected void generateNodePath(GraphPath<N> outPath) {
+
+        // Work back along the path, accumulating nodes
+        while (current != NO_PARENT) {
+            outPath.add(graph.getNode(current));
+            current = parents[current];
+        }
+
+        // Reverse the path
+        outPath.reverse();
+    }
+
+    /**
+     * Returns the cheapest connection going from the node with index {@code from} to the node with index {@code to}.
+     */
+    protected Connection<N> findConnection(int from, int to) {
+        Array<Connection<N>> connections = graph.getConnections(graph.getNode(from));
+        Connection<N> best = null;
+        for (int i = 0; i < connections.size; i++) {
+            Connection<N> connection = connections.get(i);
+            if (graph.getIndex(connection.getToNode()) == to && (best == null || connection.getCost() < best.getCost()))
+                best = connection;
+        }
+        return best;
+    }
+
+    protected void addToOpenList(int node, float estimatedTotalCost) {
+        this.estimatedTotalCost[node] = estimatedTotalCost;
+        openList.add(node, estimatedTotalCost);
+        categories[node] = OPEN;
+        if (metrics != null) {
+            metrics.openListAdditions++;
+            metrics.openListPeak = Math.max(metrics.openListPeak, openList.size());
+        }
+    }
+
+    /**
+     * Resets the category of the given node if it has not been visited yet by the current search.
+     */
+    private void touch(int node) {
+        if (searchIds[node] != searchId) {
+            categories[node] = UNVISITED;
+            searchIds[node] = searchId;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * An {@link IndexedGraph} that can also enumerate the connections incoming to a node. Path finders searching backwards from the
+ * goal, or from both ends at the same time, need this kind of graph.
+ *
+ * @param <N> Type of node
+ *
+ */
+public interface ReversibleIndexedGraph<N> extends IndexedGraph<N> {
+
+    /**
+     * Returns the connections incoming to the given node. The {@link Connection#getToNode() to node} of each connection is the
+     * given node and its cost is the same as the corresponding outgoing connection returned by {@link #getConnections(Object)}.
+     *
+     * @param toNode the node whose incoming connections will be returned
+     * @return the array of connections incoming to the given node.
+     */
+    Array<Connection<N>> getIncomingConnections(N toNode);
+}
@@ -0,0 +1,355 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultConnection;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.PathFinder;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.ai.pfa.PathSmoother;
+import com.badlogic.gdx.ai.pfa.SearchClock;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder.Metrics;
+import com.badlogic.gdx.ai.utils.IndexedDaryHeap;
+import com.badlogic.gdx.ai.utils.Ray;
+import com.badlogic.gdx.ai.utils.RaycastCollisionDetector;
+import com.badlogic.gdx.math.Vector;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * A fully implemented {@link PathFinder} finding any-angle paths with the Theta* algorithm.
+ * <p>
+ * Theta* is a variant of A* that, when reaching a node through a connection, checks whether the node is in line of sight of the
+ * parent of the current node. If it is, the node is linked directly to that parent, skipping the current node, and its cost is
+ * the straight-line distance from the parent. Paths are therefore not constrained to the connections of the graph, which gives
+ * shorter and more natural paths than running A* and then smoothing the result with a {@link PathSmoother}, in a single search.
+ * <p>
+ * Line of sight is checked through a {@link RaycastCollisionDetector}. Since the same pair of nodes is often tested several times
+ * during a search, results are cached until the next search, assuming that line of sight is symmetric. Connection costs should be
+ * the distances between the positions of the nodes, and the heuristic should never overestimate the straight-line distance to the
+ * end node.
+ * <p>
+ * The resulting path can contain connections that are not part of the graph, linking nodes in line of sight of each other.
+ *
+ * @param <N> Type of node
+ * @param <V> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+ *
+ */
+public class ThetaStarPathFinder<N, V extends Vector<V>> implements PathFinder<N> {
+    private static final int UNVISITED = 0;
+    private static final int OPEN = 1;
+    private static final int CLOSED = 2;
+
+    IndexedGraph<N> graph;
+    NodeLocator<N, V> nodeLocator;
+    RaycastCollisionDetector<V> raycastCollisionDetector;
+    Ray<V> ray;
+    N[] nodes;
+    IndexedDaryHeap openList;
+    float[] costSoFar;
+    float[] heuristics;
+    int[] parents;
+    Connection<N>[] connections;
+    int[] categories;
+    int[] searchIds;
+    LongMap<Boolean> lineOfSightCache;
+    Array<Connection<N>> pathConnections;
+    int start;
+    int end;
+
+    public Metrics metrics;
+
+    /**
+     * The unique ID for each search run. Used to mark nodes.
+     */
+    private int searchId;
+
+    public ThetaStarPathFinder(IndexedGraph<N> graph, NodeLocator<N, V> nodeLocator,
+                               RaycastCollisionDetector<V> raycastCollisionDetector) {
+        this(graph, nodeLocator, raycastCollisionDetector, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ThetaStarPathFinder(IndexedGraph<N> graph, NodeLocator<N, V> nodeLocator,
+                               RaycastCollisionDetector<V> raycastCollisionDetector, boolean calculateMetrics) {
+        this.graph = graph;
+        this.nodeLocator = nodeLocator;
+        this.raycastCollisionDetector = raycastCollisionDetector;
+        int nodeCount = graph.getNodeCount();
+        this.nodes = (N[]) new Object[nodeCount];
+        this.openList = new IndexedDaryHeap(nodeCount);
+        this.costSoFar = new float[nodeCount];
+        this.heuristics = new float[nodeCount];
+        this.parents = new int[nodeCount];
+        this.connections = (Connection<N>[]) new Connection[nodeCount];
+        this.categories = new int[nodeCount];
+        this.searchIds = new int[nodeCount];
+        this.lineOfSightCache = new LongMap<Boolean>();
+        this.pathConnections = new Array<Connection<N>>();
+        if (calculateMetrics) this.metrics = new Metrics();
+    }
+
+    @Override
+    public boolean searchConnectionPath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<Connection<N>> outPath) {
+
+        // Perform Theta*
+        boolean found = search(startNode, endNode, heuristic);
+
+        if (found) {
+            // Create a path made of connections
+            generateConnectionPath(outPath);
+        }
+
+        return found;
+    }
+
+    @Override
+    public boolean searchNodePath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<N> outPath) {
+
+        // Perform Theta*
+        boolean found = search(startNode, endNode, heuristic);
+
+        if (found) {
+            // Create a path made of nodes
+            generateNodePath(outPath);
+        }
+
+        return found;
+    }
+
+    protected boolean search(N startNode, N endNode, Heuristic<N> heuristic) {
+
+        initSearch(startNode, endNode, heuristic);
+
+        // Iterate through processing each node
+        while (!openList.isEmpty()) {
+            // Retrieve the node with smallest estimated total cost from the open list
+            int current = openList.pop();
+            categories[current] = CLOSED;
+
+            // Terminate if we reached the end node
+            if (current == end) return true;
+
+            visitChildren(current, endNode, heuristic);
+        }
+
+        // We've run out of nodes without finding the goal, so there's no solution
+        return false;
+    }
+
+    @Override
+    public boolean search(PathFinderRequest<N> request, long timeToRun) {
+
+        SearchClock clock = request.clock;
+        long lastTime = clock.getTime();
+
+        // We have to initialize the search if the status has just changed
+        if (request.statusChanged) {
+            initSearch(request.startNode, request.endNode, request.heuristic);
+            request.statusChanged = false;
+        }
+
+        // Iterate through processing each node
+        while (!openList.isEmpty()) {
+
+            // Check the available time
+            long currentTime = clock.getTime();
+            timeToRun -= currentTime - lastTime;
+            if (timeToRun <= clock.getTolerance()) return false;
+
+            // Retrieve the node with smallest estimated total cost from the open list
+            int current = openList.pop();
+            categories[current] = CLOSED;
+
+            // Terminate if we reached the end node; we've found a path.
+            if (current == end) {
+                request.pathFound = true;
+                generateNodePath(request.resultPath);
+                return true;
+            }
+
+            // Visit current node's children
+            visitChildren(current, request.endNode, request.heuristic);
+
+            // Account for the expanded node
+            clock.tick();
+
+            // Store the current time
+            lastTime = currentTime;
+        }
+
+        // The open list is empty and we've not found a path.
+        request.pathFound = false;
+        return true;
+    }
+
+    protected void initSearch(N startNode, N endNode, Heuristic<N> heuristic) {
+        if (metrics != null) metrics.reset();
+
+        // Increment the search id
+        if (++searchId < 0) searchId = 1;
+
+        // Line of sight may have changed since the previous search
+        lineOfSightCache.clear();
+
+        // Initialize the open list with the start node, which is its own parent
+        openList.clear();
+        start = graph.getIndex(startNode);
+        end = graph.getIndex(endNode);
+        visit(startNode, start, 0, start, null, endNode, heuristic);
+    }
+
+    protected void visitChildren(int current, N endNode, Heuristic<N> heuristic) {
+        // Get current node's outgoing connections
+        Array<Connection<N>> nodeConnections = graph.getConnections(nodes[current]);
+        int parent = parents[current];
+
+        // Loop through each connection in turn
+        for (int i = 0; i < nodeConnections.size; i++) {
+            if (metrics != null) metrics.visitedNodes++;
+
+            Connection<N> connection = nodeConnections.get(i);
+            N node = connection.getToNode();
+            int index = graph.getIndex(node);
+            boolean visited = searchIds[index] == searchId;
+            if (visited && categories[index] == CLOSED) continue;
+
+            // Link the node to the parent of the current node if it is in line of sight, or to the current node otherwise
+            float nodeCost;
+            Connection<N> nodeConnection;
+            int nodeParent;
+            nodes[index] = node;
+            if (parent != current && hasLineOfSight(parent, index)) {
+                nodeCost = costSoFar[parent] + distance(parent, index);
+                nodeConnection = null;
+                nodeParent = parent;
+            } else {
+                nodeCost = costSoFar[current] + connection.getCost();
+                nodeConnection = connection;
+                nodeParent = current;
+            }
+
+            // If we didn't find a shorter route to an open node, skip
+            if (visited && categories[index] == OPEN && costSoFar[index] <= nodeCost) continue;
+
+            visit(node, index, nodeCost, nodeParent, nodeConnection, endNode, heuristic);
+        }
+    }
+
+    private void visit(N node, int index, float nodeCost, int parent, Connection<N> connection, N endNode,
+                       Heuristic<N> heuristic) {
+        if (searchIds[index] != searchId) {
+            // We'll need to calculate the heuristic value using the function
+            searchIds[index] = searchId;
+            nodes[index] = node;
+            heuristics[index] = heuristic.estimate(node, endNode);
+        }
+
+        // Update node's cost and parent, and add it to the open list with the estimated total cost
+        costSoFar[index] = nodeCost;
+        parents[index] = parent;
+        connections[index] = connection;
+        openList.add(index, nodeCost + heuristics[index]);
+        categories[index] = OPEN;
+        if (metrics != null) {
+            metrics.openListAdditions++;
+            metrics.openListPeak = Math.max(metrics.openListPeak, openList.size());
+        }
+    }
+
+    /**
+     * Returns whether the given nodes are in line of sight of each other, casting a ray only if the pair has not been tested yet
+     * during the current search.
+     */
+    protected boolean hasLineOfSight(int a, int b) {
+        long key = a < b ? (long)a * nodes.length + b : (long)b * nodes.length + a;
+        Boolean cached = lineOfSightCache.get(key);
+        if (cached != null) return cached;
+        setRay(a, b);
+        boolean lineOfSight = !raycastCollisionDetector.collides(ray);
+        lineOfSightCache.put(key, lineOfSight ? Boolean.TRUE : Boolean.FALSE);
+        return lineOfSight;
+    }
+
+    private float distance(int a, int b) {
+        setRay(a, b);
+        return ray.start.dst(ray.end);
+    }
+
+    private void setRay(int a, int b) {
+        V startPosition = nodeLocator.getNodePosition(nodes[a]);
+        if (ray == null) ray = new Ray<V>(startPosition.cpy(), startPosition.cpy());
+        ray.start.set(startPosition);
+        ray.end.set(nodeLocator.getNodePosition(nodes[b]));
+    }
+
+    /**
+     * Collects the connections of the path into {@link #pathConnections}, creating a connection for each pair of consecutive nodes
+     * linked through line of sight.
+     */
+    protected void collectPathConnections() {
+        pathConnections.clear();
+
+        // Work back along the path, accumulating connections
+        int index = end;
+        while (index != start) {
+            int parent = parents[index];
+            Connection<N> connection = connections[index];
+            if (connection == null)
+                connection = new LineOfSightConnection<N>(nodes[parent], nodes[index], costSoFar[index] - costSoFar[parent]);
+            pathConnections.add(connection);
+            index = parent;
+        }
+
+        // Reverse the path
+        pathConnections.reverse();
+    }
+
+    protected void generateConnectionPath(GraphPath<Connection<N>> outPath) {
+        collectPathConnections();
+        for (int i = 0; i < pathConnections.size; i++)
+            outPath.add(pathConnections.get(i));
+    }
+
+    protected void generateNodePath(GraphPath<N> outPath) {
+        collectPathConnections();
+        outPath.add(nodes[start]);
+        for (int i = 0; i < pathConnections.size; i++)
+            outPath.add(pathConnections.get(i).getToNode());
+    }
+
+    /**
+     * A {@code NodeLocator} gives the position of the nodes of the graph, which is used to cast rays between them and to measure
+     * the straight-line distance of connections that skip intermediate nodes.
+     *
+     * @param <N> Type of node
+     * @param <V> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+     */
+    public interface NodeLocator<N, V extends Vector<V>> {
+
+        /**
+         * Returns the position of the given node. The returned vector is not retained, so the same instance can be reused by
+         * subsequent calls.
+         *
+         * @param node the node
+         */
+        V getNodePosition(N node);
+    }
+
+    /**
+     * A connection between two nodes in line of sight of each other, which may not be connected in the graph.
+     */
+    private static class LineOfSightConnection<N> extends DefaultConnection<N> {
+        final float cost;
+
+        LineOfSightConnection(N fromNode, N toNode, float cost) {
+            super(fromNode, toNode);
+            this.cost = cost;
+        }
+
+        @Override
+        public float getCost() {
+            return cost;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.badlogic.gdx.ai.steer;
+
+import com.badlogic.gdx.ai.steer.behaviors.BlendedSteering;
+import com.badlogic.gdx.ai.steer.behaviors.PrioritySteering;
+import com.badlogic.gdx.ai.steer.behaviors.Wander;
+import com.badlogic.gdx.ai.steer.proximities.DynamicTree;
+import com.badlogic.gdx.ai.steer.proximities.RadiusProximity;
+import com.badlogic.gdx.ai.steer.proximities.SpatialHashGrid;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A {@code ParallelSteeringExecutor} calculates the steering of many agents in parallel on a {@link ForkJoinPool} and then applies
+ * it on the calling thread.
+ * <p>
+ * Each frame has two phases. First, the steering behavior of every agent, typically a tree of {@link BlendedSteering} and
+ * {@link PrioritySteering}, is evaluated into the steering output of the agent. Agents are not modified during this phase, so their
+ * kinematics form a snapshot of the frame and the output of an agent doesn't depend on the order in which the agents are evaluated.
+ * Then, once all the outputs are ready, they are applied to the agents one after the other in the order the agents were added. The
+ * result is therefore exactly the same as evaluating all the agents serially before applying any of them, regardless of the number
+ * of threads.
+ * <p>
+ * This requires that the evaluation of a behavior only reads shared state:
+ * <ul>
+ * <li>each agent must have its own behaviors and proximities, since they hold scratch vectors;</li>
+ * <li>proximities must not {@link Steerable#setTagged(boolean) tag} the agents, which rules out {@link RadiusProximity} and the
+ * other proximities scanning an iterable; the spatial proximities remember their neighbors instead, but their shared
+ * {@link SpatialHashGrid} or {@link DynamicTree} has to be updated before {@link #calculateSteering()} is called;</li>
+ * <li>behaviors drawing random numbers from {@link MathUtils#random}, like {@link Wander}, can't be used, since the generator is
+ * shared by all the threads.</li>
+ * </ul>
+ *
+ * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+ *
+ */
+public class ParallelSteeringExecutor<T extends Vector<T>> {
+
+    final ForkJoinPool pool;
+    final int agentsPerTask;
+    final Array<Steerable<T>> agents;
+    final Array<SteeringBehavior<T>> behaviors;
+    final Array<SteeringAcceleration<T>> outputs;
+
+    /**
+     * Creates a {@code ParallelSteeringExecutor} running on the given pool with tasks of at least 64 agents.
+     *
+     * @param pool the pool evaluating the behaviors, or {@code null} to evaluate them serially on the calling thread
+     */
+    public ParallelSteeringExecutor(ForkJoinPool pool) {
+        this(pool, 64);
+    }
+
+    /**
+     * Creates a {@code ParallelSteeringExecutor} running on the given pool.
+     *
+     * @param pool          the pool evaluating the behaviors, or {@code null} to evaluate them serially on the calling thread
+     * @param agentsPerTask the number of agents under which a task is not split any further
+     * @throws IllegalArgumentException if {@code agentsPerTask} is not positive.
+     */
+    public ParallelSteeringExecutor(ForkJoinPool pool, int agentsPerTask) {
+        if (agentsPerTask < 1)
+            throw new IllegalArgumentException("The number of agents per task must be positive: " + agentsPerTask);
+        this.pool = pool;
+        this.agentsPerTask = agentsPerTask;
+        this.agents = new Array<Steerable<T>>();
+        this.behaviors = new Array<SteeringBehavior<T>>();
+        this.outputs = new Array<SteeringAcceleration<T>>();
+    }
+
+    /**
+     * Adds an agent steered by the given behavior, which must be owned by the agent and by no other agent.
+     *
+     * @return the index of the agent, which is also its position in the application order.
+     */
+    public int add(Steerable<T> agent, SteeringBehavior<T> behavior) {
+        agents.add(agent);
+        behaviors.add(behavior);
+        outputs.add(new SteeringAcceleration<T>(agent.getPosition().cpy().setZero()));
+        return agents.size - 1;
+    }
+
+    /**
+     * Removes the agent with the given index. The agents added after it are moved back by one.
+     */
+    public void removeIndex(int index) {
+        agents.removeIndex(index);
+        behaviors.removeIndex(index);
+        outputs.removeIndex(index);
+    }
+
+    /**
+     * Removes all the agents.
+     */
+    public void clear() {
+        agents.clear();
+        behaviors.clear();
+        outputs.clear();
+    }
+
+    /**
+     * Returns the number of agents.
+     */
+    public int size() {
+        return agents.size;
+    }
+
+    /**
+     * Returns the agent with the given index.
+     */
+    public Steerable<T> getAgent(int index) {
+        return agents.get(index);
+    }
+
+    /**
+     * Returns the steering output of the agent with the given index, as calculated by the last call to
+     * {@link #calculateSteering()}.
+     */
+    public SteeringAcceleration<T> getSteering(int index) {
+        return outputs.get(index);
+    }
+
+    /**
+     * Calculates the steering output of all the agents, in parallel if this executor has a pool. Agents must not be modified until
+     * this method returns.
+     */
+    public void calculateSteering() {
+        if (pool == null || agents.size <= agentsPerTask)
+            calculateSteering(0, agents.size);
+        else
+            pool.invoke(new SteeringTask(0, agents.size));
+    }
+
+    /**
+     * Calculates the steering output of all the agents and then applies it to each agent, in the order the agents were added.
+     *
+     * @param applier   the applier updating each agent from its steering output
+     * @param deltaTime the time elapsed since the previous frame
+     */
+    public void update(SteeringApplier<T> applier, float deltaTime) {
+        calculateSteering();
+        for (int i = 0; i < agents.size; i++)
+            applier.applySteering(agents.get(i), outputs.get(i), deltaTime);
+    }
+
+    void calculateSteering(int from, int to) {
+        for (int i = from; i < to; i++)
+            behaviors.get(i).calculateSteering(outputs.get(i));
+    }
+
+    /**
+     * A {@code SteeringApplier} updates the kinematics of an agent from its steering output, for instance by integrating the linear
+     * and angular accelerations over the elapsed time.
+     *
+     * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+     */
+    public interface SteeringApplier<T extends Vector<T>> {
+
+        /**
+         * Applies the given steering output to the given agent.
+         *
+         * @param agent     the agent
+         * @param steering  the steering output of the agent
+         * @param deltaTime the time elapsed since the previous frame
+         */
+        void applySteering(Steerable<T> agent, SteeringAcceleration<T> steering, float deltaTime);
+    }
+
+    /**
+     * Evaluates the behaviors of a range of agents, splitting the range in halves until it's small enough.
+     */
+    @SuppressWarnings("serial")
+    private class SteeringTask extends RecursiveAction {
+        final int from;
+        final int to;
+
+        SteeringTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= agentsPerTask) {
+                calculateSteering(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SteeringTask(from, middle), new SteeringTask(middle, to));
+        }
+    }
+}
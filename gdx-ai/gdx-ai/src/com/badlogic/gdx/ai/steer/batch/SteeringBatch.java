@@ -0,0 +1,492 @@
+package com.badlogic.gdx.ai.steer.batch;
+
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.ai.steer.behaviors.Alignment;
+import com.badlogic.gdx.ai.steer.behaviors.Arrive;
+import com.badlogic.gdx.ai.steer.behaviors.BlendedSteering;
+import com.badlogic.gdx.ai.steer.behaviors.Cohesion;
+import com.badlogic.gdx.ai.steer.behaviors.Flee;
+import com.badlogic.gdx.ai.steer.behaviors.Seek;
+import com.badlogic.gdx.ai.steer.behaviors.Separation;
+import com.badlogic.gdx.ai.steer.behaviors.Wander;
+import com.badlogic.gdx.ai.steer.proximities.RadiusProximity;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * A {@code SteeringBatch} steers a crowd of 2D agents whose state is stored in columns, that is one {@code float[]} per property
+ * indexed by agent, rather than in {@link Steerable} objects. Each behavior is evaluated for all the agents at once by a tight loop
+ * over the columns, with no virtual calls and no temporary vectors.
+ * <p>
+ * Behaviors add their steering acceleration, scaled by a weight, to the {@link #linearX} and {@link #linearY} columns, so a frame
+ * typically looks like this:
+ *
+ * <pre>
+ * batch.clearSteering();
+ * batch.findNeighbors(radius);
+ * batch.separation(decayCoefficient, 2f);
+ * batch.arrive(targetX, targetY, arrivalTolerance, decelerationRadius, timeToTarget, 1f);
+ * batch.limitSteering();
+ * batch.integrate(deltaTime);
+ * </pre>
+ *
+ * The results are exactly the same as the ones of the corresponding behaviors ({@link Seek}, {@link Flee}, {@link Arrive},
+ * {@link Separation}, {@link Cohesion}, {@link Alignment} and {@link Wander}) blended by a {@link BlendedSteering} and using a
+ * {@link RadiusProximity} over the agents in the order of the batch, provided that the agents are their own limiters and convert
+ * angles to vectors as {@code (-sin(angle), cos(angle))}. Only the linear component of the steering is supported, so
+ * {@link Wander} can't delegate to face.
+ *
+ */
+public class SteeringBatch {
+
+    /**
+     * The number of agents.
+     */
+    public int size;
+
+    public float[] positionX;
+    public float[] positionY;
+    public float[] velocityX;
+    public float[] velocityY;
+    public float[] orientation;
+    public float[] boundingRadius;
+    public float[] maxLinearSpeed;
+    public float[] maxLinearAcceleration;
+
+    /**
+     * The wander orientation of each agent, relative to its orientation, updated by {@link #wander(float, float, float, float)}.
+     */
+    public float[] wanderOrientation;
+
+    /**
+     * The linear steering acceleration accumulated by the behaviors.
+     */
+    public float[] linearX;
+    public float[] linearY;
+
+    /**
+     * The linear speed under which {@link #integrate(float)} doesn't update the orientation of an agent.
+     */
+    public float zeroLinearSpeedThreshold = 0.001f;
+
+    /**
+     * The neighbors of agent {@code i} are {@code neighbors[neighborStarts[i]]} to {@code neighbors[neighborStarts[i + 1] - 1]},
+     * sorted by index.
+     */
+    int[] neighborStarts;
+    int[] neighbors;
+
+    private float wanderLastTime;
+    private int[] agentCells;
+    private int[] cellStarts;
+    private int[] sortedAgents;
+
+    /**
+     * Creates a {@code SteeringBatch} with the given initial capacity.
+     *
+     * @param capacity the number of agents the batch can hold before growing
+     */
+    public SteeringBatch(int capacity) {
+        capacity = Math.max(capacity, 1);
+        positionX = new float[capacity];
+        positionY = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        orientation = new float[capacity];
+        boundingRadius = new float[capacity];
+        maxLinearSpeed = new float[capacity];
+        maxLinearAcceleration = new float[capacity];
+        wanderOrientation = new float[capacity];
+        linearX = new float[capacity];
+        linearY = new float[capacity];
+        agentCells = new int[capacity];
+        sortedAgents = new int[capacity];
+        neighborStarts = new int[capacity + 1];
+        neighbors = new int[capacity * 4];
+        cellStarts = new int[16];
+    }
+
+    /**
+     * Adds an agent at rest to this batch.
+     *
+     * @return the index of the agent.
+     */
+    public int add(float x, float y, float boundingRadius, float maxLinearSpeed, float maxLinearAcceleration) {
+        if (size == positionX.length) ensureCapacity(size * 2);
+        int index = size++;
+        positionX[index] = x;
+        positionY[index] = y;
+        velocityX[index] = 0;
+        velocityY[index] = 0;
+        orientation[index] = 0;
+        this.boundingRadius[index] = boundingRadius;
+        this.maxLinearSpeed[index] = maxLinearSpeed;
+        this.maxLinearAcceleration[index] = maxLinearAcceleration;
+        wanderOrientation[index] = 0;
+        linearX[index] = 0;
+        linearY[index] = 0;
+        neighborStarts[size] = neighborStarts[index];
+        return index;
+    }
+
+    /**
+     * Adds the given agent to this batch, copying its state.
+     *
+     * @return the index of the agent.
+     */
+    public int add(Steerable<Vector2> agent) {
+        int index = add(0, 0, 0, 0, 0);
+        read(index, agent);
+        return index;
+    }
+
+    /**
+     * Copies the state of the given agent into the columns of the agent with the given index.
+     */
+    public void read(int index, Steerable<Vector2> agent) {
+        positionX[index] = agent.getPosition().x;
+        positionY[index] = agent.getPosition().y;
+        velocityX[index] = agent.getLinearVelocity().x;
+        velocityY[index] = agent.getLinearVelocity().y;
+        orientation[index] = agent.getOrientation();
+        boundingRadius[index] = agent.getBoundingRadius();
+        maxLinearSpeed[index] = agent.getMaxLinearSpeed();
+        maxLinearAcceleration[index] = agent.getMaxLinearAcceleration();
+    }
+
+    /**
+     * Removes all the agents.
+     */
+    public void clear() {
+        size = 0;
+        neighborStarts[0] = 0;
+    }
+
+    /**
+     * Makes sure this batch can hold the given number of agents without growing.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= positionX.length) return;
+        positionX = Arrays.copyOf(positionX, capacity);
+        positionY = Arrays.copyOf(positionY, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        orientation = Arrays.copyOf(orientation, capacity);
+        boundingRadius = Arrays.copyOf(boundingRadius, capacity);
+        maxLinearSpeed = Arrays.copyOf(maxLinearSpeed, capacity);
+        maxLinearAcceleration = Arrays.copyOf(maxLinearAcceleration, capacity);
+        wanderOrientation = Arrays.copyOf(wanderOrientation, capacity);
+        linearX = Arrays.copyOf(linearX, capacity);
+        linearY = Arrays.copyOf(linearY, capacity);
+        agentCells = Arrays.copyOf(agentCells, capacity);
+        sortedAgents = Arrays.copyOf(sortedAgents, capacity);
+        neighborStarts = Arrays.copyOf(neighborStarts, capacity + 1);
+    }
+
+    /**
+     * Sets the steering acceleration of all the agents to zero.
+     */
+    public void clearSteering() {
+        Arrays.fill(linearX, 0, size, 0);
+        Arrays.fill(linearY, 0, size, 0);
+    }
+
+    /**
+     * Crops the steering acceleration of each agent to its maximum linear acceleration, like {@link BlendedSteering} does.
+     */
+    public void limitSteering() {
+        for (int i = 0; i < size; i++) {
+            float x = linearX[i], y = linearY[i];
+            float limit2 = maxLinearAcceleration[i] * maxLinearAcceleration[i];
+            float len2 = x * x + y * y;
+            if (len2 > limit2) {
+                float scale = (float)Math.sqrt(limit2 / len2);
+                linearX[i] = x * scale;
+                linearY[i] = y * scale;
+            }
+        }
+    }
+
+    /**
+     * Adds the {@link Seek} steering towards the given targets, one per agent.
+     */
+    public void seek(float[] targetX, float[] targetY, float weight) {
+        for (int i = 0; i < size; i++)
+            addNormalized(i, targetX[i] - positionX[i], targetY[i] - positionY[i], maxLinearAcceleration[i], weight);
+    }
+
+    /**
+     * Adds the {@link Flee} steering away from the given targets, one per agent.
+     */
+    public void flee(float[] targetX, float[] targetY, float weight) {
+        for (int i = 0; i < size; i++)
+            addNormalized(i, positionX[i] - targetX[i], positionY[i] - targetY[i], maxLinearAcceleration[i], weight);
+    }
+
+    /**
+     * Adds the {@link Arrive} steering towards the given targets, one per agent.
+     */
+    public void arrive(float[] targetX, float[] targetY, float arrivalTolerance, float decelerationRadius, float timeToTarget,
+                       float weight) {
+        for (int i = 0; i < size; i++) {
+            float x = targetX[i] - positionX[i];
+            float y = targetY[i] - positionY[i];
+            float distance = (float)Math.sqrt(x * x + y * y);
+
+            // Check if we are there, no steering
+            if (distance <= arrivalTolerance) continue;
+
+            // Go max speed, or a scaled speed inside the slow down radius
+            float targetSpeed = maxLinearSpeed[i];
+            if (distance <= decelerationRadius) targetSpeed *= distance / decelerationRadius;
+
+            // Try to get to the target velocity without exceeding max acceleration
+            float scale = targetSpeed / distance;
+            x = (x * scale - velocityX[i]) * (1f / timeToTarget);
+            y = (y * scale - velocityY[i]) * (1f / timeToTarget);
+            float limit2 = maxLinearAcceleration[i] * maxLinearAcceleration[i];
+            float len2 = x * x + y * y;
+            if (len2 > limit2) {
+                float limitScale = (float)Math.sqrt(limit2 / len2);
+                x *= limitScale;
+                y *= limitScale;
+            }
+            linearX[i] += x * weight;
+            linearY[i] += y * weight;
+        }
+    }
+
+    /**
+     * Adds the {@link Wander} steering, updating the wander orientation of each agent by a random amount depending on the time
+     * elapsed since the previous call.
+     */
+    public void wander(float wanderOffset, float wanderRadius, float wanderRate, float weight) {
+        float now = GdxAI.getTimepiece().getTime();
+        float delta = now - wanderLastTime;
+        boolean update = wanderLastTime > 0;
+        wanderLastTime = now;
+        for (int i = 0; i < size; i++) {
+            if (update) wanderOrientation[i] += MathUtils.randomTriangular(wanderRate * delta);
+            float targetOrientation = wanderOrientation[i] + orientation[i];
+
+            // Calculate the center of the wander circle and then the target location
+            float centerX = positionX[i] + -(float)Math.sin(orientation[i]) * wanderOffset;
+            float centerY = positionY[i] + (float)Math.cos(orientation[i]) * wanderOffset;
+            float targetX = centerX + -(float)Math.sin(targetOrientation) * wanderRadius;
+            float targetY = centerY + (float)Math.cos(targetOrientation) * wanderRadius;
+
+            // Seek the target location
+            addNormalized(i, targetX - positionX[i], targetY - positionY[i], maxLinearAcceleration[i], weight);
+        }
+    }
+
+    /**
+     * Finds the neighbors of each agent, that is the other agents within the given radius enlarged by their bounding radius, which
+     * are used by the group behaviors until the next call. The agents are bucketed into a uniform grid so that each agent only
+     * examines the agents in the cells around it.
+     *
+     * @param radius the radius of the neighborhood
+     */
+    public void findNeighbors(float radius) {
+        neighborStarts[0] = 0;
+        if (size == 0) return;
+
+        // Compute the bounds of the agents and the largest range
+        float minX = positionX[0], minY = positionY[0], maxX = minX, maxY = minY, maxBoundingRadius = 0;
+        for (int i = 0; i < size; i++) {
+            minX = Math.min(minX, positionX[i]);
+            minY = Math.min(minY, positionY[i]);
+            maxX = Math.max(maxX, positionX[i]);
+            maxY = Math.max(maxY, positionY[i]);
+            maxBoundingRadius = Math.max(maxBoundingRadius, boundingRadius[i]);
+        }
+
+        // Cells at least as large as the range, so that neighbors are in the 3x3 cells around each agent, and no more than
+        // a few cells per agent
+        float cellSize = Math.max(radius + maxBoundingRadius, 1e-6f);
+        double cellCount = ((double)(maxX - minX) / cellSize + 1) * ((double)(maxY - minY) / cellSize + 1);
+        if (cellCount > size * 4) cellSize *= (float)Math.sqrt(cellCount / (size * 4));
+        int columns = (int)((maxX - minX) / cellSize) + 1;
+        int rows = (int)((maxY - minY) / cellSize) + 1;
+
+        // Sort the agents by cell, keeping the order of the agents within each cell
+        if (cellStarts.length < columns * rows + 1) cellStarts = new int[Math.max(columns * rows + 1, cellStarts.length * 2)];
+        Arrays.fill(cellStarts, 0, columns * rows + 1, 0);
+        for (int i = 0; i < size; i++) {
+            int column = Math.min((int)((positionX[i] - minX) / cellSize), columns - 1);
+            int row = Math.min((int)((positionY[i] - minY) / cellSize), rows - 1);
+            agentCells[i] = column + row * columns;
+            cellStarts[agentCells[i] + 1]++;
+        }
+        for (int cell = 0; cell < columns * rows; cell++)
+            cellStarts[cell + 1] += cellStarts[cell];
+        for (int i = 0; i < size; i++)
+            sortedAgents[cellStarts[agentCells[i]]++] = i;
+        for (int cell = columns * rows; cell > 0; cell--)
+            cellStarts[cell] = cellStarts[cell - 1];
+        cellStarts[0] = 0;
+
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int start = count;
+            int column = agentCells[i] % columns, row = agentCells[i] / columns;
+            for (int r = Math.max(row - 1, 0), maxRow = Math.min(row + 1, rows - 1); r <= maxRow; r++) {
+                for (int c = Math.max(column - 1, 0), maxColumn = Math.min(column + 1, columns - 1); c <= maxColumn; c++) {
+                    int cell = c + r * columns;
+                    for (int k = cellStarts[cell], end = cellStarts[cell + 1]; k < end; k++) {
+                        int j = sortedAgents[k];
+                        if (j == i) continue;
+                        float dx = positionX[j] - positionX[i];
+                        float dy = positionY[j] - positionY[i];
+                        float range = radius + boundingRadius[j];
+                        if (dx * dx + dy * dy < range * range) {
+                            if (count == neighbors.length) neighbors = Arrays.copyOf(neighbors, count * 2);
+                            neighbors[count++] = j;
+                        }
+                    }
+                }
+            }
+
+            // Sort the neighbors by index, which is the order a proximity would report them
+            for (int k = start + 1; k < count; k++) {
+                int neighbor = neighbors[k];
+                int l = k - 1;
+                while (l >= start && neighbors[l] > neighbor) {
+                    neighbors[l + 1] = neighbors[l];
+                    l--;
+                }
+                neighbors[l + 1] = neighbor;
+            }
+            neighborStarts[i + 1] = count;
+        }
+    }
+
+    /**
+     * Returns the number of neighbors of the given agent found by the last call to {@link #findNeighbors(float)}.
+     */
+    public int getNeighborCount(int index) {
+        return neighborStarts[index + 1] - neighborStarts[index];
+    }
+
+    /**
+     * Returns the index of the n-th neighbor of the given agent found by the last call to {@link #findNeighbors(float)}.
+     */
+    public int getNeighbor(int index, int n) {
+        return neighbors[neighborStarts[index] + n];
+    }
+
+    /**
+     * Adds the {@link Separation} steering away from the neighbors found by the last call to {@link #findNeighbors(float)}.
+     */
+    public void separation(float decayCoefficient, float weight) {
+        for (int i = 0; i < size; i++) {
+            float x = 0, y = 0;
+            float maxAcceleration = maxLinearAcceleration[i];
+            for (int k = neighborStarts[i], end = neighborStarts[i + 1]; k < end; k++) {
+                int j = neighbors[k];
+                float toAgentX = positionX[i] - positionX[j];
+                float toAgentY = positionY[i] - positionY[j];
+                float distanceSqr = toAgentX * toAgentX + toAgentY * toAgentY;
+                if (distanceSqr == 0) continue;
+
+                // Calculate the strength of repulsion through inverse square law decay
+                float strength = decayCoefficient / distanceSqr;
+                if (strength > maxAcceleration) strength = maxAcceleration;
+                float scale = strength / (float)Math.sqrt(distanceSqr);
+                x += toAgentX * scale;
+                y += toAgentY * scale;
+            }
+            linearX[i] += x * weight;
+            linearY[i] += y * weight;
+        }
+    }
+
+    /**
+     * Adds the {@link Cohesion} steering towards the center of mass of the neighbors found by the last call to
+     * {@link #findNeighbors(float)}.
+     */
+    public void cohesion(float weight) {
+        for (int i = 0; i < size; i++) {
+            int start = neighborStarts[i], end = neighborStarts[i + 1];
+            if (start == end) continue;
+            float x = 0, y = 0;
+            for (int k = start; k < end; k++) {
+                x += positionX[neighbors[k]];
+                y += positionY[neighbors[k]];
+            }
+            float scale = 1f / (end - start);
+            addNormalized(i, x * scale - positionX[i], y * scale - positionY[i], maxLinearAcceleration[i], weight);
+        }
+    }
+
+    /**
+     * Adds the {@link Alignment} steering matching the average velocity of the neighbors found by the last call to
+     * {@link #findNeighbors(float)}.
+     */
+    public void alignment(float weight) {
+        for (int i = 0; i < size; i++) {
+            int start = neighborStarts[i], end = neighborStarts[i + 1];
+            if (start == end) continue;
+            float x = 0, y = 0;
+            for (int k = start; k < end; k++) {
+                x += velocityX[neighbors[k]];
+                y += velocityY[neighbors[k]];
+            }
+            float scale = 1f / (end - start);
+            x = x * scale - velocityX[i];
+            y = y * scale - velocityY[i];
+            float limit2 = maxLinearAcceleration[i] * maxLinearAcceleration[i];
+            float len2 = x * x + y * y;
+            if (len2 > limit2) {
+                float limitScale = (float)Math.sqrt(limit2 / len2);
+                x *= limitScale;
+                y *= limitScale;
+            }
+            linearX[i] += x * weight;
+            linearY[i] += y * weight;
+        }
+    }
+
+    /**
+     * Applies the steering acceleration to the agents over the given time: the position is moved by the velocity, the velocity is
+     * updated and trimmed to the maximum linear speed, and the orientation is aligned with the velocity if the agent moves.
+     *
+     * @param deltaTime the time elapsed in seconds
+     */
+    public void integrate(float deltaTime) {
+        float threshold2 = zeroLinearSpeedThreshold * zeroLinearSpeedThreshold;
+        for (int i = 0; i < size; i++) {
+            positionX[i] += velocityX[i] * deltaTime;
+            positionY[i] += velocityY[i] * deltaTime;
+            float x = velocityX[i] + linearX[i] * deltaTime;
+            float y = velocityY[i] + linearY[i] * deltaTime;
+            float limit2 = maxLinearSpeed[i] * maxLinearSpeed[i];
+            float len2 = x * x + y * y;
+            if (len2 > limit2) {
+                float scale = (float)Math.sqrt(limit2 / len2);
+                x *= scale;
+                y *= scale;
+                len2 = x * x + y * y;
+            }
+            velocityX[i] = x;
+            velocityY[i] = y;
+            if (len2 >= threshold2) orientation[i] = (float)Math.atan2(-x, y);
+        }
+    }
+
+    /**
+     * Adds the given direction, normalized and scaled to the given acceleration, to the steering of the given agent.
+     */
+    private void addNormalized(int index, float x, float y, float acceleration, float weight) {
+        float length = (float)Math.sqrt(x * x + y * y);
+        if (length != 0) {
+            x /= length;
+            y /= length;
+        }
+        linearX[index] += x * acceleration * weight;
+        linearY[index] += y * acceleration * weight;
+    }
+}
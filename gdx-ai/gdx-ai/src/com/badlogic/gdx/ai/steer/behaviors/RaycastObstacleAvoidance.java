@@ -10,6 +10,7 @@ import com.badlogic.gdx.ai.steer.utils.rays.ParallelSideRayConfiguration;
 import com.badlogic.gdx.ai.steer.utils.rays.SingleRayConfiguration;
 import com.badlogic.gdx.ai.utils.Collision;
 import com.badlogic.gdx.ai.utils.Ray;
+import com.badlogic.gdx.ai.utils.RaycastBatch;
 import com.badlogic.gdx.ai.utils.RaycastCollisionDetector;
 import com.badlogic.gdx.math.Vector;
 
@@ -51,6 +52,13 @@ import com.badlogic.gdx.math.Vector;
  * detected by other rays are ignored for a while.</li>
  * </ul>
  * It seems that the most practical solution is to use adaptive fan angles, with one long ray cast and two shorter whiskers.
+ * <p>
+ * <a name="batching">
+ * <h2>Batching rays</h2></a> When many agents avoid obstacles, their rays can be cast all at once by a {@link RaycastBatch}
+ * rather than one by one by the collision detector. On each frame, every behavior {@link #submitRays(RaycastBatch) submits} its
+ * rays to the batch, then the batch is {@link RaycastBatch#cast() cast}, and finally the steering of every behavior is calculated
+ * as usual from the collisions found by the batch. The steering of a behavior whose rays haven't been submitted since its last
+ * calculation, or whose batch has been cleared since they were submitted, falls back to the collision detector.
  *
  * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
  * 
@@ -74,6 +82,10 @@ public class RaycastObstacleAvoidance<T extends Vector<T>> extends SteeringBehav
 
     private Collision<T> outputCollision;
     private Collision<T> minOutputCollision;
+    private RaycastBatch<T> raycastBatch;
+    private int firstBatchRay;
+    private int batchRayCount;
+    private int batchGeneration;
 
     /**
      * Creates a {@code RaycastObstacleAvoidance} behavior.
@@ -130,22 +142,42 @@ public class RaycastObstacleAvoidance<T extends Vector<T>> extends SteeringBehav
         T ownerPosition = owner.getPosition();
         float minDistanceSquare = Float.POSITIVE_INFINITY;
 
-        // Get the updated rays
-        Ray<T>[] inputRays = rayConfiguration.updateRays();
+        // The rays submitted to a batch that has been cleared since then belong to other agents. This happens when the steering
+        // is not calculated on the frame the rays are submitted, for instance because this behavior is disabled.
+        if (raycastBatch != null && raycastBatch.getGeneration() != batchGeneration) raycastBatch = null;
 
-        // Process rays
-        for (int i = 0; i < inputRays.length; i++) {
-            // Find the collision with current ray
-            boolean collided = raycastCollisionDetector.findCollision(outputCollision, inputRays[i]);
-
-            if (collided) {
-                float distanceSquare = ownerPosition.dst2(outputCollision.point);
-                if (distanceSquare < minDistanceSquare) {
-                    minDistanceSquare = distanceSquare;
-                    // Swap collisions
-                    Collision<T> tmpCollision = outputCollision;
-                    outputCollision = minOutputCollision;
-                    minOutputCollision = tmpCollision;
+        if (raycastBatch != null) {
+            // Process the rays cast by the batch
+            for (int i = firstBatchRay, end = firstBatchRay + batchRayCount; i < end; i++) {
+                if (raycastBatch.hasCollided(i)) {
+                    float distanceSquare = ownerPosition.dst2(raycastBatch.getCollision(i).point);
+                    if (distanceSquare < minDistanceSquare) {
+                        minDistanceSquare = distanceSquare;
+                        minOutputCollision.set(raycastBatch.getCollision(i));
+                    }
+                }
+            }
+
+            // The rays have to be submitted again on the next frame
+            raycastBatch = null;
+        } else {
+            // Get the updated rays
+            Ray<T>[] inputRays = rayConfiguration.updateRays();
+
+            // Process rays
+            for (int i = 0; i < inputRays.length; i++) {
+                // Find the collision with current ray
+                boolean collided = raycastCollisionDetector.findCollision(outputCollision, inputRays[i]);
+
+                if (collided) {
+                    float distanceSquare = ownerPosition.dst2(outputCollision.point);
+                    if (distanceSquare < minDistanceSquare) {
+                        minDistanceSquare = distanceSquare;
+                        // Swap collisions
+                        Collision<T> tmpCollision = outputCollision;
+                        outputCollision = minOutputCollision;
+                        minOutputCollision = tmpCollision;
+                    }
                 }
             }
         }
@@ -165,6 +197,23 @@ public class RaycastObstacleAvoidance<T extends Vector<T>> extends SteeringBehav
         return steering;
     }
 
+    /**
+     * Updates the rays of this behavior and submits them to the given batch. The next calculation of the steering uses the
+     * collisions found by the batch, which therefore has to be cast in between.
+     *
+     * @param raycastBatch the batch casting the rays
+     */
+    public void submitRays(RaycastBatch<T> raycastBatch) {
+        Ray<T>[] inputRays = rayConfiguration.updateRays();
+        this.raycastBatch = raycastBatch;
+        this.batchGeneration = raycastBatch.getGeneration();
+        this.batchRayCount = inputRays.length;
+        for (int i = 0; i < inputRays.length; i++) {
+            int index = raycastBatch.submit(inputRays[i]);
+            if (i == 0) firstBatchRay = index;
+        }
+    }
+
     /**
      * Returns the ray configuration of this behavior.
      */
@@ -0,0 +1,488 @@
+package com.badlogic.gdx.ai.steer.behaviors;
+
+import com.badlogic.gdx.ai.steer.GroupBehavior;
+import com.badlogic.gdx.ai.steer.Limiter;
+import com.badlogic.gdx.ai.steer.Proximity;
+import com.badlogic.gdx.ai.steer.Proximity.ProximityCallback;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.ai.steer.SteeringAcceleration;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * {@code ReciprocalVelocityObstacles} behavior steers the owner to a velocity avoiding all its neighbors at once, using the optimal
+ * reciprocal collision avoidance (ORCA) of the RVO2 library.
+ * <p>
+ * Each neighbor found by the {@link Proximity} forbids the velocities leading to a collision with it within the time horizon. The
+ * forbidden velocities are approximated by a half-plane, assuming the neighbor takes its half of the responsibility of avoiding the
+ * collision, which is the case when it's steered by this behavior too. The owner then chooses the velocity closest to its preferred
+ * velocity that lies in all the half-planes and doesn't exceed its maximum linear speed, by solving a small linear program. When
+ * the half-planes leave no room, for instance in very dense crowds, the velocity violating them the least is chosen instead.
+ * Unlike {@link CollisionAvoidance}, which reacts to the most imminent collision only, this gives smooth and oscillation-free
+ * motion in crowds.
+ * <p>
+ * The preferred velocity is the current velocity of the owner, unless a {@link #setPreferredVelocity(Vector2) preferred velocity}
+ * is set, and the produced acceleration changes the velocity of the owner into the chosen one within the time to target. Only the
+ * closest neighbors, up to a maximum number, are taken into account and the half-planes are stored in buffers allocated once, so
+ * the cost per agent is bounded whatever the density of the crowd.
+ * <p>
+ * This behavior only works in 2D.
+ *
+ */
+public class ReciprocalVelocityObstacles extends GroupBehavior<Vector2> implements ProximityCallback<Vector2> {
+
+    private static final float EPSILON = 0.00001f;
+
+    /**
+     * The time horizon in seconds within which collisions are avoided.
+     */
+    protected float timeHorizon;
+
+    /**
+     * The time in seconds over which the chosen velocity is achieved.
+     */
+    protected float timeToTarget;
+
+    /**
+     * The preferred velocity, or {@code null} to use the current velocity of the owner.
+     */
+    protected Vector2 preferredVelocity;
+
+    private int maxNeighbors;
+    private int neighborCount;
+    private Steerable<Vector2>[] neighbors;
+    private float[] neighborDistances2;
+    private HalfPlanes lines;
+    private HalfPlanes projectedLines;
+    private float resultX;
+    private float resultY;
+
+    /**
+     * Creates a {@code ReciprocalVelocityObstacles} behavior for the specified owner and proximity, taking into account up to 10
+     * neighbors with a time horizon of 2 seconds and a time to target of 0.1 seconds.
+     *
+     * @param owner     the owner of this behavior
+     * @param proximity the proximity to detect the owner's neighbors
+     */
+    public ReciprocalVelocityObstacles(Steerable<Vector2> owner, Proximity<Vector2> proximity) {
+        this(owner, proximity, 10, 2);
+    }
+
+    /**
+     * Creates a {@code ReciprocalVelocityObstacles} behavior for the specified owner, proximity, maximum number of neighbors and time
+     * horizon, with a time to target of 0.1 seconds.
+     *
+     * @param owner        the owner of this behavior
+     * @param proximity    the proximity to detect the owner's neighbors
+     * @param maxNeighbors the maximum number of closest neighbors taken into account
+     * @param timeHorizon  the time horizon in seconds
+     */
+    public ReciprocalVelocityObstacles(Steerable<Vector2> owner, Proximity<Vector2> proximity, int maxNeighbors,
+                                       float timeHorizon) {
+        super(owner, proximity);
+        this.timeHorizon = timeHorizon;
+        this.timeToTarget = 0.1f;
+        setMaxNeighbors(maxNeighbors);
+    }
+
+    @Override
+    protected SteeringAcceleration<Vector2> calculateRealSteering(SteeringAcceleration<Vector2> steering) {
+        // Collect the closest neighbors
+        neighborCount = 0;
+        proximity.findNeighbors(this);
+
+        Vector2 position = owner.getPosition();
+        Vector2 velocity = owner.getLinearVelocity();
+        float radius = owner.getBoundingRadius();
+        float invTimeHorizon = 1f / timeHorizon;
+        float invTimeStep = 1f / timeToTarget;
+
+        // Create the half-plane of permitted velocities for each neighbor
+        lines.size = 0;
+        for (int i = 0; i < neighborCount; i++) {
+            Steerable<Vector2> neighbor = neighbors[i];
+            neighbors[i] = null;
+            Vector2 neighborPosition = neighbor.getPosition();
+            Vector2 neighborVelocity = neighbor.getLinearVelocity();
+            float relativePositionX = neighborPosition.x - position.x;
+            float relativePositionY = neighborPosition.y - position.y;
+            float relativeVelocityX = velocity.x - neighborVelocity.x;
+            float relativeVelocityY = velocity.y - neighborVelocity.y;
+            float distance2 = relativePositionX * relativePositionX + relativePositionY * relativePositionY;
+            float combinedRadius = radius + neighbor.getBoundingRadius();
+            float combinedRadius2 = combinedRadius * combinedRadius;
+
+            float directionX, directionY, uX, uY;
+            if (distance2 > combinedRadius2) {
+                // No collision, the vector from the cutoff center to the relative velocity
+                float wX = relativeVelocityX - invTimeHorizon * relativePositionX;
+                float wY = relativeVelocityY - invTimeHorizon * relativePositionY;
+                float wLength2 = wX * wX + wY * wY;
+                float dotProduct1 = wX * relativePositionX + wY * relativePositionY;
+
+                if (dotProduct1 < 0 && dotProduct1 * dotProduct1 > combinedRadius2 * wLength2) {
+                    // Project on the cutoff circle
+                    float wLength = (float)Math.sqrt(wLength2);
+                    float unitWX = wX / wLength;
+                    float unitWY = wY / wLength;
+                    directionX = unitWY;
+                    directionY = -unitWX;
+                    uX = (combinedRadius * invTimeHorizon - wLength) * unitWX;
+                    uY = (combinedRadius * invTimeHorizon - wLength) * unitWY;
+                } else {
+                    // Project on the legs
+                    float leg = (float)Math.sqrt(distance2 - combinedRadius2);
+                    if (det(relativePositionX, relativePositionY, wX, wY) > 0) {
+                        // Left leg
+                        directionX = (relativePositionX * leg - relativePositionY * combinedRadius) / distance2;
+                        directionY = (relativePositionX * combinedRadius + relativePositionY * leg) / distance2;
+                    } else {
+                        // Right leg
+                        directionX = -(relativePositionX * leg + relativePositionY * combinedRadius) / distance2;
+                        directionY = -(-relativePositionX * combinedRadius + relativePositionY * leg) / distance2;
+                    }
+                    float dotProduct2 = relativeVelocityX * directionX + relativeVelocityY * directionY;
+                    uX = dotProduct2 * directionX - relativeVelocityX;
+                    uY = dotProduct2 * directionY - relativeVelocityY;
+                }
+            } else {
+                // Collision, project on the cutoff circle of the time step
+                float wX = relativeVelocityX - invTimeStep * relativePositionX;
+                float wY = relativeVelocityY - invTimeStep * relativePositionY;
+                float wLength = (float)Math.sqrt(wX * wX + wY * wY);
+                if (wLength == 0) continue; // Agents on top of each other without relative velocity, no direction to take
+                float unitWX = wX / wLength;
+                float unitWY = wY / wLength;
+                directionX = unitWY;
+                directionY = -unitWX;
+                uX = (combinedRadius * invTimeStep - wLength) * unitWX;
+                uY = (combinedRadius * invTimeStep - wLength) * unitWY;
+            }
+
+            // Both agents take half of the responsibility of avoiding the collision
+            lines.add(velocity.x + 0.5f * uX, velocity.y + 0.5f * uY, directionX, directionY);
+        }
+
+        // Find the permitted velocity closest to the preferred one
+        float maxSpeed = getActualLimiter().getMaxLinearSpeed();
+        Vector2 optVelocity = preferredVelocity != null ? preferredVelocity : velocity;
+        int lineFail = linearProgram2(lines, maxSpeed, optVelocity.x, optVelocity.y, false);
+        if (lineFail < lines.size) linearProgram3(lines, lineFail, maxSpeed);
+
+        // Achieve the new velocity within the time to target
+        steering.linear.set(resultX, resultY).sub(velocity).scl(invTimeStep).limit(getActualLimiter().getMaxLinearAcceleration());
+
+        // No angular acceleration
+        steering.angular = 0f;
+
+        // Output the steering
+        return steering;
+    }
+
+    @Override
+    public boolean reportNeighbor(Steerable<Vector2> neighbor) {
+        float distance2 = owner.getPosition().dst2(neighbor.getPosition());
+        if (neighborCount == maxNeighbors) {
+            // Discard the neighbor if it's farther than all the kept ones, otherwise it replaces the farthest one
+            if (maxNeighbors == 0 || distance2 >= neighborDistances2[neighborCount - 1]) return false;
+            neighborCount--;
+        }
+
+        // Insert the neighbor keeping neighbors sorted by distance
+        int i = neighborCount++;
+        while (i > 0 && neighborDistances2[i - 1] > distance2) {
+            neighbors[i] = neighbors[i - 1];
+            neighborDistances2[i] = neighborDistances2[i - 1];
+            i--;
+        }
+        neighbors[i] = neighbor;
+        neighborDistances2[i] = distance2;
+        return true;
+    }
+
+    /**
+     * Solves a one-dimensional linear program on the given half-plane, subject to the half-planes preceding it and to the maximum
+     * speed. The result is stored in {@code resultX} and {@code resultY}.
+     *
+     * @return {@code true} if successful; {@code false} otherwise.
+     */
+    private boolean linearProgram1(HalfPlanes lines, int lineNo, float radius, float optVelocityX, float optVelocityY,
+                                   boolean directionOpt) {
+        float pointX = lines.pointX[lineNo], pointY = lines.pointY[lineNo];
+        float directionX = lines.directionX[lineNo], directionY = lines.directionY[lineNo];
+        float dotProduct = pointX * directionX + pointY * directionY;
+        float discriminant = dotProduct * dotProduct + radius * radius - (pointX * pointX + pointY * pointY);
+
+        // Maximum speed circle fully invalidates the line
+        if (discriminant < 0) return false;
+
+        float sqrtDiscriminant = (float)Math.sqrt(discriminant);
+        float tLeft = -dotProduct - sqrtDiscriminant;
+        float tRight = -dotProduct + sqrtDiscriminant;
+
+        for (int i = 0; i < lineNo; i++) {
+            float denominator = det(directionX, directionY, lines.directionX[i], lines.directionY[i]);
+            float numerator = det(lines.directionX[i], lines.directionY[i], pointX - lines.pointX[i], pointY - lines.pointY[i]);
+
+            if (Math.abs(denominator) <= EPSILON) {
+                // Lines are parallel or nearly so
+                if (numerator < 0) return false;
+                continue;
+            }
+
+            float t = numerator / denominator;
+            if (denominator >= 0)
+                tRight = Math.min(tRight, t); // Line i bounds line lineNo on the right
+            else
+                tLeft = Math.max(tLeft, t); // Line i bounds line lineNo on the left
+
+            if (tLeft > tRight) return false;
+        }
+
+        float t;
+        if (directionOpt) {
+            // Optimize direction
+            t = optVelocityX * directionX + optVelocityY * directionY > 0 ? tRight : tLeft;
+        } else {
+            // Optimize closest point
+            t = directionX * (optVelocityX - pointX) + directionY * (optVelocityY - pointY);
+            if (t < tLeft)
+                t = tLeft;
+            else if (t > tRight) t = tRight;
+        }
+        resultX = pointX + t * directionX;
+        resultY = pointY + t * directionY;
+        return true;
+    }
+
+    /**
+     * Solves a two-dimensional linear program subject to the given half-planes and to the maximum speed. The result is stored in
+     * {@code resultX} and {@code resultY}.
+     *
+     * @return the number of the half-plane it fails on, or the number of half-planes if successful.
+     */
+    private int linearProgram2(HalfPlanes lines, float radius, float optVelocityX, float optVelocityY, boolean directionOpt) {
+        if (directionOpt) {
+            // Optimize direction. Note that the optimization velocity is of unit length in this case
+            resultX = optVelocityX * radius;
+            resultY = optVelocityY * radius;
+        } else {
+            float optSpeed2 = optVelocityX * optVelocityX + optVelocityY * optVelocityY;
+            if (optSpeed2 > radius * radius) {
+                // Optimize closest point outside the circle
+                float scale = radius / (float)Math.sqrt(optSpeed2);
+                resultX = optVelocityX * scale;
+                resultY = optVelocityY * scale;
+            } else {
+                // Optimize closest point inside the circle
+                resultX = optVelocityX;
+                resultY = optVelocityY;
+            }
+        }
+
+        for (int i = 0; i < lines.size; i++) {
+            if (det(lines.directionX[i], lines.directionY[i], lines.pointX[i] - resultX, lines.pointY[i] - resultY) > 0) {
+                // The result does not satisfy the constraint i, compute the new optimal result
+                float tempResultX = resultX, tempResultY = resultY;
+                if (!linearProgram1(lines, i, radius, optVelocityX, optVelocityY, directionOpt)) {
+                    resultX = tempResultX;
+                    resultY = tempResultY;
+                    return i;
+                }
+            }
+        }
+
+        return lines.size;
+    }
+
+    /**
+     * Finds the velocity minimizing the maximum violation of the half-planes from the given one, when the two-dimensional linear
+     * program is infeasible. The result is stored in {@code resultX} and {@code resultY}.
+     */
+    private void linearProgram3(HalfPlanes lines, int beginLine, float radius) {
+        float distance = 0;
+
+        for (int i = beginLine; i < lines.size; i++) {
+            float pointX = lines.pointX[i], pointY = lines.pointY[i];
+            float directionX = lines.directionX[i], directionY = lines.directionY[i];
+            if (det(directionX, directionY, pointX - resultX, pointY - resultY) > distance) {
+                // The result does not satisfy constraint of line i
+                projectedLines.size = 0;
+                for (int j = 0; j < i; j++) {
+                    float determinant = det(directionX, directionY, lines.directionX[j], lines.directionY[j]);
+                    float projectedPointX, projectedPointY;
+                    if (Math.abs(determinant) <= EPSILON) {
+                        // Line i and line j are parallel
+                        if (directionX * lines.directionX[j] + directionY * lines.directionY[j] > 0) {
+                            // Line i and line j point in the same direction
+                            continue;
+                        }
+                        // Line i and line j point in opposite directions
+                        projectedPointX = 0.5f * (pointX + lines.pointX[j]);
+                        projectedPointY = 0.5f * (pointY + lines.pointY[j]);
+                    } else {
+                        float t = det(lines.directionX[j], lines.directionY[j], pointX - lines.pointX[j], pointY - lines.pointY[j])
+                                / determinant;
+                        projectedPointX = pointX + t * directionX;
+                        projectedPointY = pointY + t * directionY;
+                    }
+                    float projectedDirectionX = lines.directionX[j] - directionX;
+                    float projectedDirectionY = lines.directionY[j] - directionY;
+                    float length = (float)Math.sqrt(projectedDirectionX * projectedDirectionX
+                            + projectedDirectionY * projectedDirectionY);
+                    projectedLines.add(projectedPointX, projectedPointY, projectedDirectionX / length,
+                            projectedDirectionY / length);
+                }
+
+                float tempResultX = resultX, tempResultY = resultY;
+                if (linearProgram2(projectedLines, radius, -directionY, directionX, true) < projectedLines.size) {
+                    // This should in principle not happen. The result is by definition already in the feasible region of
+                    // this linear program. If it fails, it is due to small floating point error, and the current result
+                    // is kept.
+                    resultX = tempResultX;
+                    resultY = tempResultY;
+                }
+
+                distance = det(directionX, directionY, pointX - resultX, pointY - resultY);
+            }
+        }
+    }
+
+    private static float det(float x1, float y1, float x2, float y2) {
+        return x1 * y2 - y1 * x2;
+    }
+
+    /**
+     * Returns the maximum number of closest neighbors taken into account.
+     */
+    public int getMaxNeighbors() {
+        return maxNeighbors;
+    }
+
+    /**
+     * Sets the maximum number of closest neighbors taken into account. The buffers holding the neighbors and their half-planes are
+     * reallocated.
+     *
+     * @param maxNeighbors the maximum number of neighbors to set
+     * @return this behavior for chaining.
+     */
+    @SuppressWarnings("unchecked")
+    public ReciprocalVelocityObstacles setMaxNeighbors(int maxNeighbors) {
+        this.maxNeighbors = maxNeighbors;
+        this.neighbors = new Steerable[maxNeighbors];
+        this.neighborDistances2 = new float[maxNeighbors];
+        this.lines = new HalfPlanes(maxNeighbors);
+        this.projectedLines = new HalfPlanes(maxNeighbors);
+        return this;
+    }
+
+    /**
+     * Returns the time horizon in seconds within which collisions are avoided.
+     */
+    public float getTimeHorizon() {
+        return timeHorizon;
+    }
+
+    /**
+     * Sets the time horizon in seconds within which collisions are avoided. The larger it is, the sooner the owner reacts to its
+     * neighbors, but the more its choice of velocity is restricted.
+     *
+     * @param timeHorizon the time horizon to set
+     * @return this behavior for chaining.
+     */
+    public ReciprocalVelocityObstacles setTimeHorizon(float timeHorizon) {
+        this.timeHorizon = timeHorizon;
+        return this;
+    }
+
+    /**
+     * Returns the time in seconds over which the chosen velocity is achieved.
+     */
+    public float getTimeToTarget() {
+        return timeToTarget;
+    }
+
+    /**
+     * Sets the time in seconds over which the chosen velocity is achieved. It's also the time within which the owner moves away from
+     * a neighbor it's already colliding with.
+     *
+     * @param timeToTarget the time to target to set
+     * @return this behavior for chaining.
+     */
+    public ReciprocalVelocityObstacles setTimeToTarget(float timeToTarget) {
+        this.timeToTarget = timeToTarget;
+        return this;
+    }
+
+    /**
+     * Returns the preferred velocity, or {@code null} if the current velocity of the owner is preferred.
+     */
+    public Vector2 getPreferredVelocity() {
+        return preferredVelocity;
+    }
+
+    /**
+     * Sets the preferred velocity, typically pointing to the goal of the owner at its preferred speed. The given vector is not
+     * copied, so it can be updated on each frame.
+     *
+     * @param preferredVelocity the preferred velocity to set, or {@code null} to prefer the current velocity of the owner
+     * @return this behavior for chaining.
+     */
+    public ReciprocalVelocityObstacles setPreferredVelocity(Vector2 preferredVelocity) {
+        this.preferredVelocity = preferredVelocity;
+        return this;
+    }
+
+    //
+    // Setters overridden in order to fix the correct return type for chaining
+    //
+
+    @Override
+    public ReciprocalVelocityObstacles setOwner(Steerable<Vector2> owner) {
+        this.owner = owner;
+        return this;
+    }
+
+    @Override
+    public ReciprocalVelocityObstacles setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    /**
+     * Sets the limiter of this steering behavior. The given limiter must at least take care of the maximum linear speed and
+     * acceleration.
+     *
+     * @return this behavior for chaining.
+     */
+    @Override
+    public ReciprocalVelocityObstacles setLimiter(Limiter limiter) {
+        this.limiter = limiter;
+        return this;
+    }
+
+    /**
+     * Directed lines, each bounding the half-plane on its left, stored in preallocated arrays.
+     */
+    private static class HalfPlanes {
+        final float[] pointX;
+        final float[] pointY;
+        final float[] directionX;
+        final float[] directionY;
+        int size;
+
+        HalfPlanes(int capacity) {
+            this.pointX = new float[capacity];
+            this.pointY = new float[capacity];
+            this.directionX = new float[capacity];
+            this.directionY = new float[capacity];
+        }
+
+        void add(float pointX, float pointY, float directionX, float directionY) {
+            this.pointX[size] = pointX;
+            this.pointY[size] = pointY;
+            this.directionX[size] = directionX;
+            this.directionY[size] = directionY;
+            size++;
+        }
+    }
+}
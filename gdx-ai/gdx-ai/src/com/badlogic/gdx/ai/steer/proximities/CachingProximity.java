@@ -0,0 +1,155 @@
+package com.badlogic.gdx.ai.steer.proximities;
+
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.Timepiece;
+import com.badlogic.gdx.ai.steer.Proximity;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.ai.steer.behaviors.Alignment;
+import com.badlogic.gdx.ai.steer.behaviors.BlendedSteering;
+import com.badlogic.gdx.ai.steer.behaviors.Cohesion;
+import com.badlogic.gdx.ai.steer.behaviors.Separation;
+import com.badlogic.gdx.math.Vector;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A {@code CachingProximity} decorates another proximity so that its neighbors are found only once per frame, no matter how many
+ * group behaviors of the owner share it. The first call to {@link #findNeighbors(ProximityCallback)} on a frame lets the decorated
+ * proximity find the neighbors and remembers all of them in a reused array; the following calls on the same frame replay that array
+ * to their callback without querying the decorated proximity again. For instance, an agent flocking with {@link Separation},
+ * {@link Cohesion} and {@link Alignment} inside a {@link BlendedSteering} scans its surroundings once rather than three times.
+ * <p>
+ * Unlike the cache of {@link RadiusProximity}, which only reports again the neighbors accepted by the first callback, every
+ * callback is given all the neighbors found on the frame and decides on its own which ones to accept.
+ * <p>
+ * Note that this implementation checks the AI time of the current frame through the {@link Timepiece#getTime()
+ * GdxAI.getTimepiece().getTime()} method in order to find neighbors only once per frame (assuming delta time is always greater
+ * than 0, if time has changed the frame has changed too). This means that
+ * <ul>
+ * <li>if you forget to {@link Timepiece#update(float) update the timepiece} on each frame the neighbors will be found only the
+ * very first time, which is not what you want of course.</li>
+ * <li>ideally the timepiece should be updated before the proximity is updated by the {@link #findNeighbors(ProximityCallback)}
+ * method.</li>
+ * </ul>
+ *
+ * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+ *
+ */
+public class CachingProximity<T extends Vector<T>> implements Proximity<T> {
+
+    /**
+     * The decorated proximity.
+     */
+    protected Proximity<T> proximity;
+
+    private float lastTime;
+    private final Array<Steerable<T>> neighbors;
+    private final NeighborCollector collector;
+    private long scanCount;
+    private long savedScanCount;
+
+    /**
+     * Creates a {@code CachingProximity} decorating the given proximity.
+     *
+     * @param proximity the proximity finding the neighbors
+     */
+    public CachingProximity(Proximity<T> proximity) {
+        this.proximity = proximity;
+        this.lastTime = 0;
+        this.neighbors = new Array<Steerable<T>>();
+        this.collector = new NeighborCollector();
+    }
+
+    @Override
+    public Steerable<T> getOwner() {
+        return proximity.getOwner();
+    }
+
+    @Override
+    public void setOwner(Steerable<T> owner) {
+        proximity.setOwner(owner);
+    }
+
+    @Override
+    public int findNeighbors(ProximityCallback<T> callback) {
+        // If the frame is new let the decorated proximity find the neighbors,
+        // reporting them to the callback while they're collected.
+        float currentTime = GdxAI.getTimepiece().getTime();
+        if (this.lastTime != currentTime) {
+            // Save the current time
+            this.lastTime = currentTime;
+
+            neighbors.clear();
+            collector.callback = callback;
+            collector.neighborCount = 0;
+            proximity.findNeighbors(collector);
+            collector.callback = null;
+            scanCount++;
+            return collector.neighborCount;
+        }
+
+        // Replay the neighbors found on the current frame
+        savedScanCount++;
+        int neighborCount = 0;
+        for (int i = 0; i < neighbors.size; i++) {
+            if (callback.reportNeighbor(neighbors.get(i))) {
+                neighborCount++;
+            }
+        }
+        return neighborCount;
+    }
+
+    /**
+     * Returns the decorated proximity.
+     */
+    public Proximity<T> getProximity() {
+        return proximity;
+    }
+
+    /**
+     * Sets the decorated proximity. The neighbors cached for the current frame, if any, are discarded.
+     *
+     * @param proximity the proximity to set
+     */
+    public void setProximity(Proximity<T> proximity) {
+        this.proximity = proximity;
+        this.lastTime = 0;
+    }
+
+    /**
+     * Returns the number of times the decorated proximity has been asked to find the neighbors.
+     */
+    public long getScanCount() {
+        return scanCount;
+    }
+
+    /**
+     * Returns the number of times the neighbors have been replayed from the cache instead of being found again by the decorated
+     * proximity.
+     */
+    public long getSavedScanCount() {
+        return savedScanCount;
+    }
+
+    /**
+     * Resets the scan counters to 0.
+     */
+    public void resetCounters() {
+        scanCount = 0;
+        savedScanCount = 0;
+    }
+
+    /**
+     * Remembers every neighbor found by the decorated proximity and forwards it to the callback of the first call of the frame.
+     */
+    private class NeighborCollector implements ProximityCallback<T> {
+        ProximityCallback<T> callback;
+        int neighborCount;
+
+        @Override
+        public boolean reportNeighbor(Steerable<T> neighbor) {
+            neighbors.add(neighbor);
+            if (callback.reportNeighbor(neighbor)) neighborCount++;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package com.badlogic.gdx.ai.steer.proximities;
+
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.Timepiece;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.math.Vector;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.util.Arrays;
+
+/**
+ * A {@code DynamicTree} is a bounding volume hierarchy of the agents, where each leaf holds an agent and an axis-aligned bounding
+ * box enclosing the bounding sphere of the agent and each internal node encloses its two children. The agents close to a given point
+ * are found by descending only into the boxes overlapping the query, which works regardless of the size of the agents, unlike a
+ * {@link SpatialHashGrid} whose cell size has to fit them all. A single tree is meant to be shared by the proximities of all the
+ * agents, see {@link DynamicTreeProximity}.
+ * <p>
+ * The tree is updated incrementally: leaves are inserted and removed as agents are added to or removed from the iterable, and the
+ * boxes are fattened by a margin so that an agent can move a little before its leaf has to be reinserted. Leaves are inserted next
+ * to the sibling that least enlarges the tree, and the tree is kept balanced by rotations.
+ * <p>
+ * Like the other proximities, this tree checks the AI time through the {@link Timepiece#getTime() GdxAI.getTimepiece().getTime()}
+ * method so that {@link #update()} refreshes it only once per frame, no matter how many proximities call it.
+ * <p>
+ * Only {@link Vector2} and {@link Vector3} positions are supported.
+ *
+ * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+ *
+ */
+public class DynamicTree<T extends Vector<T>> {
+    static final int NULL = -1;
+
+    Iterable<? extends Steerable<T>> agents;
+    float margin;
+    private float lastTime;
+
+    /**
+     * The leaf of each agent.
+     */
+    ObjectIntMap<Steerable<T>> agentLeaves;
+
+    /**
+     * The nodes of the tree. The bounds of a node are the 6 floats starting at {@code node * 6}, that is the minimum and then the
+     * maximum coordinates of its box. A node is a leaf if it has no first child. Free nodes are linked through their parent.
+     */
+    int root;
+    int[] parents;
+    int[] children1;
+    int[] children2;
+    int[] heights;
+    float[] bounds;
+    Steerable<T>[] leafAgents;
+    int freeList;
+
+    /**
+     * The last refit during which the agent of each leaf was found in the iterable.
+     */
+    private int[] leafRefits;
+    private int refitCount;
+
+    private final float[] tightBounds;
+
+    /**
+     * Creates a {@code DynamicTree} for the given agents.
+     *
+     * @param agents the agents
+     * @param margin how much the box of each agent is enlarged on each side, so that the agent can move without updating the tree
+     * @throws IllegalArgumentException if the margin is negative.
+     */
+    public DynamicTree(Iterable<? extends Steerable<T>> agents, float margin) {
+        if (margin < 0) throw new IllegalArgumentException("The margin can't be negative: " + margin);
+        this.agents = agents;
+        this.margin = margin;
+        this.agentLeaves = new ObjectIntMap<Steerable<T>>();
+        this.root = NULL;
+        this.freeList = NULL;
+        this.tightBounds = new float[6];
+        allocateNodes(32);
+    }
+
+    /**
+     * Returns the agents handled by this tree.
+     */
+    public Iterable<? extends Steerable<T>> getAgents() {
+        return agents;
+    }
+
+    /**
+     * Returns the margin of the boxes of the agents.
+     */
+    public float getMargin() {
+        return margin;
+    }
+
+    /**
+     * Returns the height of the tree, which is 0 if the tree is empty or has only one agent.
+     */
+    public int getHeight() {
+        return root == NULL ? 0 : heights[root];
+    }
+
+    /**
+     * Brings the tree up to date with the agents, unless it has already been updated on the current frame.
+     */
+    public void update() {
+        float currentTime = GdxAI.getTimepiece().getTime();
+        if (this.lastTime != currentTime) {
+            this.lastTime = currentTime;
+            refit();
+        }
+    }
+
+    /**
+     * Brings the tree up to date with the agents: leaves are inserted and removed for the agents that have been added or removed
+     * since the previous call, and reinserted for the agents that have moved out of their box. Leaves are looked up by agent, so
+     * removing an agent frees only its own leaf, wherever it was in the iterable.
+     */
+    public void refit() {
+        refitCount++;
+        int agentCount = 0;
+        for (Steerable<T> agent : agents) {
+            int leaf = agentLeaves.get(agent, NULL);
+            if (leaf == NULL) {
+                leaf = createLeaf(agent);
+                agentLeaves.put(agent, leaf);
+            } else if (leafRefits[leaf] != refitCount) {
+                moveLeaf(leaf, agent);
+            } else {
+                continue; // The agent is in the iterable more than once
+            }
+            leafRefits[leaf] = refitCount;
+            agentCount++;
+        }
+
+        // Free only the leaves of the agents that are gone
+        if (agentLeaves.size > agentCount) {
+            for (int node = 0; node < leafAgents.length; node++) {
+                Steerable<T> agent = leafAgents[node];
+                if (agent != null && leafRefits[node] != refitCount) {
+                    agentLeaves.remove(agent, NULL);
+                    destroyLeaf(node);
+                }
+            }
+        }
+    }
+
+    private int createLeaf(Steerable<T> agent) {
+        int leaf = allocateNode();
+        leafAgents[leaf] = agent;
+        setBounds(agent.getPosition(), agent.getBoundingRadius() + margin, bounds, leaf * 6);
+        insertLeaf(leaf);
+        return leaf;
+    }
+
+    private void destroyLeaf(int leaf) {
+        removeLeaf(leaf);
+        freeNode(leaf);
+    }
+
+    private void moveLeaf(int leaf, Steerable<T> agent) {
+        setBounds(agent.getPosition(), agent.getBoundingRadius(), tightBounds, 0);
+        int offset = leaf * 6;
+        if (bounds[offset] <= tightBounds[0] && bounds[offset + 1] <= tightBounds[1] && bounds[offset + 2] <= tightBounds[2]
+                && bounds[offset + 3] >= tightBounds[3] && bounds[offset + 4] >= tightBounds[4]
+                && bounds[offset + 5] >= tightBounds[5]) return;
+
+        // The agent has moved out of its box, so reinsert it with a new fat box
+        removeLeaf(leaf);
+        for (int i = 0; i < 3; i++) {
+            bounds[offset + i] = tightBounds[i] - margin;
+            bounds[offset + 3 + i] = tightBounds[3 + i] + margin;
+        }
+        insertLeaf(leaf);
+    }
+
+    private void insertLeaf(int leaf) {
+        if (root == NULL) {
+            root = leaf;
+            parents[leaf] = NULL;
+            return;
+        }
+
+        // Find the best sibling for the new leaf
+        int index = root;
+        while (children1[index] != NULL) {
+            int child1 = children1[index];
+            int child2 = children2[index];
+
+            float area = getPerimeter(index);
+            float combinedArea = getUnionPerimeter(index, leaf);
+
+            // Cost of creating a new parent for this node and the new leaf
+            float cost = 2 * combinedArea;
+
+            // Minimum cost of pushing the leaf further down the tree
+            float inheritanceCost = 2 * (combinedArea - area);
+            float cost1 = getDescentCost(child1, leaf) + inheritanceCost;
+            float cost2 = getDescentCost(child2, leaf) + inheritanceCost;
+
+            if (cost < cost1 && cost < cost2) break;
+            index = cost1 < cost2 ? child1 : child2;
+        }
+        int sibling = index;
+
+        // Create a new parent for the sibling and the new leaf
+        int oldParent = parents[sibling];
+        int newParent = allocateNode();
+        parents[newParent] = oldParent;
+        setUnion(newParent, sibling, leaf);
+        heights[newParent] = heights[sibling] + 1;
+        children1[newParent] = sibling;
+        children2[newParent] = leaf;
+        parents[sibling] = newParent;
+        parents[leaf] = newParent;
+        if (oldParent == NULL)
+            root = newParent;
+        else if (children1[oldParent] == sibling)
+            children1[oldParent] = newParent;
+        else
+            children2[oldParent] = newParent;
+
+        // Walk back up the tree fixing heights and boxes
+        fixUpwards(parents[leaf]);
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL;
+            return;
+        }
+
+        int parent = parents[leaf];
+        int grandParent = parents[parent];
+        int sibling = children1[parent] == leaf ? children2[parent] : children1[parent];
+        freeNode(parent);
+        if (grandParent == NULL) {
+            root = sibling;
+            parents[sibling] = NULL;
+            return;
+        }
+
+        // Replace the parent with the sibling and fix the ancestors
+        if (children1[grandParent] == parent)
+            children1[grandParent] = sibling;
+        else
+            children2[grandParent] = sibling;
+        parents[sibling] = grandParent;
+        fixUpwards(grandParent);
+    }
+
+    private void fixUpwards(int index) {
+        while (index != NULL) {
+            index = balance(index);
+            int child1 = children1[index];
+            int child2 = children2[index];
+            heights[index] = 1 + Math.max(heights[child1], heights[child2]);
+            setUnion(index, child1, child2);
+            index = parents[index];
+        }
+    }
+
+    /**
+     * Performs a left or right rotation if node {@code a} is imbalanced.
+     *
+     * @return the new root of the subtree.
+     */
+    private int balance(int a) {
+        if (children1[a] == NULL || heights[a] < 2) return a;
+
+        int b = children1[a];
+        int c = children2[a];
+        int balance = heights[c] - heights[b];
+
+        // Rotate c up
+        if (balance > 1) {
+            int f = children1[c];
+            int g = children2[c];
+            replaceChild(a, c);
+            children1[c] = a;
+            parents[a] = c;
+            if (heights[f] > heights[g]) {
+                children2[c] = f;
+                children2[a] = g;
+                parents[g] = a;
+                setUnion(a, b, g);
+                setUnion(c, a, f);
+                heights[a] = 1 + Math.max(heights[b], heights[g]);
+                heights[c] = 1 + Math.max(heights[a], heights[f]);
+            } else {
+                children2[c] = g;
+                children2[a] = f;
+                parents[f] = a;
+                setUnion(a, b, f);
+                setUnion(c, a, g);
+                heights[a] = 1 + Math.max(heights[b], heights[f]);
+                heights[c] = 1 + Math.max(heights[a], heights[g]);
+            }
+            return c;
+        }
+
+        // Rotate b up
+        if (balance < -1) {
+            int d = children1[b];
+            int e = children2[b];
+            replaceChild(a, b);
+            children1[b] = a;
+            parents[a] = b;
+            if (heights[d] > heights[e]) {
+                children2[b] = d;
+                children1[a] = e;
+                parents[e] = a;
+                setUnion(a, c, e);
+                setUnion(b, a, d);
+                heights[a] = 1 + Math.max(heights[c], heights[e]);
+                heights[b] = 1 + Math.max(heights[a], heights[d]);
+            } else {
+                children2[b] = e;
+                children1[a] = d;
+                parents[d] = a;
+                setUnion(a, c, d);
+                setUnion(b, a, e);
+                heights[a] = 1 + Math.max(heights[c], heights[d]);
+                heights[b] = 1 + Math.max(heights[a], heights[e]);
+            }
+            return b;
+        }
+
+        return a;
+    }
+
+    /**
+     * Puts the given child in place of its parent {@code node}, as a child of the parent of {@code node} or as the root.
+     */
+    private void replaceChild(int node, int child) {
+        int parent = parents[node];
+        parents[child] = parent;
+        if (parent == NULL)
+            root = child;
+        else if (children1[parent] == node)
+            children1[parent] = child;
+        else
+            children2[parent] = child;
+    }
+
+    private float getDescentCost(int child, int leaf) {
+        float cost = getUnionPerimeter(child, leaf);
+        return children1[child] == NULL ? cost : cost - getPerimeter(child);
+    }
+
+    /**
+     * Returns the sum of the extents of the box of the given node, which is proportional to its perimeter in 2D.
+     */
+    private float getPerimeter(int node) {
+        int o = node * 6;
+        return bounds[o + 3] - bounds[o] + bounds[o + 4] - bounds[o + 1] + bounds[o + 5] - bounds[o + 2];
+    }
+
+    private float getUnionPerimeter(int a, int b) {
+        int oa = a * 6, ob = b * 6;
+        float perimeter = 0;
+        for (int i = 0; i < 3; i++)
+            perimeter += Math.max(bounds[oa + 3 + i], bounds[ob + 3 + i]) - Math.min(bounds[oa + i], bounds[ob + i]);
+        return perimeter;
+    }
+
+    private void setUnion(int node, int a, int b) {
+        int o = node * 6, oa = a * 6, ob = b * 6;
+        for (int i = 0; i < 3; i++) {
+            bounds[o + i] = Math.min(bounds[oa + i], bounds[ob + i]);
+            bounds[o + 3 + i] = Math.max(bounds[oa + 3 + i], bounds[ob + 3 + i]);
+        }
+    }
+
+    /**
+     * Stores into the given array, from the given offset, the box enclosing the sphere of the given center and radius.
+     */
+    void setBounds(T center, float radius, float[] out, int offset) {
+        if (center instanceof Vector2) {
+            Vector2 c = (Vector2)center;
+            out[offset] = c.x - radius;
+            out[offset + 1] = c.y - radius;
+            out[offset + 2] = -radius;
+            out[offset + 3] = c.x + radius;
+            out[offset + 4] = c.y + radius;
+            out[offset + 5] = radius;
+        } else {
+            Vector3 c = (Vector3)center;
+            out[offset] = c.x - radius;
+            out[offset + 1] = c.y - radius;
+            out[offset + 2] = c.z - radius;
+            out[offset + 3] = c.x + radius;
+            out[offset + 4] = c.y + radius;
+            out[offset + 5] = c.z + radius;
+        }
+    }
+
+    private int allocateNode() {
+        if (freeList == NULL) {
+            int capacity = parents.length;
+            allocateNodes(capacity * 2);
+            for (int i = parents.length - 1; i >= capacity; i--)
+                freeNode(i);
+        }
+        int node = freeList;
+        freeList = parents[node];
+        parents[node] = NULL;
+        children1[node] = NULL;
+        children2[node] = NULL;
+        heights[node] = 0;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        leafAgents[node] = null;
+        parents[node] = freeList;
+        freeList = node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocateNodes(int capacity) {
+        if (parents == null) {
+            parents = new int[capacity];
+            children1 = new int[capacity];
+            children2 = new int[capacity];
+            heights = new int[capacity];
+            bounds = new float[capacity * 6];
+            leafAgents = (Steerable<T>[])new Steerable[capacity];
+            leafRefits = new int[capacity];
+            for (int i = capacity - 1; i >= 0; i--)
+                freeNode(i);
+        } else {
+            parents = Arrays.copyOf(parents, capacity);
+            children1 = Arrays.copyOf(children1, capacity);
+            children2 = Arrays.copyOf(children2, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+            bounds = Arrays.copyOf(bounds, capacity * 6);
+            leafAgents = Arrays.copyOf(leafAgents, capacity);
+            leafRefits = Arrays.copyOf(leafRefits, capacity);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.badlogic.gdx.ai.steer.proximities;
+
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.Timepiece;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.math.Vector;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * A {@code DynamicTreeProximity} finds the same neighbors as a {@link RadiusProximity}, that is the agents within the radius of
+ * the owner, but descends only into the boxes of a {@link DynamicTree} overlapping the radius instead of scanning all the agents.
+ * Neighbors are reported to the callback as soon as they are found while descending the tree. The tree is typically shared by the
+ * proximities of all the agents and is updated by the first of them to find its neighbors on each frame.
+ * <p>
+ * Note that this implementation checks the AI time of the current frame through the {@link Timepiece#getTime()
+ * GdxAI.getTimepiece().getTime()} method in order to calculate neighbors only once per frame (assuming delta time is always
+ * greater than 0, if time has changed the frame has changed too). This means that
+ * <ul>
+ * <li>if you forget to {@link Timepiece#update(float) update the timepiece} on each frame the proximity instance will be
+ * calculated only the very first time, which is not what you want of course.</li>
+ * <li>ideally the timepiece should be updated before the proximity is updated by the {@link #findNeighbors(ProximityCallback)}
+ * method.</li>
+ * </ul>
+ * Like {@link SpatialHashProximity}, the neighbors found on the current frame are remembered by the proximity itself rather than
+ * by tagging the agents.
+ *
+ * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+ *
+ */
+public class DynamicTreeProximity<T extends Vector<T>> extends ProximityBase<T> {
+
+    /**
+     * The tree of this proximity.
+     */
+    protected DynamicTree<T> tree;
+
+    /**
+     * The radius of this proximity.
+     */
+    protected float radius;
+
+    private float lastTime;
+    private final Array<Steerable<T>> neighbors;
+    private final IntArray stack;
+    private final float[] queryBounds;
+
+    /**
+     * Creates a {@code DynamicTreeProximity} for the specified owner, tree and radius.
+     *
+     * @param owner  the owner of this proximity
+     * @param tree   the tree of the agents
+     * @param radius the radius of this proximity
+     */
+    public DynamicTreeProximity(Steerable<T> owner, DynamicTree<T> tree, float radius) {
+        super(owner, tree.getAgents());
+        this.tree = tree;
+        this.radius = radius;
+        this.lastTime = 0;
+        this.neighbors = new Array<Steerable<T>>();
+        this.stack = new IntArray();
+        this.queryBounds = new float[6];
+    }
+
+    /**
+     * Returns the tree of this proximity.
+     */
+    public DynamicTree<T> getTree() {
+        return tree;
+    }
+
+    /**
+     * Returns the radius of this proximity.
+     */
+    public float getRadius() {
+        return radius;
+    }
+
+    /**
+     * Sets the radius of this proximity.
+     */
+    public void setRadius(float radius) {
+        this.radius = radius;
+    }
+
+    @Override
+    public int findNeighbors(ProximityCallback<T> callback) {
+        // If the frame is new then avoid repeating calculations
+        // when this proximity is used by multiple group behaviors.
+        float currentTime = GdxAI.getTimepiece().getTime();
+        if (this.lastTime != currentTime) {
+            // Save the current time
+            this.lastTime = currentTime;
+
+            tree.update();
+            return scanNeighbors(callback);
+        }
+
+        // Report the neighbors found on the current frame
+        int neighborCount = 0;
+        for (int i = 0; i < neighbors.size; i++) {
+            if (callback.reportNeighbor(neighbors.get(i))) {
+                neighborCount++;
+            }
+        }
+        return neighborCount;
+    }
+
+    private int scanNeighbors(ProximityCallback<T> callback) {
+        neighbors.clear();
+        if (tree.root == DynamicTree.NULL) return 0;
+
+        T ownerPosition = owner.getPosition();
+        tree.setBounds(ownerPosition, radius, queryBounds, 0);
+        float[] bounds = tree.bounds;
+        stack.clear();
+        stack.add(tree.root);
+        while (stack.size > 0) {
+            int node = stack.pop();
+
+            // Skip the subtree if its box doesn't overlap the query
+            int o = node * 6;
+            if (bounds[o] > queryBounds[3] || bounds[o + 1] > queryBounds[4] || bounds[o + 2] > queryBounds[5]
+                    || bounds[o + 3] < queryBounds[0] || bounds[o + 4] < queryBounds[1] || bounds[o + 5] < queryBounds[2])
+                continue;
+
+            if (tree.children1[node] != DynamicTree.NULL) {
+                stack.add(tree.children1[node]);
+                stack.add(tree.children2[node]);
+                continue;
+            }
+
+            // Make sure the agent being examined isn't the owner
+            Steerable<T> currentAgent = tree.leafAgents[node];
+            if (currentAgent != owner) {
+                float squareDistance = ownerPosition.dst2(currentAgent.getPosition());
+
+                // The bounding radius of the current agent is taken into account
+                // by adding it to the range
+                float range = radius + currentAgent.getBoundingRadius();
+
+                // If the current agent is within the range, report it to the callback
+                // and remember it for further consideration.
+                if (squareDistance < range * range) {
+                    if (callback.reportNeighbor(currentAgent)) {
+                        neighbors.add(currentAgent);
+                    }
+                }
+            }
+        }
+        return neighbors.size;
+    }
+}
@@ -0,0 +1,65 @@
+package com.badlogic.gdx.ai.steer.proximities;
+
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.math.Vector;
+
+/**
+ * A {@code SpatialHashFieldOfViewProximity} finds the same neighbors as a {@link FieldOfViewProximity}, that is the agents within
+ * the cone area defined by a radius and an angle around the orientation of the owner, looking only at the agents in the cells of a
+ * {@link SpatialHashGrid} around the owner.
+ *
+ * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+ *
+ */
+public class SpatialHashFieldOfViewProximity<T extends Vector<T>> extends SpatialHashProximity<T> {
+
+    /**
+     * The angle in radians of this proximity.
+     */
+    protected float angle;
+
+    private float coneThreshold;
+    private final T ownerOrientation;
+
+    /**
+     * Creates a {@code SpatialHashFieldOfViewProximity} for the specified owner, grid and cone area defined by the given radius
+     * and angle in radians.
+     *
+     * @param owner  the owner of this proximity
+     * @param grid   the grid of the agents
+     * @param radius the radius of the cone area
+     * @param angle  the angle in radians of the cone area
+     */
+    public SpatialHashFieldOfViewProximity(Steerable<T> owner, SpatialHashGrid<T> grid, float radius, float angle) {
+        super(owner, grid, radius);
+        setAngle(angle);
+        this.ownerOrientation = owner.getPosition().cpy().setZero();
+    }
+
+    /**
+     * Returns the angle of this proximity in radians.
+     */
+    public float getAngle() {
+        return angle;
+    }
+
+    /**
+     * Sets the angle of this proximity in radians.
+     */
+    public void setAngle(float angle) {
+        this.angle = angle;
+        this.coneThreshold = (float)Math.cos(angle * 0.5f);
+    }
+
+    @Override
+    protected int scanNeighbors(ProximityCallback<T> callback) {
+        // Transform owner orientation to a Vector
+        owner.angleToVector(ownerOrientation, owner.getOrientation());
+        return super.scanNeighbors(callback);
+    }
+
+    @Override
+    protected boolean isInRange(Steerable<T> agent, T toAgent) {
+        return super.isInRange(agent, toAgent) && ownerOrientation.dot(toAgent) > coneThreshold;
+    }
+}
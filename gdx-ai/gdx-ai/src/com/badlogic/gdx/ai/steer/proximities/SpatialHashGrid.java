@@ -0,0 +1,258 @@
+package com.badlogic.gdx.ai.steer.proximities;
+
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.Timepiece;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.math.Vector;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Arrays;
+
+/**
+ * A {@code SpatialHashGrid} partitions the space into square (or cubic) cells of the same size and buckets the agents by the cell
+ * containing their position, so that the agents close to a given point can be found by looking only at the neighboring cells
+ * instead of scanning all the agents. A single grid is meant to be shared by the proximities of all the agents, see
+ * {@link SpatialHashProximity}.
+ * <p>
+ * Cells are not allocated in advance: they are hashed into a table sized after the number of agents, so the world has no bounds.
+ * The agents of each cell are stored contiguously in a single array, which the grid fills again only when some agent has moved to a
+ * different cell since the previous update. For the best performance the cell size should be close to the radius of the
+ * proximities querying the grid.
+ * <p>
+ * Like the other proximities, this grid checks the AI time through the {@link Timepiece#getTime() GdxAI.getTimepiece().getTime()}
+ * method so that {@link #update()} refreshes the cells only once per frame, no matter how many proximities call it. This means that
+ * the timepiece has to be updated on each frame, before the agents are steered.
+ * <p>
+ * Only {@link Vector2} and {@link Vector3} positions are supported.
+ *
+ * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+ *
+ */
+public class SpatialHashGrid<T extends Vector<T>> {
+
+    Iterable<? extends Steerable<T>> agents;
+    float cellSize;
+    float inverseCellSize;
+    float maxBoundingRadius;
+    private float lastTime;
+
+    /**
+     * The agents, in the order of the iterable, and the key of the cell each of them belonged to at the last update.
+     */
+    Array<Steerable<T>> agentList;
+    long[] agentCells;
+
+    /**
+     * The agents sorted by cell. The agents of the cell in a given slot of the hash table are the {@code cellCounts[slot]} ones
+     * starting at {@code cellStarts[slot]}.
+     */
+    Steerable<T>[] cellAgents;
+
+    /**
+     * The open addressing hash table of the cells. A slot is empty if its count is zero.
+     */
+    long[] cellKeys;
+    int[] cellStarts;
+    int[] cellCounts;
+    int mask;
+
+    /**
+     * Creates a {@code SpatialHashGrid} for the given agents.
+     *
+     * @param agents   the agents
+     * @param cellSize the size of each cell
+     * @throws IllegalArgumentException if the cell size is not positive.
+     */
+    @SuppressWarnings("unchecked")
+    public SpatialHashGrid(Iterable<? extends Steerable<T>> agents, float cellSize) {
+        if (cellSize <= 0) throw new IllegalArgumentException("The cell size must be positive: " + cellSize);
+        this.agents = agents;
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1f / cellSize;
+        this.agentList = new Array<Steerable<T>>();
+        this.agentCells = new long[16];
+        this.cellAgents = (Steerable<T>[])new Steerable[16];
+        this.cellKeys = new long[32];
+        this.cellStarts = new int[32];
+        this.cellCounts = new int[32];
+        this.mask = 31;
+    }
+
+    /**
+     * Returns the agents handled by this grid.
+     */
+    public Iterable<? extends Steerable<T>> getAgents() {
+        return agents;
+    }
+
+    /**
+     * Returns the size of each cell.
+     */
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Returns the largest bounding radius of the agents at the last update.
+     */
+    public float getMaxBoundingRadius() {
+        return maxBoundingRadius;
+    }
+
+    /**
+     * Brings the cells up to date with the positions of the agents, unless they have already been updated on the current frame.
+     */
+    public void update() {
+        float currentTime = GdxAI.getTimepiece().getTime();
+        if (this.lastTime != currentTime) {
+            this.lastTime = currentTime;
+            rebuild();
+        }
+    }
+
+    /**
+     * Brings the cells up to date with the positions of the agents. Agents are only sorted again by cell if some of them have been
+     * added, removed or moved to a different cell since the previous call.
+     */
+    public void rebuild() {
+        int previousCount = agentList.size;
+        boolean changed = false;
+        int count = 0;
+        maxBoundingRadius = 0;
+        for (Steerable<T> agent : agents) {
+            if (count == agentCells.length) agentCells = Arrays.copyOf(agentCells, count * 2);
+            long key = getCellKey(agent.getPosition());
+            if (count >= previousCount || agentList.get(count) != agent || agentCells[count] != key) {
+                if (count < agentList.size)
+                    agentList.set(count, agent);
+                else
+                    agentList.add(agent);
+                agentCells[count] = key;
+                changed = true;
+            }
+            maxBoundingRadius = Math.max(maxBoundingRadius, agent.getBoundingRadius());
+            count++;
+        }
+        if (count != previousCount) {
+            agentList.truncate(count);
+            changed = true;
+        }
+        if (changed) sortAgents();
+    }
+
+    /**
+     * Adds to the given array the agents in the cells overlapping the sphere of the given radius, enlarged by the largest bounding
+     * radius of the agents. The array is not cleared and the agents still have to be filtered by distance.
+     *
+     * @param position the center of the query
+     * @param radius   the radius of the query
+     * @param out      the array the agents are added to
+     */
+    public void findCandidates(T position, float radius, Array<Steerable<T>> out) {
+        if (agentList.size == 0) return;
+        float range = radius + maxBoundingRadius;
+        if (position instanceof Vector2) {
+            Vector2 p = (Vector2)position;
+            int minX = getCellCoordinate(p.x - range), maxX = getCellCoordinate(p.x + range);
+            int minY = getCellCoordinate(p.y - range), maxY = getCellCoordinate(p.y + range);
+            for (int y = minY; y <= maxY; y++)
+                for (int x = minX; x <= maxX; x++)
+                    addCellAgents(getCellKey(x, y), out);
+        } else {
+            Vector3 p = (Vector3)position;
+            int minX = getCellCoordinate(p.x - range), maxX = getCellCoordinate(p.x + range);
+            int minY = getCellCoordinate(p.y - range), maxY = getCellCoordinate(p.y + range);
+            int minZ = getCellCoordinate(p.z - range), maxZ = getCellCoordinate(p.z + range);
+            for (int z = minZ; z <= maxZ; z++)
+                for (int y = minY; y <= maxY; y++)
+                    for (int x = minX; x <= maxX; x++)
+                        addCellAgents(getCellKey(x, y, z), out);
+        }
+    }
+
+    private void addCellAgents(long key, Array<Steerable<T>> out) {
+        int slot = findSlot(key);
+        int count = cellCounts[slot];
+        for (int i = cellStarts[slot], end = i + count; i < end; i++)
+            out.add(cellAgents[i]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void sortAgents() {
+        int count = agentList.size;
+
+        // Keep the load factor of the table at most 0.5
+        int capacity = cellKeys.length;
+        if (capacity < count * 2) {
+            while (capacity < count * 2)
+                capacity <<= 1;
+            cellKeys = new long[capacity];
+            cellStarts = new int[capacity];
+            cellCounts = new int[capacity];
+            mask = capacity - 1;
+        } else {
+            Arrays.fill(cellCounts, 0);
+        }
+        if (cellAgents.length < count) cellAgents = (Steerable<T>[])new Steerable[agentCells.length];
+
+        // Count the agents of each cell
+        for (int i = 0; i < count; i++) {
+            int slot = findSlot(agentCells[i]);
+            cellKeys[slot] = agentCells[i];
+            cellCounts[slot]++;
+        }
+
+        // Assign a range of the sorted array to each cell, using the starts as insertion points while filling it
+        int start = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            cellStarts[slot] = start;
+            start += cellCounts[slot];
+        }
+        for (int i = 0; i < count; i++)
+            cellAgents[cellStarts[findSlot(agentCells[i])]++] = agentList.get(i);
+        for (int slot = 0; slot < capacity; slot++)
+            cellStarts[slot] -= cellCounts[slot];
+
+        // Release the references to agents that are no longer part of the grid
+        for (int i = count; i < cellAgents.length && cellAgents[i] != null; i++)
+            cellAgents[i] = null;
+    }
+
+    /**
+     * Returns the slot of the given cell in the hash table, or the empty slot where it would be inserted.
+     */
+    private int findSlot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int slot = (int)(hash ^ (hash >>> 32)) & mask;
+        while (cellCounts[slot] != 0 && cellKeys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private int getCellCoordinate(float coordinate) {
+        return (int)Math.floor(coordinate * inverseCellSize);
+    }
+
+    private long getCellKey(T position) {
+        if (position instanceof Vector2) {
+            Vector2 p = (Vector2)position;
+            return getCellKey(getCellCoordinate(p.x), getCellCoordinate(p.y));
+        }
+        Vector3 p = (Vector3)position;
+        return getCellKey(getCellCoordinate(p.x), getCellCoordinate(p.y), getCellCoordinate(p.z));
+    }
+
+    private static long getCellKey(int x, int y) {
+        return ((long)x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Packs 21 bits of each coordinate. Cells more than a million cells apart along an axis can share the same key, which only
+     * makes their agents candidates of each other's queries.
+     */
+    private static long getCellKey(int x, int y, int z) {
+        return ((x & 0x1FFFFFL) << 42) | ((y & 0x1FFFFFL) << 21) | (z & 0x1FFFFFL);
+    }
+}
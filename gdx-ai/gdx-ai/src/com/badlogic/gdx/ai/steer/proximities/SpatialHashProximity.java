@@ -0,0 +1,155 @@
+package com.badlogic.gdx.ai.steer.proximities;
+
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.Timepiece;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.math.Vector;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A {@code SpatialHashProximity} finds the same neighbors as a {@link RadiusProximity}, that is the agents within the radius of
+ * the owner, but looks only at the agents in the cells of a {@link SpatialHashGrid} around the owner instead of scanning all the
+ * agents. The grid is typically shared by the proximities of all the agents and is updated by the first of them to find its
+ * neighbors on each frame.
+ * <p>
+ * Note that this implementation checks the AI time of the current frame through the {@link Timepiece#getTime()
+ * GdxAI.getTimepiece().getTime()} method in order to calculate neighbors only once per frame (assuming delta time is always
+ * greater than 0, if time has changed the frame has changed too). This means that
+ * <ul>
+ * <li>if you forget to {@link Timepiece#update(float) update the timepiece} on each frame the proximity instance will be
+ * calculated only the very first time, which is not what you want of course.</li>
+ * <li>ideally the timepiece should be updated before the proximity is updated by the {@link #findNeighbors(ProximityCallback)}
+ * method.</li>
+ * </ul>
+ * Unlike {@link RadiusProximity}, the neighbors found on the current frame are remembered by the proximity itself rather than by
+ * {@link Steerable#setTagged(boolean) tagging} the agents, so the tags are left untouched and reporting them again doesn't scan
+ * all the agents.
+ *
+ * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+ *
+ */
+public class SpatialHashProximity<T extends Vector<T>> extends ProximityBase<T> {
+
+    /**
+     * The grid of this proximity.
+     */
+    protected SpatialHashGrid<T> grid;
+
+    /**
+     * The radius of this proximity.
+     */
+    protected float radius;
+
+    private float lastTime;
+    private final Array<Steerable<T>> candidates;
+    private final Array<Steerable<T>> neighbors;
+
+    /**
+     * Temporary vector from the owner to the agent being examined.
+     */
+    protected final T toAgent;
+
+    /**
+     * Creates a {@code SpatialHashProximity} for the specified owner, grid and radius.
+     *
+     * @param owner  the owner of this proximity
+     * @param grid   the grid of the agents
+     * @param radius the radius of this proximity
+     */
+    public SpatialHashProximity(Steerable<T> owner, SpatialHashGrid<T> grid, float radius) {
+        super(owner, grid.getAgents());
+        this.grid = grid;
+        this.radius = radius;
+        this.lastTime = 0;
+        this.candidates = new Array<Steerable<T>>();
+        this.neighbors = new Array<Steerable<T>>();
+        this.toAgent = owner.getPosition().cpy().setZero();
+    }
+
+    /**
+     * Returns the grid of this proximity.
+     */
+    public SpatialHashGrid<T> getGrid() {
+        return grid;
+    }
+
+    /**
+     * Returns the radius of this proximity.
+     */
+    public float getRadius() {
+        return radius;
+    }
+
+    /**
+     * Sets the radius of this proximity.
+     */
+    public void setRadius(float radius) {
+        this.radius = radius;
+    }
+
+    @Override
+    public int findNeighbors(ProximityCallback<T> callback) {
+        // If the frame is new then avoid repeating calculations
+        // when this proximity is used by multiple group behaviors.
+        float currentTime = GdxAI.getTimepiece().getTime();
+        if (this.lastTime != currentTime) {
+            // Save the current time
+            this.lastTime = currentTime;
+
+            grid.update();
+            return scanNeighbors(callback);
+        }
+
+        // Report the neighbors found on the current frame
+        int neighborCount = 0;
+        for (int i = 0; i < neighbors.size; i++) {
+            if (callback.reportNeighbor(neighbors.get(i))) {
+                neighborCount++;
+            }
+        }
+        return neighborCount;
+    }
+
+    /**
+     * Scans the agents around the owner and reports the ones that are within range to the given callback. The agents accepted by
+     * the callback are remembered until the next frame.
+     *
+     * @return the number of neighbors found.
+     */
+    protected int scanNeighbors(ProximityCallback<T> callback) {
+        T ownerPosition = owner.getPosition();
+        neighbors.clear();
+        candidates.clear();
+        grid.findCandidates(ownerPosition, radius, candidates);
+        for (int i = 0; i < candidates.size; i++) {
+            Steerable<T> currentAgent = candidates.get(i);
+
+            // Make sure the agent being examined isn't the owner
+            if (currentAgent != owner) {
+                toAgent.set(currentAgent.getPosition()).sub(ownerPosition);
+
+                // If the current agent is within the range, report it to the callback
+                // and remember it for further consideration.
+                if (isInRange(currentAgent, toAgent)) {
+                    if (callback.reportNeighbor(currentAgent)) {
+                        neighbors.add(currentAgent);
+                    }
+                }
+            }
+        }
+        candidates.clear();
+        return neighbors.size;
+    }
+
+    /**
+     * Returns {@code true} if the given agent is a neighbor of the owner; {@code false} otherwise. The bounding radius of the agent
+     * is taken into account by adding it to the radius of this proximity.
+     *
+     * @param agent   the agent being examined
+     * @param toAgent the vector from the owner to the agent
+     */
+    protected boolean isInRange(Steerable<T> agent, T toAgent) {
+        float range = radius + agent.getBoundingRadius();
+        return toAgent.len2() < range * range;
+    }
+}
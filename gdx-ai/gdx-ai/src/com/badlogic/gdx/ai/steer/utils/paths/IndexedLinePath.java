@@ -0,0 +1,232 @@
+package com.badlogic.gdx.ai.steer.utils.paths;
+
+import com.badlogic.gdx.math.Vector;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * An {@code IndexedLinePath} is a {@link LinePath} whose segment lookups don't scan all the segments, which makes it suitable for
+ * long paths followed by many agents.
+ * <ul>
+ * <li>The segment at a given distance along the path is found by a binary search over the cumulative lengths of the segments.</li>
+ * <li>The nearest point on the path is searched for starting from the segment of the last parameter value, which gives an upper
+ * bound on the distance of the nearest segment. Then only the segments found in the cells of a uniform grid within that distance
+ * are examined. Since the agent is unlikely to have moved far from its last segment, the lookup takes roughly constant time.</li>
+ * </ul>
+ * The results are exactly the same as those of a {@code LinePath} with the same waypoints. The index is built the first time it
+ * is needed after the path is {@link #createPath(Array) created}, so waypoints must not be moved afterwards.
+ *
+ * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+ */
+public class IndexedLinePath<T extends Vector<T>> extends LinePath<T> {
+
+    /**
+     * The maximum number of grid cells per segment.
+     */
+    private static final int MAX_CELLS_PER_SEGMENT = 4;
+
+    private Array<Segment<T>> indexedSegments;
+    private float[] cumulativeLengths;
+    private final float[] gridMin = new float[3];
+    private final int[] gridSize = new int[3];
+    private float cellSize;
+    private int[] cellStarts;
+    private int[] cellSegments;
+    private int[] segmentStamps;
+    private int stamp;
+    private T nearestPoint;
+
+    /**
+     * Creates a closed {@code IndexedLinePath} for the specified {@code waypoints}.
+     *
+     * @param waypoints the points making up the path
+     * @throws IllegalArgumentException if {@code waypoints} is {@code null} or has less than two (2) waypoints.
+     */
+    public IndexedLinePath(Array<T> waypoints) {
+        super(waypoints);
+    }
+
+    /**
+     * Creates an {@code IndexedLinePath} for the specified {@code waypoints}.
+     *
+     * @param waypoints the points making up the path
+     * @param isOpen    a flag indicating whether the path is open or not
+     * @throws IllegalArgumentException if {@code waypoints} is {@code null} or has less than two (2) waypoints.
+     */
+    public IndexedLinePath(Array<T> waypoints, boolean isOpen) {
+        super(waypoints, isOpen);
+    }
+
+    @Override
+    public float calculateDistance(T agentCurrPos, LinePathParam parameter) {
+        Array<Segment<T>> segments = getSegments();
+        if (indexedSegments != segments) buildIndex(segments);
+
+        // Use the segment of the last parameter value as an upper bound
+        int nearestIndex = Math.min(Math.max(parameter.segmentIndex, 0), segments.size - 1);
+        Segment<T> segment = segments.get(nearestIndex);
+        float smallestDistance2 = calculatePointSegmentSquareDistance(nearestPoint, segment.begin, segment.end, agentCurrPos);
+
+        // Examine the segments in the cells within that distance, slightly enlarged to absorb rounding errors
+        float range = (float)Math.sqrt(smallestDistance2) * 1.001f + cellSize * 0.001f;
+        int minX = getCellCoordinate(coordinate(agentCurrPos, 0) - range, 0);
+        int maxX = getCellCoordinate(coordinate(agentCurrPos, 0) + range, 0);
+        int minY = getCellCoordinate(coordinate(agentCurrPos, 1) - range, 1);
+        int maxY = getCellCoordinate(coordinate(agentCurrPos, 1) + range, 1);
+        int minZ = getCellCoordinate(coordinate(agentCurrPos, 2) - range, 2);
+        int maxZ = getCellCoordinate(coordinate(agentCurrPos, 2) + range, 2);
+        long cellCount = (long)(maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+        if (cellCount > segments.size) {
+            // The agent is far from its last segment, scanning all the segments is cheaper
+            for (int i = 0; i < segments.size; i++) {
+                segment = segments.get(i);
+                float distance2 = calculatePointSegmentSquareDistance(nearestPoint, segment.begin, segment.end, agentCurrPos);
+                if (distance2 < smallestDistance2 || (distance2 == smallestDistance2 && i < nearestIndex)) {
+                    smallestDistance2 = distance2;
+                    nearestIndex = i;
+                }
+            }
+        } else {
+            stamp++;
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int y = minY; y <= maxY; y++) {
+                    int cell = (z * gridSize[1] + y) * gridSize[0];
+                    for (int x = minX; x <= maxX; x++) {
+                        for (int j = cellStarts[cell + x], end = cellStarts[cell + x + 1]; j < end; j++) {
+                            int i = cellSegments[j];
+                            if (segmentStamps[i] == stamp) continue;
+                            segmentStamps[i] = stamp;
+                            segment = segments.get(i);
+                            float distance2 = calculatePointSegmentSquareDistance(nearestPoint, segment.begin, segment.end,
+                                    agentCurrPos);
+
+                            // Ties are broken in favor of the first segment, like a linear scan does
+                            if (distance2 < smallestDistance2 || (distance2 == smallestDistance2 && i < nearestIndex)) {
+                                smallestDistance2 = distance2;
+                                nearestIndex = i;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // Distance from path start
+        segment = segments.get(nearestIndex);
+        calculatePointSegmentSquareDistance(nearestPoint, segment.begin, segment.end, agentCurrPos);
+        float lengthOnPath = segment.cumulativeLength - nearestPoint.dst(segment.end);
+
+        parameter.segmentIndex = nearestIndex;
+        parameter.setDistance(lengthOnPath);
+
+        return lengthOnPath;
+    }
+
+    @Override
+    protected Segment<T> findSegment(float distance) {
+        Array<Segment<T>> segments = getSegments();
+        if (indexedSegments != segments) buildIndex(segments);
+
+        // Binary search the first cumulative length not less than the distance
+        int low = 0;
+        int high = segments.size - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulativeLengths[middle] >= distance)
+                high = middle;
+            else
+                low = middle + 1;
+        }
+        return segments.get(low);
+    }
+
+    private void buildIndex(Array<Segment<T>> segments) {
+        int segmentCount = segments.size;
+        cumulativeLengths = new float[segmentCount];
+        for (int i = 0; i < segmentCount; i++)
+            cumulativeLengths[i] = segments.get(i).cumulativeLength;
+        segmentStamps = new int[segmentCount];
+        stamp = 0;
+        nearestPoint = segments.first().begin.cpy();
+
+        // Bound the path
+        float[] gridMax = new float[3];
+        for (int axis = 0; axis < 3; axis++) {
+            gridMin[axis] = Float.POSITIVE_INFINITY;
+            gridMax[axis] = Float.NEGATIVE_INFINITY;
+        }
+        for (int i = 0; i < segmentCount; i++) {
+            Segment<T> segment = segments.get(i);
+            for (int axis = 0; axis < 3; axis++) {
+                float begin = coordinate(segment.begin, axis), end = coordinate(segment.end, axis);
+                gridMin[axis] = Math.min(gridMin[axis], Math.min(begin, end));
+                gridMax[axis] = Math.max(gridMax[axis], Math.max(begin, end));
+            }
+        }
+
+        // Cells are about as large as the average segment, but never more than a few per segment
+        cellSize = Math.max(getLength() / segmentCount, 1e-6f);
+        long cellCount;
+        while (true) {
+            cellCount = 1;
+            for (int axis = 0; axis < 3; axis++) {
+                gridSize[axis] = (int)((gridMax[axis] - gridMin[axis]) / cellSize) + 1;
+                cellCount *= gridSize[axis];
+            }
+            if (cellCount <= (long)segmentCount * MAX_CELLS_PER_SEGMENT) break;
+            cellSize *= 2;
+        }
+
+        // Sort segments into the cells their bounding box overlaps, by counting sort
+        cellStarts = new int[(int)cellCount + 1];
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < segmentCount; i++) {
+                Segment<T> segment = segments.get(i);
+                int minX = getCellCoordinate(Math.min(coordinate(segment.begin, 0), coordinate(segment.end, 0)), 0);
+                int maxX = getCellCoordinate(Math.max(coordinate(segment.begin, 0), coordinate(segment.end, 0)), 0);
+                int minY = getCellCoordinate(Math.min(coordinate(segment.begin, 1), coordinate(segment.end, 1)), 1);
+                int maxY = getCellCoordinate(Math.max(coordinate(segment.begin, 1), coordinate(segment.end, 1)), 1);
+                int minZ = getCellCoordinate(Math.min(coordinate(segment.begin, 2), coordinate(segment.end, 2)), 2);
+                int maxZ = getCellCoordinate(Math.max(coordinate(segment.begin, 2), coordinate(segment.end, 2)), 2);
+                for (int z = minZ; z <= maxZ; z++) {
+                    for (int y = minY; y <= maxY; y++) {
+                        for (int x = minX; x <= maxX; x++) {
+                            int cell = (z * gridSize[1] + y) * gridSize[0] + x;
+                            if (pass == 0)
+                                cellStarts[cell + 1]++;
+                            else
+                                cellSegments[cellStarts[cell]++] = i;
+                        }
+                    }
+                }
+            }
+            if (pass == 0) {
+                for (int cell = 0; cell < cellCount; cell++)
+                    cellStarts[cell + 1] += cellStarts[cell];
+                cellSegments = new int[cellStarts[(int)cellCount]];
+            } else {
+                // Filling has moved each start to the next one, shift them back
+                for (int cell = (int)cellCount; cell > 0; cell--)
+                    cellStarts[cell] = cellStarts[cell - 1];
+                cellStarts[0] = 0;
+            }
+        }
+
+        indexedSegments = segments;
+    }
+
+    private int getCellCoordinate(float value, int axis) {
+        int coordinate = (int)Math.floor((value - gridMin[axis]) / cellSize);
+        return Math.min(Math.max(coordinate, 0), gridSize[axis] - 1);
+    }
+
+    private static float coordinate(Vector<?> point, int axis) {
+        if (point instanceof Vector2) {
+            Vector2 p = (Vector2)point;
+            return axis == 0 ? p.x : axis == 1 ? p.y : 0;
+        }
+        Vector3 p = (Vector3)point;
+        return axis == 0 ? p.x : axis == 1 ? p.y : p.z;
+    }
+}
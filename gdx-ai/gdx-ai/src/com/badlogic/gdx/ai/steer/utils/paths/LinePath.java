@@ -153,15 +153,7 @@ public class LinePath<T extends Vector<T>> implements Path<T, LinePathParam> {
             }
         }
 
-        // Walk through lines to see on which line we are
-        Segment<T> desiredSegment = null;
-        for (int i = 0; i < segments.size; i++) {
-            Segment<T> segment = segments.get(i);
-            if (segment.cumulativeLength >= targetDistance) {
-                desiredSegment = segment;
-                break;
-            }
-        }
+        Segment<T> desiredSegment = findSegment(targetDistance);
 
         // begin-------targetPos-------end
         float distance = desiredSegment.cumulativeLength - targetDistance;
@@ -169,6 +161,22 @@ public class LinePath<T extends Vector<T>> implements Path<T, LinePathParam> {
         out.set(desiredSegment.begin).sub(desiredSegment.end).scl(distance / desiredSegment.length).add(desiredSegment.end);
     }
 
+    /**
+     * Returns the first segment whose cumulative length is not less than the given distance from the start of the path.
+     *
+     * @param distance the distance from the start of the path, between 0 and the length of the path
+     */
+    protected Segment<T> findSegment(float distance) {
+        // Walk through lines to see on which line we are
+        for (int i = 0; i < segments.size; i++) {
+            Segment<T> segment = segments.get(i);
+            if (segment.cumulativeLength >= distance) {
+                return segment;
+            }
+        }
+        return null;
+    }
+
     /**
      * Sets up this {@link Path} using the given way points.
      *
@@ -0,0 +1,27 @@
+package com.badlogic.gdx.ai.utils;
+
+import com.badlogic.gdx.math.Vector;
+
+/**
+ * A {@code BatchRaycastCollisionDetector} finds the closest intersection between each ray of a batch and any object in the game
+ * world. Answering all the rays of a frame at once lets the implementation share the work among them, for instance the traversal
+ * of its acceleration structure, instead of paying for a full query per ray.
+ *
+ * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+ * @see RaycastBatch
+ * @see RaycastCollisionDetectorAdapter
+ */
+public interface BatchRaycastCollisionDetector<T extends Vector<T>> {
+
+    /**
+     * Finds the closest collision between each of the given input rays and the objects in the game world. In case of collision
+     * of the i-th ray, {@code collided[i]} is set to {@code true} and {@code outputCollisions[i]} will contain the collision point
+     * and the normal vector of the obstacle at the point of collision; otherwise {@code collided[i]} is set to {@code false}.
+     *
+     * @param inputRays        the rays to cast.
+     * @param rayCount         the number of rays to cast, from the start of {@code inputRays}.
+     * @param outputCollisions the output collisions, one per ray.
+     * @param collided         the output flags telling which rays collided, one per ray.
+     */
+    void findCollisions(Ray<T>[] inputRays, int rayCount, Collision<T>[] outputCollisions, boolean[] collided);
+}
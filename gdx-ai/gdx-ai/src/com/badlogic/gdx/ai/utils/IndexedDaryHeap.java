@@ -0,0 +1,241 @@
+package com.badlogic.gdx.ai.utils;
+
+/**
+ * A d-ary min-heap of {@code int} keys in the range [0, capacity) ordered by a {@code float} priority.
+ * <p>
+ * The heap keeps track of the position of each key so that {@link #contains(int)}, {@link #update(int, float)} and
+ * {@link #remove(int)} run without searching. Keys and priorities are stored in primitive arrays, hence no objects are created
+ * once the heap has been constructed.
+ * <p>
+ * Higher arities make the heap shallower, which means fewer comparisons when a priority decreases (a very common operation in
+ * pathfinding) and better cache locality when sifting down. An arity of 4 is usually a good choice.
+ *
+ *
+ */
+public class IndexedDaryHeap {
+    private final int arity;
+    private int[] heap;
+    private int[] positions;
+    private float[] priorities;
+    private int size;
+
+    /**
+     * Creates a 4-ary {@code IndexedDaryHeap} for the keys in the range [0, capacity).
+     *
+     * @param capacity the number of distinct keys
+     */
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, 4);
+    }
+
+    /**
+     * Creates an {@code IndexedDaryHeap} for the keys in the range [0, capacity).
+     *
+     * @param capacity the number of distinct keys
+     * @param arity    the number of children of each heap node
+     * @throws IllegalArgumentException if {@code arity} is less than 2.
+     */
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2) throw new IllegalArgumentException("arity must be at least 2");
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.priorities = new float[capacity];
+        for (int i = 0; i < capacity; i++)
+            positions[i] = -1;
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of distinct keys this heap can hold.
+     */
+    public int getCapacity() {
+        return positions.length;
+    }
+
+    /**
+     * Ensures this heap can hold the keys in the range [0, capacity). Keys already in the heap are preserved.
+     *
+     * @param capacity the number of distinct keys
+     */
+    public void ensureCapacity(int capacity) {
+        int oldCapacity = positions.length;
+        if (capacity <= oldCapacity) return;
+        int[] newHeap = new int[capacity];
+        int[] newPositions = new int[capacity];
+        float[] newPriorities = new float[capacity];
+        System.arraycopy(heap, 0, newHeap, 0, size);
+        System.arraycopy(positions, 0, newPositions, 0, oldCapacity);
+        System.arraycopy(priorities, 0, newPriorities, 0, oldCapacity);
+        for (int i = oldCapacity; i < capacity; i++)
+            newPositions[i] = -1;
+        heap = newHeap;
+        positions = newPositions;
+        priorities = newPriorities;
+    }
+
+    /**
+     * Returns the number of keys in this heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this heap is empty; {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns {@code true} if the given key is in this heap; {@code false} otherwise.
+     */
+    public boolean contains(int key) {
+        return positions[key] >= 0;
+    }
+
+    /**
+     * Returns the priority of the given key. The result is undefined if the key is not in this heap.
+     */
+    public float getPriority(int key) {
+        return priorities[key];
+    }
+
+    /**
+     * Adds the given key to this heap or, if it's already there, changes its priority.
+     *
+     * @param key      the key
+     * @param priority the priority of the key
+     */
+    public void add(int key, float priority) {
+        if (positions[key] >= 0) {
+            update(key, priority);
+            return;
+        }
+        priorities[key] = priority;
+        heap[size] = key;
+        positions[key] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Changes the priority of a key already in this heap.
+     *
+     * @param key      the key
+     * @param priority the new priority of the key
+     */
+    public void update(int key, float priority) {
+        float oldPriority = priorities[key];
+        priorities[key] = priority;
+        if (priority < oldPriority)
+            siftUp(positions[key]);
+        else
+            siftDown(positions[key]);
+    }
+
+    /**
+     * Returns the key with the lowest priority without removing it. The result is undefined if this heap is empty.
+     */
+    public int peek() {
+        return heap[0];
+    }
+
+    /**
+     * Returns the lowest priority in this heap. The result is undefined if this heap is empty.
+     */
+    public float peekPriority() {
+        return priorities[heap[0]];
+    }
+
+    /**
+     * Removes and returns the key with the lowest priority. The result is undefined if this heap is empty.
+     */
+    public int pop() {
+        int key = heap[0];
+        positions[key] = -1;
+        if (--size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return key;
+    }
+
+    /**
+     * Removes the given key from this heap.
+     *
+     * @param key the key to remove
+     * @return {@code true} if the key was in this heap; {@code false} otherwise.
+     */
+    public boolean remove(int key) {
+        int pos = positions[key];
+        if (pos < 0) return false;
+        positions[key] = -1;
+        if (pos == --size) return true;
+        int last = heap[size];
+        heap[pos] = last;
+        positions[last] = pos;
+        if (priorities[last] < priorities[key])
+            siftUp(pos);
+        else
+            siftDown(pos);
+        return true;
+    }
+
+    /**
+     * Removes all the keys from this heap. This operation is proportional to the current size, not to the capacity.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++)
+            positions[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void siftUp(int pos) {
+        int[] heap = this.heap;
+        int key = heap[pos];
+        float priority = priorities[key];
+        while (pos > 0) {
+            int parentPos = (pos - 1) / arity;
+            int parent = heap[parentPos];
+            if (priority >= priorities[parent]) break;
+            heap[pos] = parent;
+            positions[parent] = pos;
+            pos = parentPos;
+        }
+        heap[pos] = key;
+        positions[key] = pos;
+    }
+
+    private void siftDown(int pos) {
+        int[] heap = this.heap;
+        int key = heap[pos];
+        float priority = priorities[key];
+        while (true) {
+            int firstChild = pos * arity + 1;
+            if (firstChild >= size) break;
+            int lastChild = Math.min(firstChild + arity, size);
+
+            // Find the child with the lowest priority
+            int bestPos = firstChild;
+            float bestPriority = priorities[heap[firstChild]];
+            for (int c = firstChild + 1; c < lastChild; c++) {
+                float p = priorities[heap[c]];
+                if (p < bestPriority) {
+                    bestPriority = p;
+                    bestPos = c;
+                }
+            }
+
+            if (priority <= bestPriority) break;
+            int child = heap[bestPos];
+            heap[pos] = child;
+            positions[child] = pos;
+            pos = bestPos;
+        }
+        heap[pos] = key;
+        positions[key] = pos;
+    }
+}
@@ -0,0 +1,135 @@
+package com.badlogic.gdx.ai.utils;
+
+import com.badlogic.gdx.math.Vector;
+
+/**
+ * A {@code RaycastBatch} collects the rays cast by many agents on a frame, so that a {@link BatchRaycastCollisionDetector} can
+ * answer all of them at once. A frame typically goes like this:
+ * <ol>
+ * <li>the batch is {@link #clear() cleared};</li>
+ * <li>each agent {@link #submit(Ray) submits} its rays, remembering their indices;</li>
+ * <li>the batch is {@link #cast() cast};</li>
+ * <li>each agent reads the {@link #getCollision(int) collisions} of its rays.</li>
+ * </ol>
+ * Submitted rays are copied, and the rays and collisions of the batch are reused from frame to frame, so no garbage is created
+ * once the batch has grown to the number of rays of a frame.
+ *
+ * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+ */
+public class RaycastBatch<T extends Vector<T>> {
+
+    /**
+     * The collision detector answering the rays of this batch.
+     */
+    protected BatchRaycastCollisionDetector<T> detector;
+
+    private Ray<T>[] rays;
+    private Collision<T>[] collisions;
+    private boolean[] collided;
+    private int size;
+    private int generation;
+
+    /**
+     * Creates a {@code RaycastBatch} for the given collision detector.
+     *
+     * @param detector the collision detector answering the rays of this batch
+     */
+    @SuppressWarnings("unchecked")
+    public RaycastBatch(BatchRaycastCollisionDetector<T> detector) {
+        this.detector = detector;
+        this.rays = new Ray[16];
+        this.collisions = new Collision[16];
+        this.collided = new boolean[16];
+    }
+
+    /**
+     * Adds a copy of the given ray to this batch.
+     *
+     * @param ray the ray to cast
+     * @return the index of the ray in this batch.
+     */
+    public int submit(Ray<T> ray) {
+        if (size == rays.length) resize(size << 1);
+        if (rays[size] == null) {
+            rays[size] = new Ray<T>(ray.start.cpy(), ray.end.cpy());
+            collisions[size] = new Collision<T>(ray.start.cpy().setZero(), ray.start.cpy().setZero());
+        } else {
+            rays[size].set(ray);
+        }
+        collided[size] = false;
+        return size++;
+    }
+
+    /**
+     * Finds the collisions of all the rays submitted to this batch.
+     */
+    public void cast() {
+        detector.findCollisions(rays, size, collisions, collided);
+    }
+
+    /**
+     * Returns {@code true} if the ray with the given index collided with any object when this batch was last cast.
+     */
+    public boolean hasCollided(int index) {
+        return collided[index];
+    }
+
+    /**
+     * Returns the collision of the ray with the given index. It's meaningful only if the ray {@link #hasCollided(int) collided}.
+     */
+    public Collision<T> getCollision(int index) {
+        return collisions[index];
+    }
+
+    /**
+     * Returns the number of rays submitted to this batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the generation of this batch, which changes each time the batch is {@link #clear() cleared}. The indices of the
+     * submitted rays are meaningful only as long as the generation doesn't change.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Removes all the rays from this batch and moves it to the next generation.
+     */
+    public void clear() {
+        size = 0;
+        generation++;
+    }
+
+    /**
+     * Returns the collision detector answering the rays of this batch.
+     */
+    public BatchRaycastCollisionDetector<T> getDetector() {
+        return detector;
+    }
+
+    /**
+     * Sets the collision detector answering the rays of this batch.
+     *
+     * @param detector the collision detector to set
+     */
+    public void setDetector(BatchRaycastCollisionDetector<T> detector) {
+        this.detector = detector;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity) {
+        Ray<T>[] newRays = new Ray[capacity];
+        System.arraycopy(rays, 0, newRays, 0, size);
+        rays = newRays;
+        Collision<T>[] newCollisions = new Collision[capacity];
+        System.arraycopy(collisions, 0, newCollisions, 0, size);
+        collisions = newCollisions;
+        boolean[] newCollided = new boolean[capacity];
+        System.arraycopy(collided, 0, newCollided, 0, size);
+        collided = newCollided;
+    }
+}
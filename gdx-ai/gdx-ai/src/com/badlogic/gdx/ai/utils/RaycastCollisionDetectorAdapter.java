@@ -0,0 +1,49 @@
+package com.badlogic.gdx.ai.utils;
+
+import com.badlogic.gdx.math.Vector;
+
+/**
+ * A {@code RaycastCollisionDetectorAdapter} answers a batch of rays by casting them one by one through a
+ * {@link RaycastCollisionDetector}, so that existing per-ray detectors, like those backed by a physics engine, can be used where
+ * a {@link BatchRaycastCollisionDetector} is expected.
+ *
+ * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+ */
+public class RaycastCollisionDetectorAdapter<T extends Vector<T>> implements BatchRaycastCollisionDetector<T> {
+
+    /**
+     * The adapted collision detector.
+     */
+    protected RaycastCollisionDetector<T> raycastCollisionDetector;
+
+    /**
+     * Creates a {@code RaycastCollisionDetectorAdapter} for the given collision detector.
+     *
+     * @param raycastCollisionDetector the collision detector casting each ray
+     */
+    public RaycastCollisionDetectorAdapter(RaycastCollisionDetector<T> raycastCollisionDetector) {
+        this.raycastCollisionDetector = raycastCollisionDetector;
+    }
+
+    @Override
+    public void findCollisions(Ray<T>[] inputRays, int rayCount, Collision<T>[] outputCollisions, boolean[] collided) {
+        for (int i = 0; i < rayCount; i++)
+            collided[i] = raycastCollisionDetector.findCollision(outputCollisions[i], inputRays[i]);
+    }
+
+    /**
+     * Returns the adapted collision detector.
+     */
+    public RaycastCollisionDetector<T> getRaycastCollisionDetector() {
+        return raycastCollisionDetector;
+    }
+
+    /**
+     * Sets the adapted collision detector.
+     *
+     * @param raycastCollisionDetector the collision detector to set
+     */
+    public void setRaycastCollisionDetector(RaycastCollisionDetector<T> raycastCollisionDetector) {
+        this.raycastCollisionDetector = raycastCollisionDetector;
+    }
+}
@@ -0,0 +1,281 @@
+package com.badlogic.gdx.ai.utils;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * A {@code SegmentBvhCollisionDetector} finds the collisions of rays with static 2D walls, each wall being a line segment. The
+ * walls are organized into a bounding volume hierarchy built once, so a ray only examines the few walls whose boxes it crosses
+ * instead of all of them. The hierarchy is made of primitive arrays and is traversed with a preallocated stack, so casting rays
+ * creates no garbage.
+ * <p>
+ * The normal of a collision is the unit normal of the wall on the side of the start of the ray. Rays starting exactly on a wall
+ * collide with it at their start.
+ * <p>
+ * This detector can answer rays one by one, as a {@link RaycastCollisionDetector}, or a whole {@link RaycastBatch} at once, as a
+ * {@link BatchRaycastCollisionDetector}. It's not thread-safe.
+ *
+ */
+public class SegmentBvhCollisionDetector implements RaycastCollisionDetector<Vector2>, BatchRaycastCollisionDetector<Vector2> {
+
+    /**
+     * The maximum number of walls in a leaf of the hierarchy.
+     */
+    private static final int MAX_LEAF_SIZE = 4;
+
+    private final int wallCount;
+    // Wall coordinates, 4 per wall (x1, y1, x2, y2), in the order of the leaves
+    private final float[] walls;
+    // Node boxes, 4 per node (min x, min y, max x, max y)
+    private final float[] nodeBounds;
+    // First child of internal nodes, the second child being next to it, or first wall of leaves
+    private final int[] nodeFirst;
+    // Number of walls of leaves, or 0 for internal nodes
+    private final int[] nodeCount;
+    private int nodeSize;
+    private int[] stack;
+
+    private float hitX;
+    private float hitY;
+    private int hitWall;
+
+    /**
+     * Creates a {@code SegmentBvhCollisionDetector} for the given walls.
+     *
+     * @param walls the coordinates of the walls, 4 per wall: x and y of the first end point and x and y of the second end point
+     * @throws IllegalArgumentException if {@code walls} is empty or its length is not a multiple of 4.
+     */
+    public SegmentBvhCollisionDetector(float[] walls) {
+        if (walls.length == 0 || walls.length % 4 != 0)
+            throw new IllegalArgumentException("walls must contain 4 coordinates per wall and at least one wall");
+        this.wallCount = walls.length / 4;
+        this.walls = new float[walls.length];
+        int maxNodes = 2 * wallCount - 1;
+        this.nodeBounds = new float[maxNodes * 4];
+        this.nodeFirst = new int[maxNodes];
+        this.nodeCount = new int[maxNodes];
+
+        // Build the hierarchy over the wall centers
+        int[] order = new int[wallCount];
+        float[] centers = new float[wallCount * 2];
+        for (int i = 0; i < wallCount; i++) {
+            order[i] = i;
+            centers[i * 2] = (walls[i * 4] + walls[i * 4 + 2]) * 0.5f;
+            centers[i * 2 + 1] = (walls[i * 4 + 1] + walls[i * 4 + 3]) * 0.5f;
+        }
+        nodeSize = 1;
+        int depth = build(0, walls, order, centers, 0, wallCount);
+        this.stack = new int[depth + 1];
+
+        // Store the walls in the order of the leaves, so that the walls of a leaf are contiguous
+        for (int i = 0; i < wallCount; i++)
+            System.arraycopy(walls, order[i] * 4, this.walls, i * 4, 4);
+    }
+
+    /**
+     * Returns the number of walls.
+     */
+    public int getWallCount() {
+        return wallCount;
+    }
+
+    @Override
+    public boolean collides(Ray<Vector2> ray) {
+        return cast(ray, true);
+    }
+
+    @Override
+    public boolean findCollision(Collision<Vector2> outputCollision, Ray<Vector2> inputRay) {
+        if (!cast(inputRay, false)) return false;
+        setCollision(outputCollision, inputRay);
+        return true;
+    }
+
+    @Override
+    public void findCollisions(Ray<Vector2>[] inputRays, int rayCount, Collision<Vector2>[] outputCollisions, boolean[] collided) {
+        for (int i = 0; i < rayCount; i++) {
+            collided[i] = cast(inputRays[i], false);
+            if (collided[i]) setCollision(outputCollisions[i], inputRays[i]);
+        }
+    }
+
+    private void setCollision(Collision<Vector2> collision, Ray<Vector2> ray) {
+        collision.point.set(hitX, hitY);
+
+        // Turn the normal of the wall towards the start of the ray
+        int w = hitWall * 4;
+        float normalX = walls[w + 1] - walls[w + 3];
+        float normalY = walls[w + 2] - walls[w];
+        if (normalX * (ray.end.x - ray.start.x) + normalY * (ray.end.y - ray.start.y) > 0) {
+            normalX = -normalX;
+            normalY = -normalY;
+        }
+        collision.normal.set(normalX, normalY).nor();
+    }
+
+    /**
+     * Casts the given ray, storing the closest hit in {@code hitX}, {@code hitY} and {@code hitWall}.
+     *
+     * @param anyHit whether to stop at the first hit found rather than the closest one
+     * @return {@code true} in case of collision; {@code false} otherwise.
+     */
+    private boolean cast(Ray<Vector2> ray, boolean anyHit) {
+        float startX = ray.start.x, startY = ray.start.y;
+        float directionX = ray.end.x - startX, directionY = ray.end.y - startY;
+        float inverseDirectionX = 1f / directionX, inverseDirectionY = 1f / directionY;
+
+        // The ray is parameterized by t in [0, 1], the closest hit so far bounds it
+        float closestT = 1;
+        hitWall = -1;
+        int stackSize = 0;
+        if (entry(0, startX, startY, directionX, directionY, inverseDirectionX, inverseDirectionY, closestT) >= 0)
+            stack[stackSize++] = 0;
+        while (stackSize > 0) {
+            int node = stack[--stackSize];
+
+            int count = nodeCount[node];
+            if (count > 0) {
+                // Test the walls of the leaf
+                for (int i = nodeFirst[node], end = i + count; i < end; i++) {
+                    int w = i * 4;
+                    float wallX = walls[w + 2] - walls[w], wallY = walls[w + 3] - walls[w + 1];
+                    float denominator = directionX * wallY - directionY * wallX;
+                    if (denominator == 0) continue; // Parallel
+                    float toWallX = walls[w] - startX, toWallY = walls[w + 1] - startY;
+                    float t = (toWallX * wallY - toWallY * wallX) / denominator;
+                    float u = (toWallX * directionY - toWallY * directionX) / denominator;
+                    if (t >= 0 && t < closestT && u >= 0 && u <= 1) {
+                        closestT = t;
+                        hitWall = i;
+                        if (anyHit) return true;
+                    }
+                }
+                continue;
+            }
+
+            // Visit the children whose boxes are crossed, the nearest first
+            int first = nodeFirst[node];
+            float firstEntry = entry(first, startX, startY, directionX, directionY, inverseDirectionX, inverseDirectionY,
+                    closestT);
+            float secondEntry = entry(first + 1, startX, startY, directionX, directionY, inverseDirectionX,
+                    inverseDirectionY, closestT);
+            if (firstEntry <= secondEntry) {
+                if (secondEntry >= 0) stack[stackSize++] = first + 1;
+                if (firstEntry >= 0) stack[stackSize++] = first;
+            } else {
+                if (firstEntry >= 0) stack[stackSize++] = first;
+                if (secondEntry >= 0) stack[stackSize++] = first + 1;
+            }
+        }
+        if (hitWall < 0) return false;
+
+        hitX = startX + directionX * closestT;
+        hitY = startY + directionY * closestT;
+        return true;
+    }
+
+    /**
+     * Returns the parameter of the ray where it enters the box of the given node, or -1 if it doesn't cross the box for a
+     * parameter between 0 and {@code maxT}.
+     */
+    private float entry(int node, float startX, float startY, float directionX, float directionY, float inverseDirectionX,
+                        float inverseDirectionY, float maxT) {
+        int b = node * 4;
+        float tMin = 0, tMax = maxT;
+        if (directionX == 0) {
+            if (startX < nodeBounds[b] || startX > nodeBounds[b + 2]) return -1;
+        } else {
+            float t1 = (nodeBounds[b] - startX) * inverseDirectionX;
+            float t2 = (nodeBounds[b + 2] - startX) * inverseDirectionX;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        if (directionY == 0) {
+            if (startY < nodeBounds[b + 1] || startY > nodeBounds[b + 3]) return -1;
+        } else {
+            float t1 = (nodeBounds[b + 1] - startY) * inverseDirectionY;
+            float t2 = (nodeBounds[b + 3] - startY) * inverseDirectionY;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        return tMin <= tMax ? tMin : -1;
+    }
+
+    /**
+     * Builds the subtree of the given node over the walls in the range {@code [from, to)} of {@code order}.
+     *
+     * @return the depth of the subtree.
+     */
+    private int build(int node, float[] walls, int[] order, float[] centers, int from, int to) {
+        // Bound the walls
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+        float minCenterX = Float.POSITIVE_INFINITY, minCenterY = Float.POSITIVE_INFINITY;
+        float maxCenterX = Float.NEGATIVE_INFINITY, maxCenterY = Float.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            int w = order[i] * 4;
+            minX = Math.min(minX, Math.min(walls[w], walls[w + 2]));
+            minY = Math.min(minY, Math.min(walls[w + 1], walls[w + 3]));
+            maxX = Math.max(maxX, Math.max(walls[w], walls[w + 2]));
+            maxY = Math.max(maxY, Math.max(walls[w + 1], walls[w + 3]));
+            int c = order[i] * 2;
+            minCenterX = Math.min(minCenterX, centers[c]);
+            minCenterY = Math.min(minCenterY, centers[c + 1]);
+            maxCenterX = Math.max(maxCenterX, centers[c]);
+            maxCenterY = Math.max(maxCenterY, centers[c + 1]);
+        }
+        int b = node * 4;
+        nodeBounds[b] = minX;
+        nodeBounds[b + 1] = minY;
+        nodeBounds[b + 2] = maxX;
+        nodeBounds[b + 3] = maxY;
+
+        if (to - from <= MAX_LEAF_SIZE) {
+            nodeFirst[node] = from;
+            nodeCount[node] = to - from;
+            return 1;
+        }
+
+        // Split at the median center along the longest axis
+        int axis = maxCenterX - minCenterX >= maxCenterY - minCenterY ? 0 : 1;
+        int middle = (from + to) >>> 1;
+        select(order, centers, axis, from, to - 1, middle);
+
+        int first = nodeSize;
+        nodeSize += 2;
+        nodeFirst[node] = first;
+        nodeCount[node] = 0;
+        int firstDepth = build(first, walls, order, centers, from, middle);
+        int secondDepth = build(first + 1, walls, order, centers, middle, to);
+        return 1 + Math.max(firstDepth, secondDepth);
+    }
+
+    /**
+     * Partially sorts {@code order} in the range {@code [left, right]} so that the wall with the k-th center along the given axis
+     * is at index {@code k}, with smaller centers before it and larger centers after it.
+     */
+    private static void select(int[] order, float[] centers, int axis, int left, int right, int k) {
+        while (left < right) {
+            float pivot = centers[order[(left + right) >>> 1] * 2 + axis];
+            int i = left, j = right;
+            while (i <= j) {
+                while (centers[order[i] * 2 + axis] < pivot)
+                    i++;
+                while (centers[order[j] * 2 + axis] > pivot)
+                    j--;
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j)
+                right = j;
+            else if (k >= i)
+                left = i;
+            else
+                return;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.ai.msg;
+
+import com.badlogic.gdx.ai.DefaultTimepiece;
+import com.badlogic.gdx.ai.GdxAI;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConcurrentMessageDispatcherTest {
+
+    private static final int THREADS = 16;
+    private static final int MESSAGES_PER_THREAD = 20000;
+
+    @Test
+    public void post_WhenManyThreadsPost_ExpectedEveryMessageDispatchedInPostingOrder() throws InterruptedException {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        final ConcurrentMessageDispatcher dispatcher = new ConcurrentMessageDispatcher();
+        final MyReceiver receiver = new MyReceiver();
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] producers = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            producers[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < MESSAGES_PER_THREAD; i++) {
+                        dispatcher.post(null, receiver, thread, Integer.valueOf(i));
+                    }
+                }
+            });
+            producers[t].start();
+        }
+
+        // Dispatch while the producers are posting
+        start.countDown();
+        boolean producing = true;
+        while (producing) {
+            dispatcher.update();
+            producing = false;
+            for (Thread producer : producers) {
+                if (producer.isAlive()) producing = true;
+            }
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        dispatcher.update();
+
+        Assert.assertNull("Unexpected error", receiver.error);
+        for (int t = 0; t < THREADS; t++) {
+            Assert.assertEquals("Unexpected number of messages from thread " + t, MESSAGES_PER_THREAD, receiver.counts[t]);
+        }
+    }
+
+    @Test
+    public void post_WhenDelayed_ExpectedDispatchedAfterDelayFromUpdate() throws InterruptedException {
+        final DefaultTimepiece timepiece = new DefaultTimepiece();
+        GdxAI.setTimepiece(timepiece);
+        final ConcurrentMessageDispatcher dispatcher = new ConcurrentMessageDispatcher();
+        final MyReceiver receiver = new MyReceiver();
+        final Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                dispatcher.post(1f, null, receiver, 0, Integer.valueOf(0));
+            }
+        });
+        producer.start();
+        producer.join();
+
+        timepiece.update(5f);
+        dispatcher.update();
+        Assert.assertEquals("Unexpected number of messages", 0, receiver.counts[0]);
+
+        timepiece.update(0.5f);
+        dispatcher.update();
+        Assert.assertEquals("Unexpected number of messages", 0, receiver.counts[0]);
+
+        timepiece.update(0.5f);
+        dispatcher.update();
+        Assert.assertEquals("Unexpected number of messages", 1, receiver.counts[0]);
+    }
+
+    private static class MyReceiver implements Telegraph {
+        final int[] counts = new int[THREADS];
+        String error;
+
+        @Override
+        public boolean handleMessage(Telegram msg) {
+            // Messages are numbered in the order each thread posts them
+            final int sequence = (Integer)msg.extraInfo;
+            if (error == null && sequence != counts[msg.message])
+                error = "Message " + sequence + " of thread " + msg.message + " received after " + counts[msg.message] + " messages";
+            counts[msg.message]++;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.ai.msg;
+
+import java.util.IdentityHashMap;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimingWheelTelegramQueueTest {
+
+    @Test
+    public void poll_WhenTelegramsAddedOverTime_ExpectedSameOrderAsHeap() {
+        final TelegramQueue heap = new HeapTelegramQueue();
+        final TelegramQueue wheel = new TimingWheelTelegramQueue(0.05f);
+        final Random random = new Random(42);
+
+        float time = 0;
+        int message = 0;
+        for (int frame = 0; frame < 2000; frame++) {
+            // Delays range from less than a tick to hours, so that telegrams end up on all the levels
+            final int count = random.nextInt(5);
+            for (int i = 0; i < count; i++) {
+                final float delay = random.nextInt(10) == 0 ? random.nextFloat() * 20000 : random.nextFloat() * 3;
+                heap.add(newTelegram(message, time + delay));
+                wheel.add(newTelegram(message, time + delay));
+                message++;
+            }
+
+            // Frames are sometimes long, sometimes very long
+            time += random.nextInt(50) == 0 ? random.nextFloat() * 5000 : random.nextFloat() * 0.05f;
+            pollAndCompare(heap, wheel, time);
+        }
+        pollAndCompare(heap, wheel, Float.MAX_VALUE);
+        Assert.assertEquals("Unexpected size", 0, wheel.size());
+    }
+
+    @Test
+    public void add_WhenUniquenessEnabledAndEqualTelegramPending_ExpectedRejected() {
+        final TelegramQueue wheel = new TimingWheelTelegramQueue(0.1f);
+        wheel.setUniqueness(true);
+
+        Assert.assertTrue("Unexpected rejection", wheel.add(newTelegram(1, 10)));
+        Assert.assertFalse("Unexpected acceptance", wheel.add(newTelegram(1, 10)));
+        Assert.assertTrue("Unexpected rejection", wheel.add(newTelegram(1, 20)));
+        Assert.assertEquals("Unexpected size", 2, wheel.size());
+
+        // Once dispatched, an equal telegram can be added again
+        Assert.assertEquals("Unexpected timestamp", 10, wheel.poll(15).getTimestamp(), 0);
+        Assert.assertTrue("Unexpected rejection", wheel.add(newTelegram(1, 10)));
+        Assert.assertEquals("Unexpected size", 2, wheel.size());
+    }
+
+    @Test
+    public void get_WhenTelegramsPending_ExpectedEachTelegramOnce() {
+        final TelegramQueue wheel = new TimingWheelTelegramQueue(0.1f);
+        final IdentityHashMap<Telegram, Boolean> telegrams = new IdentityHashMap<>();
+        for (int i = 0; i < 500; i++) {
+            final Telegram telegram = newTelegram(i, i * i * 0.01f);
+            telegrams.put(telegram, Boolean.TRUE);
+            wheel.add(telegram);
+        }
+        while (wheel.poll(100) != null) {
+        }
+
+        Assert.assertEquals("Unexpected size", 399, wheel.size());
+        for (int i = 0; i < wheel.size(); i++) {
+            Assert.assertNotNull("Unexpected telegram", telegrams.remove(wheel.get(i)));
+        }
+        Assert.assertNull("Unexpected telegram", wheel.get(wheel.size()));
+        Assert.assertEquals("Unexpected number of telegrams not retrieved", 101, telegrams.size());
+    }
+
+    private static void pollAndCompare(TelegramQueue heap, TelegramQueue wheel, float time) {
+        Telegram expected;
+        while ((expected = heap.poll(time)) != null) {
+            final Telegram actual = wheel.poll(time);
+            Assert.assertNotNull("Unexpected missing telegram at time " + time, actual);
+            Assert.assertEquals("Unexpected timestamp", expected.getTimestamp(), actual.getTimestamp(), 0);
+        }
+        Assert.assertNull("Unexpected telegram at time " + time, wheel.poll(time));
+        Assert.assertEquals("Unexpected size", heap.size(), wheel.size());
+    }
+
+    private static Telegram newTelegram(int message, float timestamp) {
+        final Telegram telegram = new Telegram();
+        telegram.message = message;
+        telegram.setTimestamp(timestamp);
+        return telegram;
+    }
+}
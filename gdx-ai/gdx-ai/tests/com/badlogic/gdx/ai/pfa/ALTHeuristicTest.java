@@ -0,0 +1,273 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.ai.pfa;
+
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.ai.pfa.indexed.ReversibleIndexedGraph;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.SerializationException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class ALTHeuristicTest {
+
+    @Test
+    public void estimate_WhenGraphIsUndirected_ExpectedNeverMoreThanExactCost() {
+        final MyGraph graph = createRandomGraph(new Random(1), 20, 20, true);
+        // Hide incoming connections, so the graph is assumed to be undirected
+        final IndexedGraph<MyNode> undirected = new IndexedGraph<MyNode>() {
+            @Override
+            public int getIndex(MyNode node) {
+                return graph.getIndex(node);
+            }
+
+            @Override
+            public int getNodeCount() {
+                return graph.getNodeCount();
+            }
+
+            @Override
+            public Array<Connection<MyNode>> getConnections(MyNode fromNode) {
+                return graph.getConnections(fromNode);
+            }
+        };
+        assertAdmissible(graph, new ALTHeuristic<>(undirected, graph.getNode(0, 0), 4), new Random(2));
+    }
+
+    @Test
+    public void estimate_WhenGraphIsDirected_ExpectedNeverMoreThanExactCost() {
+        final MyGraph graph = createRandomGraph(new Random(3), 20, 20, false);
+        assertAdmissible(graph, new ALTHeuristic<>(graph, graph.getNode(0, 0), 4), new Random(4));
+    }
+
+    @Test
+    public void searchConnectionPath_WithALTHeuristic_ExpectedSameCostAndFewerVisitedNodesThanManhattanDistance() {
+        final Random random = new Random(5);
+        final MyGraph graph = createRandomGraph(random, 60, 60, false);
+        final ALTHeuristic<MyNode> alt = new ALTHeuristic<>(graph, graph.getNode(0, 0), 8);
+        final Heuristic<MyNode> manhattan = new Heuristic<MyNode>() {
+            @Override
+            public float estimate(MyNode node, MyNode endNode) {
+                return (Math.abs(endNode.x - node.x) + Math.abs(endNode.y - node.y)) * MyGraph.MIN_WEIGHT;
+            }
+        };
+
+        final IndexedAStarPathFinder<MyNode> pathfinder = new IndexedAStarPathFinder<>(graph, true);
+        final GraphPath<Connection<MyNode>> outPath = new DefaultGraphPath<>();
+        final GraphPath<Connection<MyNode>> referencePath = new DefaultGraphPath<>();
+        int visitedNodes = 0, referenceVisitedNodes = 0;
+        for (int i = 0; i < 30; i++) {
+            final MyNode startNode = graph.nodes.get(random.nextInt(graph.nodes.size));
+            final MyNode endNode = graph.nodes.get(random.nextInt(graph.nodes.size));
+
+            outPath.clear();
+            Assert.assertTrue("Unexpected search result", pathfinder.searchConnectionPath(startNode, endNode, alt, outPath));
+            visitedNodes += pathfinder.metrics.visitedNodes;
+
+            referencePath.clear();
+            Assert.assertTrue("Unexpected search result",
+                    pathfinder.searchConnectionPath(startNode, endNode, manhattan, referencePath));
+            referenceVisitedNodes += pathfinder.metrics.visitedNodes;
+
+            Assert.assertEquals("Unexpected path cost", cost(referencePath), cost(outPath), 0.001f);
+        }
+        Assert.assertTrue("Unexpected visited nodes", visitedNodes * 3 < referenceVisitedNodes);
+    }
+
+    @Test
+    public void read_WhenTablesHaveBeenWritten_ExpectedSameEstimates() {
+        final Random random = new Random(6);
+        final MyGraph graph = createRandomGraph(random, 30, 20, false);
+        final ALTHeuristic<MyNode> heuristic = new ALTHeuristic<>(graph, graph.getNode(0, 0), 6);
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        heuristic.write(output);
+        final ALTHeuristic<MyNode> loaded = ALTHeuristic.read(graph, new ByteArrayInputStream(output.toByteArray()));
+
+        Assert.assertEquals("Unexpected landmark count", heuristic.getLandmarkCount(), loaded.getLandmarkCount());
+        for (int l = 0; l < heuristic.getLandmarkCount(); l++)
+            Assert.assertEquals("Unexpected landmark", heuristic.getLandmarkIndex(l), loaded.getLandmarkIndex(l));
+        for (int i = 0; i < 200; i++) {
+            final MyNode node = graph.nodes.get(random.nextInt(graph.nodes.size));
+            final MyNode endNode = graph.nodes.get(random.nextInt(graph.nodes.size));
+            Assert.assertEquals("Unexpected estimate", heuristic.estimate(node, endNode), loaded.estimate(node, endNode), 0);
+        }
+
+        try {
+            ALTHeuristic.read(new MyGraph(10, 10), new ByteArrayInputStream(output.toByteArray()));
+            Assert.fail("Expected SerializationException for a different graph");
+        } catch (SerializationException expected) {
+        }
+    }
+
+    @Test
+    public void read_WhenLandmarkCountIsCorrupt_ExpectedSerializationException() {
+        final MyGraph graph = createRandomGraph(new Random(8), 10, 10, false);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new ALTHeuristic<>(graph, graph.getNode(0, 0), 4).write(output);
+
+        // The landmark count follows the magic number, the version and the node count
+        for (int landmarkCount : new int[] {-1, 0, graph.getNodeCount() + 1, Integer.MAX_VALUE}) {
+            final byte[] bytes = output.toByteArray();
+            ByteBuffer.wrap(bytes).putInt(12, landmarkCount);
+            try {
+                ALTHeuristic.read(graph, new ByteArrayInputStream(bytes));
+                Assert.fail("Expected SerializationException for landmark count " + landmarkCount);
+            } catch (SerializationException expected) {
+            }
+        }
+    }
+
+    private static void assertAdmissible(MyGraph graph, Heuristic<MyNode> heuristic, Random random) {
+        final IndexedAStarPathFinder<MyNode> pathfinder = new IndexedAStarPathFinder<>(graph);
+        final Heuristic<MyNode> zero = new Heuristic<MyNode>() {
+            @Override
+            public float estimate(MyNode node, MyNode endNode) {
+                return 0;
+            }
+        };
+        final GraphPath<Connection<MyNode>> outPath = new DefaultGraphPath<>();
+        for (int i = 0; i < 200; i++) {
+            final MyNode startNode = graph.nodes.get(random.nextInt(graph.nodes.size));
+            final MyNode endNode = graph.nodes.get(random.nextInt(graph.nodes.size));
+            outPath.clear();
+            Assert.assertTrue("Unexpected search result", pathfinder.searchConnectionPath(startNode, endNode, zero, outPath));
+            Assert.assertTrue("Unexpected inadmissible estimate", heuristic.estimate(startNode, endNode) <= cost(outPath) + 0.001f);
+        }
+    }
+
+    private static float cost(GraphPath<Connection<MyNode>> path) {
+        float cost = 0;
+        for (Connection<MyNode> connection : path)
+            cost += connection.getCost();
+        return cost;
+    }
+
+    private static MyGraph createRandomGraph(Random random, int width, int height, boolean symmetric) {
+        final MyGraph graph = new MyGraph(width, height);
+        graph.symmetric = symmetric;
+        for (MyNode node : graph.nodes)
+            node.weight = MyGraph.MIN_WEIGHT + random.nextFloat() * 9;
+        return graph;
+    }
+
+    private static class MyNode {
+
+        final int index;
+        final int x;
+        final int y;
+        float weight = MyGraph.MIN_WEIGHT;
+        final Array<Connection<MyNode>> outgoing = new Array<>(4);
+        final Array<Connection<MyNode>> incoming = new Array<>(4);
+
+        MyNode(int index, int x, int y) {
+            this.index = index;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private static class MyConnection extends DefaultConnection<MyNode> {
+
+        final float cost;
+
+        MyConnection(MyNode fromNode, MyNode toNode, float cost) {
+            super(fromNode, toNode);
+            this.cost = cost;
+        }
+
+        @Override
+        public float getCost() {
+            return cost;
+        }
+    }
+
+    /**
+     * A 4-connected grid where entering a node costs its weight or, if symmetric, the average weight of the two nodes.
+     */
+    private static class MyGraph implements ReversibleIndexedGraph<MyNode> {
+
+        static final float MIN_WEIGHT = 1;
+
+        final int width;
+        final int height;
+        final Array<MyNode> nodes;
+        boolean symmetric;
+
+        MyGraph(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.nodes = new Array<>(width * height);
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    nodes.add(new MyNode(y * width + x, x, y));
+        }
+
+        MyNode getNode(int x, int y) {
+            return nodes.get(y * width + x);
+        }
+
+        float cost(MyNode fromNode, MyNode toNode) {
+            return symmetric ? (fromNode.weight + toNode.weight) / 2 : toNode.weight;
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getConnections(MyNode fromNode) {
+            final Array<Connection<MyNode>> connections = fromNode.outgoing;
+            connections.clear();
+            final int[][] offsets = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+            for (int[] offset : offsets) {
+                final int x = fromNode.x + offset[0], y = fromNode.y + offset[1];
+                if (x < 0 || y < 0 || x >= width || y >= height) continue;
+                final MyNode toNode = getNode(x, y);
+                connections.add(new MyConnection(fromNode, toNode, cost(fromNode, toNode)));
+            }
+            return connections;
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getIncomingConnections(MyNode toNode) {
+            final Array<Connection<MyNode>> connections = toNode.incoming;
+            connections.clear();
+            final int[][] offsets = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+            for (int[] offset : offsets) {
+                final int x = toNode.x + offset[0], y = toNode.y + offset[1];
+                if (x < 0 || y < 0 || x >= width || y >= height) continue;
+                final MyNode fromNode = getNode(x, y);
+                connections.add(new MyConnection(fromNode, toNode, cost(fromNode, toNode)));
+            }
+            return connections;
+        }
+
+        @Override
+        public int getIndex(MyNode node) {
+            return node.index;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return nodes.size;
+        }
+    }
+}
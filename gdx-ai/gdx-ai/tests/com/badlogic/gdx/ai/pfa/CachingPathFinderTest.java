@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.ai.pfa;
+
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CachingPathFinderTest {
+
+    private static final Heuristic<MyNode> MANHATTAN = new Heuristic<MyNode>() {
+        @Override
+        public float estimate(MyNode node, MyNode endNode) {
+            return Math.abs(endNode.x - node.x) + Math.abs(endNode.y - node.y);
+        }
+    };
+
+    @Test
+    public void searchNodePath_WhenPathCached_ExpectedSamePathAsDelegate() {
+        final MyGraph graph = new MyGraph(10, 10);
+        final MyPathFinder delegate = new MyPathFinder(graph);
+        final CachingPathFinder<MyNode> pathFinder = new CachingPathFinder<>(graph, delegate, 4);
+
+        final DefaultGraphPath<MyNode> expected = new DefaultGraphPath<>();
+        new IndexedAStarPathFinder<>(graph).searchNodePath(graph.getNode(0, 0), graph.getNode(9, 6), MANHATTAN, expected);
+        final DefaultGraphPath<MyNode> missed = new DefaultGraphPath<>();
+        Assert.assertTrue("Unexpected search result", pathFinder.searchNodePath(graph.getNode(0, 0), graph.getNode(9, 6), MANHATTAN,
+                missed));
+        final DefaultGraphPath<MyNode> hit = new DefaultGraphPath<>();
+        Assert.assertTrue("Unexpected search result", pathFinder.searchNodePath(graph.getNode(0, 0), graph.getNode(9, 6), MANHATTAN,
+                hit));
+
+        Assert.assertEquals("Unexpected number of delegated searches", 1, delegate.searchCount);
+        assertSamePath(expected, missed);
+        assertSamePath(expected, hit);
+    }
+
+    @Test
+    public void searchConnectionPath_WhenPathCached_ExpectedSameConnectionsAsDelegate() {
+        final MyGraph graph = new MyGraph(10, 10);
+        final MyPathFinder delegate = new MyPathFinder(graph);
+        final CachingPathFinder<MyNode> pathFinder = new CachingPathFinder<>(graph, delegate, 4);
+
+        final DefaultGraphPath<Connection<MyNode>> missed = new DefaultGraphPath<>();
+        pathFinder.searchConnectionPath(graph.getNode(2, 1), graph.getNode(7, 8), MANHATTAN, missed);
+        final DefaultGraphPath<Connection<MyNode>> hit = new DefaultGraphPath<>();
+        pathFinder.searchConnectionPath(graph.getNode(2, 1), graph.getNode(7, 8), MANHATTAN, hit);
+
+        Assert.assertEquals("Unexpected number of delegated searches", 1, delegate.searchCount);
+        Assert.assertEquals("Unexpected path length", 12, hit.getCount());
+        assertSamePath(missed, hit);
+    }
+
+    @Test
+    public void searchNodePath_WhenCapacityReached_ExpectedLeastRecentlyUsedEvicted() {
+        final MyGraph graph = new MyGraph(10, 10);
+        final MyPathFinder delegate = new MyPathFinder(graph);
+        final CachingPathFinder<MyNode> pathFinder = new CachingPathFinder<>(graph, delegate, 2);
+
+        search(pathFinder, graph.getNode(0, 0), graph.getNode(9, 9)); // A
+        search(pathFinder, graph.getNode(0, 9), graph.getNode(9, 0)); // B
+        search(pathFinder, graph.getNode(0, 0), graph.getNode(9, 9)); // A is used again, so B is now the least recently used
+        search(pathFinder, graph.getNode(5, 5), graph.getNode(1, 2)); // C evicts B
+        Assert.assertEquals("Unexpected number of delegated searches", 3, delegate.searchCount);
+        Assert.assertEquals("Unexpected size", 2, pathFinder.size());
+
+        search(pathFinder, graph.getNode(0, 0), graph.getNode(9, 9));
+        search(pathFinder, graph.getNode(5, 5), graph.getNode(1, 2));
+        Assert.assertEquals("Unexpected number of delegated searches", 3, delegate.searchCount);
+        search(pathFinder, graph.getNode(0, 9), graph.getNode(9, 0));
+        Assert.assertEquals("Unexpected number of delegated searches", 4, delegate.searchCount);
+    }
+
+    @Test
+    public void searchNodePath_WhenNodeInvalidated_ExpectedPathsThroughItSearchedAgain() {
+        final MyGraph graph = new MyGraph(10, 10);
+        final MyPathFinder delegate = new MyPathFinder(graph);
+        final CachingPathFinder<MyNode> pathFinder = new CachingPathFinder<>(graph, delegate, 4);
+
+        // The first path runs along the bottom row, the second one along the top row
+        final DefaultGraphPath<MyNode> path = search(pathFinder, graph.getNode(0, 0), graph.getNode(9, 0));
+        search(pathFinder, graph.getNode(0, 9), graph.getNode(9, 9));
+        pathFinder.invalidate(path.get(5));
+
+        search(pathFinder, graph.getNode(0, 9), graph.getNode(9, 9));
+        Assert.assertEquals("Unexpected number of delegated searches", 2, delegate.searchCount);
+        final DefaultGraphPath<MyNode> searchedAgain = search(pathFinder, graph.getNode(0, 0), graph.getNode(9, 0));
+        Assert.assertEquals("Unexpected number of delegated searches", 3, delegate.searchCount);
+        assertSamePath(path, searchedAgain);
+
+        // The path stored after the invalidation is valid
+        search(pathFinder, graph.getNode(0, 0), graph.getNode(9, 0));
+        Assert.assertEquals("Unexpected number of delegated searches", 3, delegate.searchCount);
+    }
+
+    @Test
+    public void statistics_WhenSearching_ExpectedCountersMatchLookups() {
+        final MyGraph graph = new MyGraph(10, 10);
+        final CachingPathFinder<MyNode> pathFinder = new CachingPathFinder<>(graph, new MyPathFinder(graph), 2);
+
+        final DefaultGraphPath<MyNode> path = search(pathFinder, graph.getNode(0, 0), graph.getNode(9, 0)); // miss
+        search(pathFinder, graph.getNode(0, 0), graph.getNode(9, 0)); // hit
+        search(pathFinder, graph.getNode(0, 9), graph.getNode(9, 9)); // miss
+        search(pathFinder, graph.getNode(3, 3), graph.getNode(4, 4)); // miss, evicts the first path
+        search(pathFinder, graph.getNode(0, 9), graph.getNode(9, 9)); // hit
+        pathFinder.invalidate(graph.getNode(0, 9));
+        search(pathFinder, graph.getNode(0, 9), graph.getNode(9, 9)); // invalidated, miss
+        search(pathFinder, graph.getNode(0, 0), graph.getNode(9, 0)); // miss, evicts the path from 3,3
+        Assert.assertEquals("Unexpected path length", 10, path.getCount());
+
+        final CachingPathFinder.Statistics statistics = pathFinder.statistics;
+        Assert.assertEquals("Unexpected hits", 2, statistics.hits);
+        Assert.assertEquals("Unexpected misses", 5, statistics.misses);
+        Assert.assertEquals("Unexpected evictions", 2, statistics.evictions);
+        Assert.assertEquals("Unexpected invalidations", 1, statistics.invalidations);
+
+        statistics.reset();
+        Assert.assertEquals("Unexpected hits", 0, statistics.hits);
+        Assert.assertEquals("Unexpected misses", 0, statistics.misses);
+        Assert.assertEquals("Unexpected evictions", 0, statistics.evictions);
+        Assert.assertEquals("Unexpected invalidations", 0, statistics.invalidations);
+    }
+
+    private static DefaultGraphPath<MyNode> search(PathFinder<MyNode> pathFinder, MyNode startNode, MyNode endNode) {
+        final DefaultGraphPath<MyNode> path = new DefaultGraphPath<>();
+        Assert.assertTrue("Unexpected search result", pathFinder.searchNodePath(startNode, endNode, MANHATTAN, path));
+        return path;
+    }
+
+    private static <T> void assertSamePath(GraphPath<T> expected, GraphPath<T> actual) {
+        Assert.assertEquals("Unexpected path length", expected.getCount(), actual.getCount());
+        for (int i = 0; i < expected.getCount(); i++)
+            Assert.assertSame("Unexpected path element " + i, expected.get(i), actual.get(i));
+    }
+
+    /**
+     * An A* path finder counting the searches it's asked for.
+     */
+    private static class MyPathFinder implements PathFinder<MyNode> {
+        final IndexedAStarPathFinder<MyNode> pathFinder;
+        int searchCount;
+
+        MyPathFinder(MyGraph graph) {
+            this.pathFinder = new IndexedAStarPathFinder<>(graph);
+        }
+
+        @Override
+        public boolean searchConnectionPath(MyNode startNode, MyNode endNode, Heuristic<MyNode> heuristic,
+                                            GraphPath<Connection<MyNode>> outPath) {
+            searchCount++;
+            return pathFinder.searchConnectionPath(startNode, endNode, heuristic, outPath);
+        }
+
+        @Override
+        public boolean searchNodePath(MyNode startNode, MyNode endNode, Heuristic<MyNode> heuristic, GraphPath<MyNode> outPath) {
+            searchCount++;
+            return pathFinder.searchNodePath(startNode, endNode, heuristic, outPath);
+        }
+
+        @Override
+        public boolean search(PathFinderRequest<MyNode> request, long timeToRun) {
+            if (request.statusChanged) searchCount++;
+            return pathFinder.search(request, timeToRun);
+        }
+    }
+
+    private static class MyNode {
+
+        final int index;
+        final int x;
+        final int y;
+        final Array<Connection<MyNode>> connections = new Array<>(4);
+
+        MyNode(int index, int x, int y) {
+            this.index = index;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * A 4-connected grid without obstacles.
+     */
+    private static class MyGraph implements IndexedGraph<MyNode> {
+
+        final int width;
+        final int height;
+        final Array<MyNode> nodes;
+
+        MyGraph(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.nodes = new Array<>(width * height);
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    nodes.add(new MyNode(y * width + x, x, y));
+        }
+
+        MyNode getNode(int x, int y) {
+            return nodes.get(y * width + x);
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getConnections(MyNode fromNode) {
+            final Array<Connection<MyNode>> connections = fromNode.connections;
+            if (connections.size == 0) {
+                final int[][] offsets = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+                for (int[] offset : offsets) {
+                    final int x = fromNode.x + offset[0], y = fromNode.y + offset[1];
+                    if (x >= 0 && y >= 0 && x < width && y < height)
+                        connections.add(new DefaultConnection<>(fromNode, getNode(x, y)));
+                }
+            }
+            return connections;
+        }
+
+        @Override
+        public int getIndex(MyNode node) {
+            return node.index;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return nodes.size;
+        }
+    }
+}
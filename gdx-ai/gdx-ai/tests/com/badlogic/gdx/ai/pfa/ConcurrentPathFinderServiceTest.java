@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.ai.pfa;
+
+import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import com.badlogic.gdx.ai.msg.Telegram;
+import com.badlogic.gdx.ai.msg.Telegraph;
+import com.badlogic.gdx.ai.pfa.ConcurrentPathFinderService.PathFinderFactory;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConcurrentPathFinderServiceTest {
+
+    private static final int RESPONSE_CODE = 42;
+
+    @Test
+    public void run_WhenRequestsSubmittedFromSeveralThreads_ExpectedAllDelivered() throws InterruptedException {
+        final MyGraph graph = new MyGraph(20, 20);
+        final ConcurrentPathFinderService<MyNode> service = new ConcurrentPathFinderService<>(factory(graph), 3);
+        final MyCallback callback = new MyCallback();
+        service.callback = callback;
+        final MyClient client = new MyClient();
+        final MessageDispatcher dispatcher = new MessageDispatcher();
+
+        // Each thread submits its own requests, half of them with a client notified through the dispatcher
+        final int threadCount = 4;
+        final int requestsPerThread = 25;
+        final Array<PathFinderRequest<MyNode>> requests = new Array<>();
+        final Thread[] submitters = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final Array<PathFinderRequest<MyNode>> threadRequests = new Array<>();
+            for (int i = 0; i < requestsPerThread; i++)
+                threadRequests.add(createRequest(graph, graph.getNode(t, i % 20), graph.getNode(19 - i % 20, 19 - t), dispatcher));
+            requests.addAll(threadRequests);
+            submitters[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < threadRequests.size; i++)
+                        service.submit(threadRequests.get(i), i % 2 == 0 ? client : null);
+                }
+            });
+            submitters[t].start();
+        }
+        for (Thread submitter : submitters)
+            submitter.join();
+
+        deliver(service, callback, requests.size);
+        service.dispose();
+
+        Assert.assertEquals("Unexpected number of callbacks", requests.size, callback.requests.size);
+        Assert.assertEquals("Unexpected number of client messages", threadCount * ((requestsPerThread + 1) / 2), client.messages.get());
+        for (int i = 0; i < requests.size; i++) {
+            final PathFinderRequest<MyNode> request = requests.get(i);
+            Assert.assertTrue("Unexpected delivered request", callback.requests.contains(request, true));
+            Assert.assertTrue("Unexpected search result", request.pathFound);
+            Assert.assertEquals("Unexpected status", PathFinderRequest.SEARCH_FINALIZED, request.status);
+            final int distance = Math.abs(request.endNode.x - request.startNode.x) + Math.abs(request.endNode.y - request.startNode.y);
+            Assert.assertEquals("Unexpected path length", distance + 1, request.resultPath.getCount());
+        }
+    }
+
+    @Test
+    public void run_WhenSearchThrowsError_ExpectedRequestDeliveredWithoutPath() {
+        final MyGraph graph = new MyGraph(8, 8);
+        final ConcurrentPathFinderService<MyNode> service = new ConcurrentPathFinderService<>(factory(graph), 1);
+        final MyCallback callback = new MyCallback();
+        service.callback = callback;
+
+        final PathFinderRequest<MyNode> failingRequest = createRequest(graph, graph.getNode(0, 0), graph.getNode(7, 7), null);
+        failingRequest.heuristic = new Heuristic<MyNode>() {
+            @Override
+            public float estimate(MyNode node, MyNode endNode) {
+                throw new AssertionError("Broken heuristic");
+            }
+        };
+        final PathFinderRequest<MyNode> request = createRequest(graph, graph.getNode(0, 0), graph.getNode(7, 7), null);
+        service.submit(failingRequest, null);
+        service.submit(request, null);
+
+        // The only worker must survive the error to serve the second request
+        deliver(service, callback, 2);
+        service.dispose();
+
+        Assert.assertSame("Unexpected first request", failingRequest, callback.requests.get(0));
+        Assert.assertFalse("Unexpected search result", failingRequest.pathFound);
+        Assert.assertSame("Unexpected second request", request, callback.requests.get(1));
+        Assert.assertTrue("Unexpected search result", request.pathFound);
+    }
+
+    @Test
+    public void dispose_WhenCalled_ExpectedWorkersStopped() throws InterruptedException {
+        final MyGraph graph = new MyGraph(4, 4);
+        final ConcurrentPathFinderService<MyNode> service = new ConcurrentPathFinderService<>(factory(graph), 3);
+        service.dispose();
+
+        for (Thread worker : service.workers) {
+            worker.join(5000);
+            Assert.assertFalse("Unexpected running worker", worker.isAlive());
+        }
+        try {
+            service.submit(createRequest(graph, graph.getNode(0, 0), graph.getNode(3, 3), null), null);
+            Assert.fail("Unexpected submission after disposal");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+
+    /**
+     * Runs the service until the given number of requests have been delivered, failing after a few seconds.
+     */
+    private static void deliver(ConcurrentPathFinderService<MyNode> service, MyCallback callback, int requestCount) {
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (callback.requests.size < requestCount) {
+            Assert.assertTrue("Unexpected missing requests", System.currentTimeMillis() < deadline);
+            service.run(Long.MAX_VALUE);
+            Thread.yield();
+        }
+    }
+
+    private static PathFinderFactory<MyNode> factory(final MyGraph graph) {
+        return new PathFinderFactory<MyNode>() {
+            @Override
+            public PathFinder<MyNode> newPathFinder() {
+                return new IndexedAStarPathFinder<>(graph);
+            }
+        };
+    }
+
+    private static PathFinderRequest<MyNode> createRequest(MyGraph graph, MyNode startNode, MyNode endNode,
+                                                           MessageDispatcher dispatcher) {
+        final Heuristic<MyNode> manhattan = new Heuristic<MyNode>() {
+            @Override
+            public float estimate(MyNode node, MyNode endNode) {
+                return Math.abs(endNode.x - node.x) + Math.abs(endNode.y - node.y);
+            }
+        };
+        final PathFinderRequest<MyNode> request = new PathFinderRequest<>(startNode, endNode, manhattan,
+                new DefaultGraphPath<MyNode>(), dispatcher);
+        request.responseMessageCode = RESPONSE_CODE;
+        return request;
+    }
+
+    private static class MyCallback implements ConcurrentPathFinderService.Callback<MyNode> {
+        final Array<PathFinderRequest<MyNode>> requests = new Array<>();
+
+        @Override
+        public void requestCompleted(PathFinderRequest<MyNode> request) {
+            requests.add(request);
+        }
+    }
+
+    private static class MyClient implements Telegraph {
+        final AtomicInteger messages = new AtomicInteger();
+
+        @Override
+        public boolean handleMessage(Telegram msg) {
+            if (msg.message == RESPONSE_CODE) messages.incrementAndGet();
+            return true;
+        }
+    }
+
+    private static class MyNode {
+
+        final int index;
+        final int x;
+        final int y;
+        final Array<Connection<MyNode>> connections = new Array<>(4);
+
+        MyNode(int index, int x, int y) {
+            this.index = index;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * A 4-connected grid without obstacles. Connections are created up front, so the graph can be searched by several threads.
+     */
+    private static class MyGraph implements IndexedGraph<MyNode> {
+
+        final int width;
+        final int height;
+        final Array<MyNode> nodes;
+
+        MyGraph(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.nodes = new Array<>(width * height);
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    nodes.add(new MyNode(y * width + x, x, y));
+            final int[][] offsets = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+            for (int i = 0; i < nodes.size; i++) {
+                final MyNode node = nodes.get(i);
+                for (int[] offset : offsets) {
+                    final int x = node.x + offset[0], y = node.y + offset[1];
+                    if (x >= 0 && y >= 0 && x < width && y < height)
+                        node.connections.add(new DefaultConnection<>(node, getNode(x, y)));
+                }
+            }
+        }
+
+        MyNode getNode(int x, int y) {
+            return nodes.get(y * width + x);
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getConnections(MyNode fromNode) {
+            return fromNode.connections;
+        }
+
+        @Override
+        public int getIndex(MyNode node) {
+            return node.index;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return nodes.size;
+        }
+    }
+}
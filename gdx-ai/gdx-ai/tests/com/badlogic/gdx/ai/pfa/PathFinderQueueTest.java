@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.ai.pfa;
+
+import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import com.badlogic.gdx.ai.msg.Telegram;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongArray;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PathFinderQueueTest {
+
+    @Test
+    public void run_WhenClockCountsNodes_ExpectedSameProgressOnEveryRun() {
+        final LongArray firstRun = runRequests(7);
+        final LongArray secondRun = runRequests(7);
+
+        Assert.assertTrue("Unexpected frame count", firstRun.size > 10);
+        Assert.assertEquals("Unexpected frame count", firstRun.size, secondRun.size);
+        for (int i = 0; i < firstRun.size; i++) {
+            Assert.assertEquals("Unexpected progress", firstRun.get(i), secondRun.get(i));
+            Assert.assertTrue("Unexpected budget overrun", firstRun.get(i) - (i > 0 ? firstRun.get(i - 1) : 0) <= 7);
+        }
+    }
+
+    @Test
+    public void run_WhenClockCountsNodes_ExpectedSearchTimeInExpandedNodes() {
+        final MyGraph graph = new MyGraph(20, 20);
+        final CountingSearchClock clock = new CountingSearchClock();
+        final PathFinderQueue<MyNode> queue = new PathFinderQueue<>(new IndexedAStarPathFinder<>(graph), clock);
+        final PathFinderRequest<MyNode> request = createRequest(graph, graph.getNode(0, 0), graph.getNode(19, 19));
+
+        queue.handleMessage(createTelegram(request));
+        while (request.status != PathFinderRequest.SEARCH_FINALIZED)
+            queue.run(10);
+
+        Assert.assertTrue("Unexpected search result", request.pathFound);
+        Assert.assertEquals("Unexpected search time", clock.getTime(), request.searchTime);
+        Assert.assertEquals("Unexpected initialization time", 0, request.initializationTime);
+        // Each frame pops 10 nodes, the last one being the end node which is not expanded
+        Assert.assertEquals("Unexpected execution frames", (request.searchTime + 1 + 9) / 10, request.executionFrames);
+    }
+
+    /**
+     * Serves a few requests with the given budget of expanded nodes per frame and returns the reading of the clock after each frame.
+     */
+    private static LongArray runRequests(long nodesPerFrame) {
+        final MyGraph graph = new MyGraph(16, 16);
+        final CountingSearchClock clock = new CountingSearchClock();
+        final PathFinderQueue<MyNode> queue = new PathFinderQueue<>(new IndexedAStarPathFinder<>(graph), clock);
+        final Array<PathFinderRequest<MyNode>> requests = new Array<>();
+        requests.add(createRequest(graph, graph.getNode(0, 0), graph.getNode(15, 15)));
+        requests.add(createRequest(graph, graph.getNode(15, 0), graph.getNode(0, 9)));
+        requests.add(createRequest(graph, graph.getNode(3, 12), graph.getNode(11, 2)));
+        for (PathFinderRequest<MyNode> request : requests)
+            queue.handleMessage(createTelegram(request));
+
+        final LongArray readings = new LongArray();
+        while (queue.size() > 0 || requests.peek().status != PathFinderRequest.SEARCH_FINALIZED) {
+            queue.run(nodesPerFrame);
+            readings.add(clock.getTime());
+        }
+        return readings;
+    }
+
+    private static PathFinderRequest<MyNode> createRequest(MyGraph graph, MyNode startNode, MyNode endNode) {
+        final Heuristic<MyNode> manhattan = new Heuristic<MyNode>() {
+            @Override
+            public float estimate(MyNode node, MyNode endNode) {
+                return Math.abs(endNode.x - node.x) + Math.abs(endNode.y - node.y);
+            }
+        };
+        return new PathFinderRequest<>(startNode, endNode, manhattan, new DefaultGraphPath<MyNode>(), new MessageDispatcher());
+    }
+
+    private static Telegram createTelegram(PathFinderRequest<MyNode> request) {
+        final Telegram telegram = new Telegram();
+        telegram.extraInfo = request;
+        return telegram;
+    }
+
+    private static class MyNode {
+
+        final int index;
+        final int x;
+        final int y;
+        final Array<Connection<MyNode>> connections = new Array<>(4);
+
+        MyNode(int index, int x, int y) {
+            this.index = index;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * A 4-connected grid without obstacles.
+     */
+    private static class MyGraph implements IndexedGraph<MyNode> {
+
+        final int width;
+        final int height;
+        final Array<MyNode> nodes;
+
+        MyGraph(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.nodes = new Array<>(width * height);
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    nodes.add(new MyNode(y * width + x, x, y));
+        }
+
+        MyNode getNode(int x, int y) {
+            return nodes.get(y * width + x);
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getConnections(MyNode fromNode) {
+            final Array<Connection<MyNode>> connections = fromNode.connections;
+            if (connections.size == 0) {
+                final int[][] offsets = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+                for (int[] offset : offsets) {
+                    final int x = fromNode.x + offset[0], y = fromNode.y + offset[1];
+                    if (x >= 0 && y >= 0 && x < width && y < height)
+                        connections.add(new DefaultConnection<>(fromNode, getNode(x, y)));
+                }
+            }
+            return connections;
+        }
+
+        @Override
+        public int getIndex(MyNode node) {
+            return node.index;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return nodes.size;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.ai.pfa;
+
+import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import com.badlogic.gdx.ai.msg.Telegram;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.ai.utils.Collision;
+import com.badlogic.gdx.ai.utils.Ray;
+import com.badlogic.gdx.ai.utils.RaycastCollisionDetector;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SmoothingPathFinderRequestTest {
+
+    @Test
+    public void run_WhenRequestIsServedByQueue_ExpectedSmoothedPathAndStageTimings() {
+        final MyGraph graph = new MyGraph(10, 10);
+        final PathFinderQueue<MyNode> queue = new PathFinderQueue<>(new IndexedAStarPathFinder<>(graph));
+        final SmoothingPathFinderRequest<MyNode, Vector2> request = createRequest(graph);
+
+        queue.handleMessage(createTelegram(request));
+        queue.run(Long.MAX_VALUE);
+
+        Assert.assertEquals("Unexpected status", PathFinderRequest.SEARCH_FINALIZED, request.status);
+        Assert.assertTrue("Unexpected search result", request.pathFound);
+        Assert.assertEquals("Unexpected smoothed path length", 2, request.resultPath.getCount());
+        Assert.assertSame("Unexpected first node", graph.getNode(0, 0), request.resultPath.get(0));
+        Assert.assertSame("Unexpected last node", graph.getNode(9, 9), request.resultPath.get(1));
+        Assert.assertTrue("Unexpected search time", request.searchTime > 0);
+        Assert.assertTrue("Unexpected finalization time", request.finalizationTime > 0);
+    }
+
+    @Test
+    public void run_WhenBudgetIsTight_ExpectedSameSmoothedPathOverMultipleFrames() {
+        final MyGraph graph = new MyGraph(30, 30);
+        final PathFinderQueue<MyNode> queue = new PathFinderQueue<>(new IndexedAStarPathFinder<>(graph));
+        final SmoothingPathFinderRequest<MyNode, Vector2> request = createRequest(graph);
+        request.endNode = graph.getNode(29, 29);
+
+        queue.handleMessage(createTelegram(request));
+        for (int frame = 0; frame < 1000000 && request.status != PathFinderRequest.SEARCH_FINALIZED; frame++)
+            queue.run(5000);
+
+        Assert.assertEquals("Unexpected status", PathFinderRequest.SEARCH_FINALIZED, request.status);
+        Assert.assertTrue("Unexpected execution frames", request.executionFrames > 1);
+        Assert.assertEquals("Unexpected smoothed path length", 2, request.resultPath.getCount());
+        Assert.assertSame("Unexpected last node", graph.getNode(29, 29), request.resultPath.get(1));
+        Assert.assertEquals("Unexpected queue size", 0, queue.size());
+    }
+
+    private static SmoothingPathFinderRequest<MyNode, Vector2> createRequest(MyGraph graph) {
+        final PathSmoother<MyNode, Vector2> pathSmoother = new PathSmoother<>(new RaycastCollisionDetector<Vector2>() {
+            @Override
+            public boolean collides(Ray<Vector2> ray) {
+                return false;
+            }
+
+            @Override
+            public boolean findCollision(Collision<Vector2> outputCollision, Ray<Vector2> inputRay) {
+                return false;
+            }
+        });
+        final Heuristic<MyNode> manhattan = new Heuristic<MyNode>() {
+            @Override
+            public float estimate(MyNode node, MyNode endNode) {
+                return Math.abs(endNode.x - node.x) + Math.abs(endNode.y - node.y);
+            }
+        };
+        return new SmoothingPathFinderRequest<>(graph.getNode(0, 0), graph.getNode(9, 9), manhattan, new MyPath(), pathSmoother,
+                new MessageDispatcher());
+    }
+
+    private static Telegram createTelegram(PathFinderRequest<MyNode> request) {
+        final Telegram telegram = new Telegram();
+        telegram.extraInfo = request;
+        return telegram;
+    }
+
+    private static class MyNode {
+
+        final int index;
+        final int x;
+        final int y;
+        final Array<Connection<MyNode>> connections = new Array<>(4);
+
+        MyNode(int index, int x, int y) {
+            this.index = index;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private static class MyPath extends DefaultGraphPath<MyNode> implements SmoothableGraphPath<MyNode, Vector2> {
+
+        private final Vector2 position = new Vector2();
+
+        @Override
+        public Vector2 getNodePosition(int index) {
+            final MyNode node = nodes.get(index);
+            return position.set(node.x, node.y);
+        }
+
+        @Override
+        public void swapNodes(int index1, int index2) {
+            nodes.swap(index1, index2);
+        }
+
+        @Override
+        public void truncatePath(int newLength) {
+            nodes.truncate(newLength);
+        }
+    }
+
+    /**
+     * A 4-connected grid without obstacles.
+     */
+    private static class MyGraph implements IndexedGraph<MyNode> {
+
+        final int width;
+        final int height;
+        final Array<MyNode> nodes;
+
+        MyGraph(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.nodes = new Array<>(width * height);
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    nodes.add(new MyNode(y * width + x, x, y));
+        }
+
+        MyNode getNode(int x, int y) {
+            return nodes.get(y * width + x);
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getConnections(MyNode fromNode) {
+            final Array<Connection<MyNode>> connections = fromNode.connections;
+            if (connections.size == 0) {
+                final int[][] offsets = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+                for (int[] offset : offsets) {
+                    final int x = fromNode.x + offset[0], y = fromNode.y + offset[1];
+                    if (x >= 0 && y >= 0 && x < width && y < height)
+                        connections.add(new DefaultConnection<>(fromNode, getNode(x, y)));
+                }
+            }
+            return connections;
+        }
+
+        @Override
+        public int getIndex(MyNode node) {
+            return node.index;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return nodes.size;
+        }
+    }
+}
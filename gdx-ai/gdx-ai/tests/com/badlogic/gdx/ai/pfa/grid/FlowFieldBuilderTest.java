@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.ai.pfa.grid;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class FlowFieldBuilderTest {
+
+    @Test
+    public void build_WhenFollowingFlowDirections_ExpectedToReachGoalWithShortestPathCost() {
+        final MyGrid grid = createRandomGrid(new Random(42), 40, 30, 0.2f);
+        final MyNode goal = grid.getNode(20, 15);
+        goal.walkable = true;
+
+        final FlowFieldBuilder<MyNode> builder = new FlowFieldBuilder<>(grid, 1);
+        builder.setGoal(20, 15);
+        builder.update();
+
+        assertFlowField(grid, builder, goal);
+    }
+
+    @Test
+    public void update_WhenTilesChange_ExpectedSameFlowFieldAsFullBuild() {
+        final Random random = new Random(7);
+        final MyGrid grid = createRandomGrid(random, 40, 40, 0.15f);
+        final MyNode goal = grid.getNode(5, 5);
+        goal.walkable = true;
+
+        final FlowFieldBuilder<MyNode> builder = new FlowFieldBuilder<>(grid, 1);
+        builder.setGoal(5, 5);
+        builder.update();
+
+        for (int step = 0; step < 50; step++) {
+            for (int i = 0; i < 3; i++) {
+                final MyNode node = grid.nodes.get(random.nextInt(grid.nodes.size));
+                if (node == goal) continue;
+                node.walkable = !node.walkable;
+                builder.markDirty(node.x, node.y);
+            }
+            builder.update();
+
+            final FlowFieldBuilder<MyNode> expected = new FlowFieldBuilder<>(grid, 1);
+            expected.setGoal(5, 5);
+            expected.build();
+            for (MyNode node : grid.nodes)
+                Assert.assertEquals("Unexpected cost", expected.getCost(node.x, node.y), builder.getCost(node.x, node.y), 0.001f);
+            assertFlowField(grid, builder, goal);
+        }
+    }
+
+    @Test
+    public void update_WhenSingleTileChangesFarFromGoal_ExpectedFewTilesIntegrated() {
+        final MyGrid grid = createRandomGrid(new Random(1), 100, 100, 0);
+        final FlowFieldBuilder<MyNode> builder = new FlowFieldBuilder<>(grid, 1);
+        builder.setGoal(0, 0);
+        final int fullBuild = builder.update();
+
+        grid.getNode(90, 90).walkable = false;
+        builder.markDirty(90, 90);
+        final int repair = builder.update();
+
+        Assert.assertEquals("Unexpected tiles integrated by full build", 100 * 100, fullBuild);
+        Assert.assertTrue("Unexpected tiles integrated by repair", repair * 50 < fullBuild);
+    }
+
+    @Test
+    public void build_WhenUsingExecutor_ExpectedSameCostsAsSequentialBuild() {
+        final MyGrid grid = createRandomGrid(new Random(3), 64, 48, 0.25f);
+        final MyNode goal = grid.getNode(10, 40);
+        goal.walkable = true;
+
+        final FlowFieldBuilder<MyNode> sequential = new FlowFieldBuilder<>(grid, 2);
+        sequential.setGoal(10, 40);
+        sequential.build();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int bandCount : new int[] {1, 3, 8, 48}) {
+                final FlowFieldBuilder<MyNode> parallel = new FlowFieldBuilder<>(grid, 2);
+                parallel.setGoal(10, 40);
+                parallel.build(executor, bandCount);
+                for (MyNode node : grid.nodes)
+                    Assert.assertEquals("Unexpected cost", sequential.getCost(node.x, node.y), parallel.getCost(node.x, node.y),
+                            0.001f);
+                assertFlowField(grid, parallel, goal);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void update_WhenBuiltUsingExecutor_ExpectedSameFlowFieldAsFullBuild() {
+        final Random random = new Random(11);
+        final MyGrid grid = createRandomGrid(random, 40, 40, 0.15f);
+        final MyNode goal = grid.getNode(30, 8);
+        goal.walkable = true;
+
+        final FlowFieldBuilder<MyNode> builder = new FlowFieldBuilder<>(grid, 1);
+        builder.setGoal(30, 8);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            builder.build(executor, 5);
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < 20; i++) {
+            final MyNode node = grid.nodes.get(random.nextInt(grid.nodes.size));
+            if (node == goal) continue;
+            node.walkable = !node.walkable;
+            builder.markDirty(node.x, node.y);
+        }
+        builder.update();
+
+        final FlowFieldBuilder<MyNode> expected = new FlowFieldBuilder<>(grid, 1);
+        expected.setGoal(30, 8);
+        expected.build();
+        for (MyNode node : grid.nodes)
+            Assert.assertEquals("Unexpected cost", expected.getCost(node.x, node.y), builder.getCost(node.x, node.y), 0.001f);
+        assertFlowField(grid, builder, goal);
+    }
+
+    @Test
+    public void lookup_WhenPositionIsOutsideGrid_ExpectedZeroVector() {
+        final MyGrid grid = createRandomGrid(new Random(1), 10, 10, 0);
+        final FlowFieldBuilder<MyNode> builder = new FlowFieldBuilder<>(grid, 2);
+        builder.setGoal(9, 0);
+        builder.update();
+
+        Assert.assertTrue("Unexpected flow vector", builder.lookup(new Vector2(-1, 5)).isZero());
+        Assert.assertTrue("Unexpected flow vector", builder.lookup(new Vector2(5, 25)).isZero());
+        Assert.assertTrue("Unexpected flow vector", builder.lookup(new Vector2(19, 1)).isZero());
+        final Vector2 flow = builder.lookup(new Vector2(1, 1));
+        Assert.assertEquals("Unexpected flow vector", 1, flow.x, 0.001f);
+        Assert.assertEquals("Unexpected flow vector", 0, flow.y, 0.001f);
+    }
+
+    /**
+     * Checks that following the flow directions from any tile leads to the goal with the same cost as the shortest path.
+     */
+    private static void assertFlowField(MyGrid grid, FlowFieldBuilder<MyNode> builder, MyNode goal) {
+        final IndexedAStarPathFinder<MyNode> reference = new IndexedAStarPathFinder<>(grid);
+        final GraphPath<Connection<MyNode>> referencePath = new DefaultGraphPath<>();
+        for (MyNode node : grid.nodes) {
+            referencePath.clear();
+            final boolean reachable = node.walkable
+                    && reference.searchConnectionPath(node, goal, new OctileDistance(), referencePath);
+            if (!reachable) {
+                Assert.assertEquals("Unexpected cost", Float.POSITIVE_INFINITY, builder.getCost(node.x, node.y), 0);
+                continue;
+            }
+            Assert.assertEquals("Unexpected cost", cost(referencePath), builder.getCost(node.x, node.y), 0.001f);
+
+            int x = node.x, y = node.y;
+            float cost = 0;
+            for (int step = 0; step < grid.nodes.size && (x != goal.x || y != goal.y); step++) {
+                final int dx = Math.round(Math.signum(builder.getDirectionX(x, y)));
+                final int dy = Math.round(Math.signum(builder.getDirectionY(x, y)));
+                Assert.assertTrue("Unexpected flow direction", dx != 0 || dy != 0);
+                Assert.assertTrue("Unexpected blocked tile", grid.isWalkable(x + dx, y + dy));
+                cost += dx != 0 && dy != 0 ? JumpPointSearchPathFinder.SQRT2 : 1;
+                x += dx;
+                y += dy;
+            }
+            Assert.assertEquals("Unexpected cost along flow", cost(referencePath), cost, 0.01f);
+        }
+    }
+
+    private static float cost(GraphPath<Connection<MyNode>> path) {
+        float cost = 0;
+        for (Connection<MyNode> connection : path)
+            cost += connection.getCost();
+        return cost;
+    }
+
+    private static MyGrid createRandomGrid(Random random, int width, int height, float obstacleDensity) {
+        final MyGrid grid = new MyGrid(width, height);
+        for (MyNode node : grid.nodes)
+            node.walkable = random.nextFloat() >= obstacleDensity;
+        return grid;
+    }
+
+    private static class MyNode {
+
+        final int index;
+        final int x;
+        final int y;
+        boolean walkable;
+        final Array<Connection<MyNode>> connections = new Array<>(8);
+
+        MyNode(int index, int x, int y) {
+            this.index = index;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private static class MyConnection implements Connection<MyNode> {
+
+        final MyNode fromNode;
+        final MyNode toNode;
+
+        MyConnection(MyNode fromNode, MyNode toNode) {
+            this.fromNode = fromNode;
+            this.toNode = toNode;
+        }
+
+        @Override
+        public float getCost() {
+            return fromNode.x != toNode.x && fromNode.y != toNode.y ? JumpPointSearchPathFinder.SQRT2 : 1;
+        }
+
+        @Override
+        public MyNode getFromNode() {
+            return fromNode;
+        }
+
+        @Override
+        public MyNode getToNode() {
+            return toNode;
+        }
+    }
+
+    /**
+     * A grid whose connections are lazily created according to the walkability of the tiles.
+     */
+    private static class MyGrid implements WalkableGrid<MyNode>, IndexedGraph<MyNode> {
+
+        final int width;
+        final int height;
+        final Array<MyNode> nodes;
+
+        MyGrid(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.nodes = new Array<>(width * height);
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    nodes.add(new MyNode(y * width + x, x, y));
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getConnections(MyNode fromNode) {
+            final Array<Connection<MyNode>> connections = fromNode.connections;
+            connections.clear();
+            if (!fromNode.walkable) return connections;
+            final int x = fromNode.x, y = fromNode.y;
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    if ((dx == 0 && dy == 0) || !isWalkable(x + dx, y + dy)) continue;
+                    if (dx != 0 && dy != 0 && (!isWalkable(x + dx, y) || !isWalkable(x, y + dy))) continue;
+                    connections.add(new MyConnection(fromNode, getNode(x + dx, y + dy)));
+                }
+            }
+            return connections;
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public boolean isWalkable(int x, int y) {
+            return x >= 0 && y >= 0 && x < width && y < height && getNode(x, y).walkable;
+        }
+
+        @Override
+        public MyNode getNode(int x, int y) {
+            return nodes.get(y * width + x);
+        }
+
+        @Override
+        public int getX(MyNode node) {
+            return node.x;
+        }
+
+        @Override
+        public int getY(MyNode node) {
+            return node.y;
+        }
+
+        @Override
+        public int getIndex(MyNode node) {
+            return node.index;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return nodes.size;
+        }
+    }
+
+    private static class OctileDistance implements Heuristic<MyNode> {
+        @Override
+        public float estimate(final MyNode node, final MyNode endNode) {
+            return JumpPointSearchPathFinder.octileDistance(endNode.x - node.x, endNode.y - node.y);
+        }
+    }
+}
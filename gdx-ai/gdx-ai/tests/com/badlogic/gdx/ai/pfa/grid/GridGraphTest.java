@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.ai.pfa.grid;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.grid.GridGraph.DiagonalMovement;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class GridGraphTest {
+
+    @Test
+    public void getConnections_WhenCornersAreBlocked_ExpectedNeighborsAllowedByDiagonalMovement() {
+        // Tile (1, 1) has only its north neighbor walkable, so its northern diagonals have one obstacle and the others two
+        final GridGraph graph = new GridGraph(3, 3, DiagonalMovement.NEVER);
+        graph.setWalkable(2, 1, false);
+        graph.setWalkable(0, 1, false);
+        graph.setWalkable(1, 0, false);
+        final GridNode node = graph.getNode(1, 1);
+
+        Assert.assertEquals("Unexpected connections", 1, graph.getConnections(node).size);
+        graph.setDiagonalMovement(DiagonalMovement.ONLY_WHEN_NO_OBSTACLES);
+        Assert.assertEquals("Unexpected connections", 1, graph.getConnections(node).size);
+        graph.setDiagonalMovement(DiagonalMovement.IF_AT_MOST_ONE_OBSTACLE);
+        Assert.assertEquals("Unexpected connections", 3, graph.getConnections(node).size);
+        graph.setDiagonalMovement(DiagonalMovement.ALWAYS);
+        Assert.assertEquals("Unexpected connections", 5, graph.getConnections(node).size);
+
+        graph.setWalkable(1, 1, false);
+        Assert.assertEquals("Unexpected connections from a blocked tile", 0, graph.getConnections(node).size);
+    }
+
+    @Test
+    public void getConnections_WhenCalledRepeatedly_ExpectedSameNodeInstancesAndReusedArray() {
+        final GridGraph graph = new GridGraph(4096, 4096, DiagonalMovement.ONLY_WHEN_NO_OBSTACLES);
+        final GridNode node = graph.getNode(2000, 3000);
+        Assert.assertSame("Unexpected node instance", node, graph.getNode(node.index));
+        Assert.assertEquals("Unexpected index", 2000 + 3000 * 4096, graph.getIndex(node));
+
+        final Array<Connection<GridNode>> first = graph.getConnections(node);
+        final Array<Connection<GridNode>> kept = new Array<>(first);
+        final Array<Connection<GridNode>> second = graph.getConnections(node);
+        Assert.assertSame("Unexpected connection array", first, second);
+        Assert.assertEquals("Unexpected connections", 8, second.size);
+        for (int i = 0; i < second.size; i++) {
+            Assert.assertSame("Unexpected from node", node, second.get(i).getFromNode());
+            Assert.assertSame("Unexpected node instance", kept.get(i).getToNode(), second.get(i).getToNode());
+            Assert.assertSame("Unexpected node instance", second.get(i).getToNode(),
+                    graph.getNode(second.get(i).getToNode().x, second.get(i).getToNode().y));
+        }
+    }
+
+    @Test
+    public void clearCache_WhenNodesHaveBeenCreated_ExpectedNewNodesAndSameSearchResults() {
+        final GridGraph graph = new GridGraph(30, 20, DiagonalMovement.ONLY_WHEN_NO_OBSTACLES);
+        for (int y = 0; y < 15; y++)
+            graph.setWalkable(15, y, false);
+        final GraphPath<Connection<GridNode>> before = new DefaultGraphPath<>();
+        final GridNode startNode = graph.getNode(2, 2);
+        Assert.assertTrue("Unexpected path not found", new IndexedAStarPathFinder<>(graph).searchConnectionPath(startNode,
+                graph.getNode(27, 2), new OctileDistance(), before));
+
+        graph.clearCache();
+        Assert.assertNotSame("Unexpected cached node", startNode, graph.getNode(2, 2));
+        final GraphPath<Connection<GridNode>> after = new DefaultGraphPath<>();
+        Assert.assertTrue("Unexpected path not found", new IndexedAStarPathFinder<>(graph).searchConnectionPath(graph.getNode(2, 2),
+                graph.getNode(27, 2), new OctileDistance(), after));
+        Assert.assertEquals("Unexpected path cost", cost(before), cost(after), 0.001f);
+    }
+
+    @Test
+    public void searchConnectionPath_WhenTilesHaveDefaultCosts_ExpectedSameCostAsJumpPointSearch() {
+        final Random random = new Random(9);
+        final GridGraph graph = new GridGraph(60, 40, DiagonalMovement.ONLY_WHEN_NO_OBSTACLES);
+        for (int y = 0; y < 40; y++)
+            for (int x = 0; x < 60; x++)
+                graph.setWalkable(x, y, random.nextFloat() >= 0.3f);
+
+        final IndexedAStarPathFinder<GridNode> aStar = new IndexedAStarPathFinder<>(graph);
+        final JumpPointSearchPathFinder<GridNode> jps = new JumpPointSearchPathFinder<>(graph);
+        for (int i = 0; i < 50; i++) {
+            final GridNode startNode = graph.getNode(random.nextInt(graph.getNodeCount()));
+            final GridNode endNode = graph.getNode(random.nextInt(graph.getNodeCount()));
+            if (!graph.isWalkable(startNode.x, startNode.y) || !graph.isWalkable(endNode.x, endNode.y)) continue;
+
+            final GraphPath<Connection<GridNode>> outPath = new DefaultGraphPath<>();
+            final GraphPath<Connection<GridNode>> referencePath = new DefaultGraphPath<>();
+            final boolean found = aStar.searchConnectionPath(startNode, endNode, new OctileDistance(), outPath);
+            Assert.assertEquals("Unexpected search result",
+                    jps.searchConnectionPath(startNode, endNode, new OctileDistance(), referencePath), found);
+            if (found) Assert.assertEquals("Unexpected path cost", cost(referencePath), cost(outPath), 0.001f);
+        }
+    }
+
+    @Test
+    public void searchNodePath_WhenTilesAreCostly_ExpectedPathAroundCostlyTiles() {
+        final GridGraph graph = new GridGraph(11, 5, DiagonalMovement.NEVER);
+        for (int x = 1; x < 10; x++)
+            graph.setCost(x, 2, 10);
+        Assert.assertEquals("Unexpected cost", 10, graph.getCost(5, 2));
+
+        final GraphPath<Connection<GridNode>> outPath = new DefaultGraphPath<>();
+        Assert.assertTrue("Unexpected search result", new IndexedAStarPathFinder<>(graph).searchConnectionPath(graph.getNode(0, 2),
+                graph.getNode(10, 2), new OctileDistance(), outPath));
+        // Leaving the costly row through its first tile and coming back through its last one
+        Assert.assertEquals("Unexpected path cost", 12, cost(outPath), 0.001f);
+        for (Connection<GridNode> connection : outPath) {
+            final GridNode node = connection.getToNode();
+            Assert.assertTrue("Unexpected costly tile", node.y != 2 || node.x == 0 || node.x == 10);
+        }
+    }
+
+    private static float cost(GraphPath<Connection<GridNode>> path) {
+        float cost = 0;
+        for (Connection<GridNode> connection : path)
+            cost += connection.getCost();
+        return cost;
+    }
+
+    private static class OctileDistance implements Heuristic<GridNode> {
+        @Override
+        public float estimate(final GridNode node, final GridNode endNode) {
+            final int dx = Math.abs(endNode.x - node.x), dy = Math.abs(endNode.y - node.y);
+            return Math.max(dx, dy) + (GridGraph.SQRT2 - 1) * Math.min(dx, dy);
+        }
+    }
+}
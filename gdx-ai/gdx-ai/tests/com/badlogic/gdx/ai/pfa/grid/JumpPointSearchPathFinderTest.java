@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.ai.pfa.grid;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class JumpPointSearchPathFinderTest {
+
+    @Test
+    public void searchConnectionPath_WhenSearchingRandomGrids_ExpectedSameCostAsIndexedAStar() {
+        final Random random = new Random(42);
+        for (int map = 0; map < 20; map++) {
+            final MyGrid grid = createRandomGrid(random, 40, 30, 0.05f + map * 0.015f);
+
+            final JumpPointSearchPathFinder<MyNode> pathfinder = new JumpPointSearchPathFinder<>(grid);
+            final IndexedAStarPathFinder<MyNode> reference = new IndexedAStarPathFinder<>(grid);
+
+            final GraphPath<Connection<MyNode>> outPath = new DefaultGraphPath<>();
+            final GraphPath<Connection<MyNode>> referencePath = new DefaultGraphPath<>();
+
+            for (int i = 0; i < 50; i++) {
+                final MyNode startNode = grid.nodes.get(random.nextInt(grid.nodes.size));
+                final MyNode endNode = grid.nodes.get(random.nextInt(grid.nodes.size));
+                if (!startNode.walkable || !endNode.walkable) continue;
+
+                outPath.clear();
+                referencePath.clear();
+                final boolean searchResult = pathfinder.searchConnectionPath(startNode, endNode, new OctileDistance(), outPath);
+                final boolean referenceResult = reference.searchConnectionPath(startNode, endNode, new OctileDistance(),
+                        referencePath);
+
+                Assert.assertEquals("Unexpected search result", referenceResult, searchResult);
+                if (!searchResult) continue;
+                Assert.assertEquals("Unexpected path cost", cost(referencePath), cost(outPath), 0.001f);
+
+                MyNode node = startNode;
+                for (Connection<MyNode> connection : outPath) {
+                    Assert.assertNotNull("Unexpected missing connection", connection);
+                    Assert.assertSame("Unexpected disconnected path", node, connection.getFromNode());
+                    node = connection.getToNode();
+                }
+                Assert.assertSame("Unexpected last node", endNode, node);
+            }
+        }
+    }
+
+    @Test
+    public void searchNodePath_WhenMapHasLargeRooms_ExpectedFewerOpenListAdditionsThanIndexedAStar() {
+        // A room split by a wall with a single opening at its top
+        final MyGrid grid = createRandomGrid(new Random(7), 100, 100, 0);
+        for (int y = 0; y < 90; y++)
+            grid.getNode(50, y).walkable = false;
+        final MyNode startNode = grid.getNode(10, 10);
+        final MyNode endNode = grid.getNode(90, 10);
+
+        final JumpPointSearchPathFinder<MyNode> pathfinder = new JumpPointSearchPathFinder<>(grid, true);
+        final IndexedAStarPathFinder<MyNode> reference = new IndexedAStarPathFinder<>(grid, true);
+
+        final GraphPath<MyNode> outPath = new DefaultGraphPath<>();
+        final GraphPath<MyNode> referencePath = new DefaultGraphPath<>();
+
+        Assert.assertTrue("Unexpected search result", pathfinder.searchNodePath(startNode, endNode, new OctileDistance(), outPath));
+        Assert.assertTrue("Unexpected search result",
+                reference.searchNodePath(startNode, endNode, new OctileDistance(), referencePath));
+
+        Assert.assertSame("Unexpected first node", startNode, outPath.get(0));
+        Assert.assertSame("Unexpected last node", endNode, outPath.get(outPath.getCount() - 1));
+        Assert.assertTrue("Unexpected open list additions",
+                pathfinder.metrics.openListAdditions * 10 < reference.metrics.openListAdditions);
+    }
+
+    @Test
+    public void search_WhenTimeSliced_ExpectedSamePathAsNonInterruptibleSearch() {
+        final MyGrid grid = createRandomGrid(new Random(3), 60, 60, 0.2f);
+        final MyNode startNode = grid.getNode(0, 0);
+        final MyNode endNode = grid.getNode(59, 59);
+        startNode.walkable = endNode.walkable = true;
+
+        final JumpPointSearchPathFinder<MyNode> pathfinder = new JumpPointSearchPathFinder<>(grid);
+
+        final GraphPath<MyNode> outPath = new DefaultGraphPath<>();
+        final boolean searchResult = pathfinder.searchNodePath(startNode, endNode, new OctileDistance(), outPath);
+
+        final PathFinderRequest<MyNode> request = new PathFinderRequest<>(startNode, endNode, new OctileDistance(),
+                new DefaultGraphPath<MyNode>(), null);
+        request.statusChanged = true;
+        while (!pathfinder.search(request, 20000L)) {
+        }
+
+        Assert.assertEquals("Unexpected search result", searchResult, request.pathFound);
+        Assert.assertEquals("Unexpected number of nodes in path", outPath.getCount(), request.resultPath.getCount());
+    }
+
+    private static float cost(GraphPath<Connection<MyNode>> path) {
+        float cost = 0;
+        for (Connection<MyNode> connection : path)
+            cost += connection.getCost();
+        return cost;
+    }
+
+    private static MyGrid createRandomGrid(Random random, int width, int height, float obstacleDensity) {
+        final MyGrid grid = new MyGrid(width, height);
+        for (MyNode node : grid.nodes)
+            node.walkable = random.nextFloat() >= obstacleDensity;
+        return grid;
+    }
+
+    private static class MyNode {
+
+        final int index;
+        final int x;
+        final int y;
+        boolean walkable;
+        final Array<Connection<MyNode>> connections = new Array<>(8);
+
+        MyNode(int index, int x, int y) {
+            this.index = index;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private static class MyConnection implements Connection<MyNode> {
+
+        final MyNode fromNode;
+        final MyNode toNode;
+
+        MyConnection(MyNode fromNode, MyNode toNode) {
+            this.fromNode = fromNode;
+            this.toNode = toNode;
+        }
+
+        @Override
+        public float getCost() {
+            return fromNode.x != toNode.x && fromNode.y != toNode.y ? JumpPointSearchPathFinder.SQRT2 : 1;
+        }
+
+        @Override
+        public MyNode getFromNode() {
+            return fromNode;
+        }
+
+        @Override
+        public MyNode getToNode() {
+            return toNode;
+        }
+    }
+
+    /**
+     * A grid whose connections are lazily created according to the walkability of the tiles.
+     */
+    private static class MyGrid implements WalkableGrid<MyNode>, IndexedGraph<MyNode> {
+
+        final int width;
+        final int height;
+        final Array<MyNode> nodes;
+
+        MyGrid(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.nodes = new Array<>(width * height);
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    nodes.add(new MyNode(y * width + x, x, y));
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getConnections(MyNode fromNode) {
+            final Array<Connection<MyNode>> connections = fromNode.connections;
+            connections.clear();
+            if (!fromNode.walkable) return connections;
+            final int x = fromNode.x, y = fromNode.y;
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    if ((dx == 0 && dy == 0) || !isWalkable(x + dx, y + dy)) continue;
+                    if (dx != 0 && dy != 0 && (!isWalkable(x + dx, y) || !isWalkable(x, y + dy))) continue;
+                    connections.add(new MyConnection(fromNode, getNode(x + dx, y + dy)));
+                }
+            }
+            return connections;
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public boolean isWalkable(int x, int y) {
+            return x >= 0 && y >= 0 && x < width && y < height && getNode(x, y).walkable;
+        }
+
+        @Override
+        public MyNode getNode(int x, int y) {
+            return nodes.get(y * width + x);
+        }
+
+        @Override
+        public int getX(MyNode node) {
+            return node.x;
+        }
+
+        @Override
+        public int getY(MyNode node) {
+            return node.y;
+        }
+
+        @Override
+        public int getIndex(MyNode node) {
+            return node.index;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return nodes.size;
+        }
+    }
+
+    private static class OctileDistance implements Heuristic<MyNode> {
+        @Override
+        public float estimate(final MyNode node, final MyNode endNode) {
+            return JumpPointSearchPathFinder.octileDistance(endNode.x - node.x, endNode.y - node.y);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultConnection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class BidirectionalAStarPathFinderTest {
+
+    @Test
+    public void searchConnectionPath_WhenSearchingRandomGraphs_ExpectedSameCostAsIndexedAStar() {
+        final Random random = new Random(23);
+        for (int map = 0; map < 20; map++) {
+            final MyGraph graph = new MyGraph(40, 30);
+            for (MyNode node : graph.nodes)
+                node.walkable = random.nextFloat() >= 0.05f + map * 0.02f;
+
+            final BidirectionalAStarPathFinder<MyNode> pathfinder = new BidirectionalAStarPathFinder<>(graph);
+            final IndexedAStarPathFinder<MyNode> reference = new IndexedAStarPathFinder<>(graph);
+            final ManhattanDistance heuristic = new ManhattanDistance();
+
+            final GraphPath<Connection<MyNode>> outPath = new DefaultGraphPath<>();
+            final GraphPath<Connection<MyNode>> referencePath = new DefaultGraphPath<>();
+
+            for (int i = 0; i < 50; i++) {
+                final MyNode startNode = graph.nodes.get(random.nextInt(graph.nodes.size));
+                final MyNode endNode = graph.nodes.get(random.nextInt(graph.nodes.size));
+                if (!startNode.walkable || !endNode.walkable) continue;
+
+                outPath.clear();
+                referencePath.clear();
+                final boolean searchResult = pathfinder.searchConnectionPath(startNode, endNode, heuristic, outPath);
+                final boolean referenceResult = reference.searchConnectionPath(startNode, endNode, heuristic, referencePath);
+
+                Assert.assertEquals("Unexpected search result", referenceResult, searchResult);
+                if (!searchResult) continue;
+                Assert.assertEquals("Unexpected path cost", referencePath.getCount(), outPath.getCount());
+
+                MyNode node = startNode;
+                for (Connection<MyNode> connection : outPath) {
+                    Assert.assertSame("Unexpected disconnected path", node, connection.getFromNode());
+                    node = connection.getToNode();
+                }
+                Assert.assertSame("Unexpected last node", endNode, node);
+            }
+        }
+    }
+
+    @Test
+    public void searchNodePath_WhenEndNodeIsInDeadEnd_ExpectedFewerVisitedNodesThanIndexedAStar() {
+        // The end node lies at the bottom of a long corridor whose entrance faces away from the start node
+        final MyGraph graph = new MyGraph(80, 60);
+        for (int y = 10; y < 50; y++) {
+            graph.getNode(38, y).walkable = false;
+            graph.getNode(42, y).walkable = false;
+        }
+        for (int x = 38; x <= 42; x++)
+            graph.getNode(x, 10).walkable = false;
+        final MyNode startNode = graph.getNode(40, 0);
+        final MyNode endNode = graph.getNode(40, 11);
+
+        final BidirectionalAStarPathFinder<MyNode> pathfinder = new BidirectionalAStarPathFinder<>(graph, true);
+        final IndexedAStarPathFinder<MyNode> reference = new IndexedAStarPathFinder<>(graph, true);
+        final ManhattanDistance heuristic = new ManhattanDistance();
+
+        final GraphPath<MyNode> outPath = new DefaultGraphPath<>();
+        final GraphPath<MyNode> referencePath = new DefaultGraphPath<>();
+        Assert.assertTrue("Unexpected search result", pathfinder.searchNodePath(startNode, endNode, heuristic, outPath));
+        Assert.assertTrue("Unexpected search result", reference.searchNodePath(startNode, endNode, heuristic, referencePath));
+
+        Assert.assertEquals("Unexpected number of nodes in path", referencePath.getCount(), outPath.getCount());
+        Assert.assertTrue("Unexpected visited nodes", (pathfinder.forwardMetrics.visitedNodes
+                + pathfinder.backwardMetrics.visitedNodes) * 2 < reference.metrics.visitedNodes);
+    }
+
+    @Test
+    public void search_WhenTimeSliced_ExpectedSamePathAsNonInterruptibleSearch() {
+        final Random random = new Random(3);
+        final MyGraph graph = new MyGraph(60, 60);
+        for (MyNode node : graph.nodes)
+            node.walkable = random.nextFloat() >= 0.2f;
+        final MyNode startNode = graph.getNode(0, 0);
+        final MyNode endNode = graph.getNode(59, 59);
+        startNode.walkable = endNode.walkable = true;
+
+        final BidirectionalAStarPathFinder<MyNode> pathfinder = new BidirectionalAStarPathFinder<>(graph);
+
+        final GraphPath<MyNode> outPath = new DefaultGraphPath<>();
+        final boolean searchResult = pathfinder.searchNodePath(startNode, endNode, new ManhattanDistance(), outPath);
+
+        final PathFinderRequest<MyNode> request = new PathFinderRequest<>(startNode, endNode, new ManhattanDistance(),
+                new DefaultGraphPath<MyNode>(), null);
+        request.statusChanged = true;
+        while (!pathfinder.search(request, 20000L)) {
+        }
+
+        Assert.assertEquals("Unexpected search result", searchResult, request.pathFound);
+        Assert.assertEquals("Unexpected number of nodes in path", outPath.getCount(), request.resultPath.getCount());
+    }
+
+    @Test
+    public void searchNodePath_WhenStartIsEnd_ExpectedSingleNodePath() {
+        final MyGraph graph = new MyGraph(5, 5);
+        final BidirectionalAStarPathFinder<MyNode> pathfinder = new BidirectionalAStarPathFinder<>(graph);
+        final GraphPath<MyNode> outPath = new DefaultGraphPath<>();
+        Assert.assertTrue("Unexpected search result",
+                pathfinder.searchNodePath(graph.getNode(2, 2), graph.getNode(2, 2), new ManhattanDistance(), outPath));
+        Assert.assertEquals("Unexpected number of nodes in path", 1, outPath.getCount());
+    }
+
+    private static class MyNode {
+
+        final int index;
+        final int x;
+        final int y;
+        boolean walkable = true;
+        final Array<Connection<MyNode>> outgoing = new Array<>(4);
+        final Array<Connection<MyNode>> incoming = new Array<>(4);
+
+        MyNode(int index, int x, int y) {
+            this.index = index;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * A 4-connected grid whose connections are lazily created according to the walkability of the tiles.
+     */
+    private static class MyGraph implements ReversibleIndexedGraph<MyNode> {
+
+        final int width;
+        final int height;
+        final Array<MyNode> nodes;
+
+        MyGraph(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.nodes = new Array<>(width * height);
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    nodes.add(new MyNode(y * width + x, x, y));
+        }
+
+        MyNode getNode(int x, int y) {
+            return nodes.get(y * width + x);
+        }
+
+        MyNode getWalkableNode(int x, int y) {
+            if (x < 0 || y < 0 || x >= width || y >= height) return null;
+            MyNode node = getNode(x, y);
+            return node.walkable ? node : null;
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getConnections(MyNode fromNode) {
+            final Array<Connection<MyNode>> connections = fromNode.outgoing;
+            connections.clear();
+            if (!fromNode.walkable) return connections;
+            final MyNode[] neighbors = {getWalkableNode(fromNode.x - 1, fromNode.y), getWalkableNode(fromNode.x + 1, fromNode.y),
+                    getWalkableNode(fromNode.x, fromNode.y - 1), getWalkableNode(fromNode.x, fromNode.y + 1)};
+            for (MyNode neighbor : neighbors)
+                if (neighbor != null) connections.add(new DefaultConnection<>(fromNode, neighbor));
+            return connections;
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getIncomingConnections(MyNode toNode) {
+            final Array<Connection<MyNode>> connections = toNode.incoming;
+            connections.clear();
+            if (!toNode.walkable) return connections;
+            final MyNode[] neighbors = {getWalkableNode(toNode.x - 1, toNode.y), getWalkableNode(toNode.x + 1, toNode.y),
+                    getWalkableNode(toNode.x, toNode.y - 1), getWalkableNode(toNode.x, toNode.y + 1)};
+            for (MyNode neighbor : neighbors)
+                if (neighbor != null) connections.add(new DefaultConnection<>(neighbor, toNode));
+            return connections;
+        }
+
+        @Override
+        public int getIndex(MyNode node) {
+            return node.index;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return nodes.size;
+        }
+    }
+
+    private static class ManhattanDistance implements Heuristic<MyNode> {
+        @Override
+        public float estimate(final MyNode node, final MyNode endNode) {
+            return Math.abs(endNode.x - node.x) + Math.abs(endNode.y - node.y);
+        }
+    }
+}
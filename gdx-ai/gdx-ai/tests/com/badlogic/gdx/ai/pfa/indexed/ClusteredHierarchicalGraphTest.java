@@ -0,0 +1,298 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.HierarchicalPathFinder;
+import com.badlogic.gdx.ai.pfa.grid.GridClusterPartitioner;
+import com.badlogic.gdx.ai.pfa.grid.WalkableGrid;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class ClusteredHierarchicalGraphTest {
+
+    private static final float SQRT2 = (float) Math.sqrt(2);
+
+    @Test
+    public void rebuild_WhenMapIsOpen_ExpectedEntrancesLinkedWithShortestCostsWithinClusters() {
+        final MyGrid grid = createRandomGrid(new Random(1), 30, 20, 0);
+        final ClusteredHierarchicalGraph<MyNode> graph = new ClusteredHierarchicalGraph<>(grid,
+                new GridClusterPartitioner<>(grid, 10, 10));
+        final GridClusterPartitioner<MyNode> partitioner = (GridClusterPartitioner<MyNode>) graph.getPartitioner();
+
+        graph.setLevel(1);
+        int entrances = 0;
+        for (MyNode node : grid.nodes) {
+            if (!graph.isEntrance(node)) {
+                Assert.assertEquals("Unexpected connections", 0, graph.getConnections(node).size);
+                continue;
+            }
+            entrances++;
+            for (Connection<MyNode> connection : graph.getConnections(node)) {
+                final MyNode toNode = connection.getToNode();
+                Assert.assertTrue("Unexpected connection to a non-entrance", graph.isEntrance(toNode));
+                Assert.assertEquals("Unexpected connection cost", distance(node, toNode), connection.getCost(), 0.001f);
+                if (partitioner.getCluster(node) != partitioner.getCluster(toNode)) {
+                    Assert.assertTrue("Unexpected missing connection back", isConnected(graph, toNode, node));
+                }
+            }
+        }
+        // 3x2 clusters with 7 borders and 4 diagonally adjacent corners, each crossed by a single stretch of connections
+        Assert.assertEquals("Unexpected number of entrances", 22, entrances);
+    }
+
+    @Test
+    public void searchNodePath_WhenFollowingHierarchicalPlans_ExpectedToReachEndNodeIfReachable() {
+        final Random random = new Random(42);
+        for (int map = 0; map < 10; map++) {
+            final MyGrid grid = createRandomGrid(random, 48, 36, 0.05f + map * 0.03f);
+            final ClusteredHierarchicalGraph<MyNode> graph = new ClusteredHierarchicalGraph<>(grid,
+                    new GridClusterPartitioner<>(grid, 8, 6));
+            final HierarchicalPathFinder<MyNode> pathfinder = new HierarchicalPathFinder<>(graph,
+                    new IndexedAStarPathFinder<>(graph));
+            final IndexedAStarPathFinder<MyNode> reference = new IndexedAStarPathFinder<>(grid);
+
+            final GraphPath<MyNode> outPath = new DefaultGraphPath<>();
+            for (int i = 0; i < 30; i++) {
+                final MyNode startNode = grid.nodes.get(random.nextInt(grid.nodes.size));
+                final MyNode endNode = grid.nodes.get(random.nextInt(grid.nodes.size));
+                if (!startNode.walkable || !endNode.walkable || startNode == endNode) continue;
+
+                outPath.clear();
+                final boolean referenceResult = reference.searchNodePath(startNode, endNode, new OctileDistance(), outPath);
+
+                // Each hierarchical search plans the way to the next entrance, so replan until the end node is reached
+                MyNode node = startNode;
+                for (int step = 0; step < grid.nodes.size && node != endNode; step++) {
+                    outPath.clear();
+                    if (!pathfinder.searchNodePath(node, endNode, new OctileDistance(), outPath)) break;
+                    Assert.assertSame("Unexpected first node", node, outPath.get(0));
+                    for (int j = 1; j < outPath.getCount(); j++)
+                        Assert.assertTrue("Unexpected disconnected path", isConnected(grid, outPath.get(j - 1), outPath.get(j)));
+                    node = outPath.get(outPath.getCount() - 1);
+                }
+                Assert.assertEquals("Unexpected search result", referenceResult, node == endNode);
+            }
+        }
+    }
+
+    @Test
+    public void rebuildCluster_WhenTilesChange_ExpectedSameAbstractLevelAsFullRebuild() {
+        final Random random = new Random(5);
+        final MyGrid grid = createRandomGrid(random, 40, 40, 0.2f);
+        final GridClusterPartitioner<MyNode> partitioner = new GridClusterPartitioner<>(grid, 10, 10);
+        final ClusteredHierarchicalGraph<MyNode> graph = new ClusteredHierarchicalGraph<>(grid, partitioner);
+
+        for (int i = 0; i < 30; i++) {
+            // Toggle a few tiles of a random cluster, including its borders
+            final int cluster = random.nextInt(partitioner.getClusterCount());
+            final Array<MyNode> clusterNodes = new Array<>();
+            partitioner.collectNodes(cluster, clusterNodes);
+            for (int j = 0; j < 5; j++) {
+                final MyNode node = clusterNodes.get(random.nextInt(clusterNodes.size));
+                node.walkable = !node.walkable;
+            }
+            graph.rebuildCluster(cluster);
+
+            final ClusteredHierarchicalGraph<MyNode> expected = new ClusteredHierarchicalGraph<>(grid, partitioner);
+            graph.setLevel(1);
+            expected.setLevel(1);
+            for (MyNode node : grid.nodes) {
+                Assert.assertEquals("Unexpected entrance", expected.isEntrance(node), graph.isEntrance(node));
+                Assert.assertSame("Unexpected closest entrance", expected.convertNodeBetweenLevels(0, node, 1),
+                        graph.convertNodeBetweenLevels(0, node, 1));
+                final Array<Connection<MyNode>> expectedConnections = expected.getConnections(node);
+                final Array<Connection<MyNode>> connections = graph.getConnections(node);
+                Assert.assertEquals("Unexpected number of connections", expectedConnections.size, connections.size);
+                for (Connection<MyNode> connection : expectedConnections)
+                    Assert.assertTrue("Unexpected missing connection", isConnected(graph, node, connection.getToNode()));
+            }
+        }
+    }
+
+    @Test
+    public void searchNodePath_WhenSearchingAbstractLevel_ExpectedFarFewerVisitedNodesThanUnderlyingGraph() {
+        // A large map split by a wall with a single opening at its top
+        final MyGrid grid = createRandomGrid(new Random(7), 160, 160, 0);
+        for (int y = 0; y < 150; y++)
+            grid.getNode(80, y).walkable = false;
+        final MyNode startNode = grid.getNode(10, 10);
+        final MyNode endNode = grid.getNode(150, 10);
+
+        final ClusteredHierarchicalGraph<MyNode> graph = new ClusteredHierarchicalGraph<>(grid,
+                new GridClusterPartitioner<>(grid, 10, 10));
+        final IndexedAStarPathFinder<MyNode> pathfinder = new IndexedAStarPathFinder<>(graph, true);
+        final IndexedAStarPathFinder<MyNode> reference = new IndexedAStarPathFinder<>(grid, true);
+
+        final GraphPath<MyNode> outPath = new DefaultGraphPath<>();
+        graph.setLevel(1);
+        Assert.assertTrue("Unexpected search result", pathfinder.searchNodePath(graph.convertNodeBetweenLevels(0, startNode, 1),
+                graph.convertNodeBetweenLevels(0, endNode, 1), new OctileDistance(), outPath));
+        outPath.clear();
+        Assert.assertTrue("Unexpected search result", reference.searchNodePath(startNode, endNode, new OctileDistance(), outPath));
+
+        Assert.assertTrue("Unexpected visited nodes", pathfinder.metrics.visitedNodes * 10 < reference.metrics.visitedNodes);
+    }
+
+    private static boolean isConnected(IndexedGraph<MyNode> graph, MyNode fromNode, MyNode toNode) {
+        for (Connection<MyNode> connection : graph.getConnections(fromNode))
+            if (connection.getToNode() == toNode) return true;
+        return false;
+    }
+
+    private static float distance(MyNode node, MyNode endNode) {
+        final int dx = Math.abs(endNode.x - node.x), dy = Math.abs(endNode.y - node.y);
+        return Math.max(dx, dy) + (SQRT2 - 1) * Math.min(dx, dy);
+    }
+
+    private static MyGrid createRandomGrid(Random random, int width, int height, float obstacleDensity) {
+        final MyGrid grid = new MyGrid(width, height);
+        for (MyNode node : grid.nodes)
+            node.walkable = random.nextFloat() >= obstacleDensity;
+        return grid;
+    }
+
+    private static class MyNode {
+
+        final int index;
+        final int x;
+        final int y;
+        boolean walkable;
+        final Array<Connection<MyNode>> connections = new Array<>(8);
+
+        MyNode(int index, int x, int y) {
+            this.index = index;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private static class MyConnection implements Connection<MyNode> {
+
+        final MyNode fromNode;
+        final MyNode toNode;
+
+        MyConnection(MyNode fromNode, MyNode toNode) {
+            this.fromNode = fromNode;
+            this.toNode = toNode;
+        }
+
+        @Override
+        public float getCost() {
+            return fromNode.x != toNode.x && fromNode.y != toNode.y ? SQRT2 : 1;
+        }
+
+        @Override
+        public MyNode getFromNode() {
+            return fromNode;
+        }
+
+        @Override
+        public MyNode getToNode() {
+            return toNode;
+        }
+    }
+
+    /**
+     * A grid whose connections are lazily created according to the walkability of the tiles.
+     */
+    private static class MyGrid implements WalkableGrid<MyNode>, IndexedGraph<MyNode> {
+
+        final int width;
+        final int height;
+        final Array<MyNode> nodes;
+
+        MyGrid(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.nodes = new Array<>(width * height);
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    nodes.add(new MyNode(y * width + x, x, y));
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getConnections(MyNode fromNode) {
+            final Array<Connection<MyNode>> connections = fromNode.connections;
+            connections.clear();
+            if (!fromNode.walkable) return connections;
+            final int x = fromNode.x, y = fromNode.y;
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    if ((dx == 0 && dy == 0) || !isWalkable(x + dx, y + dy)) continue;
+                    if (dx != 0 && dy != 0 && (!isWalkable(x + dx, y) || !isWalkable(x, y + dy))) continue;
+                    connections.add(new MyConnection(fromNode, getNode(x + dx, y + dy)));
+                }
+            }
+            return connections;
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public boolean isWalkable(int x, int y) {
+            return x >= 0 && y >= 0 && x < width && y < height && getNode(x, y).walkable;
+        }
+
+        @Override
+        public MyNode getNode(int x, int y) {
+            return nodes.get(y * width + x);
+        }
+
+        @Override
+        public int getX(MyNode node) {
+            return node.x;
+        }
+
+        @Override
+        public int getY(MyNode node) {
+            return node.y;
+        }
+
+        @Override
+        public int getIndex(MyNode node) {
+            return node.index;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return nodes.size;
+        }
+    }
+
+    private static class OctileDistance implements Heuristic<MyNode> {
+        @Override
+        public float estimate(final MyNode node, final MyNode endNode) {
+            return distance(node, endNode);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultConnection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.indexed.CooperativePathPlanner.Agent;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CooperativePathPlannerTest {
+
+    @Test
+    public void update_WhenAgentsCrossThroughChokePoint_ExpectedNoCollisionsAndAllGoalsReached() {
+        // Two rooms joined by a one tile wide door in the middle of the wall
+        final MyGraph graph = new MyGraph(21, 11);
+        for (int y = 0; y < 11; y++)
+            if (y != 5) graph.getNode(10, y).walkable = false;
+
+        final CooperativePathPlanner<MyNode> planner = new CooperativePathPlanner<>(graph, 16);
+        final Array<Agent<MyNode>> agents = new Array<>();
+        for (int y = 0; y < 11; y += 2) {
+            agents.add(planner.addAgent(graph.getNode(0, y), graph.getNode(20, 10 - y)));
+            agents.add(planner.addAgent(graph.getNode(20, y), graph.getNode(0, 10 - y)));
+        }
+
+        final MyNode[] previous = new MyNode[agents.size];
+        for (int i = 0; i < agents.size; i++)
+            previous[i] = agents.get(i).getNode();
+        int step = 0;
+        for (; step < 300 && !allReachedGoal(agents); step++) {
+            planner.update();
+            for (int i = 0; i < agents.size; i++) {
+                final MyNode node = agents.get(i).getNode();
+                Assert.assertTrue("Unexpected jump", node == previous[i] || graph.isConnected(previous[i], node));
+                for (int j = 0; j < i; j++) {
+                    Assert.assertNotSame("Unexpected vertex collision", agents.get(j).getNode(), node);
+                    Assert.assertFalse("Unexpected swap", previous[j] == node && agents.get(j).getNode() == previous[i]);
+                }
+            }
+            for (int i = 0; i < agents.size; i++)
+                previous[i] = agents.get(i).getNode();
+        }
+        Assert.assertTrue("Unexpected agents not at goal", allReachedGoal(agents));
+    }
+
+    @Test
+    public void getPlan_WhenAgentIsPlanned_ExpectedConnectedNodesEndingTowardsGoal() {
+        final MyGraph graph = new MyGraph(10, 10);
+        final CooperativePathPlanner<MyNode> planner = new CooperativePathPlanner<>(graph, 8);
+        // Agents added first plan first, so the blocker reserves its node before the agent plans
+        final Agent<MyNode> blocker = planner.addAgent(graph.getNode(2, 0), graph.getNode(2, 0));
+        final Agent<MyNode> agent = planner.addAgent(graph.getNode(0, 0), graph.getNode(3, 0));
+        planner.update();
+
+        final GraphPath<MyNode> plan = new DefaultGraphPath<>();
+        planner.getPlan(agent, plan, false);
+        Assert.assertEquals("Unexpected number of time steps", planner.getWindow(), plan.getCount());
+        Assert.assertSame("Unexpected last node", graph.getNode(3, 0), plan.get(plan.getCount() - 1));
+
+        final GraphPath<MyNode> collapsed = new DefaultGraphPath<>();
+        planner.getPlan(agent, collapsed, true);
+        for (int i = 1; i < collapsed.getCount(); i++) {
+            Assert.assertTrue("Unexpected disconnected plan", graph.isConnected(collapsed.get(i - 1), collapsed.get(i)));
+            Assert.assertNotSame("Unexpected node reserved by another agent", blocker.getNode(), collapsed.get(i));
+        }
+        // Going around the blocker takes 5 moves, the first of which has already been made
+        Assert.assertEquals("Unexpected number of nodes", 5, collapsed.getCount());
+    }
+
+    @Test
+    public void removeAgent_WhenAgentIsRemoved_ExpectedReservationsReleased() {
+        final MyGraph graph = new MyGraph(5, 1);
+        final CooperativePathPlanner<MyNode> planner = new CooperativePathPlanner<>(graph, 4);
+        final Agent<MyNode> blocker = planner.addAgent(graph.getNode(2, 0), graph.getNode(2, 0));
+        final Agent<MyNode> agent = planner.addAgent(graph.getNode(0, 0), graph.getNode(4, 0));
+        planner.update();
+        Assert.assertSame("Unexpected move through a reserved node", graph.getNode(1, 0), agent.getNode());
+        planner.update();
+        Assert.assertSame("Unexpected move through a reserved node", graph.getNode(1, 0), agent.getNode());
+
+        planner.removeAgent(blocker);
+        planner.setGoal(agent, graph.getNode(4, 0));
+        for (int i = 0; i < 3; i++)
+            planner.update();
+        Assert.assertTrue("Unexpected agent not at goal", agent.hasReachedGoal());
+    }
+
+    @Test
+    public void update_WhenSearchFailsAtChokePoint_ExpectedAgentToKeepItsNodeReserved() {
+        // A corridor where the agent coming from the right can't get past the agent coming from the left
+        final MyGraph graph = new MyGraph(5, 1);
+        final MyPlanner planner = new MyPlanner(graph, 4);
+        final Agent<MyNode> agent = planner.addAgent(graph.getNode(0, 0), graph.getNode(4, 0));
+        final Agent<MyNode> blocked = planner.addAgent(graph.getNode(4, 0), graph.getNode(0, 0));
+
+        for (int step = 0; step < 20; step++) {
+            final MyNode previous = agent.getNode();
+            final MyNode previousBlocked = blocked.getNode();
+            planner.update();
+            Assert.assertNotSame("Unexpected vertex collision", agent.getNode(), blocked.getNode());
+            Assert.assertFalse("Unexpected swap", previous == blocked.getNode() && previousBlocked == agent.getNode());
+
+            final GraphPath<MyNode> plan = new DefaultGraphPath<>();
+            planner.getPlan(blocked, plan, false);
+            Assert.assertEquals("Unexpected number of time steps", planner.getWindow(), plan.getCount());
+        }
+        Assert.assertTrue("Unexpected searches not failed", planner.failedSearches >= 20);
+        Assert.assertSame("Unexpected blocked agent moved", graph.getNode(4, 0), blocked.getNode());
+        Assert.assertSame("Unexpected agent not next to the blocked agent", graph.getNode(3, 0), agent.getNode());
+    }
+
+    private static boolean allReachedGoal(Array<Agent<MyNode>> agents) {
+        for (Agent<MyNode> agent : agents)
+            if (!agent.hasReachedGoal()) return false;
+        return true;
+    }
+
+    /**
+     * A planner counting the searches that don't find any plan.
+     */
+    private static class MyPlanner extends CooperativePathPlanner<MyNode> {
+
+        int failedSearches;
+
+        MyPlanner(MyGraph graph, int window) {
+            super(graph, window);
+        }
+
+        @Override
+        boolean search(Agent<MyNode> agent) {
+            final boolean found = super.search(agent);
+            if (!found) failedSearches++;
+            return found;
+        }
+    }
+
+    private static class MyNode {
+
+        final int index;
+        final int x;
+        final int y;
+        boolean walkable = true;
+        final Array<Connection<MyNode>> connections = new Array<>(4);
+
+        MyNode(int index, int x, int y) {
+            this.index = index;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * A 4-connected grid whose connections are lazily created according to the walkability of the tiles.
+     */
+    private static class MyGraph implements IndexedGraph<MyNode> {
+
+        final int width;
+        final int height;
+        final Array<MyNode> nodes;
+
+        MyGraph(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.nodes = new Array<>(width * height);
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    nodes.add(new MyNode(y * width + x, x, y));
+        }
+
+        MyNode getNode(int x, int y) {
+            return nodes.get(y * width + x);
+        }
+
+        MyNode getWalkableNode(int x, int y) {
+            if (x < 0 || y < 0 || x >= width || y >= height) return null;
+            MyNode node = getNode(x, y);
+            return node.walkable ? node : null;
+        }
+
+        boolean isConnected(MyNode fromNode, MyNode toNode) {
+            return Math.abs(fromNode.x - toNode.x) + Math.abs(fromNode.y - toNode.y) == 1 && toNode.walkable;
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getConnections(MyNode fromNode) {
+            final Array<Connection<MyNode>> connections = fromNode.connections;
+            connections.clear();
+            if (!fromNode.walkable) return connections;
+            final MyNode[] neighbors = {getWalkableNode(fromNode.x - 1, fromNode.y), getWalkableNode(fromNode.x + 1, fromNode.y),
+                    getWalkableNode(fromNode.x, fromNode.y - 1), getWalkableNode(fromNode.x, fromNode.y + 1)};
+            for (MyNode neighbor : neighbors)
+                if (neighbor != null) connections.add(new DefaultConnection<>(fromNode, neighbor));
+            return connections;
+        }
+
+        @Override
+        public int getIndex(MyNode node) {
+            return node.index;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return nodes.size;
+        }
+    }
+}
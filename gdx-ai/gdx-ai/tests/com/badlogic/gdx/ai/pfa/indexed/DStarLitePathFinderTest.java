@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultConnection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class DStarLitePathFinderTest {
+
+    @Test
+    public void searchConnectionPath_WhenTilesChangeAndStartMoves_ExpectedSameCostAsIndexedAStar() {
+        final Random random = new Random(11);
+        final MyGraph graph = new MyGraph(30, 20);
+        for (MyNode node : graph.nodes)
+            node.walkable = random.nextFloat() > 0.25f;
+
+        final MyNode endNode = graph.getNode(29, 19);
+        MyNode startNode = graph.getNode(0, 0);
+        startNode.walkable = endNode.walkable = true;
+
+        final DStarLitePathFinder<MyNode> pathfinder = new DStarLitePathFinder<>(graph);
+        final IndexedAStarPathFinder<MyNode> reference = new IndexedAStarPathFinder<>(graph);
+        final ManhattanDistance heuristic = new ManhattanDistance();
+
+        final GraphPath<Connection<MyNode>> outPath = new DefaultGraphPath<>();
+        final GraphPath<Connection<MyNode>> referencePath = new DefaultGraphPath<>();
+
+        for (int step = 0; step < 200; step++) {
+            outPath.clear();
+            referencePath.clear();
+            final boolean searchResult = pathfinder.searchConnectionPath(startNode, endNode, heuristic, outPath);
+            final boolean referenceResult = reference.searchConnectionPath(startNode, endNode, heuristic, referencePath);
+
+            Assert.assertEquals("Unexpected search result", referenceResult, searchResult);
+            if (searchResult) {
+                Assert.assertEquals("Unexpected path cost", referencePath.getCount(), outPath.getCount());
+                MyNode node = startNode;
+                for (Connection<MyNode> connection : outPath) {
+                    Assert.assertSame("Unexpected disconnected path", node, connection.getFromNode());
+                    node = connection.getToNode();
+                }
+                Assert.assertSame("Unexpected last node", endNode, node);
+
+                // Walk one step along the path
+                if (outPath.getCount() > 0) startNode = outPath.get(0).getToNode();
+            }
+
+            // Toggle a random tile other than the start and the goal
+            final MyNode changed = graph.nodes.get(random.nextInt(graph.nodes.size));
+            if (changed == startNode || changed == endNode) continue;
+            changed.walkable = !changed.walkable;
+            pathfinder.notifyNodeChanged(changed);
+            notifyNeighbors(graph, pathfinder, changed);
+        }
+    }
+
+    @Test
+    public void searchNodePath_WhenSingleTileChanges_ExpectedFewerExpansionsThanInitialSearch() {
+        final MyGraph graph = new MyGraph(60, 60);
+        final MyNode startNode = graph.getNode(0, 0);
+        final MyNode endNode = graph.getNode(59, 59);
+
+        final DStarLitePathFinder<MyNode> pathfinder = new DStarLitePathFinder<>(graph, true);
+        final ManhattanDistance heuristic = new ManhattanDistance();
+        final GraphPath<MyNode> outPath = new DefaultGraphPath<>();
+
+        Assert.assertTrue("Unexpected search result", pathfinder.searchNodePath(startNode, endNode, heuristic, outPath));
+        final int initialExpansions = pathfinder.metrics.visitedNodes;
+
+        // Block a tile close to the agent, as it would be detected by its sensors
+        final MyNode blocked = outPath.get(2);
+        blocked.walkable = false;
+        pathfinder.notifyNodeChanged(blocked);
+        notifyNeighbors(graph, pathfinder, blocked);
+
+        outPath.clear();
+        Assert.assertTrue("Unexpected search result", pathfinder.searchNodePath(startNode, endNode, heuristic, outPath));
+        Assert.assertEquals("Unexpected number of nodes in path", 119, outPath.getCount());
+        for (MyNode node : outPath)
+            Assert.assertNotSame("Unexpected blocked node in path", blocked, node);
+        Assert.assertTrue("Unexpected number of expansions", pathfinder.metrics.visitedNodes * 4 < initialExpansions);
+    }
+
+    /**
+     * Notifies the path finder that the connections from the neighbors of a tile to the tile itself have changed. This is needed
+     * because incoming connections of a blocked tile are no longer reported by the graph.
+     */
+    private static void notifyNeighbors(MyGraph graph, DStarLitePathFinder<MyNode> pathfinder, MyNode changed) {
+        final int[][] offsets = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+        for (int[] offset : offsets) {
+            final int x = changed.x + offset[0], y = changed.y + offset[1];
+            if (x >= 0 && y >= 0 && x < graph.width && y < graph.height)
+                pathfinder.notifyEdgeCostChanged(graph.getNode(x, y), changed);
+        }
+    }
+
+    private static class MyNode {
+
+        final int index;
+        final int x;
+        final int y;
+        boolean walkable = true;
+        final Array<Connection<MyNode>> outgoing = new Array<>(4);
+        final Array<Connection<MyNode>> incoming = new Array<>(4);
+
+        MyNode(int index, int x, int y) {
+            this.index = index;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * A 4-connected grid whose connections are lazily created according to the walkability of the tiles.
+     */
+    private static class MyGraph implements ReversibleIndexedGraph<MyNode> {
+
+        final int width;
+        final int height;
+        final Array<MyNode> nodes;
+
+        MyGraph(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.nodes = new Array<>(width * height);
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    nodes.add(new MyNode(y * width + x, x, y));
+        }
+
+        MyNode getNode(int x, int y) {
+            return nodes.get(y * width + x);
+        }
+
+        MyNode getWalkableNode(int x, int y) {
+            if (x < 0 || y < 0 || x >= width || y >= height) return null;
+            MyNode node = getNode(x, y);
+            return node.walkable ? node : null;
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getConnections(MyNode fromNode) {
+            final Array<Connection<MyNode>> connections = fromNode.outgoing;
+            connections.clear();
+            if (!fromNode.walkable) return connections;
+            final MyNode[] neighbors = {getWalkableNode(fromNode.x - 1, fromNode.y), getWalkableNode(fromNode.x + 1, fromNode.y),
+                    getWalkableNode(fromNode.x, fromNode.y - 1), getWalkableNode(fromNode.x, fromNode.y + 1)};
+            for (MyNode neighbor : neighbors)
+                if (neighbor != null) connections.add(new DefaultConnection<>(fromNode, neighbor));
+            return connections;
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getIncomingConnections(MyNode toNode) {
+            final Array<Connection<MyNode>> connections = toNode.incoming;
+            connections.clear();
+            if (!toNode.walkable) return connections;
+            final MyNode[] neighbors = {getWalkableNode(toNode.x - 1, toNode.y), getWalkableNode(toNode.x + 1, toNode.y),
+                    getWalkableNode(toNode.x, toNode.y - 1), getWalkableNode(toNode.x, toNode.y + 1)};
+            for (MyNode neighbor : neighbors)
+                if (neighbor != null) connections.add(new DefaultConnection<>(neighbor, toNode));
+            return connections;
+        }
+
+        @Override
+        public int getIndex(MyNode node) {
+            return node.index;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return nodes.size;
+        }
+    }
+
+    private static class ManhattanDistance implements Heuristic<MyNode> {
+        @Override
+        public float estimate(final MyNode node, final MyNode endNode) {
+            return Math.abs(endNode.x - node.x) + Math.abs(endNode.y - node.y);
+        }
+    }
+}
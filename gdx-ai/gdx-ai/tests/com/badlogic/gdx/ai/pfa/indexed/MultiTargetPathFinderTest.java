@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultConnection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class MultiTargetPathFinderTest {
+
+    @Test
+    public void searchConnectionPath_WhenGoalsAreGiven_ExpectedPathToClosestGoal() {
+        final Random random = new Random(17);
+        for (int map = 0; map < 10; map++) {
+            final MyGraph graph = createRandomGraph(random, 40, 30, 0.05f + map * 0.03f);
+            final MultiTargetPathFinder<MyNode> pathfinder = new MultiTargetPathFinder<>(graph);
+            final IndexedAStarPathFinder<MyNode> reference = new IndexedAStarPathFinder<>(graph);
+
+            for (int i = 0; i < 20; i++) {
+                final MyNode startNode = graph.nodes.get(random.nextInt(graph.nodes.size));
+                final Array<MyNode> goals = new Array<>();
+                for (int j = 0; j < 8; j++)
+                    goals.add(graph.nodes.get(random.nextInt(graph.nodes.size)));
+
+                float closestCost = Float.POSITIVE_INFINITY;
+                for (MyNode goal : goals) {
+                    final GraphPath<Connection<MyNode>> referencePath = new DefaultGraphPath<>();
+                    if (reference.searchConnectionPath(startNode, goal, new ManhattanDistance(), referencePath))
+                        closestCost = Math.min(closestCost, cost(referencePath));
+                }
+
+                for (Heuristic<MyNode> heuristic : new Heuristic[] {null, new ManhattanDistance()}) {
+                    final GraphPath<Connection<MyNode>> outPath = new DefaultGraphPath<>();
+                    final boolean found = pathfinder.searchConnectionPath(startNode, goals, heuristic, outPath);
+                    Assert.assertEquals("Unexpected search result", closestCost != Float.POSITIVE_INFINITY, found);
+                    if (!found) continue;
+                    Assert.assertEquals("Unexpected path cost", closestCost, cost(outPath), 0.001f);
+                    Assert.assertEquals("Unexpected path cost", closestCost, pathfinder.getPathCost(), 0.001f);
+                    MyNode node = startNode;
+                    for (Connection<MyNode> connection : outPath) {
+                        Assert.assertSame("Unexpected disconnected path", node, connection.getFromNode());
+                        node = connection.getToNode();
+                    }
+                    Assert.assertTrue("Unexpected last node", goals.contains(node, true));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void searchNodePath_WhenUsingMultiGoalHeuristic_ExpectedFewerVisitedNodesThanOneSearchPerGoal() {
+        final MyGraph graph = createRandomGraph(new Random(2), 60, 60, 0.1f);
+        final MyNode startNode = graph.getNode(30, 30);
+        startNode.walkable = true;
+        final Array<MyNode> goals = new Array<>();
+        for (int i = 0; i < 10; i++) {
+            final MyNode goal = graph.getNode(i * 6, 59);
+            goal.walkable = true;
+            goals.add(goal);
+        }
+
+        final MultiTargetPathFinder<MyNode> pathfinder = new MultiTargetPathFinder<>(graph, true);
+        final IndexedAStarPathFinder<MyNode> reference = new IndexedAStarPathFinder<>(graph, true);
+        Assert.assertTrue("Unexpected search result",
+                pathfinder.searchNodePath(startNode, goals, new ManhattanDistance(), new DefaultGraphPath<MyNode>()));
+        int referenceVisitedNodes = 0;
+        for (MyNode goal : goals) {
+            reference.searchNodePath(startNode, goal, new ManhattanDistance(), new DefaultGraphPath<MyNode>());
+            referenceVisitedNodes += reference.metrics.visitedNodes;
+        }
+
+        Assert.assertTrue("Unexpected visited nodes", pathfinder.metrics.visitedNodes * 3 < referenceVisitedNodes);
+    }
+
+    @Test
+    public void searchCosts_WhenMaxCostIsGiven_ExpectedExactCostsOfGoalsWithinMaxCost() {
+        final Random random = new Random(8);
+        final MyGraph graph = createRandomGraph(random, 40, 40, 0.2f);
+        final MultiTargetPathFinder<MyNode> pathfinder = new MultiTargetPathFinder<>(graph);
+        final IndexedAStarPathFinder<MyNode> reference = new IndexedAStarPathFinder<>(graph);
+        final MyNode startNode = graph.getNode(20, 20);
+        startNode.walkable = true;
+
+        final Array<MyNode> goals = new Array<>();
+        for (int i = 0; i < 30; i++)
+            goals.add(graph.nodes.get(random.nextInt(graph.nodes.size)));
+        goals.add(goals.first()); // Duplicates are allowed
+        final FloatArray costs = new FloatArray();
+        final int reached = pathfinder.searchCosts(startNode, goals, 25, costs);
+
+        int expectedReached = 0;
+        Assert.assertEquals("Unexpected number of costs", goals.size, costs.size);
+        for (int i = 0; i < goals.size; i++) {
+            final GraphPath<Connection<MyNode>> referencePath = new DefaultGraphPath<>();
+            float expectedCost = Float.POSITIVE_INFINITY;
+            if (reference.searchConnectionPath(startNode, goals.get(i), new ManhattanDistance(), referencePath)
+                    && cost(referencePath) <= 25) {
+                expectedCost = cost(referencePath);
+                expectedReached++;
+            }
+            Assert.assertEquals("Unexpected cost", expectedCost, costs.get(i), 0.001f);
+        }
+        Assert.assertEquals("Unexpected number of goals reached", expectedReached, reached);
+        Assert.assertTrue("Unexpected number of goals reached", reached > 0 && reached < goals.size);
+    }
+
+    @Test
+    public void searchGoals_WhenGoalConditionIsGiven_ExpectedGoalsInIncreasingCost() {
+        final MyGraph graph = createRandomGraph(new Random(4), 30, 30, 0);
+        final MultiTargetPathFinder<MyNode> pathfinder = new MultiTargetPathFinder<>(graph);
+        // Nodes on even rows and columns
+        final MultiTargetPathFinder.GoalCondition<MyNode> goalCondition = new MultiTargetPathFinder.GoalCondition<MyNode>() {
+            @Override
+            public boolean isGoal(MyNode node) {
+                return node.x % 2 == 0 && node.y % 2 == 0;
+            }
+
+            @Override
+            public float estimate(MyNode node) {
+                return (node.x % 2) + (node.y % 2);
+            }
+        };
+
+        final Array<MyNode> goals = new Array<>();
+        final FloatArray costs = new FloatArray();
+        final int found = pathfinder.searchGoals(graph.getNode(15, 15), goalCondition, 4, goals, costs);
+
+        // Goals within Manhattan distance 4 of (15, 15): 4 at distance 2 and 8 at distance 4
+        Assert.assertEquals("Unexpected number of goals", 12, found);
+        Assert.assertEquals("Unexpected number of goals", 12, goals.size);
+        for (int i = 0; i < found; i++) {
+            final MyNode goal = goals.get(i);
+            Assert.assertEquals("Unexpected cost", Math.abs(goal.x - 15) + Math.abs(goal.y - 15), costs.get(i), 0);
+            if (i > 0) Assert.assertTrue("Unexpected order", costs.get(i - 1) <= costs.get(i));
+        }
+
+        final GraphPath<MyNode> outPath = new DefaultGraphPath<>();
+        Assert.assertTrue("Unexpected search result", pathfinder.searchNodePath(graph.getNode(15, 15), goalCondition, outPath));
+        Assert.assertEquals("Unexpected path cost", 2, pathfinder.getPathCost(), 0);
+        Assert.assertEquals("Unexpected number of nodes in path", 3, outPath.getCount());
+    }
+
+    private static float cost(GraphPath<Connection<MyNode>> path) {
+        float cost = 0;
+        for (Connection<MyNode> connection : path)
+            cost += connection.getCost();
+        return cost;
+    }
+
+    private static MyGraph createRandomGraph(Random random, int width, int height, float obstacleDensity) {
+        final MyGraph graph = new MyGraph(width, height);
+        for (MyNode node : graph.nodes)
+            node.walkable = random.nextFloat() >= obstacleDensity;
+        return graph;
+    }
+
+    private static class MyNode {
+
+        final int index;
+        final int x;
+        final int y;
+        boolean walkable = true;
+        final Array<Connection<MyNode>> connections = new Array<>(4);
+
+        MyNode(int index, int x, int y) {
+            this.index = index;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * A 4-connected grid whose connections are lazily created according to the walkability of the tiles.
+     */
+    private static class MyGraph implements IndexedGraph<MyNode> {
+
+        final int width;
+        final int height;
+        final Array<MyNode> nodes;
+
+        MyGraph(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.nodes = new Array<>(width * height);
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    nodes.add(new MyNode(y * width + x, x, y));
+        }
+
+        MyNode getNode(int x, int y) {
+            return nodes.get(y * width + x);
+        }
+
+        MyNode getWalkableNode(int x, int y) {
+            if (x < 0 || y < 0 || x >= width || y >= height) return null;
+            MyNode node = getNode(x, y);
+            return node.walkable ? node : null;
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getConnections(MyNode fromNode) {
+            final Array<Connection<MyNode>> connections = fromNode.connections;
+            connections.clear();
+            if (!fromNode.walkable) return connections;
+            final MyNode[] neighbors = {getWalkableNode(fromNode.x - 1, fromNode.y), getWalkableNode(fromNode.x + 1, fromNode.y),
+                    getWalkableNode(fromNode.x, fromNode.y - 1), getWalkableNode(fromNode.x, fromNode.y + 1)};
+            for (MyNode neighbor : neighbors)
+                if (neighbor != null) connections.add(new DefaultConnection<>(fromNode, neighbor));
+            return connections;
+        }
+
+        @Override
+        public int getIndex(MyNode node) {
+            return node.index;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return nodes.size;
+        }
+    }
+
+    private static class ManhattanDistance implements Heuristic<MyNode> {
+        @Override
+        public float estimate(final MyNode node, final MyNode endNode) {
+            return Math.abs(endNode.x - node.x) + Math.abs(endNode.y - node.y);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultConnection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PrimitiveIndexedAStarPathFinderTest {
+
+    // @off - disable libgdx formatter
+    private static final String MAZE =
+            ".#.#.......#..#...............\n" +
+            ".#............#.....#..#####..\n" +
+            "...#.#######..#.....#.........\n" +
+            ".#.#.#........#.....########..\n" +
+            ".###.#....#####.....#......##.\n" +
+            ".#...#....#.........#...##....\n" +
+            ".#####....#.........#....#....\n" +
+            ".#........#.........#....#####\n" +
+            ".####....##.........#......#..\n" +
+            "....#...............#......#..";
+    // @on - enable libgdx formatter
+
+    @Test
+    public void searchNodePath_WhenSearchCanHitDeadEnds_ExpectedSamePathLengthAsIndexedAStar() {
+        final MyGraph graph = new MyGraph(MAZE);
+
+        final PrimitiveIndexedAStarPathFinder<MyNode> pathfinder = new PrimitiveIndexedAStarPathFinder<>(graph);
+        final IndexedAStarPathFinder<MyNode> reference = new IndexedAStarPathFinder<>(graph);
+
+        final GraphPath<MyNode> outPath = new DefaultGraphPath<>();
+        final GraphPath<MyNode> referencePath = new DefaultGraphPath<>();
+
+        final boolean searchResult = pathfinder.searchNodePath(graph.nodes.get(0), graph.nodes.get(212), new ManhattanDistance(),
+                outPath);
+        final boolean referenceResult = reference.searchNodePath(graph.nodes.get(0), graph.nodes.get(212), new ManhattanDistance(),
+                referencePath);
+
+        Assert.assertTrue("Unexpected search result", searchResult);
+        Assert.assertEquals("Unexpected search result", referenceResult, searchResult);
+        Assert.assertEquals("Unexpected number of nodes in path", 32, outPath.getCount());
+        Assert.assertEquals("Unexpected number of nodes in path", referencePath.getCount(), outPath.getCount());
+        Assert.assertSame("Unexpected first node", graph.nodes.get(0), outPath.get(0));
+        Assert.assertSame("Unexpected last node", graph.nodes.get(212), outPath.get(outPath.getCount() - 1));
+    }
+
+    @Test
+    public void searchConnectionPath_WhenSearchingAllPairs_ExpectedConnectedPathsWithSameCostAsIndexedAStar() {
+        final MyGraph graph = new MyGraph(MAZE);
+
+        final PrimitiveIndexedAStarPathFinder<MyNode> pathfinder = new PrimitiveIndexedAStarPathFinder<>(graph, true);
+        final IndexedAStarPathFinder<MyNode> reference = new IndexedAStarPathFinder<>(graph);
+
+        final GraphPath<Connection<MyNode>> outPath = new DefaultGraphPath<>();
+        final GraphPath<Connection<MyNode>> referencePath = new DefaultGraphPath<>();
+
+        for (int start = 0; start < graph.nodes.size; start += 7) {
+            for (int end = 0; end < graph.nodes.size; end += 11) {
+                outPath.clear();
+                referencePath.clear();
+                final MyNode startNode = graph.nodes.get(start);
+                final MyNode endNode = graph.nodes.get(end);
+                final boolean searchResult = pathfinder.searchConnectionPath(startNode, endNode, new ManhattanDistance(), outPath);
+                final boolean referenceResult = reference.searchConnectionPath(startNode, endNode, new ManhattanDistance(),
+                        referencePath);
+
+                Assert.assertEquals("Unexpected search result", referenceResult, searchResult);
+                if (!searchResult) continue;
+                Assert.assertEquals("Unexpected number of connections in path", referencePath.getCount(), outPath.getCount());
+
+                MyNode node = startNode;
+                for (Connection<MyNode> connection : outPath) {
+                    Assert.assertSame("Unexpected disconnected path", node, connection.getFromNode());
+                    node = connection.getToNode();
+                }
+                Assert.assertSame("Unexpected last node", endNode, node);
+            }
+        }
+    }
+
+    @Test
+    public void searchNodePath_WhenDestinationUnreachable_ExpectedNoOutputPathFound() {
+        // @off - disable libgdx formatter
+        final MyGraph graph = new MyGraph(
+                ".....#....\n" +
+                ".....#....\n" +
+                ".....#....");
+        // @on - enable libgdx formatter
+
+        final PrimitiveIndexedAStarPathFinder<MyNode> pathfinder = new PrimitiveIndexedAStarPathFinder<>(graph);
+
+        final GraphPath<MyNode> outPath = new DefaultGraphPath<>();
+
+        final boolean searchResult = pathfinder.searchNodePath(graph.nodes.get(0), graph.nodes.get(9), new ManhattanDistance(),
+                outPath);
+
+        Assert.assertFalse("Unexpected search result", searchResult);
+        Assert.assertEquals("Unexpected output path", 0, outPath.getCount());
+    }
+
+    private static class MyNode {
+
+        final int index;
+        final int x;
+        final int y;
+        final Array<Connection<MyNode>> connections = new Array<>(4);
+
+        MyNode(int index, int x, int y) {
+            this.index = index;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private static class MyGraph implements CompactIndexedGraph<MyNode> {
+
+        final Array<MyNode> nodes = new Array<>();
+
+        MyGraph(String drawing) {
+            final String[] rows = drawing.split("\n");
+            final int width = rows[0].length();
+            final int height = rows.length;
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    nodes.add(new MyNode(y * width + x, x, y));
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (rows[y].charAt(x) == '#') continue;
+                    final MyNode node = nodes.get(y * width + x);
+                    if (x > 0 && rows[y].charAt(x - 1) == '.') node.connections.add(new DefaultConnection<>(node, nodes.get(node.index - 1)));
+                    if (x < width - 1 && rows[y].charAt(x + 1) == '.') node.connections.add(new DefaultConnection<>(node, nodes.get(node.index + 1)));
+                    if (y > 0 && rows[y - 1].charAt(x) == '.') node.connections.add(new DefaultConnection<>(node, nodes.get(node.index - width)));
+                    if (y < height - 1 && rows[y + 1].charAt(x) == '.') node.connections.add(new DefaultConnection<>(node, nodes.get(node.index + width)));
+                }
+            }
+        }
+
+        @Override
+        public MyNode getNode(int index) {
+            return nodes.get(index);
+        }
+
+        @Override
+        public int getMaxNeighbors() {
+            return 4;
+        }
+
+        @Override
+        public int getNeighbors(int nodeIndex, int[] outNeighbors, float[] outCosts) {
+            final Array<Connection<MyNode>> connections = nodes.get(nodeIndex).connections;
+            for (int i = 0; i < connections.size; i++) {
+                outNeighbors[i] = connections.get(i).getToNode().index;
+                outCosts[i] = connections.get(i).getCost();
+            }
+            return connections.size;
+        }
+
+        @Override
+        public int getIndex(MyNode node) {
+            return node.index;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return nodes.size;
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getConnections(MyNode fromNode) {
+            return fromNode.connections;
+        }
+    }
+
+    private static class ManhattanDistance implements Heuristic<MyNode> {
+        @Override
+        public float estimate(final MyNode node, final MyNode endNode) {
+            return Math.abs(endNode.x - node.x) + Math.abs(endNode.y - node.y);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.ai.pfa.PathSmoother;
+import com.badlogic.gdx.ai.pfa.SmoothableGraphPath;
+import com.badlogic.gdx.ai.utils.Collision;
+import com.badlogic.gdx.ai.utils.Ray;
+import com.badlogic.gdx.ai.utils.RaycastCollisionDetector;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class ThetaStarPathFinderTest {
+
+    private static final float SQRT2 = (float) Math.sqrt(2);
+
+    @Test
+    public void searchNodePath_WhenMapIsOpen_ExpectedStraightLine() {
+        final MyGraph graph = new MyGraph(20, 10);
+        final ThetaStarPathFinder<MyNode, Vector2> pathfinder = new ThetaStarPathFinder<>(graph, graph, new MyDetector(graph));
+
+        final GraphPath<Connection<MyNode>> outPath = new DefaultGraphPath<>();
+        Assert.assertTrue("Unexpected search result",
+                pathfinder.searchConnectionPath(graph.getNode(0, 0), graph.getNode(17, 6), new EuclideanDistance(), outPath));
+
+        Assert.assertEquals("Unexpected number of connections", 1, outPath.getCount());
+        Assert.assertEquals("Unexpected path cost", Vector2.len(17, 6), outPath.get(0).getCost(), 0.001f);
+    }
+
+    @Test
+    public void searchNodePath_WhenMapHasObstacles_ExpectedPathsInLineOfSightAndNotLongerThanSmoothedAStar() {
+        final Random random = new Random(11);
+        float thetaStarCost = 0, smoothedCost = 0;
+        for (int map = 0; map < 10; map++) {
+            final MyGraph graph = new MyGraph(40, 30);
+            for (MyNode node : graph.nodes)
+                node.walkable = random.nextFloat() >= 0.1f + map * 0.02f;
+            final MyDetector detector = new MyDetector(graph);
+            final ThetaStarPathFinder<MyNode, Vector2> pathfinder = new ThetaStarPathFinder<>(graph, graph, detector);
+            final IndexedAStarPathFinder<MyNode> reference = new IndexedAStarPathFinder<>(graph);
+            final PathSmoother<MyNode, Vector2> smoother = new PathSmoother<>(detector);
+
+            final MyPath outPath = new MyPath();
+            final MyPath referencePath = new MyPath();
+            for (int i = 0; i < 20; i++) {
+                final MyNode startNode = graph.nodes.get(random.nextInt(graph.nodes.size));
+                final MyNode endNode = graph.nodes.get(random.nextInt(graph.nodes.size));
+                if (!startNode.walkable || !endNode.walkable) continue;
+
+                outPath.clear();
+                referencePath.clear();
+                final boolean found = pathfinder.searchNodePath(startNode, endNode, new EuclideanDistance(), outPath);
+                Assert.assertEquals("Unexpected search result",
+                        reference.searchNodePath(startNode, endNode, new EuclideanDistance(), referencePath), found);
+                if (!found) continue;
+
+                Assert.assertSame("Unexpected first node", startNode, outPath.get(0));
+                Assert.assertSame("Unexpected last node", endNode, outPath.get(outPath.getCount() - 1));
+                for (int j = 1; j < outPath.getCount(); j++)
+                    Assert.assertTrue("Unexpected blocked segment", detector.hasLineOfSight(outPath.get(j - 1), outPath.get(j)));
+                final float cost = length(outPath);
+                Assert.assertTrue("Unexpected path longer than grid path", cost <= length(referencePath) + 0.001f);
+
+                smoother.smoothPath(referencePath);
+                thetaStarCost += cost;
+                smoothedCost += length(referencePath);
+            }
+        }
+        Assert.assertTrue("Unexpected total cost", thetaStarCost <= smoothedCost);
+    }
+
+    @Test
+    public void searchNodePath_WhenLineOfSightIsTestedRepeatedly_ExpectedEachPairRaycastOnce() {
+        final MyGraph graph = new MyGraph(30, 30);
+        final Random random = new Random(3);
+        for (MyNode node : graph.nodes)
+            node.walkable = random.nextFloat() >= 0.2f;
+        graph.getNode(0, 0).walkable = true;
+        graph.getNode(29, 29).walkable = true;
+        final MyDetector detector = new MyDetector(graph);
+        final ThetaStarPathFinder<MyNode, Vector2> pathfinder = new ThetaStarPathFinder<>(graph, graph, detector);
+
+        for (int i = 0; i < 2; i++) {
+            detector.raycastPairs.clear();
+            pathfinder.searchNodePath(graph.getNode(0, 0), graph.getNode(29, 29), new EuclideanDistance(),
+                    new DefaultGraphPath<MyNode>());
+            Assert.assertEquals("Unexpected repeated raycasts", detector.raycastPairs.size(), detector.raycasts);
+            detector.raycasts = 0;
+        }
+    }
+
+    @Test
+    public void search_WhenTimeSliced_ExpectedSamePathAsNonInterruptibleSearch() {
+        final MyGraph graph = new MyGraph(30, 20);
+        final Random random = new Random(5);
+        for (MyNode node : graph.nodes)
+            node.walkable = random.nextFloat() >= 0.25f;
+        final MyNode startNode = graph.getNode(0, 0);
+        final MyNode endNode = graph.getNode(29, 19);
+        startNode.walkable = true;
+        endNode.walkable = true;
+        final ThetaStarPathFinder<MyNode, Vector2> pathfinder = new ThetaStarPathFinder<>(graph, graph, new MyDetector(graph));
+
+        final GraphPath<MyNode> outPath = new DefaultGraphPath<>();
+        final boolean searchResult = pathfinder.searchNodePath(startNode, endNode, new EuclideanDistance(), outPath);
+
+        final PathFinderRequest<MyNode> request = new PathFinderRequest<>(startNode, endNode, new EuclideanDistance(),
+                new DefaultGraphPath<MyNode>(), null);
+        request.statusChanged = true;
+        while (!pathfinder.search(request, 20000L)) {
+        }
+
+        Assert.assertEquals("Unexpected search result", searchResult, request.pathFound);
+        Assert.assertEquals("Unexpected number of nodes in path", outPath.getCount(), request.resultPath.getCount());
+        for (int i = 0; i < outPath.getCount(); i++)
+            Assert.assertSame("Unexpected node", outPath.get(i), request.resultPath.get(i));
+    }
+
+    private static float length(GraphPath<MyNode> path) {
+        float length = 0;
+        for (int i = 1; i < path.getCount(); i++)
+            length += Vector2.dst(path.get(i - 1).x, path.get(i - 1).y, path.get(i).x, path.get(i).y);
+        return length;
+    }
+
+    private static class MyNode {
+
+        final int index;
+        final int x;
+        final int y;
+        boolean walkable = true;
+        final Array<Connection<MyNode>> connections = new Array<>(8);
+
+        MyNode(int index, int x, int y) {
+            this.index = index;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private static class MyConnection implements Connection<MyNode> {
+
+        final MyNode fromNode;
+        final MyNode toNode;
+
+        MyConnection(MyNode fromNode, MyNode toNode) {
+            this.fromNode = fromNode;
+            this.toNode = toNode;
+        }
+
+        @Override
+        public float getCost() {
+            return fromNode.x != toNode.x && fromNode.y != toNode.y ? SQRT2 : 1;
+        }
+
+        @Override
+        public MyNode getFromNode() {
+            return fromNode;
+        }
+
+        @Override
+        public MyNode getToNode() {
+            return toNode;
+        }
+    }
+
+    private static class MyPath extends DefaultGraphPath<MyNode> implements SmoothableGraphPath<MyNode, Vector2> {
+
+        private final Vector2 position = new Vector2();
+
+        @Override
+        public Vector2 getNodePosition(int index) {
+            final MyNode node = nodes.get(index);
+            return position.set(node.x, node.y);
+        }
+
+        @Override
+        public void swapNodes(int index1, int index2) {
+            nodes.set(index1, nodes.get(index2));
+        }
+
+        @Override
+        public void truncatePath(int newLength) {
+            nodes.truncate(newLength);
+        }
+    }
+
+    /**
+     * An 8-connected grid whose nodes are located at the center of their tiles. Diagonal moves can't cut corners.
+     */
+    private static class MyGraph implements IndexedGraph<MyNode>, ThetaStarPathFinder.NodeLocator<MyNode, Vector2> {
+
+        final int width;
+        final int height;
+        final Array<MyNode> nodes;
+        final Vector2 position = new Vector2();
+
+        MyGraph(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.nodes = new Array<>(width * height);
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    nodes.add(new MyNode(y * width + x, x, y));
+        }
+
+        MyNode getNode(int x, int y) {
+            return nodes.get(y * width + x);
+        }
+
+        boolean isWalkable(int x, int y) {
+            return x >= 0 && y >= 0 && x < width && y < height && getNode(x, y).walkable;
+        }
+
+        @Override
+        public Array<Connection<MyNode>> getConnections(MyNode fromNode) {
+            final Array<Connection<MyNode>> connections = fromNode.connections;
+            connections.clear();
+            if (!fromNode.walkable) return connections;
+            final int x = fromNode.x, y = fromNode.y;
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    if ((dx == 0 && dy == 0) || !isWalkable(x + dx, y + dy)) continue;
+                    if (dx != 0 && dy != 0 && (!isWalkable(x + dx, y) || !isWalkable(x, y + dy))) continue;
+                    connections.add(new MyConnection(fromNode, getNode(x + dx, y + dy)));
+                }
+            }
+            return connections;
+        }
+
+        @Override
+        public Vector2 getNodePosition(MyNode node) {
+            return position.set(node.x, node.y);
+        }
+
+        @Override
+        public int getIndex(MyNode node) {
+            return node.index;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return nodes.size;
+        }
+    }
+
+    /**
+     * Samples the ray densely, so that rays touching the corner of a blocked tile collide with it, and counts the raycasts.
+     */
+    private static class MyDetector implements RaycastCollisionDetector<Vector2> {
+
+        final MyGraph graph;
+        final Set<Long> raycastPairs = new HashSet<>();
+        int raycasts;
+
+        MyDetector(MyGraph graph) {
+            this.graph = graph;
+        }
+
+        boolean hasLineOfSight(MyNode a, MyNode b) {
+            return !collides(new Ray<>(new Vector2(a.x, a.y), new Vector2(b.x, b.y)));
+        }
+
+        @Override
+        public boolean collides(Ray<Vector2> ray) {
+            raycasts++;
+            final long a = ((long) ray.start.x * 1000 + (long) ray.start.y), b = ((long) ray.end.x * 1000 + (long) ray.end.y);
+            raycastPairs.add(Math.min(a, b) * 1000000 + Math.max(a, b));
+            final int steps = (int) (ray.start.dst(ray.end) * 20) + 1;
+            for (int i = 0; i <= steps; i++) {
+                final float x = ray.start.x + (ray.end.x - ray.start.x) * i / steps;
+                final float y = ray.start.y + (ray.end.y - ray.start.y) * i / steps;
+                // Test the tiles around the sample, so that touching a corner counts as a collision
+                for (int dx = -1; dx <= 1; dx += 2)
+                    for (int dy = -1; dy <= 1; dy += 2)
+                        if (!graph.isWalkable(Math.round(x + dx * 0.49f), Math.round(y + dy * 0.49f))) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean findCollision(Collision<Vector2> outputCollision, Ray<Vector2> inputRay) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class EuclideanDistance implements Heuristic<MyNode> {
+        @Override
+        public float estimate(final MyNode node, final MyNode endNode) {
+            return Vector2.dst(node.x, node.y, endNode.x, endNode.y);
+        }
+    }
+}
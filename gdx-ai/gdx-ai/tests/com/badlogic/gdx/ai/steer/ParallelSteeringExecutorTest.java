@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.ai.steer;
+
+import com.badlogic.gdx.ai.DefaultTimepiece;
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.steer.ParallelSteeringExecutor.SteeringApplier;
+import com.badlogic.gdx.ai.steer.behaviors.Alignment;
+import com.badlogic.gdx.ai.steer.behaviors.BlendedSteering;
+import com.badlogic.gdx.ai.steer.behaviors.PrioritySteering;
+import com.badlogic.gdx.ai.steer.behaviors.Seek;
+import com.badlogic.gdx.ai.steer.behaviors.Separation;
+import com.badlogic.gdx.ai.steer.proximities.SpatialHashGrid;
+import com.badlogic.gdx.ai.steer.proximities.SpatialHashProximity;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelSteeringExecutorTest {
+
+    private static final SteeringApplier<Vector2> APPLIER = new SteeringApplier<Vector2>() {
+        @Override
+        public void applySteering(Steerable<Vector2> agent, SteeringAcceleration<Vector2> steering, float deltaTime) {
+            final MyAgent myAgent = (MyAgent)agent;
+            myAgent.position.mulAdd(myAgent.linearVelocity, deltaTime);
+            myAgent.linearVelocity.mulAdd(steering.linear, deltaTime).limit(myAgent.getMaxLinearSpeed());
+        }
+    };
+
+    @Test
+    public void update_WhenEvaluatedOnPool_ExpectedSameKinematicsAsSerialRun() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final World serial = new World(new ParallelSteeringExecutor<Vector2>(null), 600, 3);
+            final World parallel = new World(new ParallelSteeringExecutor<Vector2>(pool, 16), 600, 3);
+
+            for (int frame = 0; frame < 10; frame++) {
+                GdxAI.getTimepiece().update(0.1f);
+                serial.step(0.1f);
+                parallel.step(0.1f);
+            }
+
+            for (int i = 0; i < serial.agents.size; i++) {
+                final MyAgent expected = serial.agents.get(i);
+                final MyAgent actual = parallel.agents.get(i);
+                Assert.assertEquals("Unexpected position x", expected.position.x, actual.position.x, 0);
+                Assert.assertEquals("Unexpected position y", expected.position.y, actual.position.y, 0);
+                Assert.assertEquals("Unexpected velocity x", expected.linearVelocity.x, actual.linearVelocity.x, 0);
+                Assert.assertEquals("Unexpected velocity y", expected.linearVelocity.y, actual.linearVelocity.y, 0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void calculateSteering_WhenAgentsAreNotModified_ExpectedOutputsOfEachBehavior() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        GdxAI.getTimepiece().update(0.1f);
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final World world = new World(new ParallelSteeringExecutor<Vector2>(pool, 8), 100, 5);
+            world.grid.update();
+            world.executor.calculateSteering();
+
+            final SteeringAcceleration<Vector2> expected = new SteeringAcceleration<>(new Vector2());
+            for (int i = 0; i < world.executor.size(); i++) {
+                world.executor.behaviors.get(i).calculateSteering(expected);
+                Assert.assertEquals("Unexpected linear x", expected.linear.x, world.executor.getSteering(i).linear.x, 0);
+                Assert.assertEquals("Unexpected linear y", expected.linear.y, world.executor.getSteering(i).linear.y, 0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static class World {
+
+        final ParallelSteeringExecutor<Vector2> executor;
+        final Array<MyAgent> agents;
+        final SpatialHashGrid<Vector2> grid;
+
+        World(ParallelSteeringExecutor<Vector2> executor, int agentCount, long seed) {
+            final Random random = new Random(seed);
+            final MyAgent target = new MyAgent(new Vector2());
+            this.executor = executor;
+            this.agents = new Array<>();
+            for (int i = 0; i < agentCount; i++)
+                agents.add(new MyAgent(new Vector2(random.nextFloat() * 80 - 40, random.nextFloat() * 80 - 40)));
+            this.grid = new SpatialHashGrid<>(agents, 4);
+
+            for (MyAgent agent : agents) {
+                final SpatialHashProximity<Vector2> proximity = new SpatialHashProximity<>(agent, grid, 3);
+                final BlendedSteering<Vector2> flocking = new BlendedSteering<>(agent)
+                        .add(new Separation<>(agent, proximity), 2)
+                        .add(new Alignment<>(agent, proximity), 0.5f)
+                        .add(new Seek<>(agent, target), 0.3f);
+                final PrioritySteering<Vector2> behavior = new PrioritySteering<>(agent, 0.01f)
+                        .add(flocking)
+                        .add(new Seek<>(agent, target));
+                executor.add(agent, behavior);
+            }
+        }
+
+        void step(float deltaTime) {
+            grid.update();
+            executor.update(APPLIER, deltaTime);
+        }
+    }
+
+    private static class MyAgent extends SteerableAdapter<Vector2> {
+
+        final Vector2 position;
+        final Vector2 linearVelocity;
+
+        MyAgent(Vector2 position) {
+            this.position = position;
+            this.linearVelocity = new Vector2();
+        }
+
+        @Override
+        public Vector2 getPosition() {
+            return position;
+        }
+
+        @Override
+        public Vector2 getLinearVelocity() {
+            return linearVelocity;
+        }
+
+        @Override
+        public float getBoundingRadius() {
+            return 0.5f;
+        }
+
+        @Override
+        public float getMaxLinearSpeed() {
+            return 4;
+        }
+
+        @Override
+        public float getMaxLinearAcceleration() {
+            return 10;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.ai.steer.batch;
+
+import com.badlogic.gdx.ai.DefaultTimepiece;
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.steer.SteerableAdapter;
+import com.badlogic.gdx.ai.steer.SteeringAcceleration;
+import com.badlogic.gdx.ai.steer.SteeringBehavior;
+import com.badlogic.gdx.ai.steer.behaviors.Alignment;
+import com.badlogic.gdx.ai.steer.behaviors.Arrive;
+import com.badlogic.gdx.ai.steer.behaviors.BlendedSteering;
+import com.badlogic.gdx.ai.steer.behaviors.Cohesion;
+import com.badlogic.gdx.ai.steer.behaviors.Flee;
+import com.badlogic.gdx.ai.steer.behaviors.Seek;
+import com.badlogic.gdx.ai.steer.behaviors.Separation;
+import com.badlogic.gdx.ai.steer.behaviors.Wander;
+import com.badlogic.gdx.ai.steer.proximities.RadiusProximity;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SteeringBatchTest {
+
+    private static final int AGENT_COUNT = 200;
+    private static final float RADIUS = 6;
+
+    @Test
+    public void seekFleeArrive_WhenTargetsAreRandom_ExpectedSameSteeringAsBehaviors() {
+        final Array<MyAgent> agents = createAgents(1);
+        final Array<MyAgent> targets = createAgents(2);
+        final SteeringBatch batch = createBatch(agents);
+        final float[] targetX = new float[AGENT_COUNT], targetY = new float[AGENT_COUNT];
+        for (int i = 0; i < AGENT_COUNT; i++) {
+            targetX[i] = targets.get(i).position.x;
+            targetY[i] = targets.get(i).position.y;
+        }
+
+        batch.clearSteering();
+        batch.seek(targetX, targetY, 1);
+        for (int i = 0; i < AGENT_COUNT; i++)
+            assertSameSteering(new Seek<>(agents.get(i), targets.get(i)), batch, i);
+
+        batch.clearSteering();
+        batch.flee(targetX, targetY, 1);
+        for (int i = 0; i < AGENT_COUNT; i++)
+            assertSameSteering(new Flee<>(agents.get(i), targets.get(i)), batch, i);
+
+        batch.clearSteering();
+        batch.arrive(targetX, targetY, 0.5f, 30, 0.2f, 1);
+        for (int i = 0; i < AGENT_COUNT; i++)
+            assertSameSteering(new Arrive<>(agents.get(i), targets.get(i)).setArrivalTolerance(0.5f).setDecelerationRadius(30)
+                    .setTimeToTarget(0.2f), batch, i);
+    }
+
+    @Test
+    public void groupBehaviors_WhenNeighborsAreFound_ExpectedSameSteeringAsBehaviorsWithRadiusProximity() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        GdxAI.getTimepiece().update(0.1f);
+        final Array<MyAgent> agents = createAgents(3);
+        final SteeringBatch batch = createBatch(agents);
+        batch.findNeighbors(RADIUS);
+
+        batch.clearSteering();
+        batch.separation(50, 1);
+        for (int i = 0; i < AGENT_COUNT; i++)
+            assertSameSteering(new Separation<>(agents.get(i), new RadiusProximity<>(agents.get(i), agents, RADIUS))
+                    .setDecayCoefficient(50), batch, i);
+
+        batch.clearSteering();
+        batch.cohesion(1);
+        for (int i = 0; i < AGENT_COUNT; i++)
+            assertSameSteering(new Cohesion<>(agents.get(i), new RadiusProximity<>(agents.get(i), agents, RADIUS)), batch, i);
+
+        batch.clearSteering();
+        batch.alignment(1);
+        for (int i = 0; i < AGENT_COUNT; i++)
+            assertSameSteering(new Alignment<>(agents.get(i), new RadiusProximity<>(agents.get(i), agents, RADIUS)), batch, i);
+    }
+
+    @Test
+    public void wander_WhenRunForSeveralFrames_ExpectedSameSteeringAsBehaviors() {
+        final Array<MyAgent> agents = createAgents(4);
+        final Array<Wander<Vector2>> wanders = new Array<>();
+        for (MyAgent agent : agents)
+            wanders.add(new Wander<>(agent).setWanderOffset(3).setWanderRadius(2).setWanderRate(4));
+        final SteeringBatch batch = createBatch(agents);
+        final SteeringAcceleration<Vector2> steering = new SteeringAcceleration<>(new Vector2());
+
+        // Both run the same frames with the same random numbers
+        final Array<Vector2> expected = new Array<>();
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        MathUtils.random.setSeed(42);
+        for (int frame = 0; frame < 3; frame++) {
+            GdxAI.getTimepiece().update(0.1f);
+            for (Wander<Vector2> wander : wanders)
+                expected.add(wander.calculateSteering(steering).linear.cpy());
+        }
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        MathUtils.random.setSeed(42);
+        for (int frame = 0; frame < 3; frame++) {
+            GdxAI.getTimepiece().update(0.1f);
+            batch.clearSteering();
+            batch.wander(3, 2, 4, 1);
+            for (int i = 0; i < AGENT_COUNT; i++) {
+                Assert.assertEquals("Unexpected linear x", expected.get(frame * AGENT_COUNT + i).x, batch.linearX[i], 0);
+                Assert.assertEquals("Unexpected linear y", expected.get(frame * AGENT_COUNT + i).y, batch.linearY[i], 0);
+            }
+        }
+    }
+
+    @Test
+    public void blendedSteering_WhenCombiningBehaviors_ExpectedSameSteeringAsBlendedSteering() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        GdxAI.getTimepiece().update(0.1f);
+        final Array<MyAgent> agents = createAgents(5);
+        final Array<MyAgent> targets = createAgents(6);
+        final SteeringBatch batch = createBatch(agents);
+        final float[] targetX = new float[AGENT_COUNT], targetY = new float[AGENT_COUNT];
+        for (int i = 0; i < AGENT_COUNT; i++) {
+            targetX[i] = targets.get(i).position.x;
+            targetY[i] = targets.get(i).position.y;
+        }
+
+        batch.clearSteering();
+        batch.findNeighbors(RADIUS);
+        batch.seek(targetX, targetY, 0.5f);
+        batch.separation(80, 3);
+        batch.arrive(targetX, targetY, 0.1f, 20, 0.5f, 1.5f);
+        batch.limitSteering();
+
+        for (int i = 0; i < AGENT_COUNT; i++) {
+            final MyAgent agent = agents.get(i);
+            final BlendedSteering<Vector2> blended = new BlendedSteering<>(agent)
+                    .add(new Seek<>(agent, targets.get(i)), 0.5f)
+                    .add(new Separation<>(agent, new RadiusProximity<>(agent, agents, RADIUS)).setDecayCoefficient(80), 3)
+                    .add(new Arrive<>(agent, targets.get(i)).setArrivalTolerance(0.1f).setDecelerationRadius(20).setTimeToTarget(0.5f),
+                            1.5f);
+            assertSameSteering(blended, batch, i);
+        }
+    }
+
+    @Test
+    public void findNeighbors_WhenAgentsAreFarApart_ExpectedSameNeighborsAsBruteForce() {
+        final SteeringBatch batch = new SteeringBatch(4);
+        final Random random = new Random(8);
+        for (int i = 0; i < 500; i++) {
+            // A few agents very far away make the grid coarse
+            final float spread = i % 100 == 0 ? 1e6f : 100;
+            batch.add(random.nextFloat() * spread, random.nextFloat() * spread, random.nextFloat(), 1, 1);
+        }
+
+        batch.findNeighbors(RADIUS);
+
+        for (int i = 0; i < batch.size; i++) {
+            int n = 0;
+            for (int j = 0; j < batch.size; j++) {
+                if (j == i) continue;
+                final float dx = batch.positionX[j] - batch.positionX[i], dy = batch.positionY[j] - batch.positionY[i];
+                final float range = RADIUS + batch.boundingRadius[j];
+                if (dx * dx + dy * dy < range * range)
+                    Assert.assertEquals("Unexpected neighbor", j, batch.getNeighbor(i, n++));
+            }
+            Assert.assertEquals("Unexpected neighbor count", n, batch.getNeighborCount(i));
+        }
+    }
+
+    private static void assertSameSteering(SteeringBehavior<Vector2> behavior, SteeringBatch batch, int index) {
+        final SteeringAcceleration<Vector2> steering = behavior.calculateSteering(new SteeringAcceleration<>(new Vector2()));
+        Assert.assertEquals("Unexpected linear x", steering.linear.x, batch.linearX[index], 0);
+        Assert.assertEquals("Unexpected linear y", steering.linear.y, batch.linearY[index], 0);
+    }
+
+    private static Array<MyAgent> createAgents(long seed) {
+        final Random random = new Random(seed);
+        final Array<MyAgent> agents = new Array<>();
+        for (int i = 0; i < AGENT_COUNT; i++) {
+            final MyAgent agent = new MyAgent();
+            agent.position.set(random.nextFloat() * 60, random.nextFloat() * 60);
+            agent.linearVelocity.set(random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2);
+            agent.orientation = random.nextFloat() * 6.28f;
+            agent.boundingRadius = random.nextFloat();
+            agent.maxLinearSpeed = 3 + random.nextFloat() * 3;
+            agent.maxLinearAcceleration = 10 + random.nextFloat() * 10;
+            agents.add(agent);
+        }
+        return agents;
+    }
+
+    private static SteeringBatch createBatch(Array<MyAgent> agents) {
+        final SteeringBatch batch = new SteeringBatch(16);
+        for (MyAgent agent : agents)
+            batch.add(agent);
+        return batch;
+    }
+
+    private static class MyAgent extends SteerableAdapter<Vector2> {
+
+        final Vector2 position = new Vector2();
+        final Vector2 linearVelocity = new Vector2();
+        float orientation;
+        float boundingRadius;
+        float maxLinearSpeed;
+        float maxLinearAcceleration;
+
+        @Override
+        public Vector2 getPosition() {
+            return position;
+        }
+
+        @Override
+        public Vector2 getLinearVelocity() {
+            return linearVelocity;
+        }
+
+        @Override
+        public float getOrientation() {
+            return orientation;
+        }
+
+        @Override
+        public float getBoundingRadius() {
+            return boundingRadius;
+        }
+
+        @Override
+        public float getMaxLinearSpeed() {
+            return maxLinearSpeed;
+        }
+
+        @Override
+        public float getMaxLinearAcceleration() {
+            return maxLinearAcceleration;
+        }
+
+        @Override
+        public float getMaxAngularAcceleration() {
+            return Float.MAX_VALUE;
+        }
+
+        @Override
+        public Vector2 angleToVector(Vector2 outVector, float angle) {
+            return outVector.set(-(float)Math.sin(angle), (float)Math.cos(angle));
+        }
+    }
+}
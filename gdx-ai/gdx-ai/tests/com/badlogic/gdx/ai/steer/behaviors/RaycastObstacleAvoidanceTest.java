@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.ai.steer.behaviors;
+
+import com.badlogic.gdx.ai.steer.SteerableAdapter;
+import com.badlogic.gdx.ai.steer.SteeringAcceleration;
+import com.badlogic.gdx.ai.steer.utils.rays.CentralRayWithWhiskersConfiguration;
+import com.badlogic.gdx.ai.utils.RaycastBatch;
+import com.badlogic.gdx.ai.utils.SegmentBvhCollisionDetector;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RaycastObstacleAvoidanceTest {
+
+    @Test
+    public void calculateSteering_WhenRaysAreSubmittedToBatch_ExpectedSameSteeringAsPerRayCasts() {
+        final Random random = new Random(31);
+        final float[] walls = new float[400 * 4];
+        for (int i = 0; i < walls.length; i += 4) {
+            walls[i] = random.nextFloat() * 100;
+            walls[i + 1] = random.nextFloat() * 100;
+            walls[i + 2] = walls[i] + random.nextFloat() * 10 - 5;
+            walls[i + 3] = walls[i + 1] + random.nextFloat() * 10 - 5;
+        }
+        final SegmentBvhCollisionDetector detector = new SegmentBvhCollisionDetector(walls);
+        final RaycastBatch<Vector2> batch = new RaycastBatch<>(detector);
+
+        final Array<RaycastObstacleAvoidance<Vector2>> behaviors = new Array<>();
+        for (int i = 0; i < 200; i++) {
+            final MyAgent agent = new MyAgent(new Vector2(random.nextFloat() * 100, random.nextFloat() * 100),
+                    new Vector2(random.nextFloat() * 2 - 1, random.nextFloat() * 2 - 1));
+            behaviors.add(new RaycastObstacleAvoidance<>(agent, new CentralRayWithWhiskersConfiguration<>(agent, 6, 3, 0.6f),
+                    detector, 1));
+        }
+
+        final SteeringAcceleration<Vector2> expected = new SteeringAcceleration<>(new Vector2());
+        final SteeringAcceleration<Vector2> actual = new SteeringAcceleration<>(new Vector2());
+        int avoidingCount = 0;
+        for (int frame = 0; frame < 2; frame++) {
+            batch.clear();
+            for (RaycastObstacleAvoidance<Vector2> behavior : behaviors)
+                behavior.submitRays(batch);
+            batch.cast();
+            Assert.assertEquals("Unexpected batch size", behaviors.size * 3, batch.size());
+
+            for (RaycastObstacleAvoidance<Vector2> behavior : behaviors) {
+                behavior.calculateSteering(actual);
+                // Without submitted rays the behavior casts them through the detector
+                behavior.calculateSteering(expected);
+                Assert.assertEquals("Unexpected linear x", expected.linear.x, actual.linear.x, 0);
+                Assert.assertEquals("Unexpected linear y", expected.linear.y, actual.linear.y, 0);
+                if (!actual.linear.isZero()) avoidingCount++;
+            }
+        }
+        Assert.assertTrue("Unexpected avoiding count " + avoidingCount, avoidingCount > 20);
+    }
+
+    @Test
+    public void calculateSteering_WhenBatchClearedSinceSubmission_ExpectedPerRayCasts() {
+        final float[] walls = {10, -5, 10, 5, -10, -5, -10, 5};
+        final SegmentBvhCollisionDetector detector = new SegmentBvhCollisionDetector(walls);
+        final RaycastBatch<Vector2> batch = new RaycastBatch<>(detector);
+        final MyAgent agent = new MyAgent(new Vector2(7, 0), new Vector2(1, 0));
+        final RaycastObstacleAvoidance<Vector2> behavior = new RaycastObstacleAvoidance<>(agent,
+                new CentralRayWithWhiskersConfiguration<>(agent, 6, 3, 0.6f), detector, 1);
+        final MyAgent otherAgent = new MyAgent(new Vector2(-7, 0), new Vector2(-1, 0));
+        final RaycastObstacleAvoidance<Vector2> otherBehavior = new RaycastObstacleAvoidance<>(otherAgent,
+                new CentralRayWithWhiskersConfiguration<>(otherAgent, 6, 3, 0.6f), detector, 1);
+
+        // The rays are submitted but the steering is not calculated on this frame
+        batch.clear();
+        behavior.submitRays(batch);
+        batch.cast();
+
+        // On the next frame only the other agent submits its rays, taking the same indices
+        batch.clear();
+        otherBehavior.submitRays(batch);
+        batch.cast();
+
+        final SteeringAcceleration<Vector2> steering = new SteeringAcceleration<>(new Vector2());
+        behavior.calculateSteering(steering);
+        Assert.assertTrue("Unexpected steering from the collision of the other agent " + steering.linear, steering.linear.x > 0);
+        final SteeringAcceleration<Vector2> expected = new SteeringAcceleration<>(new Vector2());
+        behavior.calculateSteering(expected);
+        Assert.assertEquals("Unexpected linear x", expected.linear.x, steering.linear.x, 0);
+        Assert.assertEquals("Unexpected linear y", expected.linear.y, steering.linear.y, 0);
+    }
+
+    private static class MyAgent extends SteerableAdapter<Vector2> {
+
+        final Vector2 position;
+        final Vector2 linearVelocity;
+
+        MyAgent(Vector2 position, Vector2 linearVelocity) {
+            this.position = position;
+            this.linearVelocity = linearVelocity;
+        }
+
+        @Override
+        public Vector2 getPosition() {
+            return position;
+        }
+
+        @Override
+        public Vector2 getLinearVelocity() {
+            return linearVelocity;
+        }
+
+        @Override
+        public float getMaxLinearAcceleration() {
+            return 10;
+        }
+
+        @Override
+        public float vectorToAngle(Vector2 vector) {
+            return (float)Math.atan2(-vector.x, vector.y);
+        }
+
+        @Override
+        public Vector2 angleToVector(Vector2 outVector, float angle) {
+            return outVector.set(-(float)Math.sin(angle), (float)Math.cos(angle));
+        }
+    }
+}
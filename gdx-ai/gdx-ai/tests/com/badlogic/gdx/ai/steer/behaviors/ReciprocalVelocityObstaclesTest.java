@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.ai.steer.behaviors;
+
+import com.badlogic.gdx.ai.DefaultTimepiece;
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.steer.SteerableAdapter;
+import com.badlogic.gdx.ai.steer.SteeringAcceleration;
+import com.badlogic.gdx.ai.steer.proximities.RadiusProximity;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReciprocalVelocityObstaclesTest {
+
+    private static final float DELTA_TIME = 0.05f;
+
+    @Test
+    public void calculateSteering_WhenCrowdsCross_ExpectedNoCollisionAndGoalsReached() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        final Array<MyAgent> agents = new Array<>();
+        for (int i = 0; i < 20; i++) {
+            // Two interleaved columns of agents walking towards each other
+            final float x = i % 2 == 0 ? -10 : 10;
+            final float y = (i / 2) * 1.5f + (i % 2) * 0.75f;
+            agents.add(new MyAgent(new Vector2(x, y), new Vector2(-x, y)));
+        }
+        final Array<ReciprocalVelocityObstacles> behaviors = new Array<>();
+        for (MyAgent agent : agents)
+            behaviors.add(new ReciprocalVelocityObstacles(agent, new RadiusProximity<>(agent, agents, 5), 10, 2)
+                    .setPreferredVelocity(agent.preferredVelocity));
+
+        final SteeringAcceleration<Vector2> steering = new SteeringAcceleration<>(new Vector2());
+        float smallestDistance = Float.POSITIVE_INFINITY;
+        for (int frame = 0; frame < 400; frame++) {
+            GdxAI.getTimepiece().update(DELTA_TIME);
+            for (MyAgent agent : agents)
+                agent.updatePreferredVelocity();
+            for (int i = 0; i < agents.size; i++) {
+                behaviors.get(i).calculateSteering(steering);
+                agents.get(i).nextVelocity.set(agents.get(i).linearVelocity).mulAdd(steering.linear, DELTA_TIME)
+                        .limit(agents.get(i).getMaxLinearSpeed());
+            }
+            for (MyAgent agent : agents) {
+                agent.linearVelocity.set(agent.nextVelocity);
+                agent.position.mulAdd(agent.linearVelocity, DELTA_TIME);
+            }
+            for (int i = 0; i < agents.size; i++)
+                for (int j = i + 1; j < agents.size; j++)
+                    smallestDistance = Math.min(smallestDistance, agents.get(i).position.dst(agents.get(j).position));
+        }
+
+        Assert.assertTrue("Unexpected collision, smallest distance " + smallestDistance, smallestDistance > 0.9f);
+        for (MyAgent agent : agents)
+            Assert.assertTrue("Unexpected distance to goal", agent.position.dst(agent.goal) < 0.1f);
+    }
+
+    @Test
+    public void calculateSteering_WhenNeighborsAreMoreThanMaximum_ExpectedOnlyClosestKept() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        GdxAI.getTimepiece().update(DELTA_TIME);
+        final Array<MyAgent> agents = new Array<>();
+        for (int i = 0; i < 6; i++)
+            agents.add(new MyAgent(new Vector2(i * 2, 0), new Vector2()));
+        final ReciprocalVelocityObstacles behavior = new ReciprocalVelocityObstacles(agents.get(0),
+                new RadiusProximity<>(agents.get(0), agents, 100), 2, 2);
+
+        for (int i = 1; i < agents.size; i++)
+            Assert.assertEquals("Unexpected neighbor acceptance", i <= 2, behavior.reportNeighbor(agents.get(i)));
+        Assert.assertTrue("Unexpected neighbor acceptance", behavior.reportNeighbor(new MyAgent(new Vector2(1, 0), new Vector2())));
+
+        // Agents standing still far apart need no steering
+        final SteeringAcceleration<Vector2> steering = new SteeringAcceleration<>(new Vector2());
+        behavior.calculateSteering(steering);
+        Assert.assertEquals("Unexpected linear x", 0, steering.linear.x, 0);
+        Assert.assertEquals("Unexpected linear y", 0, steering.linear.y, 0);
+    }
+
+    @Test
+    public void calculateSteering_WhenHeadOnCollision_ExpectedAvoidanceAcceleration() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        GdxAI.getTimepiece().update(DELTA_TIME);
+        final Array<MyAgent> agents = new Array<>();
+        agents.add(new MyAgent(new Vector2(0, 0), new Vector2()));
+        agents.add(new MyAgent(new Vector2(4, 0), new Vector2()));
+        agents.get(0).linearVelocity.set(1, 0);
+        agents.get(1).linearVelocity.set(-1, 0);
+        final ReciprocalVelocityObstacles behavior = new ReciprocalVelocityObstacles(agents.get(0),
+                new RadiusProximity<>(agents.get(0), agents, 10));
+
+        final SteeringAcceleration<Vector2> steering = new SteeringAcceleration<>(new Vector2());
+        behavior.calculateSteering(steering);
+
+        Assert.assertTrue("Unexpected sideways acceleration " + steering.linear, steering.linear.y != 0);
+        Assert.assertTrue("Unexpected forward acceleration " + steering.linear, steering.linear.x <= 0);
+        Assert.assertEquals("Unexpected angular", 0, steering.angular, 0);
+    }
+
+    private static class MyAgent extends SteerableAdapter<Vector2> {
+
+        final Vector2 position;
+        final Vector2 goal;
+        final Vector2 linearVelocity;
+        final Vector2 nextVelocity;
+        final Vector2 preferredVelocity;
+
+        MyAgent(Vector2 position, Vector2 goal) {
+            this.position = position;
+            this.goal = goal;
+            this.linearVelocity = new Vector2();
+            this.nextVelocity = new Vector2();
+            this.preferredVelocity = new Vector2();
+        }
+
+        void updatePreferredVelocity() {
+            preferredVelocity.set(goal).sub(position);
+            if (preferredVelocity.len2() > 1) preferredVelocity.nor();
+            preferredVelocity.scl(getMaxLinearSpeed());
+        }
+
+        @Override
+        public Vector2 getPosition() {
+            return position;
+        }
+
+        @Override
+        public Vector2 getLinearVelocity() {
+            return linearVelocity;
+        }
+
+        @Override
+        public float getBoundingRadius() {
+            return 0.5f;
+        }
+
+        @Override
+        public float getMaxLinearSpeed() {
+            return 2;
+        }
+
+        @Override
+        public float getMaxLinearAcceleration() {
+            return 40;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.ai.steer.proximities;
+
+import com.badlogic.gdx.ai.DefaultTimepiece;
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.steer.Proximity;
+import com.badlogic.gdx.ai.steer.Proximity.ProximityCallback;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.ai.steer.SteerableAdapter;
+import com.badlogic.gdx.ai.steer.SteeringAcceleration;
+import com.badlogic.gdx.ai.steer.behaviors.Alignment;
+import com.badlogic.gdx.ai.steer.behaviors.BlendedSteering;
+import com.badlogic.gdx.ai.steer.behaviors.Cohesion;
+import com.badlogic.gdx.ai.steer.behaviors.Separation;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CachingProximityTest {
+
+    @Test
+    public void findNeighbors_WhenSharedByBehaviors_ExpectedOneScanPerFrameAndAllNeighborsReplayed() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        final Array<MyAgent> agents = new Array<>();
+        for (int i = 0; i < 5; i++)
+            agents.add(new MyAgent(new Vector2(i, 0), new Vector2()));
+        final RadiusProximity<Vector2> radiusProximity = new RadiusProximity<>(agents.get(0), agents, 3.5f);
+        final CachingProximity<Vector2> proximity = new CachingProximity<>(radiusProximity);
+
+        for (int frame = 1; frame <= 2; frame++) {
+            GdxAI.getTimepiece().update(0.1f);
+            // The first callback rejects an agent, the others must still be given it
+            final int firstCount = proximity.findNeighbors(new ProximityCallback<Vector2>() {
+                @Override
+                public boolean reportNeighbor(Steerable<Vector2> neighbor) {
+                    return neighbor != agents.get(2);
+                }
+            });
+            final Array<Steerable<Vector2>> reported = new Array<>();
+            final int secondCount = proximity.findNeighbors(collector(reported));
+            final int thirdCount = proximity.findNeighbors(collector(new Array<Steerable<Vector2>>()));
+
+            Assert.assertEquals("Unexpected first neighbor count", 2, firstCount);
+            Assert.assertEquals("Unexpected second neighbor count", 3, secondCount);
+            Assert.assertEquals("Unexpected third neighbor count", 3, thirdCount);
+            Assert.assertEquals("Unexpected neighbors", 3, reported.size);
+            Assert.assertTrue("Unexpected neighbors", reported.contains(agents.get(2), true));
+            Assert.assertEquals("Unexpected scan count", frame, proximity.getScanCount());
+            Assert.assertEquals("Unexpected saved scan count", frame * 2, proximity.getSavedScanCount());
+        }
+        Assert.assertSame("Unexpected owner", agents.get(0), proximity.getOwner());
+    }
+
+    @Test
+    public void calculateSteering_WhenFlockingBehaviorsShareCachingProximity_ExpectedSameSteeringAsSeparateProximities() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        final Random random = new Random(13);
+        final Array<MyAgent> agents = new Array<>();
+        for (int i = 0; i < 100; i++)
+            agents.add(new MyAgent(new Vector2(random.nextFloat() * 30, random.nextFloat() * 30),
+                    new Vector2(random.nextFloat() * 2 - 1, random.nextFloat() * 2 - 1)));
+
+        final Array<BlendedSteering<Vector2>> cachedFlocks = new Array<>();
+        final Array<BlendedSteering<Vector2>> separateFlocks = new Array<>();
+        final Array<CachingProximity<Vector2>> proximities = new Array<>();
+        for (MyAgent agent : agents) {
+            final CachingProximity<Vector2> proximity = new CachingProximity<Vector2>(new RadiusProximity<>(agent, agents, 4));
+            proximities.add(proximity);
+            cachedFlocks.add(flock(agent, proximity, proximity, proximity));
+            separateFlocks.add(flock(agent, new RadiusProximity<>(agent, agents, 4), new RadiusProximity<>(agent, agents, 4),
+                    new RadiusProximity<>(agent, agents, 4)));
+        }
+
+        final SteeringAcceleration<Vector2> expected = new SteeringAcceleration<>(new Vector2());
+        final SteeringAcceleration<Vector2> actual = new SteeringAcceleration<>(new Vector2());
+        for (int frame = 0; frame < 3; frame++) {
+            GdxAI.getTimepiece().update(0.1f);
+            for (int i = 0; i < agents.size; i++) {
+                separateFlocks.get(i).calculateSteering(expected);
+                cachedFlocks.get(i).calculateSteering(actual);
+                Assert.assertEquals("Unexpected linear x", expected.linear.x, actual.linear.x, 0);
+                Assert.assertEquals("Unexpected linear y", expected.linear.y, actual.linear.y, 0);
+            }
+        }
+        for (CachingProximity<Vector2> proximity : proximities) {
+            Assert.assertEquals("Unexpected scan count", 3, proximity.getScanCount());
+            Assert.assertEquals("Unexpected saved scan count", 6, proximity.getSavedScanCount());
+        }
+    }
+
+    private static BlendedSteering<Vector2> flock(MyAgent agent, Proximity<Vector2> separationProximity,
+                                                  Proximity<Vector2> cohesionProximity, Proximity<Vector2> alignmentProximity) {
+        return new BlendedSteering<>(agent)
+                .add(new Separation<>(agent, separationProximity), 2)
+                .add(new Cohesion<>(agent, cohesionProximity), 1)
+                .add(new Alignment<>(agent, alignmentProximity), 1);
+    }
+
+    private static ProximityCallback<Vector2> collector(final Array<Steerable<Vector2>> neighbors) {
+        return new ProximityCallback<Vector2>() {
+            @Override
+            public boolean reportNeighbor(Steerable<Vector2> neighbor) {
+                neighbors.add(neighbor);
+                return true;
+            }
+        };
+    }
+
+    private static class MyAgent extends SteerableAdapter<Vector2> {
+
+        final Vector2 position;
+        final Vector2 linearVelocity;
+
+        MyAgent(Vector2 position, Vector2 linearVelocity) {
+            this.position = position;
+            this.linearVelocity = linearVelocity;
+        }
+
+        @Override
+        public Vector2 getPosition() {
+            return position;
+        }
+
+        @Override
+        public Vector2 getLinearVelocity() {
+            return linearVelocity;
+        }
+
+        @Override
+        public float getMaxLinearAcceleration() {
+            return 10;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.ai.steer.proximities;
+
+import com.badlogic.gdx.ai.DefaultTimepiece;
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.steer.Proximity;
+import com.badlogic.gdx.ai.steer.Proximity.ProximityCallback;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.ai.steer.SteerableAdapter;
+import com.badlogic.gdx.math.Vector;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DynamicTreeProximityTest {
+
+    @Test
+    public void findNeighbors_WhenRadiiSpanTwoOrdersOfMagnitude_ExpectedSameNeighborsAsRadiusProximity() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        final Random random = new Random(3);
+        final Array<MyAgent<Vector2>> agents = new Array<>();
+        for (int i = 0; i < 300; i++)
+            agents.add(new MyAgent<>(new Vector2(random.nextFloat() * 200, random.nextFloat() * 200),
+                    i % 30 == 0 ? 20 + random.nextFloat() * 30 : 0.2f + random.nextFloat() * 0.3f));
+        final DynamicTree<Vector2> tree = new DynamicTree<>(agents, 1);
+
+        for (int frame = 0; frame < 5; frame++) {
+            GdxAI.getTimepiece().update(0.1f);
+            for (MyAgent<Vector2> agent : agents)
+                agent.position.add(random.nextFloat() * 3 - 1.5f, random.nextFloat() * 3 - 1.5f);
+
+            for (int i = 0; i < agents.size; i++) {
+                final MyAgent<Vector2> owner = agents.get(i);
+                Assert.assertEquals("Unexpected neighbors", neighbors(new RadiusProximity<>(owner, agents, 4)),
+                        neighbors(new DynamicTreeProximity<>(owner, tree, 4)));
+            }
+            assertValid(tree, agents);
+        }
+    }
+
+    @Test
+    public void findNeighbors_WhenAgentsAre3D_ExpectedSameNeighborsAsRadiusProximity() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        GdxAI.getTimepiece().update(0.1f);
+        final Random random = new Random(5);
+        final Array<MyAgent<Vector3>> agents = new Array<>();
+        for (int i = 0; i < 200; i++)
+            agents.add(new MyAgent<>(new Vector3(random.nextFloat() * 40, random.nextFloat() * 40, random.nextFloat() * 40),
+                    random.nextFloat() * 3));
+        final DynamicTree<Vector3> tree = new DynamicTree<>(agents, 0.5f);
+
+        for (int i = 0; i < agents.size; i++) {
+            final MyAgent<Vector3> owner = agents.get(i);
+            Assert.assertEquals("Unexpected neighbors", neighbors(new RadiusProximity<>(owner, agents, 5)),
+                    neighbors(new DynamicTreeProximity<>(owner, tree, 5)));
+        }
+        assertValid(tree, agents);
+    }
+
+    @Test
+    public void refit_WhenAgentsAreAddedAndRemoved_ExpectedBalancedTreeWithOneLeafPerAgent() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        final Random random = new Random(9);
+        final Array<MyAgent<Vector2>> agents = new Array<>();
+        final DynamicTree<Vector2> tree = new DynamicTree<>(agents, 0.5f);
+
+        // Agents on a line are the worst case for an unbalanced tree
+        for (int i = 0; i < 1000; i++) {
+            agents.add(new MyAgent<>(new Vector2(i, 0), 0.5f));
+            tree.refit();
+        }
+        assertValid(tree, agents);
+        Assert.assertTrue("Unexpected height " + tree.getHeight(), tree.getHeight() < 20);
+
+        for (int i = 0; i < 500; i++) {
+            agents.removeIndex(random.nextInt(agents.size));
+            tree.refit();
+        }
+        assertValid(tree, agents);
+
+        agents.clear();
+        tree.refit();
+        Assert.assertEquals("Unexpected root", DynamicTree.NULL, tree.root);
+    }
+
+    @Test
+    public void refit_WhenFirstAgentIsRemoved_ExpectedOtherLeavesKept() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        final Array<MyAgent<Vector2>> agents = new Array<>();
+        for (int i = 0; i < 100; i++)
+            agents.add(new MyAgent<>(new Vector2(i % 10, i / 10), 0.5f));
+        final DynamicTree<Vector2> tree = new DynamicTree<>(agents, 0.5f);
+        tree.refit();
+        final int[] leaves = new int[agents.size];
+        for (int i = 0; i < agents.size; i++)
+            leaves[i] = tree.agentLeaves.get(agents.get(i), DynamicTree.NULL);
+
+        final MyAgent<Vector2> removedAgent = agents.removeIndex(0);
+        tree.refit();
+
+        assertValid(tree, agents);
+        Assert.assertEquals("Unexpected leaf of removed agent", DynamicTree.NULL, tree.agentLeaves.get(removedAgent, DynamicTree.NULL));
+        Assert.assertNull("Unexpected agent of freed leaf", tree.leafAgents[leaves[0]]);
+        for (int i = 0; i < agents.size; i++)
+            Assert.assertEquals("Unexpected leaf", leaves[i + 1], tree.agentLeaves.get(agents.get(i), DynamicTree.NULL));
+    }
+
+    @Test
+    public void findNeighbors_WhenCallbackRejectsNeighbors_ExpectedOnlyAcceptedNeighborsReportedAgain() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        GdxAI.getTimepiece().update(0.1f);
+        final Array<MyAgent<Vector2>> agents = new Array<>();
+        for (int i = 0; i < 5; i++)
+            agents.add(new MyAgent<>(new Vector2(i, 0), 0));
+        final DynamicTreeProximity<Vector2> proximity = new DynamicTreeProximity<>(agents.get(0), new DynamicTree<>(agents, 0.1f),
+                3.5f);
+
+        final int firstCount = proximity.findNeighbors(new ProximityCallback<Vector2>() {
+            @Override
+            public boolean reportNeighbor(Steerable<Vector2> neighbor) {
+                return neighbor != agents.get(2);
+            }
+        });
+
+        Assert.assertEquals("Unexpected first neighbor count", 2, firstCount);
+        Assert.assertEquals("Unexpected neighbors", asSet(agents.get(1), agents.get(3)), neighbors(proximity));
+    }
+
+    /**
+     * Checks that each agent has a leaf whose box contains it and that each internal node encloses its children with the right
+     * height.
+     */
+    private static <T extends Vector<T>> void assertValid(DynamicTree<T> tree, Array<MyAgent<T>> agents) {
+        Assert.assertEquals("Unexpected leaf count", agents.size, tree.root == DynamicTree.NULL ? 0 : countLeaves(tree, tree.root));
+        Assert.assertEquals("Unexpected number of agent leaves", agents.size, tree.agentLeaves.size);
+        final float[] tight = new float[6];
+        for (int i = 0; i < agents.size; i++) {
+            final Steerable<T> agent = agents.get(i);
+            final int leaf = tree.agentLeaves.get(agent, DynamicTree.NULL);
+            Assert.assertTrue("Unexpected missing leaf", leaf != DynamicTree.NULL);
+            Assert.assertSame("Unexpected leaf agent", agent, tree.leafAgents[leaf]);
+            tree.setBounds(agent.getPosition(), agent.getBoundingRadius(), tight, 0);
+            for (int axis = 0; axis < 3; axis++) {
+                Assert.assertTrue("Unexpected leaf bounds", tree.bounds[leaf * 6 + axis] <= tight[axis]);
+                Assert.assertTrue("Unexpected leaf bounds", tree.bounds[leaf * 6 + 3 + axis] >= tight[3 + axis]);
+            }
+        }
+    }
+
+    private static <T extends Vector<T>> int countLeaves(DynamicTree<T> tree, int node) {
+        final int child1 = tree.children1[node], child2 = tree.children2[node];
+        if (child1 == DynamicTree.NULL) return 1;
+        Assert.assertEquals("Unexpected parent", node, tree.parents[child1]);
+        Assert.assertEquals("Unexpected parent", node, tree.parents[child2]);
+        Assert.assertEquals("Unexpected height", 1 + Math.max(tree.heights[child1], tree.heights[child2]), tree.heights[node]);
+        for (int axis = 0; axis < 3; axis++) {
+            Assert.assertTrue("Unexpected bounds", tree.bounds[node * 6 + axis] <= tree.bounds[child1 * 6 + axis]);
+            Assert.assertTrue("Unexpected bounds", tree.bounds[node * 6 + axis] <= tree.bounds[child2 * 6 + axis]);
+            Assert.assertTrue("Unexpected bounds", tree.bounds[node * 6 + 3 + axis] >= tree.bounds[child1 * 6 + 3 + axis]);
+            Assert.assertTrue("Unexpected bounds", tree.bounds[node * 6 + 3 + axis] >= tree.bounds[child2 * 6 + 3 + axis]);
+        }
+        return countLeaves(tree, child1) + countLeaves(tree, child2);
+    }
+
+    private static <T extends Vector<T>> Set<Steerable<T>> neighbors(Proximity<T> proximity) {
+        final Set<Steerable<T>> neighbors = new HashSet<>();
+        proximity.findNeighbors(new ProximityCallback<T>() {
+            @Override
+            public boolean reportNeighbor(Steerable<T> neighbor) {
+                neighbors.add(neighbor);
+                return true;
+            }
+        });
+        return neighbors;
+    }
+
+    @SafeVarargs
+    private static <T extends Vector<T>> Set<Steerable<T>> asSet(Steerable<T>... agents) {
+        final Set<Steerable<T>> set = new HashSet<>();
+        for (Steerable<T> agent : agents)
+            set.add(agent);
+        return set;
+    }
+
+    private static class MyAgent<T extends Vector<T>> extends SteerableAdapter<T> {
+
+        final T position;
+        final float boundingRadius;
+
+        MyAgent(T position, float boundingRadius) {
+            this.position = position;
+            this.boundingRadius = boundingRadius;
+        }
+
+        @Override
+        public T getPosition() {
+            return position;
+        }
+
+        @Override
+        public float getBoundingRadius() {
+            return boundingRadius;
+        }
+    }
+}
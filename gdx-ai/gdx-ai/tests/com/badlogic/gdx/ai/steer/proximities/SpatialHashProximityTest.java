@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.ai.steer.proximities;
+
+import com.badlogic.gdx.ai.DefaultTimepiece;
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.steer.Proximity;
+import com.badlogic.gdx.ai.steer.Proximity.ProximityCallback;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.ai.steer.SteerableAdapter;
+import com.badlogic.gdx.math.Vector;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpatialHashProximityTest {
+
+    @Test
+    public void findNeighbors_WhenAgentsAreRandom_ExpectedSameNeighborsAsRadiusProximity() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        final Random random = new Random(7);
+        final Array<MyAgent<Vector2>> agents = new Array<>();
+        for (int i = 0; i < 300; i++)
+            agents.add(new MyAgent<>(new Vector2(random.nextFloat() * 100 - 50, random.nextFloat() * 100 - 50),
+                    random.nextFloat(), random.nextFloat() * 6.3f));
+        final SpatialHashGrid<Vector2> grid = new SpatialHashGrid<>(agents, 8);
+
+        for (int frame = 0; frame < 3; frame++) {
+            GdxAI.getTimepiece().update(0.1f);
+            for (MyAgent<Vector2> agent : agents)
+                agent.position.add(random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2);
+
+            for (int i = 0; i < agents.size; i++) {
+                final MyAgent<Vector2> owner = agents.get(i);
+                Assert.assertEquals("Unexpected neighbors", neighbors(new RadiusProximity<>(owner, agents, 6)),
+                        neighbors(new SpatialHashProximity<>(owner, grid, 6)));
+                Assert.assertEquals("Unexpected neighbors", neighbors(new FieldOfViewProximity<>(owner, agents, 6, 2)),
+                        neighbors(new SpatialHashFieldOfViewProximity<>(owner, grid, 6, 2)));
+            }
+        }
+    }
+
+    @Test
+    public void findNeighbors_WhenAgentsAre3D_ExpectedSameNeighborsAsRadiusProximity() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        GdxAI.getTimepiece().update(0.1f);
+        final Random random = new Random(11);
+        final Array<MyAgent<Vector3>> agents = new Array<>();
+        for (int i = 0; i < 200; i++)
+            agents.add(new MyAgent<>(new Vector3(random.nextFloat() * 40 - 20, random.nextFloat() * 40 - 20,
+                    random.nextFloat() * 40 - 20), random.nextFloat(), 0));
+        final SpatialHashGrid<Vector3> grid = new SpatialHashGrid<>(agents, 5);
+
+        for (int i = 0; i < agents.size; i++) {
+            final MyAgent<Vector3> owner = agents.get(i);
+            Assert.assertEquals("Unexpected neighbors", neighbors(new RadiusProximity<>(owner, agents, 5)),
+                    neighbors(new SpatialHashProximity<>(owner, grid, 5)));
+        }
+    }
+
+    @Test
+    public void findNeighbors_WhenCalledTwiceOnSameFrame_ExpectedOnlyAcceptedNeighborsReportedAgain() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        GdxAI.getTimepiece().update(0.1f);
+        final Array<MyAgent<Vector2>> agents = new Array<>();
+        for (int i = 0; i < 5; i++)
+            agents.add(new MyAgent<>(new Vector2(i, 0), 0, 0));
+        final SpatialHashProximity<Vector2> proximity = new SpatialHashProximity<>(agents.get(0), new SpatialHashGrid<>(agents, 2),
+                3.5f);
+
+        final int firstCount = proximity.findNeighbors(new ProximityCallback<Vector2>() {
+            @Override
+            public boolean reportNeighbor(Steerable<Vector2> neighbor) {
+                return neighbor != agents.get(2);
+            }
+        });
+        final Set<Steerable<Vector2>> reported = new HashSet<>();
+        final int secondCount = proximity.findNeighbors(collector(reported));
+
+        Assert.assertEquals("Unexpected first neighbor count", 2, firstCount);
+        Assert.assertEquals("Unexpected second neighbor count", 2, secondCount);
+        Assert.assertEquals("Unexpected neighbors", asSet(agents.get(1), agents.get(3)), reported);
+    }
+
+    @Test
+    public void update_WhenAgentsAreAddedAndMoved_ExpectedGridFollowsAgentsOnNextFrame() {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        GdxAI.getTimepiece().update(0.1f);
+        final Array<MyAgent<Vector2>> agents = new Array<>();
+        agents.add(new MyAgent<>(new Vector2(0, 0), 0, 0));
+        agents.add(new MyAgent<>(new Vector2(100, 100), 0, 0));
+        final SpatialHashGrid<Vector2> grid = new SpatialHashGrid<>(agents, 4);
+        final SpatialHashProximity<Vector2> proximity = new SpatialHashProximity<>(agents.get(0), grid, 3);
+        Assert.assertEquals("Unexpected neighbors", new HashSet<Steerable<Vector2>>(), neighbors(proximity));
+
+        GdxAI.getTimepiece().update(0.1f);
+        agents.get(1).position.set(1, 1);
+        agents.add(new MyAgent<>(new Vector2(-2, 0), 0, 0));
+        Assert.assertEquals("Unexpected neighbors", asSet(agents.get(1), agents.get(2)), neighbors(proximity));
+    }
+
+    private static <T extends Vector<T>> Set<Steerable<T>> neighbors(Proximity<T> proximity) {
+        final Set<Steerable<T>> neighbors = new HashSet<>();
+        proximity.findNeighbors(collector(neighbors));
+        return neighbors;
+    }
+
+    private static <T extends Vector<T>> ProximityCallback<T> collector(final Set<Steerable<T>> neighbors) {
+        return new ProximityCallback<T>() {
+            @Override
+            public boolean reportNeighbor(Steerable<T> neighbor) {
+                neighbors.add(neighbor);
+                return true;
+            }
+        };
+    }
+
+    @SafeVarargs
+    private static <T extends Vector<T>> Set<Steerable<T>> asSet(Steerable<T>... agents) {
+        final Set<Steerable<T>> set = new HashSet<>();
+        for (Steerable<T> agent : agents)
+            set.add(agent);
+        return set;
+    }
+
+    private static class MyAgent<T extends Vector<T>> extends SteerableAdapter<T> {
+
+        final T position;
+        final float boundingRadius;
+        final float orientation;
+
+        MyAgent(T position, float boundingRadius, float orientation) {
+            this.position = position;
+            this.boundingRadius = boundingRadius;
+            this.orientation = orientation;
+        }
+
+        @Override
+        public T getPosition() {
+            return position;
+        }
+
+        @Override
+        public float getBoundingRadius() {
+            return boundingRadius;
+        }
+
+        @Override
+        public float getOrientation() {
+            return orientation;
+        }
+
+        @Override
+        public T angleToVector(T outVector, float angle) {
+            ((Vector2)outVector).set(-(float)Math.sin(angle), (float)Math.cos(angle));
+            return outVector;
+        }
+    }
+}
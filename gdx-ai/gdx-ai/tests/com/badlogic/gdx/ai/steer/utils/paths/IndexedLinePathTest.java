@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.ai.steer.utils.paths;
+
+import com.badlogic.gdx.ai.steer.utils.paths.LinePath.LinePathParam;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IndexedLinePathTest {
+
+    @Test
+    public void calculateDistance_WhenAgentsFollowRoad_ExpectedSameResultsAsLinePath() {
+        final Random random = new Random(5);
+        final Array<Vector2> waypoints = new Array<>();
+        for (int i = 0; i < 1000; i++)
+            waypoints.add(new Vector2(i * 2, (float)Math.sin(i * 0.05f) * 40 + random.nextFloat()));
+        final LinePath<Vector2> expected = new LinePath<>(waypoints, true);
+        final IndexedLinePath<Vector2> actual = new IndexedLinePath<>(waypoints, true);
+
+        // Agents walking along the road with coherent parameters, plus some teleporting far away
+        final LinePathParam expectedParam = expected.createParam();
+        final LinePathParam actualParam = actual.createParam();
+        final Vector2 position = new Vector2();
+        for (int i = 0; i < 3000; i++) {
+            if (i % 100 == 99)
+                position.set(random.nextFloat() * 4000 - 1000, random.nextFloat() * 400 - 200);
+            else
+                position.set(i * 0.66f, (float)Math.sin(i * 0.0165f) * 40 + random.nextFloat() * 10 - 5);
+            Assert.assertEquals("Unexpected distance", expected.calculateDistance(position, expectedParam),
+                    actual.calculateDistance(position, actualParam), 0);
+            Assert.assertEquals("Unexpected segment index", expectedParam.getSegmentIndex(), actualParam.getSegmentIndex());
+        }
+    }
+
+    @Test
+    public void calculateDistance_WhenPathIsClosedAnd3D_ExpectedSameResultsAsLinePath() {
+        final Random random = new Random(9);
+        final Array<Vector3> waypoints = new Array<>();
+        for (int i = 0; i < 300; i++)
+            waypoints.add(new Vector3(random.nextFloat() * 100, random.nextFloat() * 100, random.nextFloat() * 100));
+        final LinePath<Vector3> expected = new LinePath<>(waypoints);
+        final IndexedLinePath<Vector3> actual = new IndexedLinePath<>(waypoints);
+
+        final LinePathParam expectedParam = expected.createParam();
+        final LinePathParam actualParam = actual.createParam();
+        final Vector3 position = new Vector3();
+        for (int i = 0; i < 1000; i++) {
+            position.set(random.nextFloat() * 120 - 10, random.nextFloat() * 120 - 10, random.nextFloat() * 120 - 10);
+            Assert.assertEquals("Unexpected distance", expected.calculateDistance(position, expectedParam),
+                    actual.calculateDistance(position, actualParam), 0);
+            Assert.assertEquals("Unexpected segment index", expectedParam.getSegmentIndex(), actualParam.getSegmentIndex());
+        }
+    }
+
+    @Test
+    public void calculateTargetPosition_WhenDistanceIsAnywhere_ExpectedSameTargetAsLinePath() {
+        final Random random = new Random(3);
+        final Array<Vector2> waypoints = new Array<>();
+        for (int i = 0; i < 500; i++)
+            waypoints.add(new Vector2(random.nextFloat() * 100, random.nextFloat() * 100));
+        waypoints.add(waypoints.peek().cpy()); // zero length segment
+        for (boolean isOpen : new boolean[] {true, false}) {
+            final LinePath<Vector2> expected = new LinePath<>(waypoints, isOpen);
+            final IndexedLinePath<Vector2> actual = new IndexedLinePath<>(waypoints, isOpen);
+            final Vector2 expectedTarget = new Vector2();
+            final Vector2 actualTarget = new Vector2();
+            for (int i = 0; i < 1000; i++) {
+                final float distance = (random.nextFloat() * 3 - 1) * expected.getLength();
+                expected.calculateTargetPosition(expectedTarget, null, distance);
+                actual.calculateTargetPosition(actualTarget, null, distance);
+                Assert.assertEquals("Unexpected target x", expectedTarget.x, actualTarget.x, 0);
+                Assert.assertEquals("Unexpected target y", expectedTarget.y, actualTarget.y, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright 2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.ai.utils;
+
+import com.badlogic.gdx.math.Vector2;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SegmentBvhCollisionDetectorTest {
+
+    @Test
+    public void findCollision_WhenRaysAreRandom_ExpectedClosestWallFoundByBruteForce() {
+        final Random random = new Random(17);
+        final float[] walls = randomWalls(random, 500);
+        final SegmentBvhCollisionDetector detector = new SegmentBvhCollisionDetector(walls);
+        final Collision<Vector2> collision = new Collision<>(new Vector2(), new Vector2());
+        final Collision<Vector2> expected = new Collision<>(new Vector2(), new Vector2());
+
+        int collisionCount = 0;
+        for (int i = 0; i < 2000; i++) {
+            final Ray<Vector2> ray = randomRay(random);
+            final boolean expectedCollided = findCollisionByBruteForce(walls, expected, ray);
+            Assert.assertEquals("Unexpected collided", expectedCollided, detector.findCollision(collision, ray));
+            Assert.assertEquals("Unexpected collides", expectedCollided, detector.collides(ray));
+            if (expectedCollided) {
+                collisionCount++;
+                Assert.assertEquals("Unexpected point x", expected.point.x, collision.point.x, 1e-3f);
+                Assert.assertEquals("Unexpected point y", expected.point.y, collision.point.y, 1e-3f);
+                Assert.assertEquals("Unexpected normal x", expected.normal.x, collision.normal.x, 1e-3f);
+                Assert.assertEquals("Unexpected normal y", expected.normal.y, collision.normal.y, 1e-3f);
+            }
+        }
+        Assert.assertTrue("Unexpected collision count " + collisionCount, collisionCount > 100);
+    }
+
+    @Test
+    public void cast_WhenBatchIsAnsweredByBvhOrAdapter_ExpectedSameCollisionsAsPerRayDetector() {
+        final Random random = new Random(23);
+        final SegmentBvhCollisionDetector detector = new SegmentBvhCollisionDetector(randomWalls(random, 300));
+        final RaycastBatch<Vector2> batch = new RaycastBatch<>(detector);
+        final RaycastBatch<Vector2> adaptedBatch = new RaycastBatch<>(new RaycastCollisionDetectorAdapter<>(detector));
+        final Collision<Vector2> expected = new Collision<>(new Vector2(), new Vector2());
+
+        for (int frame = 0; frame < 3; frame++) {
+            batch.clear();
+            adaptedBatch.clear();
+            final Ray<Vector2>[] rays = randomRays(random, 100 + frame * 50);
+            for (Ray<Vector2> ray : rays)
+                Assert.assertEquals("Unexpected index", batch.submit(ray), adaptedBatch.submit(ray));
+            batch.cast();
+            adaptedBatch.cast();
+
+            Assert.assertEquals("Unexpected batch size", rays.length, batch.size());
+            for (int i = 0; i < rays.length; i++) {
+                final boolean collided = detector.findCollision(expected, rays[i]);
+                Assert.assertEquals("Unexpected collided", collided, batch.hasCollided(i));
+                Assert.assertEquals("Unexpected adapted collided", collided, adaptedBatch.hasCollided(i));
+                if (collided) {
+                    Assert.assertEquals("Unexpected point x", expected.point.x, batch.getCollision(i).point.x, 0);
+                    Assert.assertEquals("Unexpected point y", expected.point.y, batch.getCollision(i).point.y, 0);
+                    Assert.assertEquals("Unexpected adapted point x", expected.point.x, adaptedBatch.getCollision(i).point.x, 0);
+                    Assert.assertEquals("Unexpected adapted point y", expected.point.y, adaptedBatch.getCollision(i).point.y, 0);
+                }
+            }
+        }
+    }
+
+    private static float[] randomWalls(Random random, int wallCount) {
+        final float[] walls = new float[wallCount * 4];
+        for (int i = 0; i < wallCount; i++) {
+            final float x = random.nextFloat() * 200, y = random.nextFloat() * 200;
+            walls[i * 4] = x;
+            walls[i * 4 + 1] = y;
+            // Some walls are axis aligned, like those of buildings
+            walls[i * 4 + 2] = i % 3 == 0 ? x : x + random.nextFloat() * 20 - 10;
+            walls[i * 4 + 3] = i % 3 == 1 ? y : y + random.nextFloat() * 20 - 10;
+        }
+        return walls;
+    }
+
+    private static Ray<Vector2> randomRay(Random random) {
+        final Vector2 start = new Vector2(random.nextFloat() * 220 - 10, random.nextFloat() * 220 - 10);
+        return new Ray<>(start, start.cpy().add(random.nextFloat() * 30 - 15, random.nextFloat() * 30 - 15));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Ray<Vector2>[] randomRays(Random random, int rayCount) {
+        final Ray<Vector2>[] rays = new Ray[rayCount];
+        for (int i = 0; i < rayCount; i++)
+            rays[i] = randomRay(random);
+        return rays;
+    }
+
+    private static boolean findCollisionByBruteForce(float[] walls, Collision<Vector2> collision, Ray<Vector2> ray) {
+        final Vector2 direction = ray.end.cpy().sub(ray.start);
+        float closestT = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < walls.length; i += 4) {
+            final Vector2 wall = new Vector2(walls[i + 2] - walls[i], walls[i + 3] - walls[i + 1]);
+            final Vector2 toWall = new Vector2(walls[i] - ray.start.x, walls[i + 1] - ray.start.y);
+            final float denominator = direction.x * wall.y - direction.y * wall.x;
+            if (denominator == 0) continue;
+            final float t = (toWall.x * wall.y - toWall.y * wall.x) / denominator;
+            final float u = (toWall.x * direction.y - toWall.y * direction.x) / denominator;
+            if (t >= 0 && t <= 1 && u >= 0 && u <= 1 && t < closestT) {
+                closestT = t;
+                collision.point.set(direction).scl(t).add(ray.start);
+                collision.normal.set(-wall.y, wall.x).nor();
+                if (collision.normal.dot(direction) > 0) collision.normal.scl(-1);
+            }
+        }
+        return closestT != Float.POSITIVE_INFINITY;
+    }
+}
@@ -0,0 +1,87 @@
+package com.badlogic.gdx.ai.tests.msg.benchmarks;
+
+import com.badlogic.gdx.ai.DefaultTimepiece;
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.msg.HeapTelegramQueue;
+import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import com.badlogic.gdx.ai.msg.Telegram;
+import com.badlogic.gdx.ai.msg.TelegramQueue;
+import com.badlogic.gdx.ai.msg.Telegraph;
+import com.badlogic.gdx.ai.msg.TimingWheelTelegramQueue;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Compares the time spent by a {@link MessageDispatcher} on delayed telegrams with a {@link HeapTelegramQueue} and with a
+ * {@link TimingWheelTelegramQueue}, for 1k, 100k and 1M pending telegrams. Each dispatched telegram is sent again with a new random
+ * delay of up to 10 seconds, so the number of pending telegrams stays the same while frames go by. No libgdx application is needed
+ * to run it.
+ *
+ *
+ */
+public final class TelegramQueueBenchmark {
+
+    static final int[] PENDING_TELEGRAMS = {1000, 100000, 1000000};
+    static final int DISPATCHED_TELEGRAMS = 2000000;
+    static final float MAX_DELAY = 10;
+    static final float DELTA_TIME = 1f / 60f;
+
+    public static void main(String[] args) {
+        for (int round = 0; round < 2; round++) { // The first round is a warm up
+            for (int pendingTelegrams : PENDING_TELEGRAMS) {
+                long heapTime = run(new HeapTelegramQueue(), pendingTelegrams);
+                long timingWheelTime = run(new TimingWheelTelegramQueue(DELTA_TIME), pendingTelegrams);
+                if (round == 0) continue;
+                System.out.println(pendingTelegrams + " pending telegrams, time per dispatched telegram: heap "
+                        + heapTime / DISPATCHED_TELEGRAMS + " ns, timing wheel " + timingWheelTime / DISPATCHED_TELEGRAMS + " ns");
+            }
+        }
+    }
+
+    /**
+     * Keeps the given number of telegrams pending in a dispatcher using the given queue until enough telegrams have been dispatched,
+     * and returns the total time in nanoseconds spent sending and dispatching them.
+     */
+    static long run(TelegramQueue queue, int pendingTelegrams) {
+        MathUtils.random.setSeed(1234);
+        DefaultTimepiece timepiece = new DefaultTimepiece();
+        GdxAI.setTimepiece(timepiece);
+        Pool<Telegram> pool = new Pool<Telegram>(pendingTelegrams) {
+            @Override
+            protected Telegram newObject() {
+                return new Telegram();
+            }
+        };
+        MessageDispatcher dispatcher = new MessageDispatcher(pool, queue);
+        Resender resender = new Resender(dispatcher);
+        for (int i = 0; i < pendingTelegrams; i++)
+            dispatcher.dispatchMessage(MathUtils.random(DELTA_TIME, MAX_DELAY), null, resender, i);
+
+        long start = TimeUtils.nanoTime();
+        while (resender.dispatchedTelegrams < DISPATCHED_TELEGRAMS) {
+            timepiece.update(DELTA_TIME);
+            dispatcher.update();
+        }
+        return TimeUtils.nanoTime() - start;
+    }
+
+    /**
+     * Sends every telegram it receives again with a new random delay.
+     */
+    static class Resender implements Telegraph {
+        final MessageDispatcher dispatcher;
+        int dispatchedTelegrams;
+
+        Resender(MessageDispatcher dispatcher) {
+            this.dispatcher = dispatcher;
+        }
+
+        @Override
+        public boolean handleMessage(Telegram msg) {
+            dispatchedTelegrams++;
+            dispatcher.dispatchMessage(MathUtils.random(DELTA_TIME, MAX_DELAY), null, this, msg.message);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.badlogic.gdx.ai.tests.pfa.benchmarks;
+
+import com.badlogic.gdx.ai.pfa.CachingPathFinder;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.PathFinder;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.tests.pfa.tests.tiled.TiledManhattanDistance;
+import com.badlogic.gdx.ai.tests.pfa.tests.tiled.TiledNode;
+import com.badlogic.gdx.ai.tests.pfa.tests.tiled.flat.FlatTiledGraph;
+import com.badlogic.gdx.ai.tests.pfa.tests.tiled.flat.FlatTiledNode;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Compares the throughput of repeated {@link IndexedAStarPathFinder} queries on a flat tiled map with and without a
+ * {@link CachingPathFinder}. Queries are drawn from a small set of start and end nodes, like agents travelling between a few
+ * points of interest. No libgdx application is needed to run it.
+ *
+ *
+ */
+public final class CachingPathFinderBenchmark {
+
+    static final int POINTS_OF_INTEREST = 16;
+    static final int QUERIES = 100000;
+
+    public static void main(String[] args) {
+        MathUtils.random.setSeed(1234);
+        FlatTiledGraph worldMap = new FlatTiledGraph();
+        worldMap.init(MathUtils.random(80, 150), 3, 15, 100);
+        worldMap.diagonal = true;
+
+        Array<FlatTiledNode> floor = new Array<FlatTiledNode>();
+        for (int i = 0; i < worldMap.getNodeCount(); i++) {
+            FlatTiledNode node = worldMap.getNode(i);
+            if (node.type == TiledNode.TILE_FLOOR) floor.add(node);
+        }
+        Array<FlatTiledNode> points = new Array<FlatTiledNode>();
+        for (int i = 0; i < POINTS_OF_INTEREST; i++)
+            points.add(floor.random());
+
+        int[] queries = new int[QUERIES * 2];
+        for (int i = 0; i < queries.length; i++)
+            queries[i] = MathUtils.random(POINTS_OF_INTEREST - 1);
+
+        IndexedAStarPathFinder<FlatTiledNode> aStar = new IndexedAStarPathFinder<FlatTiledNode>(worldMap);
+        CachingPathFinder<FlatTiledNode> cache = new CachingPathFinder<FlatTiledNode>(worldMap, aStar, 512);
+
+        for (int round = 0; round < 2; round++) { // The first round is a warm up
+            double aStarRate = run(aStar, points, queries);
+            cache.invalidateAll();
+            cache.statistics.reset();
+            double cacheRate = run(cache, points, queries);
+            if (round == 0) continue;
+            System.out.printf("IndexedAStarPathFinder: %10.0f queries/s%n", aStarRate);
+            System.out.printf("CachingPathFinder:      %10.0f queries/s (%.1fx), hits %d, misses %d, evictions %d%n", cacheRate,
+                    cacheRate / aStarRate, cache.statistics.hits, cache.statistics.misses, cache.statistics.evictions);
+        }
+    }
+
+    private static double run(PathFinder<FlatTiledNode> pathFinder, Array<FlatTiledNode> points, int[] queries) {
+        TiledManhattanDistance<FlatTiledNode> heuristic = new TiledManhattanDistance<FlatTiledNode>();
+        DefaultGraphPath<FlatTiledNode> path = new DefaultGraphPath<FlatTiledNode>();
+        long start = TimeUtils.nanoTime();
+        for (int i = 0; i < queries.length; i += 2) {
+            path.clear();
+            pathFinder.searchNodePath(points.get(queries[i]), points.get(queries[i + 1]), heuristic, path);
+        }
+        long elapsed = TimeUtils.nanoTime() - start;
+        return queries.length / 2 / (elapsed / 1e9);
+    }
+}
@@ -0,0 +1,86 @@
+package com.badlogic.gdx.ai.tests.pfa.benchmarks;
+
+import com.badlogic.gdx.ai.pfa.ConcurrentPathFinderService;
+import com.badlogic.gdx.ai.pfa.ConcurrentPathFinderService.PathFinderFactory;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.PathFinder;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.tests.pfa.tests.tiled.TiledManhattanDistance;
+import com.badlogic.gdx.ai.tests.pfa.tests.tiled.TiledNode;
+import com.badlogic.gdx.ai.tests.pfa.tests.tiled.flat.FlatTiledGraph;
+import com.badlogic.gdx.ai.tests.pfa.tests.tiled.flat.FlatTiledNode;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Measures the throughput of a {@link ConcurrentPathFinderService} serving random requests on a flat tiled map with an increasing
+ * number of worker threads. No libgdx application is needed to run it.
+ *
+ *
+ */
+public final class ConcurrentPathFinderBenchmark {
+
+    static final int REQUESTS = 20000;
+
+    public static void main(String[] args) {
+        MathUtils.random.setSeed(1234);
+        final FlatTiledGraph worldMap = new FlatTiledGraph();
+        worldMap.init(MathUtils.random(80, 150), 3, 15, 100);
+        worldMap.diagonal = true; // Uniform costs, so connections never read the mutable start node
+
+        Array<FlatTiledNode> floor = new Array<FlatTiledNode>();
+        for (int i = 0; i < worldMap.getNodeCount(); i++) {
+            FlatTiledNode node = worldMap.getNode(i);
+            if (node.type == TiledNode.TILE_FLOOR) floor.add(node);
+        }
+
+        TiledManhattanDistance<FlatTiledNode> heuristic = new TiledManhattanDistance<FlatTiledNode>();
+        Array<PathFinderRequest<FlatTiledNode>> requests = new Array<PathFinderRequest<FlatTiledNode>>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            requests.add(new PathFinderRequest<FlatTiledNode>(floor.random(), floor.random(), heuristic,
+                    new DefaultGraphPath<FlatTiledNode>(), null));
+        }
+
+        PathFinderFactory<FlatTiledNode> factory = new PathFinderFactory<FlatTiledNode>() {
+            @Override
+            public PathFinder<FlatTiledNode> newPathFinder() {
+                return new IndexedAStarPathFinder<FlatTiledNode>(worldMap);
+            }
+        };
+
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        double singleThreadRate = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            run(factory, requests, threads); // Warm up
+            double rate = run(factory, requests, threads);
+            if (threads == 1) singleThreadRate = rate;
+            System.out.printf("%2d thread(s): %10.0f requests/s, speedup %.2fx%n", threads, rate, rate / singleThreadRate);
+        }
+    }
+
+    private static double run(PathFinderFactory<FlatTiledNode> factory, Array<PathFinderRequest<FlatTiledNode>> requests,
+                              int threads) {
+        ConcurrentPathFinderService<FlatTiledNode> service = new ConcurrentPathFinderService<FlatTiledNode>(factory, threads);
+        final int[] completed = {0};
+        service.callback = new ConcurrentPathFinderService.Callback<FlatTiledNode>() {
+            @Override
+            public void requestCompleted(PathFinderRequest<FlatTiledNode> request) {
+                completed[0]++;
+            }
+        };
+
+        long start = TimeUtils.nanoTime();
+        for (PathFinderRequest<FlatTiledNode> request : requests) {
+            request.resultPath.clear();
+            service.submit(request, null);
+        }
+        while (completed[0] < requests.size)
+            service.update();
+        long elapsed = TimeUtils.nanoTime() - start;
+
+        service.dispose();
+        return requests.size / (elapsed / 1e9);
+    }
+}
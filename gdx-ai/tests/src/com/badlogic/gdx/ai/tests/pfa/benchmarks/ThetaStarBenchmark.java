@@ -0,0 +1,105 @@
+package com.badlogic.gdx.ai.tests.pfa.benchmarks;
+
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.PathSmoother;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.pfa.indexed.ThetaStarPathFinder;
+import com.badlogic.gdx.ai.pfa.indexed.ThetaStarPathFinder.NodeLocator;
+import com.badlogic.gdx.ai.tests.pfa.tests.tiled.TiledNode;
+import com.badlogic.gdx.ai.tests.pfa.tests.tiled.TiledRaycastCollisionDetector;
+import com.badlogic.gdx.ai.tests.pfa.tests.tiled.TiledSmoothableGraphPath;
+import com.badlogic.gdx.ai.tests.pfa.tests.tiled.flat.FlatTiledGraph;
+import com.badlogic.gdx.ai.tests.pfa.tests.tiled.flat.FlatTiledNode;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Compares the total length and the time of the any-angle paths found by {@link ThetaStarPathFinder} against the paths found by
+ * {@link IndexedAStarPathFinder} and then smoothed by a {@link PathSmoother} on a flat tiled map. No libgdx application is needed
+ * to run it.
+ *
+ *
+ */
+public final class ThetaStarBenchmark {
+
+    static final int QUERIES = 2000;
+
+    public static void main(String[] args) {
+        MathUtils.random.setSeed(1234);
+        FlatTiledGraph worldMap = new FlatTiledGraph();
+        worldMap.init(MathUtils.random(80, 150), 3, 15, 100);
+        worldMap.diagonal = true; // Every connection costs 1, which is the distance between adjacent tiles
+
+        Array<FlatTiledNode> floor = new Array<FlatTiledNode>();
+        for (int i = 0; i < worldMap.getNodeCount(); i++) {
+            FlatTiledNode node = worldMap.getNode(i);
+            if (node.type == TiledNode.TILE_FLOOR) floor.add(node);
+        }
+        FlatTiledNode[] queries = new FlatTiledNode[QUERIES * 2];
+        for (int i = 0; i < queries.length; i++)
+            queries[i] = floor.random();
+
+        TiledRaycastCollisionDetector<FlatTiledNode> detector = new TiledRaycastCollisionDetector<FlatTiledNode>(worldMap);
+        IndexedAStarPathFinder<FlatTiledNode> aStar = new IndexedAStarPathFinder<FlatTiledNode>(worldMap);
+        PathSmoother<FlatTiledNode, Vector2> smoother = new PathSmoother<FlatTiledNode, Vector2>(detector);
+        ThetaStarPathFinder<FlatTiledNode, Vector2> thetaStar = new ThetaStarPathFinder<FlatTiledNode, Vector2>(worldMap,
+                new NodeLocator<FlatTiledNode, Vector2>() {
+                    final Vector2 position = new Vector2();
+
+                    @Override
+                    public Vector2 getNodePosition(FlatTiledNode node) {
+                        return position.set(node.x, node.y);
+                    }
+                }, detector);
+        // Theta* needs a heuristic that never overestimates the straight-line distance
+        Heuristic<FlatTiledNode> heuristic = new Heuristic<FlatTiledNode>() {
+            @Override
+            public float estimate(FlatTiledNode node, FlatTiledNode endNode) {
+                return Vector2.dst(node.x, node.y, endNode.x, endNode.y);
+            }
+        };
+
+        for (int round = 0; round < 2; round++) { // The first round is a warm up
+            TiledSmoothableGraphPath<FlatTiledNode> smoothedPath = new TiledSmoothableGraphPath<FlatTiledNode>();
+            float smoothedLength = 0;
+            long start = TimeUtils.nanoTime();
+            for (int i = 0; i < queries.length; i += 2) {
+                smoothedPath.clear();
+                if (aStar.searchNodePath(queries[i], queries[i + 1], heuristic, smoothedPath)) {
+                    smoother.smoothPath(smoothedPath);
+                    smoothedLength += length(smoothedPath);
+                }
+            }
+            long smoothedTime = TimeUtils.nanoTime() - start;
+
+            DefaultGraphPath<FlatTiledNode> thetaStarPath = new DefaultGraphPath<FlatTiledNode>();
+            float thetaStarLength = 0;
+            start = TimeUtils.nanoTime();
+            for (int i = 0; i < queries.length; i += 2) {
+                thetaStarPath.clear();
+                if (thetaStar.searchNodePath(queries[i], queries[i + 1], heuristic, thetaStarPath))
+                    thetaStarLength += length(thetaStarPath);
+            }
+            long thetaStarTime = TimeUtils.nanoTime() - start;
+
+            if (round == 0) continue;
+            System.out.printf("A* + PathSmoother: total length %10.1f, %8.1f us/query%n", smoothedLength,
+                    smoothedTime / 1000.0 / QUERIES);
+            System.out.printf("Theta*:            total length %10.1f, %8.1f us/query (%.1f%% shorter)%n", thetaStarLength,
+                    thetaStarTime / 1000.0 / QUERIES, (1 - thetaStarLength / smoothedLength) * 100);
+        }
+    }
+
+    private static float length(GraphPath<FlatTiledNode> path) {
+        float length = 0;
+        for (int i = 1; i < path.getCount(); i++) {
+            FlatTiledNode from = path.get(i - 1), to = path.get(i);
+            length += Vector2.dst(from.x, from.y, to.x, to.y);
+        }
+        return length;
+    }
+}
@@ -0,0 +1,146 @@
+package com.badlogic.gdx.ai.tests.steer.benchmarks;
+
+import com.badlogic.gdx.ai.DefaultTimepiece;
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.steer.ParallelSteeringExecutor;
+import com.badlogic.gdx.ai.steer.ParallelSteeringExecutor.SteeringApplier;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.ai.steer.SteerableAdapter;
+import com.badlogic.gdx.ai.steer.SteeringAcceleration;
+import com.badlogic.gdx.ai.steer.behaviors.Alignment;
+import com.badlogic.gdx.ai.steer.behaviors.Arrive;
+import com.badlogic.gdx.ai.steer.behaviors.BlendedSteering;
+import com.badlogic.gdx.ai.steer.behaviors.Cohesion;
+import com.badlogic.gdx.ai.steer.behaviors.PrioritySteering;
+import com.badlogic.gdx.ai.steer.behaviors.Separation;
+import com.badlogic.gdx.ai.steer.proximities.SpatialHashGrid;
+import com.badlogic.gdx.ai.steer.proximities.SpatialHashProximity;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how the {@link ParallelSteeringExecutor} scales with the number of threads on a flock of 10000 agents, each steered by
+ * a {@link PrioritySteering} of separation and of a {@link BlendedSteering} of cohesion, alignment and arrive. It also checks that
+ * every run ends with the same positions as the serial one. No libgdx application is needed to run it.
+ *
+ *
+ */
+public final class ParallelSteeringBenchmark {
+
+    static final int AGENTS = 10000;
+    static final int FRAMES = 20;
+    static final float DELTA_TIME = 1 / 60f;
+
+    static final SteeringApplier<Vector2> APPLIER = new SteeringApplier<Vector2>() {
+        @Override
+        public void applySteering(Steerable<Vector2> agent, SteeringAcceleration<Vector2> steering, float deltaTime) {
+            BenchmarkAgent benchmarkAgent = (BenchmarkAgent)agent;
+            benchmarkAgent.position.mulAdd(benchmarkAgent.linearVelocity, deltaTime);
+            benchmarkAgent.linearVelocity.mulAdd(steering.linear, deltaTime).limit(benchmarkAgent.getMaxLinearSpeed());
+        }
+    };
+
+    public static void main(String[] args) {
+        int[] threadCounts = {0, 1, 2, 4, 8};
+        for (int round = 0; round < 2; round++) { // The first round is a warm up
+            float[] serialPositions = null;
+            long serialTime = 0;
+            for (int threadCount : threadCounts) {
+                ForkJoinPool pool = threadCount == 0 ? null : new ForkJoinPool(threadCount);
+                float[] positions = new float[AGENTS * 2];
+                long time = run(pool, positions);
+                if (pool != null) pool.shutdown();
+                if (serialPositions == null) {
+                    serialPositions = positions;
+                    serialTime = time;
+                }
+                if (round == 0) continue;
+                System.out.println((threadCount == 0 ? "serial" : threadCount + " threads") + ", time per frame: " + time / FRAMES
+                        / 1000 + " us, speedup " + (float)serialTime / time + ", same result as serial: "
+                        + Arrays.equals(serialPositions, positions));
+            }
+        }
+    }
+
+    /**
+     * Steers the flock for a few frames on the given pool, stores the final positions and returns the total time in nanoseconds.
+     */
+    static long run(ForkJoinPool pool, float[] positions) {
+        MathUtils.random.setSeed(1234);
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        float worldSize = (float)Math.sqrt(AGENTS) * 4;
+        BenchmarkAgent target = new BenchmarkAgent(worldSize / 2, worldSize / 2);
+        Array<BenchmarkAgent> agents = new Array<BenchmarkAgent>(AGENTS);
+        for (int i = 0; i < AGENTS; i++)
+            agents.add(new BenchmarkAgent(MathUtils.random(worldSize), MathUtils.random(worldSize)));
+
+        SpatialHashGrid<Vector2> grid = new SpatialHashGrid<Vector2>(agents, 4);
+        ParallelSteeringExecutor<Vector2> executor = new ParallelSteeringExecutor<Vector2>(pool);
+        for (BenchmarkAgent agent : agents) {
+            SpatialHashProximity<Vector2> proximity = new SpatialHashProximity<Vector2>(agent, grid, 2);
+            BlendedSteering<Vector2> flocking = new BlendedSteering<Vector2>(agent) //
+                .add(new Cohesion<Vector2>(agent, proximity), 0.5f) //
+                .add(new Alignment<Vector2>(agent, proximity), 1) //
+                .add(new Arrive<Vector2>(agent, target).setArrivalTolerance(1).setDecelerationRadius(10), 0.5f);
+            PrioritySteering<Vector2> behavior = new PrioritySteering<Vector2>(agent, 0.1f) //
+                .add(new Separation<Vector2>(agent, proximity)) //
+                .add(flocking);
+            executor.add(agent, behavior);
+        }
+
+        long time = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            GdxAI.getTimepiece().update(DELTA_TIME);
+            grid.update();
+            long start = TimeUtils.nanoTime();
+            executor.update(APPLIER, DELTA_TIME);
+            time += TimeUtils.nanoTime() - start;
+        }
+
+        for (int i = 0; i < AGENTS; i++) {
+            positions[i * 2] = agents.get(i).position.x;
+            positions[i * 2 + 1] = agents.get(i).position.y;
+        }
+        return time;
+    }
+
+    static class BenchmarkAgent extends SteerableAdapter<Vector2> {
+        final Vector2 position;
+        final Vector2 linearVelocity;
+
+        BenchmarkAgent(float x, float y) {
+            this.position = new Vector2(x, y);
+            this.linearVelocity = new Vector2();
+        }
+
+        @Override
+        public Vector2 getPosition() {
+            return position;
+        }
+
+        @Override
+        public Vector2 getLinearVelocity() {
+            return linearVelocity;
+        }
+
+        @Override
+        public float getBoundingRadius() {
+            return 0.3f;
+        }
+
+        @Override
+        public float getMaxLinearSpeed() {
+            return 5;
+        }
+
+        @Override
+        public float getMaxLinearAcceleration() {
+            return 20;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.badlogic.gdx.ai.tests.steer.benchmarks;
+
+import com.badlogic.gdx.ai.DefaultTimepiece;
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.steer.Proximity;
+import com.badlogic.gdx.ai.steer.Proximity.ProximityCallback;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.ai.steer.SteerableAdapter;
+import com.badlogic.gdx.ai.steer.proximities.DynamicTree;
+import com.badlogic.gdx.ai.steer.proximities.DynamicTreeProximity;
+import com.badlogic.gdx.ai.steer.proximities.RadiusProximity;
+import com.badlogic.gdx.ai.steer.proximities.SpatialHashGrid;
+import com.badlogic.gdx.ai.steer.proximities.SpatialHashProximity;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Compares the time spent finding the neighbors of every agent on each frame with {@link RadiusProximity},
+ * {@link SpatialHashProximity} and {@link DynamicTreeProximity}, for 100, 1000 and 10000 moving agents whose bounding radii span two
+ * orders of magnitude. The density of the agents is the same for all the counts. No libgdx application is needed to run it.
+ *
+ *
+ */
+public final class ProximityBenchmark {
+
+    static final int FRAMES = 10;
+    static final float RADIUS = 5;
+
+    public static void main(String[] args) {
+        int[] agentCounts = {100, 1000, 10000};
+        for (int round = 0; round < 2; round++) { // The first round is a warm up
+            for (int agentCount : agentCounts) {
+                long radiusTime = run(agentCount, 0);
+                long spatialHashTime = run(agentCount, 1);
+                long dynamicTreeTime = run(agentCount, 2);
+                if (round == 0) continue;
+                System.out.println(agentCount + " agents, time per frame: RadiusProximity " + radiusTime / FRAMES / 1000
+                        + " us, SpatialHashProximity " + spatialHashTime / FRAMES / 1000 + " us, DynamicTreeProximity "
+                        + dynamicTreeTime / FRAMES / 1000 + " us");
+            }
+        }
+    }
+
+    /**
+     * Moves the given number of agents for a few frames, finding the neighbors of all of them on each frame with the given kind of
+     * proximity, and returns the total time in nanoseconds.
+     */
+    static long run(int agentCount, int proximityType) {
+        MathUtils.random.setSeed(1234);
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        float worldSize = (float)Math.sqrt(agentCount) * 10;
+        Array<BenchmarkAgent> agents = new Array<BenchmarkAgent>(agentCount);
+        for (int i = 0; i < agentCount; i++) {
+            // One agent out of 50 is huge
+            float boundingRadius = i % 50 == 0 ? MathUtils.random(20f, 50f) : MathUtils.random(0.25f, 0.5f);
+            agents.add(new BenchmarkAgent(MathUtils.random(worldSize), MathUtils.random(worldSize), boundingRadius));
+        }
+
+        SpatialHashGrid<Vector2> grid = new SpatialHashGrid<Vector2>(agents, RADIUS * 2);
+        DynamicTree<Vector2> tree = new DynamicTree<Vector2>(agents, 1);
+        Array<Proximity<Vector2>> proximities = new Array<Proximity<Vector2>>(agentCount);
+        for (BenchmarkAgent agent : agents) {
+            if (proximityType == 0)
+                proximities.add(new RadiusProximity<Vector2>(agent, agents, RADIUS));
+            else if (proximityType == 1)
+                proximities.add(new SpatialHashProximity<Vector2>(agent, grid, RADIUS));
+            else
+                proximities.add(new DynamicTreeProximity<Vector2>(agent, tree, RADIUS));
+        }
+
+        NeighborCounter counter = new NeighborCounter();
+        long time = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            GdxAI.getTimepiece().update(1 / 60f);
+            for (BenchmarkAgent agent : agents)
+                agent.position.add(MathUtils.random(-0.3f, 0.3f), MathUtils.random(-0.3f, 0.3f));
+            long start = TimeUtils.nanoTime();
+            for (Proximity<Vector2> proximity : proximities)
+                proximity.findNeighbors(counter);
+            time += TimeUtils.nanoTime() - start;
+        }
+        return time;
+    }
+
+    static class NeighborCounter implements ProximityCallback<Vector2> {
+        long count;
+
+        @Override
+        public boolean reportNeighbor(Steerable<Vector2> neighbor) {
+            count++;
+            return true;
+        }
+    }
+
+    static class BenchmarkAgent extends SteerableAdapter<Vector2> {
+        final Vector2 position;
+        final float boundingRadius;
+
+        BenchmarkAgent(float x, float y, float boundingRadius) {
+            this.position = new Vector2(x, y);
+            this.boundingRadius = boundingRadius;
+        }
+
+        @Override
+        public Vector2 getPosition() {
+            return position;
+        }
+
+        @Override
+        public float getBoundingRadius() {
+            return boundingRadius;
+        }
+    }
+}
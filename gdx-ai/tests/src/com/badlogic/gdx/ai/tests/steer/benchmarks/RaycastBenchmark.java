@@ -0,0 +1,158 @@
+package com.badlogic.gdx.ai.tests.steer.benchmarks;
+
+import com.badlogic.gdx.ai.steer.SteerableAdapter;
+import com.badlogic.gdx.ai.steer.SteeringAcceleration;
+import com.badlogic.gdx.ai.steer.behaviors.RaycastObstacleAvoidance;
+import com.badlogic.gdx.ai.steer.utils.rays.CentralRayWithWhiskersConfiguration;
+import com.badlogic.gdx.ai.utils.Collision;
+import com.badlogic.gdx.ai.utils.Ray;
+import com.badlogic.gdx.ai.utils.RaycastBatch;
+import com.badlogic.gdx.ai.utils.RaycastCollisionDetector;
+import com.badlogic.gdx.ai.utils.SegmentBvhCollisionDetector;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Compares the time spent by {@link RaycastObstacleAvoidance} on each frame for 500 agents with three-ray whiskers among 2000
+ * walls, when the rays are cast one by one by a detector testing all the walls, one by one by a
+ * {@link SegmentBvhCollisionDetector}, and all at once by a {@link RaycastBatch} answered by the same detector. No libgdx
+ * application is needed to run it.
+ *
+ *
+ */
+public final class RaycastBenchmark {
+
+    static final int AGENTS = 500;
+    static final int WALLS = 2000;
+    static final int FRAMES = 20;
+
+    public static void main(String[] args) {
+        MathUtils.random.setSeed(1234);
+        float[] walls = new float[WALLS * 4];
+        for (int i = 0; i < walls.length; i += 4) {
+            walls[i] = MathUtils.random(500f);
+            walls[i + 1] = MathUtils.random(500f);
+            walls[i + 2] = walls[i] + MathUtils.random(-10f, 10f);
+            walls[i + 3] = walls[i + 1] + MathUtils.random(-10f, 10f);
+        }
+        RaycastCollisionDetector<Vector2> bruteForceDetector = new BruteForceCollisionDetector(walls);
+        SegmentBvhCollisionDetector bvhDetector = new SegmentBvhCollisionDetector(walls);
+
+        for (int round = 0; round < 5; round++) { // The first rounds are a warm up
+            long bruteForceTime = run(bruteForceDetector, null);
+            long bvhTime = run(bvhDetector, null);
+            long batchTime = run(bvhDetector, new RaycastBatch<Vector2>(bvhDetector));
+            if (round < 4) continue;
+            System.out.println(AGENTS + " agents, " + WALLS + " walls, time per frame: brute force " + bruteForceTime / FRAMES / 1000
+                    + " us, BVH " + bvhTime / FRAMES / 1000 + " us, BVH batch " + batchTime / FRAMES / 1000 + " us");
+        }
+    }
+
+    /**
+     * Calculates the steering of all the agents for a few frames, submitting their rays to the given batch if any, and returns the
+     * total time in nanoseconds.
+     */
+    static long run(RaycastCollisionDetector<Vector2> detector, RaycastBatch<Vector2> batch) {
+        MathUtils.random.setSeed(5678);
+        Array<RaycastObstacleAvoidance<Vector2>> behaviors = new Array<RaycastObstacleAvoidance<Vector2>>(AGENTS);
+        for (int i = 0; i < AGENTS; i++) {
+            BenchmarkAgent agent = new BenchmarkAgent(MathUtils.random(500f), MathUtils.random(500f));
+            behaviors.add(new RaycastObstacleAvoidance<Vector2>(agent,
+                    new CentralRayWithWhiskersConfiguration<Vector2>(agent, 8, 4, 0.6f), detector, 1));
+        }
+
+        SteeringAcceleration<Vector2> steering = new SteeringAcceleration<Vector2>(new Vector2());
+        long time = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            long start = TimeUtils.nanoTime();
+            if (batch != null) {
+                batch.clear();
+                for (RaycastObstacleAvoidance<Vector2> behavior : behaviors)
+                    behavior.submitRays(batch);
+                batch.cast();
+            }
+            for (RaycastObstacleAvoidance<Vector2> behavior : behaviors)
+                behavior.calculateSteering(steering);
+            time += TimeUtils.nanoTime() - start;
+        }
+        return time;
+    }
+
+    static class BruteForceCollisionDetector implements RaycastCollisionDetector<Vector2> {
+        final float[] walls;
+
+        BruteForceCollisionDetector(float[] walls) {
+            this.walls = walls;
+        }
+
+        @Override
+        public boolean collides(Ray<Vector2> ray) {
+            return findCollision(null, ray);
+        }
+
+        @Override
+        public boolean findCollision(Collision<Vector2> outputCollision, Ray<Vector2> inputRay) {
+            float directionX = inputRay.end.x - inputRay.start.x, directionY = inputRay.end.y - inputRay.start.y;
+            float closestT = 1;
+            int closestWall = -1;
+            for (int i = 0; i < walls.length; i += 4) {
+                float wallX = walls[i + 2] - walls[i], wallY = walls[i + 3] - walls[i + 1];
+                float denominator = directionX * wallY - directionY * wallX;
+                if (denominator == 0) continue;
+                float toWallX = walls[i] - inputRay.start.x, toWallY = walls[i + 1] - inputRay.start.y;
+                float t = (toWallX * wallY - toWallY * wallX) / denominator;
+                float u = (toWallX * directionY - toWallY * directionX) / denominator;
+                if (t >= 0 && t < closestT && u >= 0 && u <= 1) {
+                    closestT = t;
+                    closestWall = i;
+                }
+            }
+            if (closestWall < 0) return false;
+            if (outputCollision != null) {
+                outputCollision.point.set(inputRay.start).add(directionX * closestT, directionY * closestT);
+                outputCollision.normal.set(walls[closestWall + 1] - walls[closestWall + 3],
+                        walls[closestWall + 2] - walls[closestWall]).nor();
+                if (outputCollision.normal.x * directionX + outputCollision.normal.y * directionY > 0)
+                    outputCollision.normal.scl(-1);
+            }
+            return true;
+        }
+    }
+
+    static class BenchmarkAgent extends SteerableAdapter<Vector2> {
+        final Vector2 position;
+        final Vector2 linearVelocity;
+
+        BenchmarkAgent(float x, float y) {
+            this.position = new Vector2(x, y);
+            this.linearVelocity = new Vector2(MathUtils.random(-1f, 1f), MathUtils.random(-1f, 1f));
+        }
+
+        @Override
+        public Vector2 getPosition() {
+            return position;
+        }
+
+        @Override
+        public Vector2 getLinearVelocity() {
+            return linearVelocity;
+        }
+
+        @Override
+        public float getMaxLinearAcceleration() {
+            return 10;
+        }
+
+        @Override
+        public float vectorToAngle(Vector2 vector) {
+            return (float)Math.atan2(-vector.x, vector.y);
+        }
+
+        @Override
+        public Vector2 angleToVector(Vector2 outVector, float angle) {
+            return outVector.set(-(float)Math.sin(angle), (float)Math.cos(angle));
+        }
+    }
+}
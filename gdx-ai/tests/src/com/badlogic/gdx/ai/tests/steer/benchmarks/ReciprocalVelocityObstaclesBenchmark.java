@@ -0,0 +1,127 @@
+package com.badlogic.gdx.ai.tests.steer.benchmarks;
+
+import com.badlogic.gdx.ai.DefaultTimepiece;
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.steer.SteerableAdapter;
+import com.badlogic.gdx.ai.steer.SteeringAcceleration;
+import com.badlogic.gdx.ai.steer.behaviors.ReciprocalVelocityObstacles;
+import com.badlogic.gdx.ai.steer.proximities.SpatialHashGrid;
+import com.badlogic.gdx.ai.steer.proximities.SpatialHashProximity;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Measures the time per frame spent by {@link ReciprocalVelocityObstacles} on two crowds of 2500 agents, 10 deep, each walking
+ * through the other, and counts the agents found overlapping. No libgdx application is needed to run it.
+ *
+ *
+ */
+public final class ReciprocalVelocityObstaclesBenchmark {
+
+    static final int AGENTS = 5000;
+    static final int FRAMES = 1200;
+    static final float DELTA_TIME = 1 / 30f;
+    static final int COLUMNS = 10;
+    static final float RADIUS = 0.5f;
+
+    public static void main(String[] args) {
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        Array<BenchmarkAgent> agents = new Array<BenchmarkAgent>(AGENTS);
+        for (int i = 0; i < AGENTS; i++) {
+            // Two interleaved blocks of agents walking towards each other
+            int side = i % 2;
+            int row = (i / 2) / COLUMNS;
+            int column = (i / 2) % COLUMNS;
+            float x = (side == 0 ? -1 : 1) * (5 + column * 3);
+            float y = row * 3 + side * 1.5f;
+            agents.add(new BenchmarkAgent(new Vector2(x, y), new Vector2(-x, y)));
+        }
+
+        SpatialHashGrid<Vector2> grid = new SpatialHashGrid<Vector2>(agents, 4);
+        Array<ReciprocalVelocityObstacles> behaviors = new Array<ReciprocalVelocityObstacles>(AGENTS);
+        for (BenchmarkAgent agent : agents)
+            behaviors.add(new ReciprocalVelocityObstacles(agent, new SpatialHashProximity<Vector2>(agent, grid, 3), 10, 2)
+                    .setPreferredVelocity(agent.preferredVelocity));
+
+        SteeringAcceleration<Vector2> steering = new SteeringAcceleration<Vector2>(new Vector2());
+        long time = 0;
+        long maxFrameTime = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            GdxAI.getTimepiece().update(DELTA_TIME);
+            for (BenchmarkAgent agent : agents)
+                agent.updatePreferredVelocity();
+            long start = TimeUtils.nanoTime();
+            for (int i = 0; i < AGENTS; i++) {
+                BenchmarkAgent agent = agents.get(i);
+                behaviors.get(i).calculateSteering(steering);
+                agent.nextVelocity.set(agent.linearVelocity).mulAdd(steering.linear, DELTA_TIME).limit(agent.getMaxLinearSpeed());
+            }
+            long frameTime = TimeUtils.nanoTime() - start;
+            time += frameTime;
+            maxFrameTime = Math.max(maxFrameTime, frameTime);
+            for (BenchmarkAgent agent : agents) {
+                agent.linearVelocity.set(agent.nextVelocity);
+                agent.position.mulAdd(agent.linearVelocity, DELTA_TIME);
+            }
+        }
+
+        int overlaps = 0;
+        int arrived = 0;
+        for (int i = 0; i < AGENTS; i++) {
+            BenchmarkAgent agent = agents.get(i);
+            if (agent.position.dst(agent.goal) < 1) arrived++;
+            for (int j = i + 1; j < AGENTS; j++)
+                if (agent.position.dst2(agents.get(j).position) < 4 * RADIUS * RADIUS * 0.81f) overlaps++;
+        }
+        System.out.println(AGENTS + " agents, time per frame: average " + time / FRAMES / 1000 + " us, max " + maxFrameTime / 1000
+                + " us, arrived " + arrived + ", overlapping pairs at the end " + overlaps);
+    }
+
+    static class BenchmarkAgent extends SteerableAdapter<Vector2> {
+        final Vector2 position;
+        final Vector2 goal;
+        final Vector2 linearVelocity;
+        final Vector2 nextVelocity;
+        final Vector2 preferredVelocity;
+
+        BenchmarkAgent(Vector2 position, Vector2 goal) {
+            this.position = position;
+            this.goal = goal;
+            this.linearVelocity = new Vector2();
+            this.nextVelocity = new Vector2();
+            this.preferredVelocity = new Vector2();
+        }
+
+        void updatePreferredVelocity() {
+            preferredVelocity.set(goal).sub(position);
+            if (preferredVelocity.len2() > 1) preferredVelocity.nor();
+            preferredVelocity.scl(getMaxLinearSpeed());
+        }
+
+        @Override
+        public Vector2 getPosition() {
+            return position;
+        }
+
+        @Override
+        public Vector2 getLinearVelocity() {
+            return linearVelocity;
+        }
+
+        @Override
+        public float getBoundingRadius() {
+            return RADIUS;
+        }
+
+        @Override
+        public float getMaxLinearSpeed() {
+            return 2;
+        }
+
+        @Override
+        public float getMaxLinearAcceleration() {
+            return 40;
+        }
+    }
+}